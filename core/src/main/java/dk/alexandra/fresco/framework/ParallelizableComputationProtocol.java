@@ -0,0 +1,57 @@
+package dk.alexandra.fresco.framework;
+
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Native protocol whose rounds consist of a sequential part, which communicates and uses shared
+ * resources, and a local computation which can be evaluated concurrently with the computations of
+ * other protocols of the same batch.
+ * <p>
+ * Each round is split into three steps. {@link #prepare(int, ResourcePool, Network)} is called on
+ * the evaluating thread in protocol order, and is where the protocol receives messages and
+ * consumes preprocessed material. {@link #compute(int, ResourcePool)} may then be called on any
+ * thread and must only do local computation on the state of the protocol itself. Finally
+ * {@link #finish(int, ResourcePool, Network)} is again called on the evaluating thread in protocol
+ * order, and is where the protocol sends messages and updates shared state such as opened value
+ * stores.
+ * </p>
+ * <p>
+ * Implementations should evaluate a round in {@link NativeProtocol#evaluate(int, ResourcePool,
+ * Network)} by calling the three steps in order, so that strategies that do not know about this
+ * interface evaluate the protocol exactly as strategies that do.
+ * </p>
+ *
+ * @param <ResourcePoolT> The resource pool of the protocol
+ */
+public interface ParallelizableComputationProtocol<ResourcePoolT extends ResourcePool> {
+
+  /**
+   * Runs the sequential part of a round that must happen before the local computation.
+   *
+   * @param round the round to evaluate
+   * @param resourcePool the resource pool
+   * @param network the network to receive from
+   */
+  void prepare(int round, ResourcePoolT resourcePool, Network network);
+
+  /**
+   * Runs the local computation of a round. May be called on a different thread than the other
+   * steps, and concurrently with the computations of other protocols.
+   *
+   * @param round the round to evaluate
+   * @param resourcePool the resource pool, which must only be read
+   */
+  void compute(int round, ResourcePoolT resourcePool);
+
+  /**
+   * Runs the sequential part of a round that must happen after the local computation.
+   *
+   * @param round the round to evaluate
+   * @param resourcePool the resource pool
+   * @param network the network to send on
+   * @return the evaluation status of the protocol after this round
+   */
+  EvaluationStatus finish(int round, ResourcePoolT resourcePool, Network network);
+}
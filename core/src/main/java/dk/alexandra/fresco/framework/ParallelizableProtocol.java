@@ -0,0 +1,16 @@
+package dk.alexandra.fresco.framework;
+
+/**
+ * Marker interface for native protocols whose rounds can be evaluated concurrently with other
+ * protocols of the same batch.
+ * <p>
+ * A protocol may only implement this interface if the evaluation of each of its rounds does not
+ * depend on the order in which it is evaluated relative to the other protocols of the batch. In
+ * particular it must not consume preprocessed material, push values to shared stores or otherwise
+ * mutate state of the resource pool. Sending and receiving through the protocol network is allowed,
+ * since evaluation strategies are expected to keep the network traffic in protocol order.
+ * </p>
+ */
+public interface ParallelizableProtocol {
+
+}
@@ -8,7 +8,7 @@ import dk.alexandra.fresco.lib.helper.LazyProtocolProducerDecorator;
 import dk.alexandra.fresco.lib.helper.ParallelProtocolProducer;
 import dk.alexandra.fresco.lib.helper.SequentialProtocolProducer;
 import dk.alexandra.fresco.lib.helper.SingleProtocolProducer;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public abstract class ProtocolBuilderImpl<BuilderT extends ProtocolBuilderImpl<BuilderT>>
@@ -22,7 +22,7 @@ public abstract class ProtocolBuilderImpl<BuilderT extends ProtocolBuilderImpl<B
       BuilderFactory<BuilderT> factory,
       boolean parallel) {
     this.parallel = parallel;
-    this.protocols = new LinkedList<>();
+    this.protocols = new ArrayList<>();
     this.factory = factory;
   }
 
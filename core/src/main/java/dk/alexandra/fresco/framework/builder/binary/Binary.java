@@ -3,6 +3,8 @@ package dk.alexandra.fresco.framework.builder.binary;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SBool;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for the basic operations which any binary protocol suite needs to implement.
@@ -52,6 +54,24 @@ public interface Binary extends ComputationDirectory {
    */
   DRes<Boolean> open(DRes<SBool> toOpen, int towardsPartyId);
 
+  /**
+   * Opens (aka. reveals) a list of SBools to all parties.
+   * <p>
+   * The default implementation simply calls {@link #open(DRes)} for each value. Protocol suites may
+   * override this to open all values in a single native protocol.
+   * </p>
+   *
+   * @param toOpen The SBools to open.
+   * @return A deferred result computing the list of values that the SBools represented.
+   */
+  default DRes<List<DRes<Boolean>>> open(List<DRes<SBool>> toOpen) {
+    List<DRes<Boolean>> opened = new ArrayList<>(toOpen.size());
+    for (DRes<SBool> value : toOpen) {
+      opened.add(open(value));
+    }
+    return () -> opened;
+  }
+
   /**
    * Basic AND operation.
    * 
@@ -61,6 +81,29 @@ public interface Binary extends ComputationDirectory {
    */
   DRes<SBool> and(DRes<SBool> left, DRes<SBool> right);
 
+  /**
+   * Computes the AND of two lists of SBools pairwise.
+   * <p>
+   * The default implementation simply calls {@link #and(DRes, DRes)} for each pair. Protocol suites
+   * may override this to evaluate all AND operations in a single native protocol.
+   * </p>
+   *
+   * @param left The left AND arguments
+   * @param right The right AND arguments, must have the same size as left
+   * @return A deferred result computing the list of <code>left[i] AND right[i]</code>.
+   */
+  default DRes<List<DRes<SBool>>> and(List<DRes<SBool>> left, List<DRes<SBool>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + left.size() + " and " + right.size());
+    }
+    List<DRes<SBool>> result = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      result.add(and(left.get(i), right.get(i)));
+    }
+    return () -> result;
+  }
+
   /**
    * XOR basic operation. Returns the wire resulting from this operation.
    * 
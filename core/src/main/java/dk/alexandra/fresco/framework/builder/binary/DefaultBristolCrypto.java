@@ -2,12 +2,20 @@ package dk.alexandra.fresco.framework.builder.binary;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.value.SBool;
-import dk.alexandra.fresco.lib.helper.bristol.BristolCircuitParser;
+import dk.alexandra.fresco.lib.helper.bristol.BristolCircuit;
+import dk.alexandra.fresco.lib.helper.bristol.BristolCircuitEvaluator;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultBristolCrypto implements BristolCrypto {
 
+  /**
+   * The bundled circuits are compiled the first time they are used and then reused.
+   */
+  private static final Map<String, BristolCircuit> circuits = new ConcurrentHashMap<>();
+
   private ProtocolBuilderBinary builder;
 
   protected DefaultBristolCrypto(ProtocolBuilderBinary builder) {
@@ -17,52 +25,46 @@ public class DefaultBristolCrypto implements BristolCrypto {
   @Override
   public DRes<List<SBool>> mult32x32(List<DRes<SBool>> in1,
       List<DRes<SBool>> in2) {
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/mult_32x32.txt", in1, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/mult_32x32.txt", in1, in2);
   }
 
   @Override
   public DRes<List<SBool>> AES(List<DRes<SBool>> plainText,
       List<DRes<SBool>> keyMaterial) {
-    BristolCircuitParser parser = BristolCircuitParser
-        .readCircuitDescription("circuits/AES-non-expanded.txt", plainText, keyMaterial);
-    return builder.seq(parser);
+    return evaluate("circuits/AES-non-expanded.txt", plainText, keyMaterial);
   }
 
   @Override
   public DRes<List<SBool>> SHA1(List<DRes<SBool>> input) {
     // empty list since the parser will only use input1 as inputs.
     List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/sha-1.txt", input, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/sha-1.txt", input, in2);
   }
 
   @Override
   public DRes<List<SBool>> DES(List<DRes<SBool>> plainText,
       List<DRes<SBool>> keyMaterial) {
-    BristolCircuitParser parser = BristolCircuitParser
-        .readCircuitDescription("circuits/DES-non-expanded.txt", plainText, keyMaterial);
-    return builder.seq(parser);
+    return evaluate("circuits/DES-non-expanded.txt", plainText, keyMaterial);
   }
 
   @Override
   public DRes<List<SBool>> SHA256(List<DRes<SBool>> input) {
     // empty list since the parser will only use input1 as inputs.
     List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/sha-256.txt", input, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/sha-256.txt", input, in2);
   }
 
   @Override
   public DRes<List<SBool>> MD5(List<DRes<SBool>> input) {
     // empty list since the parser will only use input1 as inputs.
     List<DRes<SBool>> in2 = new ArrayList<>();
-    BristolCircuitParser parser =
-        BristolCircuitParser.readCircuitDescription("circuits/md5.txt", input, in2);
-    return builder.seq(parser);
+    return evaluate("circuits/md5.txt", input, in2);
   }
 
+  private DRes<List<SBool>> evaluate(String path, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2) {
+    BristolCircuit circuit =
+        circuits.computeIfAbsent(path, BristolCircuit::readCircuitDescription);
+    return builder.seq(new BristolCircuitEvaluator(circuit, in1, in2));
+  }
 }
@@ -1,6 +1,6 @@
 package dk.alexandra.fresco.framework.builder.numeric;
 
-import dk.alexandra.fresco.framework.util.TransposeUtils;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
@@ -30,13 +30,28 @@ public interface Addable<T> {
    * Adds up elements in each column.
    *
    * @param rows rows to be added up
-   * @return sum of rows
+   * @return sum of rows, or an empty list if there are no rows
    */
+  @SuppressWarnings("unchecked")
   static <A extends Addable<A>> List<A> sumRows(List<List<A>> rows) {
-    List<List<A>> tilted = TransposeUtils.transpose(rows);
-    List<A> sums = new ArrayList<>(tilted.size());
-    for (List<A> row : tilted) {
-      sums.add(sum(row));
+    if (rows.isEmpty()) {
+      return new ArrayList<>();
+    }
+    if (rows.size() > 1 && rows.stream().allMatch(row -> row instanceof FieldElementVector)) {
+      // vectors are summed in bulk without creating an object per entry
+      FieldElementVector sums =
+          ((FieldElementVector) rows.get(0)).add((FieldElementVector) rows.get(1));
+      for (int i = 2; i < rows.size(); i++) {
+        sums.accumulate((FieldElementVector) rows.get(i));
+      }
+      return (List<A>) sums;
+    }
+    List<A> sums = new ArrayList<>(rows.get(0));
+    for (int i = 1; i < rows.size(); i++) {
+      List<A> row = rows.get(i);
+      for (int j = 0; j < sums.size(); j++) {
+        sums.set(j, sums.get(j).add(row.get(j)));
+      }
     }
     return sums;
   }
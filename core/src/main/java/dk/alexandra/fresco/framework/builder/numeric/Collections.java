@@ -123,6 +123,59 @@ public interface Collections extends ComputationDirectory {
       DRes<List<T>> conditions,
       DRes<Matrix<T>> mat);
 
+  // Search
+
+  /**
+   * Looks up the value corresponding to <code>lookUpKey</code> in a table. The keys of the table
+   * must be distinct.
+   *
+   * @param lookUpKey the key to look up
+   * @param keys the distinct keys of the table
+   * @param values the values corresponding to each key
+   * @param notFoundValue the value to return if the key is not present
+   * @return the value of the matching key, or notFoundValue if there is none
+   */
+  DRes<SInt> lookUp(DRes<SInt> lookUpKey, List<DRes<SInt>> keys, List<DRes<SInt>> values,
+      DRes<SInt> notFoundValue);
+
+  /**
+   * Looks up the values corresponding to each of the <code>lookUpKeys</code> in a table. The keys
+   * of the table must be distinct.
+   *
+   * @param lookUpKeys the keys to look up
+   * @param keys the distinct keys of the table
+   * @param values the values corresponding to each key
+   * @param notFoundValue the value to return for keys which are not present
+   * @return for each lookup key the value of the matching key, or notFoundValue if there is none
+   */
+  DRes<List<DRes<SInt>>> lookUp(List<DRes<SInt>> lookUpKeys, List<DRes<SInt>> keys,
+      List<DRes<SInt>> values, DRes<SInt> notFoundValue);
+
+  // Sorting
+
+  /**
+   * Sorts the rows of <code>values</code> in ascending order of the values in column
+   * <code>keyColumn</code> using a sorting network, so nothing is leaked.
+   *
+   * @param values rows to sort
+   * @param keyColumn the column to sort by
+   * @return sorted rows
+   */
+  DRes<Matrix<DRes<SInt>>> sort(DRes<Matrix<DRes<SInt>>> values, int keyColumn);
+
+  /**
+   * Sorts the rows of <code>values</code> in ascending order of the values in column
+   * <code>keyColumn</code> by shuffling the rows and sorting them using opened comparisons. This
+   * uses fewer comparisons than {@link #sort(DRes, int)} for large inputs. <br> NOTE: the values
+   * in column <code>keyColumn</code> must be distinct, otherwise equality of keys is leaked, and
+   * the number of rows must be a power of 2.
+   *
+   * @param values rows to sort
+   * @param keyColumn the column to sort by
+   * @return sorted rows
+   */
+  DRes<Matrix<DRes<SInt>>> shuffleSort(DRes<Matrix<DRes<SInt>>> values, int keyColumn);
+
   // Permutations
 
   /**
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
+import java.util.List;
 
 /**
  * Interface for comparing numeric values.
@@ -35,6 +36,17 @@ public interface Comparison extends ComputationDirectory {
    */
   DRes<SInt> compareLEQ(DRes<SInt> x1, DRes<SInt> x2);
 
+  /**
+   * Computes if x1_i <= x2_i for all pairs of inputs. The comparisons are done together, so the
+   * number of rounds is the same as for a single comparison.
+   *
+   * @param x1 inputs
+   * @param x2 inputs, must have the same size as <code>x1</code>
+   * @return A deferred result computing x1_i <= x2_i for each i. Each result will be either [1]
+   *     (true) or [0] (false).
+   */
+  DRes<List<DRes<SInt>>> compareLEQ(List<DRes<SInt>> x1, List<DRes<SInt>> x2);
+
   /**
    * Compares if x1 <= x2, but with twice the possible bit-length.
    * Requires that the maximum bit length is set to something that can handle
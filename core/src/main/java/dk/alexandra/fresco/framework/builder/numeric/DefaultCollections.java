@@ -4,6 +4,7 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.RowPairD;
 import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.collections.InnerProductLookUp;
 import dk.alexandra.fresco.lib.collections.Matrix;
 import dk.alexandra.fresco.lib.collections.io.CloseList;
 import dk.alexandra.fresco.lib.collections.io.CloseMatrix;
@@ -14,6 +15,8 @@ import dk.alexandra.fresco.lib.collections.io.OpenRowPair;
 import dk.alexandra.fresco.lib.collections.permute.PermuteRows;
 import dk.alexandra.fresco.lib.collections.relational.MiMCAggregation;
 import dk.alexandra.fresco.lib.collections.shuffle.ShuffleRows;
+import dk.alexandra.fresco.lib.collections.sort.OddEvenMergeSortRows;
+import dk.alexandra.fresco.lib.collections.sort.ShuffleSortRows;
 import dk.alexandra.fresco.lib.conditional.ConditionalSelectRow;
 import dk.alexandra.fresco.lib.conditional.SwapNeighborsIf;
 import dk.alexandra.fresco.lib.conditional.SwapRowsIf;
@@ -90,6 +93,29 @@ public class DefaultCollections implements Collections {
     return builder.par(new SwapNeighborsIf<>(conditions, rows));
   }
 
+  @Override
+  public DRes<SInt> lookUp(DRes<SInt> lookUpKey, List<DRes<SInt>> keys,
+      List<DRes<SInt>> values, DRes<SInt> notFoundValue) {
+    return builder.seq(new InnerProductLookUp(java.util.Collections.singletonList(lookUpKey), keys,
+        values, notFoundValue)).seq((seq, result) -> result.get(0));
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> lookUp(List<DRes<SInt>> lookUpKeys, List<DRes<SInt>> keys,
+      List<DRes<SInt>> values, DRes<SInt> notFoundValue) {
+    return builder.seq(new InnerProductLookUp(lookUpKeys, keys, values, notFoundValue));
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SInt>>> sort(DRes<Matrix<DRes<SInt>>> values, int keyColumn) {
+    return builder.seq(new OddEvenMergeSortRows(values, keyColumn));
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SInt>>> shuffleSort(DRes<Matrix<DRes<SInt>>> values, int keyColumn) {
+    return builder.seq(new ShuffleSortRows(values, keyColumn));
+  }
+
   @Override
   public DRes<Matrix<DRes<SInt>>> permute(DRes<Matrix<DRes<SInt>>> values, int[] idxPerm) {
     return builder
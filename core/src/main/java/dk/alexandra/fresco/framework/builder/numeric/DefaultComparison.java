@@ -4,8 +4,10 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.compare.eq.Equality;
 import dk.alexandra.fresco.lib.compare.gt.LessThanOrEquals;
+import dk.alexandra.fresco.lib.compare.gt.LessThanOrEqualsList;
 import dk.alexandra.fresco.lib.compare.zerotest.ZeroTest;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Default way of producing the protocols within the interface. This default class can be
@@ -52,6 +54,13 @@ public class DefaultComparison implements Comparison {
         new LessThanOrEquals(bitLength, magicSecureNumber, x, y));
   }
 
+  @Override
+  public DRes<List<DRes<SInt>>> compareLEQ(List<DRes<SInt>> x, List<DRes<SInt>> y) {
+    int bitLength = factoryNumeric.getBasicNumericContext().getMaxBitLength();
+    return builder.seq(
+        new LessThanOrEqualsList(bitLength, magicSecureNumber, x, y));
+  }
+
   @Override
   public DRes<SInt> sign(DRes<SInt> x) {
     Numeric input = builder.numeric();
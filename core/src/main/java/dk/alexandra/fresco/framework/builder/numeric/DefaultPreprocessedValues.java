@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.BuildStep;
 import dk.alexandra.fresco.framework.value.SInt;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -55,4 +56,24 @@ public class DefaultPreprocessedValues implements PreprocessedValues {
       });
     }
   }
+
+  @Override
+  public DRes<TruncationPair> getTruncationPair(int shifts) {
+    int bitLength = builder.getBasicNumericContext().getMaxBitLength();
+    if (shifts < 1 || shifts > bitLength) {
+      throw new IllegalArgumentException(
+          "Shifts must be between 1 and the maximum bit length, was " + shifts);
+    }
+    return builder.seq(seq -> seq.advancedNumeric().additiveMask(bitLength)).seq((seq, mask) -> {
+      // rBottom = r (mod 2^shifts)
+      DRes<SInt> rBottom = seq.advancedNumeric().innerProductWithPublicPart(
+          seq.getBigIntegerHelper().getTwoPowersList(shifts), mask.bits.subList(0, shifts));
+      // r - rBottom is divisible by 2^shifts, so multiplying with the inverse in the field
+      // corresponds to shifting
+      BigInteger inverse =
+          BigInteger.ONE.shiftLeft(shifts).modInverse(seq.getBasicNumericContext().getModulus());
+      DRes<SInt> rShifted = seq.numeric().mult(inverse, seq.numeric().sub(mask.random, rBottom));
+      return () -> new TruncationPair(mask.random, rShifted.out());
+    });
+  }
 }
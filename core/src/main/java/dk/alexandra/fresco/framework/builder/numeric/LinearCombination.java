@@ -0,0 +1,124 @@
+package dk.alexandra.fresco.framework.builder.numeric;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+/**
+ * A lazily evaluated result of a local linear operation on secret shared values, such as an
+ * addition or a multiplication by a public constant.
+ * <p>
+ * Linear operations require no communication, so instead of appending a native protocol for each
+ * of them a protocol suite can return a {@link LinearCombination}. The operation is then computed
+ * the first time {@link #out()} is called, which happens when a communicating protocol or an
+ * application needs the value. The result is cached, so shared sub-expressions are only computed
+ * once, and evaluation does not recurse, so long chains of additions are supported.
+ * </p>
+ * <p>
+ * As for any other deferred value, {@link #out()} must not be called before the operands have
+ * been evaluated.
+ * </p>
+ * <p>
+ * Combinations may be shared between protocols evaluated on different threads. Each combination
+ * is computed while holding its own lock, and only one lock is held at a time, so concurrent calls
+ * to {@link #out()} compute every combination exactly once.
+ * </p>
+ */
+public final class LinearCombination implements DRes<SInt> {
+
+  private DRes<SInt> left;
+  private DRes<SInt> right;
+  private BinaryOperator<SInt> operation;
+  private volatile SInt value;
+
+  private LinearCombination(DRes<SInt> left, DRes<SInt> right,
+      BinaryOperator<SInt> operation) {
+    this.left = Objects.requireNonNull(left);
+    this.right = right;
+    this.operation = Objects.requireNonNull(operation);
+  }
+
+  /**
+   * Creates a deferred result of a local operation on two values.
+   *
+   * @param left the left operand
+   * @param right the right operand
+   * @param operation the operation computing the result from the operands
+   * @return the deferred result
+   */
+  public static DRes<SInt> of(DRes<SInt> left, DRes<SInt> right,
+      BinaryOperator<SInt> operation) {
+    return new LinearCombination(left, Objects.requireNonNull(right), operation);
+  }
+
+  /**
+   * Creates a deferred result of a local operation on a single value.
+   *
+   * @param operand the operand
+   * @param operation the operation computing the result from the operand
+   * @return the deferred result
+   */
+  public static DRes<SInt> of(DRes<SInt> operand, UnaryOperator<SInt> operation) {
+    Objects.requireNonNull(operation);
+    return new LinearCombination(operand, null, (value, ignored) -> operation.apply(value));
+  }
+
+  @Override
+  public SInt out() {
+    if (value == null) {
+      evaluate();
+    }
+    return value;
+  }
+
+  /**
+   * Evaluates this and all unevaluated combinations it depends on, using an explicit stack
+   * instead of recursion.
+   */
+  private void evaluate() {
+    Deque<LinearCombination> pending = new ArrayDeque<>();
+    pending.push(this);
+    while (!pending.isEmpty()) {
+      LinearCombination current = pending.peek();
+      synchronized (current) {
+        if (current.value == null) {
+          boolean leftReady = isReady(current.left, pending);
+          boolean rightReady = current.right == null || isReady(current.right, pending);
+          if (!leftReady || !rightReady) {
+            continue;
+          }
+          current.compute();
+        }
+        pending.pop();
+      }
+    }
+  }
+
+  /**
+   * Computes the value from the operands, which must all be evaluated. Must be called while
+   * holding the lock of this combination.
+   */
+  private void compute() {
+    SInt rightValue = right == null ? null : right.out();
+    value = Objects.requireNonNull(operation.apply(left.out(), rightValue));
+    // the operands are no longer needed and should not be kept alive
+    left = null;
+    right = null;
+    operation = null;
+  }
+
+  private static boolean isReady(DRes<SInt> operand, Deque<LinearCombination> pending) {
+    if (operand instanceof LinearCombination) {
+      LinearCombination combination = (LinearCombination) operand;
+      if (combination.value == null) {
+        pending.push(combination);
+        return false;
+      }
+    }
+    return true;
+  }
+}
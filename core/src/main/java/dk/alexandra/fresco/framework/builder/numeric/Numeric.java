@@ -4,6 +4,8 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Basic interface for numeric applications. This is the interface which an arithmetic protocol
@@ -104,6 +106,29 @@ public interface Numeric extends ComputationDirectory {
     return mult(BigInteger.valueOf(a), b);
   }
 
+  /**
+   * Multiplies two lists of secret values pairwise and returns the list of products.
+   * <p>
+   * The default implementation simply calls {@link #mult(DRes, DRes)} for each pair. Protocol
+   * suites may override this to evaluate all multiplications in a single native protocol.
+   * </p>
+   *
+   * @param a Secret values 1
+   * @param b Secret values 2, must have the same size as a
+   * @return A deferred result computing the list of a[i]*b[i]
+   */
+  default DRes<List<DRes<SInt>>> mult(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    if (a.size() != b.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + a.size() + " and " + b.size());
+    }
+    List<DRes<SInt>> products = new ArrayList<>(a.size());
+    for (int i = 0; i < a.size(); i++) {
+      products.add(mult(a.get(i), b.get(i)));
+    }
+    return () -> products;
+  }
+
   /**
    * Returns a deferred result which creates a secret shared random bit. (This should be computed
    * beforehand to increase the speed of the application)
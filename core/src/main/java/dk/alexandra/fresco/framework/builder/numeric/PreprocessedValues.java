@@ -21,4 +21,34 @@ public interface PreprocessedValues {
    */
   DRes<List<DRes<SInt>>> getExponentiationPipe(int pipeLength);
 
+  /**
+   * Returns a truncation pair of the form [r], [r >> shifts], where r is a random value of the
+   * maximum bit length of the numeric context.
+   *
+   * @param shifts The number of positions r is shifted to the right in the second value.
+   * @return A pair of the random value and the random value shifted
+   */
+  DRes<TruncationPair> getTruncationPair(int shifts);
+
+  /**
+   * Container holding a random value r and r shifted a number of positions to the right.
+   */
+  class TruncationPair {
+
+    private final SInt r;
+    private final SInt shiftedR;
+
+    public TruncationPair(SInt r, SInt shiftedR) {
+      this.r = r;
+      this.shiftedR = shiftedR;
+    }
+
+    public SInt getR() {
+      return r;
+    }
+
+    public SInt getShiftedR() {
+      return shiftedR;
+    }
+  }
 }
@@ -0,0 +1,119 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+
+/**
+ * A {@link FieldElementVector} storing an array of field element objects. This works for any field
+ * definition and is used by definitions which do not have a packed representation.
+ */
+final class BoxedFieldElementVector extends AbstractList<FieldElement>
+    implements FieldElementVector {
+
+  private final FieldDefinition definition;
+  private final FieldElement[] elements;
+
+  private BoxedFieldElementVector(FieldDefinition definition, FieldElement[] elements) {
+    this.definition = definition;
+    this.elements = elements;
+  }
+
+  /**
+   * Creates a new vector holding the given elements.
+   *
+   * @param definition the definition of the field the elements belong to
+   * @param elements the elements, which are copied into the vector
+   */
+  BoxedFieldElementVector(FieldDefinition definition, List<FieldElement> elements) {
+    this(definition, elements.toArray(new FieldElement[0]));
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    return elements[index];
+  }
+
+  @Override
+  public FieldElement set(int index, FieldElement element) {
+    FieldElement previous = elements[index];
+    elements[index] = Objects.requireNonNull(element);
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    return combine(definition, this, other, FieldElement::add);
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    return combine(definition, this, other, FieldElement::subtract);
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    FieldElement[] result = new FieldElement[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      result[i] = elements[i].multiply(scalar);
+    }
+    return new BoxedFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    return innerProduct(definition, this, other);
+  }
+
+  @Override
+  public void accumulate(FieldElementVector other) {
+    checkSize(this, other);
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = elements[i].add(other.get(i));
+    }
+  }
+
+  @Override
+  public byte[] serialize() {
+    return definition.serialize(this);
+  }
+
+  /**
+   * Entry-wise combination of two vectors of any kind, used when no packed operation applies.
+   */
+  static FieldElementVector combine(FieldDefinition definition, FieldElementVector left,
+      FieldElementVector right, BinaryOperator<FieldElement> operator) {
+    checkSize(left, right);
+    FieldElement[] result = new FieldElement[left.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = operator.apply(left.get(i), right.get(i));
+    }
+    return new BoxedFieldElementVector(definition, result);
+  }
+
+  /**
+   * Inner product of two vectors of any kind, used when no packed operation applies.
+   */
+  static FieldElement innerProduct(FieldDefinition definition, FieldElementVector left,
+      FieldElementVector right) {
+    checkSize(left, right);
+    FieldElement sum = definition.createElement(0);
+    for (int i = 0; i < left.size(); i++) {
+      sum = sum.add(left.get(i).multiply(right.get(i)));
+    }
+    return sum;
+  }
+
+  static void checkSize(FieldElementVector left, FieldElementVector right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + left.size() + " and " + right.size());
+    }
+  }
+}
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Describes a finite field.
@@ -85,5 +86,28 @@ public interface FieldDefinition extends ByteSerializer<FieldElement> {
    *     close to modulus
    */
   BigInteger convertToSigned(BigInteger asUnsigned);
-}
 
+  /**
+   * Creates a vector holding the supplied elements of this field.
+   * <p>
+   * The default implementation stores the element objects. Implementations with a packed
+   * representation of the elements should override this.
+   * </p>
+   *
+   * @param elements the elements, which are copied into the vector
+   * @return the created vector
+   */
+  default FieldElementVector createVector(List<FieldElement> elements) {
+    return new BoxedFieldElementVector(this, elements);
+  }
+
+  /**
+   * Reads a vector of elements serialized with {@link #serialize(List)}.
+   *
+   * @param bytes the serialized elements
+   * @return the deserialized vector
+   */
+  default FieldElementVector deserializeVector(byte[] bytes) {
+    return createVector(deserializeList(bytes));
+  }
+}
@@ -0,0 +1,68 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A fixed size vector of elements from a finite field supporting bulk arithmetic.
+ * <p>
+ * A vector is also a list of field elements, so it can be passed anywhere a list is expected.
+ * Depending on the field definition the elements may be stored packed, e.g., as one contiguous
+ * array of limbs for a {@link MontgomeryFieldDefinition}. In that case an element object is only
+ * created when it is read with {@link #get(int)}, and the bulk operations below work directly on
+ * the packed representation. The size of a vector can not be changed, but elements can be replaced
+ * with {@link #set(int, Object)}.
+ * </p>
+ * <p>
+ * Vectors are created by {@link FieldDefinition#createVector(List)} and {@link
+ * FieldDefinition#deserializeVector(byte[])}.
+ * </p>
+ */
+public interface FieldElementVector extends List<FieldElement>, RandomAccess {
+
+  /**
+   * Computes the entry-wise sum of this vector and another vector of the same size.
+   *
+   * @param other operand
+   * @return a new vector <code>this + other</code>
+   */
+  FieldElementVector add(FieldElementVector other);
+
+  /**
+   * Computes the entry-wise difference of this vector and another vector of the same size.
+   *
+   * @param other operand
+   * @return a new vector <code>this - other</code>
+   */
+  FieldElementVector subtract(FieldElementVector other);
+
+  /**
+   * Multiplies each entry of this vector by a scalar.
+   *
+   * @param scalar the scalar
+   * @return a new vector <code>scalar * this</code>
+   */
+  FieldElementVector scale(FieldElement scalar);
+
+  /**
+   * Computes the inner product of this vector and another vector of the same size.
+   *
+   * @param other operand
+   * @return the sum of <code>this[i] * other[i]</code>
+   */
+  FieldElement innerProduct(FieldElementVector other);
+
+  /**
+   * Adds another vector of the same size to this vector in place.
+   *
+   * @param other operand
+   */
+  void accumulate(FieldElementVector other);
+
+  /**
+   * Serializes the vector in the same format as {@link FieldDefinition#serialize(List)}.
+   *
+   * @return the serialized entries
+   */
+  byte[] serialize();
+}
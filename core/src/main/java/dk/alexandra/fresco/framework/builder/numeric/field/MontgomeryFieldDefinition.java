@@ -0,0 +1,152 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A finite field with an odd modulus of at most 256 bits, where elements are stored as fixed
+ * width arrays of 64 bit limbs and multiplied using Montgomery multiplication.
+ * <p>
+ * This avoids the BigInteger allocations and divisions of {@link BigIntegerFieldDefinition} and
+ * can be used in place of it for any odd modulus up to 256 bits, e.g., the primes used by SPDZ.
+ * Elements are serialized directly from the limbs in the same format as the other field
+ * definitions.
+ * </p>
+ */
+public final class MontgomeryFieldDefinition implements FieldDefinition {
+
+  private final MontgomeryModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+  private final int modulusLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be odd and at most 256 bits
+   */
+  public MontgomeryFieldDefinition(BigInteger modulus) {
+    this.modulus = new MontgomeryModulus(modulus);
+    this.modulusHalf = modulus.shiftRight(1);
+    this.modulusBitLength = modulus.bitLength();
+    this.modulusLength = 1 + ((modulusBitLength - 1) / 8);
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus as a string.
+   */
+  public MontgomeryFieldDefinition(String modulus) {
+    this(new BigInteger(modulus));
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getBigInteger();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return MontgomeryFieldElement.extractValue(value);
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[modulusLength];
+    serializeWithOffset(fieldElement, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    if (fieldElements instanceof MontgomeryFieldElementVector) {
+      return ((MontgomeryFieldElementVector) fieldElements).serialize();
+    }
+    byte[] bytes = new byte[modulusLength * fieldElements.size()];
+    for (int i = 0; i < fieldElements.size(); i++) {
+      serializeWithOffset(fieldElements.get(i), bytes, i * modulusLength);
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return deserializeWithOffset(bytes, 0);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    return new ArrayList<>(deserializeVector(bytes));
+  }
+
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    return MontgomeryFieldElementVector.create(this, elements);
+  }
+
+  @Override
+  public FieldElementVector deserializeVector(byte[] bytes) {
+    return MontgomeryFieldElementVector.deserialize(this, bytes);
+  }
+
+  MontgomeryModulus getMontgomeryModulus() {
+    return modulus;
+  }
+
+  /**
+   * Gets the number of bytes used to serialize an element.
+   */
+  int getByteLength() {
+    return modulusLength;
+  }
+
+  private void serializeWithOffset(FieldElement fieldElement, byte[] bytes, int offset) {
+    long[] limbs = MontgomeryFieldElement.extractLimbs(fieldElement);
+    MontgomeryModulus.writeBigEndian(limbs, bytes, offset, modulusLength);
+  }
+
+  private FieldElement deserializeWithOffset(byte[] bytes, int offset) {
+    long[] limbs =
+        MontgomeryModulus.readBigEndian(bytes, offset, modulusLength, modulus.getLimbs());
+    if (modulus.isReduced(limbs)) {
+      return MontgomeryFieldElement.fromLimbs(limbs, modulus);
+    } else {
+      return createElement(
+          new BigInteger(1, Arrays.copyOfRange(bytes, offset, offset + modulusLength)));
+    }
+  }
+}
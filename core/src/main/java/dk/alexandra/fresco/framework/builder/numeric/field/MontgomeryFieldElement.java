@@ -0,0 +1,134 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * An element in a field defined by a {@link MontgomeryModulus}.
+ * <p>
+ * The value is stored in Montgomery form as a fixed number of 64 bit limbs, so arithmetic does not
+ * allocate any intermediate values besides the limbs of the result.
+ * </p>
+ */
+final class MontgomeryFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 2402125473524316379L;
+
+  private final long[] value;
+  private final MontgomeryModulus modulus;
+
+  private MontgomeryFieldElement(long[] value, MontgomeryModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  private FieldElement create(long[] value) {
+    return new MontgomeryFieldElement(value, modulus);
+  }
+
+  static FieldElement create(BigInteger value, MontgomeryModulus modulus) {
+    Objects.requireNonNull(value);
+    return new MontgomeryFieldElement(modulus.toMontgomery(value), modulus);
+  }
+
+  static FieldElement create(long value, MontgomeryModulus modulus) {
+    return create(BigInteger.valueOf(value), modulus);
+  }
+
+  static FieldElement create(String string, MontgomeryModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  /**
+   * Creates an element from the limbs of a value in standard, i.e. non-Montgomery, form.
+   *
+   * @param limbs the limbs of a value in the range <i>0, ..., p - 1</i>
+   * @param modulus the modulus
+   * @return the created element
+   */
+  static FieldElement fromLimbs(long[] limbs, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(modulus.toMontgomery(limbs), modulus);
+  }
+
+  /**
+   * Creates an element from limbs that are already in Montgomery form. The array is not copied.
+   *
+   * @param montgomeryLimbs the limbs of <i>xR mod p</i>
+   * @param modulus the modulus
+   * @return the element <i>x</i>
+   */
+  static FieldElement fromMontgomeryLimbs(long[] montgomeryLimbs, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(montgomeryLimbs, modulus);
+  }
+
+  /**
+   * Gets the limbs of the value of an element in standard, i.e. non-Montgomery, form.
+   */
+  static long[] extractLimbs(FieldElement element) {
+    MontgomeryFieldElement montgomeryElement = (MontgomeryFieldElement) element;
+    return montgomeryElement.modulus.fromMontgomery(montgomeryElement.value);
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(value));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(extractValue(this), getModulus()), modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(extractValue(this).modInverse(getModulus()), modulus);
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    MontgomeryFieldElement montgomeryElement = (MontgomeryFieldElement) element;
+    return montgomeryElement.modulus.toBigInteger(montgomeryElement.value);
+  }
+
+  /**
+   * Gets the limbs of the value of an element in Montgomery form. The array must not be modified.
+   */
+  static long[] extractMontgomery(FieldElement element) {
+    return ((MontgomeryFieldElement) element).value;
+  }
+
+  /**
+   * Checks if an element is a Montgomery element with the given modulus.
+   */
+  static boolean hasModulus(FieldElement element, MontgomeryModulus modulus) {
+    return element instanceof MontgomeryFieldElement
+        && ((MontgomeryFieldElement) element).modulus.equals(modulus);
+  }
+
+  private BigInteger getModulus() {
+    return modulus.getBigInteger();
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryFieldElement{"
+        + "value=" + extractValue(this)
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
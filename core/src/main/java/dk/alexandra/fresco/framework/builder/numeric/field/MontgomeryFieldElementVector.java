@@ -0,0 +1,210 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} for a {@link MontgomeryFieldDefinition} storing the Montgomery form
+ * of all entries in a single array of limbs.
+ * <p>
+ * The operations on whole vectors pass a single scratch array to {@link MontgomeryModulus}, so
+ * apart from the result they allocate a constant number of arrays regardless of the size.
+ * </p>
+ */
+final class MontgomeryFieldElementVector extends AbstractList<FieldElement>
+    implements FieldElementVector {
+
+  private final MontgomeryFieldDefinition definition;
+  private final MontgomeryModulus modulus;
+  private final int limbs;
+  private final int size;
+  private final long[] values;
+
+  private MontgomeryFieldElementVector(MontgomeryFieldDefinition definition, int size,
+      long[] values) {
+    this.definition = definition;
+    this.modulus = definition.getMontgomeryModulus();
+    this.limbs = modulus.getLimbs();
+    this.size = size;
+    this.values = values;
+  }
+
+  private MontgomeryFieldElementVector(MontgomeryFieldDefinition definition, int size) {
+    this(definition, size, new long[size * definition.getMontgomeryModulus().getLimbs()]);
+  }
+
+  /**
+   * Creates a new vector holding the given elements, which must belong to the given field.
+   */
+  static MontgomeryFieldElementVector create(MontgomeryFieldDefinition definition,
+      List<FieldElement> elements) {
+    MontgomeryModulus modulus = definition.getMontgomeryModulus();
+    if (elements instanceof MontgomeryFieldElementVector
+        && ((MontgomeryFieldElementVector) elements).modulus.equals(modulus)) {
+      MontgomeryFieldElementVector other = (MontgomeryFieldElementVector) elements;
+      return new MontgomeryFieldElementVector(definition, other.size, other.values.clone());
+    }
+    MontgomeryFieldElementVector vector =
+        new MontgomeryFieldElementVector(definition, elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      vector.set(i, elements.get(i));
+    }
+    return vector;
+  }
+
+  /**
+   * Reads a vector serialized in the format of {@link FieldDefinition#serialize(List)}.
+   *
+   * @throws IllegalArgumentException if the length of the bytes is not a multiple of the byte
+   *     length of an element
+   */
+  static MontgomeryFieldElementVector deserialize(MontgomeryFieldDefinition definition,
+      byte[] bytes) {
+    int byteLength = definition.getByteLength();
+    if (bytes.length % byteLength != 0) {
+      throw new IllegalArgumentException("Length of serialized vector " + bytes.length
+          + " is not a multiple of the element length " + byteLength);
+    }
+    MontgomeryModulus modulus = definition.getMontgomeryModulus();
+    int limbs = modulus.getLimbs();
+    MontgomeryFieldElementVector vector =
+        new MontgomeryFieldElementVector(definition, bytes.length / byteLength);
+    long[] scratch = new long[limbs];
+    for (int i = 0; i < vector.size; i++) {
+      int offset = i * byteLength;
+      int valueOffset = i * limbs;
+      MontgomeryModulus.readBigEndian(bytes, offset, byteLength, vector.values, valueOffset,
+          limbs);
+      if (modulus.isReduced(vector.values, valueOffset)) {
+        modulus.toMontgomery(vector.values, valueOffset, vector.values, valueOffset, scratch);
+      } else {
+        BigInteger value =
+            new BigInteger(1, Arrays.copyOfRange(bytes, offset, offset + byteLength));
+        long[] montgomery = modulus.toMontgomery(value);
+        System.arraycopy(montgomery, 0, vector.values, valueOffset, limbs);
+      }
+    }
+    return vector;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    checkIndex(index);
+    long[] value = Arrays.copyOfRange(values, index * limbs, (index + 1) * limbs);
+    return MontgomeryFieldElement.fromMontgomeryLimbs(value, modulus);
+  }
+
+  @Override
+  public FieldElement set(int index, FieldElement element) {
+    if (!MontgomeryFieldElement.hasModulus(element, modulus)) {
+      throw new IllegalArgumentException("Element " + element + " does not belong to this field");
+    }
+    FieldElement previous = get(index);
+    long[] value = MontgomeryFieldElement.extractMontgomery(element);
+    System.arraycopy(value, 0, values, index * limbs, limbs);
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    if (!isPacked(other)) {
+      return BoxedFieldElementVector.combine(definition, this, other, FieldElement::add);
+    }
+    long[] otherValues = ((MontgomeryFieldElementVector) other).values;
+    MontgomeryFieldElementVector result = new MontgomeryFieldElementVector(definition, size);
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.add(values, offset, otherValues, offset, result.values, offset);
+    }
+    return result;
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    if (!isPacked(other)) {
+      return BoxedFieldElementVector.combine(definition, this, other, FieldElement::subtract);
+    }
+    long[] otherValues = ((MontgomeryFieldElementVector) other).values;
+    MontgomeryFieldElementVector result = new MontgomeryFieldElementVector(definition, size);
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.subtract(values, offset, otherValues, offset, result.values, offset);
+    }
+    return result;
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    long[] scalarValue = MontgomeryFieldElement.extractMontgomery(scalar);
+    MontgomeryFieldElementVector result = new MontgomeryFieldElementVector(definition, size);
+    long[] scratch = new long[limbs];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.multiply(values, offset, scalarValue, 0, result.values, offset, scratch);
+    }
+    return result;
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    if (!isPacked(other)) {
+      return BoxedFieldElementVector.innerProduct(definition, this, other);
+    }
+    long[] otherValues = ((MontgomeryFieldElementVector) other).values;
+    long[] sum = new long[limbs];
+    long[] product = new long[limbs];
+    long[] scratch = new long[limbs];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.multiply(values, offset, otherValues, offset, product, 0, scratch);
+      modulus.add(sum, 0, product, 0, sum, 0);
+    }
+    return MontgomeryFieldElement.fromMontgomeryLimbs(sum, modulus);
+  }
+
+  @Override
+  public void accumulate(FieldElementVector other) {
+    if (!isPacked(other)) {
+      BoxedFieldElementVector.checkSize(this, other);
+      for (int i = 0; i < size; i++) {
+        set(i, get(i).add(other.get(i)));
+      }
+      return;
+    }
+    long[] otherValues = ((MontgomeryFieldElementVector) other).values;
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.add(values, offset, otherValues, offset, values, offset);
+    }
+  }
+
+  @Override
+  public byte[] serialize() {
+    int byteLength = definition.getByteLength();
+    byte[] bytes = new byte[size * byteLength];
+    long[] standard = new long[limbs];
+    long[] scratch = new long[limbs];
+    for (int i = 0; i < size; i++) {
+      modulus.fromMontgomery(values, i * limbs, standard, 0, scratch);
+      MontgomeryModulus.writeBigEndian(standard, bytes, i * byteLength, byteLength);
+    }
+    return bytes;
+  }
+
+  /**
+   * Checks if the other vector is packed with the same modulus and has the same size.
+   */
+  private boolean isPacked(FieldElementVector other) {
+    BoxedFieldElementVector.checkSize(this, other);
+    return other instanceof MontgomeryFieldElementVector
+        && ((MontgomeryFieldElementVector) other).modulus.equals(modulus);
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+  }
+}
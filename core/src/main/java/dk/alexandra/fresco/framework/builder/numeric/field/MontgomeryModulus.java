@@ -0,0 +1,439 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An odd modulus of at most {@link #MAX_BIT_LENGTH} bits together with the precomputed constants
+ * needed for Montgomery multiplication on values represented as little endian arrays of 64 bit
+ * limbs.
+ * <p>
+ * For a modulus <i>p</i> of <i>n</i> limbs let <i>R = 2<sup>64n</sup></i>. A value <i>x</i> is
+ * represented by its Montgomery form <i>xR mod p</i>, which allows multiplication modulo <i>p</i>
+ * using only word sized multiplications, additions and shifts.
+ * </p>
+ * <p>
+ * The arithmetic methods taking offsets operate on <i>n</i> consecutive limbs of larger arrays, so
+ * that many values can be packed in a single array. The result may overlap with the operands.
+ * Multiplication needs <i>n</i> limbs of intermediate storage, so the variants taking a
+ * <code>scratch</code> array do not allocate. The scratch array is owned by the caller, must not
+ * overlap with the operands or the result, and can be reused across calls on the same thread.
+ * </p>
+ */
+final class MontgomeryModulus implements Serializable {
+
+  /**
+   * The largest supported bit length of the modulus.
+   */
+  static final int MAX_BIT_LENGTH = 256;
+
+  private static final long serialVersionUID = 1L;
+  private static final long LOW_MASK = 0xFFFFFFFFL;
+
+  private final BigInteger value;
+  private final int limbs;
+  private final long[] modulus;
+  private final long inverse;
+  private final long[] rSquared;
+  private final long[] one;
+
+  /**
+   * Creates a new modulus. The modulus must be odd, larger than one and at most {@link
+   * #MAX_BIT_LENGTH} bits long.
+   *
+   * @param value the modulus
+   */
+  MontgomeryModulus(BigInteger value) {
+    this.value = Objects.requireNonNull(value);
+    if (value.compareTo(BigInteger.ONE) <= 0 || !value.testBit(0)) {
+      throw new IllegalArgumentException("Modulus must be odd and larger than one, was " + value);
+    }
+    if (value.bitLength() > MAX_BIT_LENGTH) {
+      throw new IllegalArgumentException(
+          "Modulus must be at most " + MAX_BIT_LENGTH + " bits, was " + value.bitLength());
+    }
+    this.limbs = (value.bitLength() + 63) / 64;
+    this.modulus = toLimbs(value, limbs);
+    BigInteger wordSize = BigInteger.ONE.shiftLeft(64);
+    this.inverse = value.negate().modInverse(wordSize).longValue();
+    BigInteger r = BigInteger.ONE.shiftLeft(64 * limbs).mod(value);
+    this.rSquared = toLimbs(r.multiply(r).mod(value), limbs);
+    this.one = new long[limbs];
+    this.one[0] = 1;
+  }
+
+  BigInteger getBigInteger() {
+    return value;
+  }
+
+  /**
+   * Gets the number of 64 bit limbs used to represent values modulo this modulus.
+   */
+  int getLimbs() {
+    return limbs;
+  }
+
+  /**
+   * Converts a value to Montgomery form.
+   *
+   * @param x any integer
+   * @return the limbs of <i>xR mod p</i>
+   */
+  long[] toMontgomery(BigInteger x) {
+    return multiply(toLimbs(x.mod(value), limbs), rSquared);
+  }
+
+  /**
+   * Converts limbs of a value in the range <i>0, ..., p - 1</i> to Montgomery form.
+   *
+   * @param x the limbs of the value
+   * @return the limbs of <i>xR mod p</i>
+   */
+  long[] toMontgomery(long[] x) {
+    return multiply(x, rSquared);
+  }
+
+  /**
+   * Converts limbs of a value in the range <i>0, ..., p - 1</i> to Montgomery form.
+   */
+  void toMontgomery(long[] x, int offset, long[] result, int resultOffset) {
+    toMontgomery(x, offset, result, resultOffset, new long[limbs]);
+  }
+
+  /**
+   * Converts limbs of a value in the range <i>0, ..., p - 1</i> to Montgomery form, using the
+   * given scratch array of at least <i>n</i> limbs.
+   */
+  void toMontgomery(long[] x, int offset, long[] result, int resultOffset, long[] scratch) {
+    multiply(x, offset, rSquared, 0, result, resultOffset, scratch);
+  }
+
+  /**
+   * Converts a value from Montgomery form.
+   *
+   * @param x the limbs of a value <i>xR mod p</i>
+   * @return the limbs of <i>x</i>
+   */
+  long[] fromMontgomery(long[] x) {
+    return multiply(x, one);
+  }
+
+  /**
+   * Converts a value from Montgomery form.
+   */
+  void fromMontgomery(long[] x, int offset, long[] result, int resultOffset) {
+    fromMontgomery(x, offset, result, resultOffset, new long[limbs]);
+  }
+
+  /**
+   * Converts a value from Montgomery form, using the given scratch array of at least <i>n</i>
+   * limbs.
+   */
+  void fromMontgomery(long[] x, int offset, long[] result, int resultOffset, long[] scratch) {
+    multiply(x, offset, one, 0, result, resultOffset, scratch);
+  }
+
+  /**
+   * Converts a value from Montgomery form to a BigInteger.
+   *
+   * @param x the limbs of a value <i>xR mod p</i>
+   * @return <i>x</i> as a non-negative integer smaller than the modulus
+   */
+  BigInteger toBigInteger(long[] x) {
+    long[] standard = fromMontgomery(x);
+    byte[] bytes = new byte[8 * limbs + 1];
+    writeBigEndian(standard, bytes, 1, 8 * limbs);
+    return new BigInteger(bytes);
+  }
+
+  /**
+   * Checks if the limbs represent a value that is smaller than the modulus.
+   */
+  boolean isReduced(long[] x) {
+    return isReduced(x, 0);
+  }
+
+  /**
+   * Checks if the limbs starting at the given offset represent a value that is smaller than the
+   * modulus.
+   */
+  boolean isReduced(long[] x, int offset) {
+    return compare(x, offset, modulus) < 0;
+  }
+
+  /**
+   * Computes the Montgomery product <i>xyR<sup>-1</sup> mod p</i> of two values in the range
+   * <i>0, ..., p - 1</i>.
+   */
+  long[] multiply(long[] x, long[] y) {
+    long[] result = new long[limbs];
+    multiply(x, 0, y, 0, result, 0);
+    return result;
+  }
+
+  /**
+   * Computes the Montgomery product <i>xyR<sup>-1</sup> mod p</i> of two values in the range
+   * <i>0, ..., p - 1</i>.
+   */
+  void multiply(long[] x, int xOffset, long[] y, int yOffset, long[] result, int resultOffset) {
+    multiply(x, xOffset, y, yOffset, result, resultOffset, new long[limbs]);
+  }
+
+  /**
+   * Computes the Montgomery product <i>xyR<sup>-1</sup> mod p</i> of two values in the range
+   * <i>0, ..., p - 1</i>, using the given scratch array of at least <i>n</i> limbs.
+   */
+  void multiply(long[] x, int xOffset, long[] y, int yOffset, long[] result, int resultOffset,
+      long[] scratch) {
+    long[] t = scratch;
+    Arrays.fill(t, 0, limbs, 0);
+    long top = 0;
+    for (int i = 0; i < limbs; i++) {
+      // t = t + x * y[i]
+      long yi = y[yOffset + i];
+      long carry = 0;
+      for (int j = 0; j < limbs; j++) {
+        long xj = x[xOffset + j];
+        long lo = xj * yi;
+        long hi = multiplyHigh(xj, yi);
+        long sum = lo + t[j];
+        if (Long.compareUnsigned(sum, lo) < 0) {
+          hi++;
+        }
+        long sumWithCarry = sum + carry;
+        if (Long.compareUnsigned(sumWithCarry, sum) < 0) {
+          hi++;
+        }
+        t[j] = sumWithCarry;
+        carry = hi;
+      }
+      long topSum = top + carry;
+      long overflow = Long.compareUnsigned(topSum, top) < 0 ? 1 : 0;
+      top = topSum;
+      // t = (t + m * p) / 2^64, where m is chosen such that the division is exact
+      long m = t[0] * inverse;
+      long lo = m * modulus[0];
+      carry = multiplyHigh(m, modulus[0]);
+      if (Long.compareUnsigned(lo + t[0], lo) < 0) {
+        carry++;
+      }
+      for (int j = 1; j < limbs; j++) {
+        lo = m * modulus[j];
+        long hi = multiplyHigh(m, modulus[j]);
+        long sum = lo + t[j];
+        if (Long.compareUnsigned(sum, lo) < 0) {
+          hi++;
+        }
+        long sumWithCarry = sum + carry;
+        if (Long.compareUnsigned(sumWithCarry, sum) < 0) {
+          hi++;
+        }
+        t[j - 1] = sumWithCarry;
+        carry = hi;
+      }
+      topSum = top + carry;
+      if (Long.compareUnsigned(topSum, top) < 0) {
+        overflow++;
+      }
+      t[limbs - 1] = topSum;
+      top = overflow;
+    }
+    if (top != 0 || compare(t, 0, modulus) >= 0) {
+      subtractInPlace(t, 0, modulus);
+    }
+    System.arraycopy(t, 0, result, resultOffset, limbs);
+  }
+
+  /**
+   * Computes <i>x + y mod p</i> for values in the range <i>0, ..., p - 1</i>.
+   */
+  long[] add(long[] x, long[] y) {
+    long[] result = new long[limbs];
+    add(x, 0, y, 0, result, 0);
+    return result;
+  }
+
+  /**
+   * Computes <i>x + y mod p</i> for values in the range <i>0, ..., p - 1</i>.
+   */
+  void add(long[] x, int xOffset, long[] y, int yOffset, long[] result, int resultOffset) {
+    long carry = 0;
+    for (int i = 0; i < limbs; i++) {
+      long xi = x[xOffset + i];
+      long sum = xi + y[yOffset + i];
+      long nextCarry = Long.compareUnsigned(sum, xi) < 0 ? 1 : 0;
+      long sumWithCarry = sum + carry;
+      if (Long.compareUnsigned(sumWithCarry, sum) < 0) {
+        nextCarry = 1;
+      }
+      result[resultOffset + i] = sumWithCarry;
+      carry = nextCarry;
+    }
+    if (carry != 0 || compare(result, resultOffset, modulus) >= 0) {
+      subtractInPlace(result, resultOffset, modulus);
+    }
+  }
+
+  /**
+   * Computes <i>x - y mod p</i> for values in the range <i>0, ..., p - 1</i>.
+   */
+  long[] subtract(long[] x, long[] y) {
+    long[] result = new long[limbs];
+    subtract(x, 0, y, 0, result, 0);
+    return result;
+  }
+
+  /**
+   * Computes <i>x - y mod p</i> for values in the range <i>0, ..., p - 1</i>.
+   */
+  void subtract(long[] x, int xOffset, long[] y, int yOffset, long[] result, int resultOffset) {
+    long borrow = 0;
+    for (int i = 0; i < limbs; i++) {
+      long xi = x[xOffset + i];
+      long yi = y[yOffset + i];
+      long difference = xi - yi;
+      long nextBorrow = Long.compareUnsigned(xi, yi) < 0 ? 1 : 0;
+      if (borrow != 0) {
+        if (difference == 0) {
+          nextBorrow = 1;
+        }
+        difference--;
+      }
+      result[resultOffset + i] = difference;
+      borrow = nextBorrow;
+    }
+    if (borrow != 0) {
+      addInPlace(result, resultOffset, modulus);
+    }
+  }
+
+  /**
+   * Computes <i>-x mod p</i> for a value in the range <i>0, ..., p - 1</i>.
+   */
+  long[] negate(long[] x) {
+    long[] result = new long[limbs];
+    subtract(result, 0, x, 0, result, 0);
+    return result;
+  }
+
+  /**
+   * Splits a non-negative integer smaller than <i>2<sup>64n</sup></i> into <i>n</i> limbs.
+   */
+  static long[] toLimbs(BigInteger x, int limbs) {
+    long[] result = new long[limbs];
+    for (int i = 0; i < limbs; i++) {
+      result[i] = x.shiftRight(64 * i).longValue();
+    }
+    return result;
+  }
+
+  /**
+   * Writes the lowest <code>length</code> bytes of the value as a big endian number.
+   */
+  static void writeBigEndian(long[] x, byte[] bytes, int offset, int length) {
+    for (int i = 0; i < length; i++) {
+      bytes[offset + length - 1 - i] = (byte) (x[i >>> 3] >>> (8 * (i & 7)));
+    }
+  }
+
+  /**
+   * Reads a big endian number of <code>length</code> bytes into limbs.
+   */
+  static long[] readBigEndian(byte[] bytes, int offset, int length, int limbs) {
+    long[] result = new long[limbs];
+    readBigEndian(bytes, offset, length, result, 0, limbs);
+    return result;
+  }
+
+  /**
+   * Reads a big endian number of <code>length</code> bytes into the given <code>limbs</code>
+   * limbs of an existing array.
+   */
+  static void readBigEndian(byte[] bytes, int offset, int length, long[] result,
+      int resultOffset, int limbs) {
+    Arrays.fill(result, resultOffset, resultOffset + limbs, 0);
+    for (int i = 0; i < length; i++) {
+      result[resultOffset + (i >>> 3)] |= (bytes[offset + length - 1 - i] & 0xFFL) << (8 * (i & 7));
+    }
+  }
+
+  /**
+   * Computes the upper 64 bits of the unsigned 128 bit product of two unsigned longs.
+   */
+  static long multiplyHigh(long x, long y) {
+    long x0 = x & LOW_MASK;
+    long x1 = x >>> 32;
+    long y0 = y & LOW_MASK;
+    long y1 = y >>> 32;
+    long t = x1 * y0 + ((x0 * y0) >>> 32);
+    long w1 = x0 * y1 + (t & LOW_MASK);
+    return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+  }
+
+  private int compare(long[] x, int offset, long[] y) {
+    for (int i = limbs - 1; i >= 0; i--) {
+      int compare = Long.compareUnsigned(x[offset + i], y[i]);
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return 0;
+  }
+
+  private void subtractInPlace(long[] x, int offset, long[] y) {
+    long borrow = 0;
+    for (int i = 0; i < limbs; i++) {
+      long xi = x[offset + i];
+      long difference = xi - y[i];
+      long nextBorrow = Long.compareUnsigned(xi, y[i]) < 0 ? 1 : 0;
+      if (borrow != 0) {
+        if (difference == 0) {
+          nextBorrow = 1;
+        }
+        difference--;
+      }
+      x[offset + i] = difference;
+      borrow = nextBorrow;
+    }
+  }
+
+  private void addInPlace(long[] x, int offset, long[] y) {
+    long carry = 0;
+    for (int i = 0; i < limbs; i++) {
+      long xi = x[offset + i];
+      long sum = xi + y[i];
+      long nextCarry = Long.compareUnsigned(sum, xi) < 0 ? 1 : 0;
+      long sumWithCarry = sum + carry;
+      if (Long.compareUnsigned(sumWithCarry, sum) < 0) {
+        nextCarry = 1;
+      }
+      x[offset + i] = sumWithCarry;
+      carry = nextCarry;
+    }
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (other == null || getClass() != other.getClass()) {
+      return false;
+    }
+    return value.equals(((MontgomeryModulus) other).value);
+  }
+
+  @Override
+  public int hashCode() {
+    return value.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryModulus{"
+        + "value=" + value
+        + '}';
+  }
+}
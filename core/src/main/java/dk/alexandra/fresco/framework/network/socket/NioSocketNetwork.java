@@ -0,0 +1,507 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ServerSocketFactory;
+import javax.net.SocketFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} implementation based on Java's nio API.
+ *
+ * <p>
+ * All communication with the other parties is handled by a single selector thread, regardless of
+ * the number of parties. Messages queued for a party are coalesced and written with a single
+ * gathering write whenever the channel is writable, and incoming data is read through a direct
+ * buffer. Sending is non-blocking but receiving may block waiting for messages to arrive.
+ * </p>
+ * <p>
+ * The wire format is the same as the one used by {@link SocketNetwork}: each message is prefixed by
+ * an integer indicating the byte length of the message, and a negative length signals that the
+ * sending party has closed the connection. The two implementations can therefore be mixed.
+ * </p>
+ */
+public class NioSocketNetwork implements CloseableNetwork {
+
+  private static final int READ_BUFFER_SIZE = 1 << 16;
+  private static final int MAX_GATHERED_MESSAGES = 512;
+  private static final byte[] CLOSE_MARKER = new byte[0];
+  private static final Logger logger = LoggerFactory.getLogger(NioSocketNetwork.class);
+  private final BlockingQueue<byte[]> selfQueue;
+  private final NetworkConfiguration conf;
+  private final Map<Integer, Peer> peers;
+  private final Queue<Peer> writeRequests;
+  private final Selector selector;
+  private final Thread thread;
+  private final ByteBuffer readBuffer;
+  private volatile boolean alive;
+  private volatile boolean closing;
+
+  /**
+   * Creates a network with the given a configuration and a mapping from party ids to channels.
+   *
+   * <p>
+   * The mapping of party ids to channels must be consistent with the network configuration. I.e.,
+   * there should be exactly one mapping for each opposing party (but not for the local party).
+   * Also, the channels must be connected and open.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param channelMap a mapping from party ids to the channel to be used for communicating with
+   *     the given party.
+   * @throws IllegalArgumentException if {@code channelMap} and {@code conf} are inconsistent or
+   *     the channels are not open and connected.
+   */
+  public NioSocketNetwork(NetworkConfiguration conf, Map<Integer, SocketChannel> channelMap) {
+    Objects.requireNonNull(conf);
+    Objects.requireNonNull(channelMap);
+    for (int i = 1; i < conf.noOfParties() + 1; i++) {
+      if (i == conf.getMyId()) {
+        continue;
+      }
+      if (!channelMap.containsKey(i)) {
+        throw new IllegalArgumentException("Missing channel for P" + i);
+      }
+      SocketChannel channel = channelMap.get(i);
+      if (!channel.isOpen()) {
+        throw new IllegalArgumentException("Closed channel for P" + i);
+      }
+      if (!channel.isConnected()) {
+        throw new IllegalArgumentException("Unconnected channel for P" + i);
+      }
+    }
+    this.conf = conf;
+    this.peers = new HashMap<>(conf.noOfParties());
+    this.writeRequests = new ConcurrentLinkedQueue<>();
+    this.selfQueue = new LinkedBlockingQueue<>();
+    this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    this.alive = true;
+    if (conf.noOfParties() > 1) {
+      this.selector = ExceptionConverter.safe(Selector::open, "Unable to open selector");
+      for (Entry<Integer, SocketChannel> entry : channelMap.entrySet()) {
+        inRange(entry.getKey());
+        peers.put(entry.getKey(), ExceptionConverter.safe(
+            () -> new Peer(entry.getKey(), entry.getValue(), selector),
+            "Unable to register channel for P" + entry.getKey()));
+      }
+      this.thread = new Thread(this::run);
+      this.thread.setDaemon(true);
+      this.thread.setName("NioSocketNetwork-" + this.thread.getId());
+      this.thread.start();
+    } else {
+      this.selector = null;
+      this.thread = null;
+    }
+  }
+
+  /**
+   * Creates a network connecting to the other parties within the given timeout.
+   *
+   * @param conf the configuration to load the network from.
+   * @param timeout duration to wait until timeout
+   */
+  public NioSocketNetwork(NetworkConfiguration conf, Duration timeout) {
+    this(conf, connect(conf, timeout));
+  }
+
+  /**
+   * Default constructor using one minute timeout.
+   *
+   * @param conf the configuration to load the network from.
+   */
+  public NioSocketNetwork(NetworkConfiguration conf) {
+    this(conf, Connector.DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  private static Map<Integer, SocketChannel> connect(NetworkConfiguration conf,
+      Duration timeout) {
+    Map<Integer, Socket> socketMap = new Connector(conf, timeout, new ChannelSocketFactory(),
+        new ChannelServerSocketFactory()).getSocketMap();
+    Map<Integer, SocketChannel> channelMap = new HashMap<>(socketMap.size());
+    for (Entry<Integer, Socket> entry : socketMap.entrySet()) {
+      channelMap.put(entry.getKey(), entry.getValue().getChannel());
+    }
+    return channelMap;
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (partyId == conf.getMyId()) {
+      this.selfQueue.add(data);
+    } else {
+      inRange(partyId);
+      Peer peer = peers.get(partyId);
+      if (!alive || !peer.open) {
+        throw new RuntimeException(
+            "P" + conf.getMyId() + ": Unable to send to P" + partyId + ". Network not running");
+      }
+      queue(peer, data);
+    }
+  }
+
+  @Override
+  public byte[] receive(final int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ExceptionConverter.safe(selfQueue::take, "Receiving from self failed");
+    }
+    inRange(partyId);
+    Peer peer = peers.get(partyId);
+    byte[] data = ExceptionConverter.safe(peer.incoming::take, "Receive interrupted");
+    if (data == CLOSE_MARKER) {
+      // Put the marker back so later calls fail as well instead of blocking
+      peer.incoming.add(CLOSE_MARKER);
+      throw new RuntimeException("P" + conf.getMyId() + ": Unable to receive from P"
+          + partyId + ". Network not running");
+    }
+    return data;
+  }
+
+  /**
+   * Queues a message for a peer and makes sure the selector thread will write it.
+   */
+  private void queue(Peer peer, byte[] data) {
+    peer.outgoing.add(data);
+    if (peer.scheduled.compareAndSet(false, true)) {
+      writeRequests.add(peer);
+      selector.wakeup();
+    }
+  }
+
+  /**
+   * Check if a party ID is in the range of known parties.
+   *
+   * @param partyId an ID for a party
+   */
+  private void inRange(final int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+
+  /**
+   * The selector loop handling all reads and writes.
+   */
+  private void run() {
+    try {
+      while (!(closing && isFlushed())) {
+        selector.select();
+        Peer requested;
+        while ((requested = writeRequests.poll()) != null) {
+          write(requested);
+        }
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+          SelectionKey key = iterator.next();
+          iterator.remove();
+          Peer peer = (Peer) key.attachment();
+          if (key.isValid() && key.isReadable()) {
+            read(peer);
+          }
+          if (key.isValid() && key.isWritable()) {
+            write(peer);
+          }
+        }
+      }
+    } catch (Exception e) {
+      logger.error("P" + conf.getMyId() + ": Selector failed unexpectedly", e);
+    } finally {
+      for (Peer peer : peers.values()) {
+        disconnect(peer);
+      }
+    }
+  }
+
+  private boolean isFlushed() {
+    for (Peer peer : peers.values()) {
+      if (peer.open && (!peer.writing.isEmpty() || !peer.outgoing.isEmpty())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes as many of the queued messages for a peer as possible using a single gathering write.
+   */
+  private void write(Peer peer) {
+    peer.scheduled.set(false);
+    if (!peer.open) {
+      return;
+    }
+    byte[] data;
+    while (peer.writing.size() < 2 * MAX_GATHERED_MESSAGES
+        && (data = peer.outgoing.poll()) != null) {
+      ByteBuffer header = peer.nextHeader();
+      if (data == CLOSE_MARKER) {
+        header.putInt(-1).flip();
+        peer.writing.add(header);
+      } else {
+        header.putInt(data.length).flip();
+        peer.writing.add(header);
+        peer.writing.add(ByteBuffer.wrap(data));
+      }
+    }
+    try {
+      if (!peer.writing.isEmpty()) {
+        int size = peer.writing.size();
+        peer.channel.write(peer.writing.toArray(peer.gather), 0, size);
+        while (!peer.writing.isEmpty() && !peer.writing.peekFirst().hasRemaining()) {
+          peer.writing.removeFirst();
+        }
+      }
+      boolean pending = !peer.writing.isEmpty() || !peer.outgoing.isEmpty();
+      peer.key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+          : SelectionKey.OP_READ);
+    } catch (IOException e) {
+      fail(peer, e);
+    }
+  }
+
+  /**
+   * Reads the available data from a peer and queues all completed messages.
+   */
+  private void read(Peer peer) {
+    readBuffer.clear();
+    try {
+      if (peer.channel.read(readBuffer) < 0) {
+        stop(peer);
+        return;
+      }
+    } catch (IOException e) {
+      fail(peer, e);
+      return;
+    }
+    readBuffer.flip();
+    while (readBuffer.hasRemaining()) {
+      if (peer.message == null) {
+        while (peer.header.hasRemaining() && readBuffer.hasRemaining()) {
+          peer.header.put(readBuffer.get());
+        }
+        if (peer.header.hasRemaining()) {
+          return;
+        }
+        peer.header.flip();
+        int length = peer.header.getInt();
+        peer.header.clear();
+        if (length < 0) {
+          stop(peer);
+          return;
+        }
+        peer.message = new byte[length];
+        peer.offset = 0;
+      }
+      int bytes = Math.min(readBuffer.remaining(), peer.message.length - peer.offset);
+      readBuffer.get(peer.message, peer.offset, bytes);
+      peer.offset += bytes;
+      if (peer.offset == peer.message.length) {
+        peer.incoming.add(peer.message);
+        peer.message = null;
+      }
+    }
+  }
+
+  private void stop(Peer peer) {
+    disconnect(peer);
+    peer.key.cancel();
+  }
+
+  /**
+   * Marks the connection to a peer as closed and wakes up any thread waiting to receive from it.
+   * Messages received before the connection was closed can still be received.
+   */
+  private void disconnect(Peer peer) {
+    if (peer.open) {
+      peer.open = false;
+      peer.incoming.add(CLOSE_MARKER);
+    }
+  }
+
+  private void fail(Peer peer, IOException e) {
+    if (peer.open && !closing) {
+      logger.error("P" + conf.getMyId() + ": Connection to P" + peer.id
+          + " failed unexpectedly", e);
+    }
+    stop(peer);
+  }
+
+  /**
+   * Closes the network down and releases held resources. Messages queued before closing are
+   * written before the connections are closed.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      if (conf.noOfParties() < 2) {
+        logger.info("P{}: Network closed", conf.getMyId());
+        return;
+      }
+      ExceptionConverter.safe(() -> {
+        for (Peer peer : peers.values()) {
+          if (peer.open) {
+            queue(peer, CLOSE_MARKER);
+          }
+        }
+        closing = true;
+        selector.wakeup();
+        thread.join();
+        for (Peer peer : peers.values()) {
+          peer.channel.close();
+        }
+        selector.close();
+        logger.info("P{}: Network closed", conf.getMyId());
+        return null;
+      }, "Unable to properly close the network.");
+    } else {
+      logger.info("P{}: Network already closed", conf.getMyId());
+    }
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return this.conf.noOfParties();
+  }
+
+  /**
+   * The connection state for a single opposing party.
+   */
+  private static class Peer {
+
+    private final int id;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final Queue<byte[]> outgoing;
+    private final AtomicBoolean scheduled;
+    private final BlockingQueue<byte[]> incoming;
+    private final ByteBuffer header;
+    // Only accessed by the selector thread
+    private final ArrayDeque<ByteBuffer> writing;
+    private final ByteBuffer[] gather;
+    private final ByteBuffer[] headers;
+    private int headerIndex;
+    private byte[] message;
+    private int offset;
+    private volatile boolean open;
+
+    private Peer(int id, SocketChannel channel, Selector selector) throws IOException {
+      this.id = id;
+      this.channel = channel;
+      this.outgoing = new ConcurrentLinkedQueue<>();
+      this.scheduled = new AtomicBoolean(false);
+      this.incoming = new LinkedBlockingQueue<>();
+      this.header = ByteBuffer.allocate(Integer.BYTES);
+      this.writing = new ArrayDeque<>();
+      this.gather = new ByteBuffer[2 * MAX_GATHERED_MESSAGES + 1];
+      this.headers = new ByteBuffer[2 * MAX_GATHERED_MESSAGES];
+      for (int i = 0; i < headers.length; i++) {
+        headers[i] = ByteBuffer.allocate(Integer.BYTES);
+      }
+      this.open = true;
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      channel.configureBlocking(false);
+      this.key = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    /**
+     * Gets a cleared buffer for writing a message header. The headers are reused in a cycle which
+     * is longer than the number of headers that can be waiting in {@link #writing}, so a header is
+     * always fully written before it is reused.
+     */
+    private ByteBuffer nextHeader() {
+      ByteBuffer next = headers[headerIndex];
+      headerIndex = (headerIndex + 1) % headers.length;
+      next.clear();
+      return next;
+    }
+  }
+
+  /**
+   * Socket factory creating sockets backed by a {@link SocketChannel}.
+   */
+  private static class ChannelSocketFactory extends SocketFactory {
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+        throws IOException {
+      SocketChannel channel = SocketChannel.open();
+      channel.bind(new InetSocketAddress(localHost, localPort));
+      channel.connect(new InetSocketAddress(host, port));
+      return channel.socket();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+      return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+        int localPort) throws IOException {
+      SocketChannel channel = SocketChannel.open();
+      channel.bind(new InetSocketAddress(localAddress, localPort));
+      channel.connect(new InetSocketAddress(address, port));
+      return channel.socket();
+    }
+  }
+
+  /**
+   * Server socket factory creating server sockets backed by a {@link ServerSocketChannel}, such
+   * that accepted sockets are backed by a {@link SocketChannel}.
+   */
+  private static class ChannelServerSocketFactory extends ServerSocketFactory {
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+      return createServerSocket(port, 0, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+      return createServerSocket(port, backlog, null);
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port, int backlog, InetAddress ifAddress)
+        throws IOException {
+      ServerSocketChannel channel = ServerSocketChannel.open();
+      try {
+        channel.bind(new InetSocketAddress(ifAddress, port), backlog);
+      } catch (IOException e) {
+        channel.close();
+        throw e;
+      }
+      return channel.socket();
+    }
+  }
+}
@@ -49,8 +49,9 @@ public class BatchedProtocolEvaluator<ResourcePoolT extends ResourcePool>
     NetworkBatchDecorator networkBatchDecorator = createSceNetwork(resourcePool, network);
     ProtocolSuite.RoundSynchronization<ResourcePoolT> roundSynchronization =
         protocolSuite.createRoundSynchronization();
+    ProtocolCollectionList<ResourcePoolT> protocols = new ProtocolCollectionList<>(maxBatchSize);
     do {
-      ProtocolCollectionList<ResourcePoolT> protocols = new ProtocolCollectionList<>(maxBatchSize);
+      protocols.clear();
       protocolProducer.getNextProtocols(protocols);
       int size = protocols.size();
 
@@ -1,10 +1,8 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.network.Network;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Default network for the evaluators, this interface bridges the raw network4
@@ -12,34 +10,47 @@ import java.util.Map;
  * communication on the network batched and hence throttled so evaluators behave nice
  * on the network.
  * <br/>
+ * Each message is framed by its length encoded as an unsigned varint, i.e., seven bits per byte
+ * with the most significant bit set on all but the last byte. Messages shorter than 128 bytes are
+ * hence prefixed by a single byte. The output buffers are kept between batches and only grown when
+ * needed.
+ * <br/>
  * It is important to call flush to empty all buffers after sending and before receiving data
  */
 public class NetworkBatchDecorator implements Network {
 
-  private int noOfParties;
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final int MAX_VARINT_BYTES = 5;
+
+  private final int noOfParties;
   private final Network network;
-  private Map<Integer, ByteArrayOutputStream> output;
-  private Map<Integer, ByteArrayInputStream> input;
+  private final ByteBuffer[] output;
+  private final ByteBuffer[] input;
 
+  /**
+   * Creates a new batching network.
+   *
+   * @param noOfParties the number of parties
+   * @param network the underlying network to send the batches over
+   */
   public NetworkBatchDecorator(int noOfParties, Network network) {
     this.noOfParties = noOfParties;
     this.network = network;
-    this.output = new HashMap<>();
-    this.input = new HashMap<>();
+    this.output = new ByteBuffer[noOfParties];
+    this.input = new ByteBuffer[noOfParties];
   }
 
   @Override
   public byte[] receive(int id) {
-    ByteArrayInputStream byteInputStream = input.get(id);
-    if (byteInputStream == null) {
+    ByteBuffer buffer = input[id - 1];
+    if (buffer == null) {
       byte[] partyData = network.receive(id);
-      byteInputStream = new ByteArrayInputStream(partyData);
-      input.put(id, byteInputStream);
+      buffer = ByteBuffer.wrap(partyData);
+      input[id - 1] = buffer;
     }
-
-    int count = byteInputStream.read();
+    int count = readLength(buffer);
     byte[] bytes = new byte[count];
-    byteInputStream.read(bytes, 0, count);
+    buffer.get(bytes);
     return bytes;
   }
 
@@ -50,14 +61,9 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public void send(int id, byte[] data) {
-    ByteArrayOutputStream buffer = this.output
-        .computeIfAbsent(id, (i) -> new ByteArrayOutputStream());
-    if (data.length > Byte.MAX_VALUE) {
-      throw new IllegalStateException(
-          "Current implementation only supports small packages, data.length=" + data.length);
-    }
-    buffer.write(data.length);
-    buffer.write(data, 0, data.length);
+    ByteBuffer buffer = reserve(id, data.length + MAX_VARINT_BYTES);
+    writeLength(buffer, data.length);
+    buffer.put(data);
   }
 
   /**
@@ -65,13 +71,53 @@ public class NetworkBatchDecorator implements Network {
    */
   public void flush() {
     for (int i = 1; i <= noOfParties; i++) {
-      if (output.containsKey(i)) {
-        ByteArrayOutputStream byteArrayOutputStream = output.get(i);
-        byte[] data = byteArrayOutputStream.toByteArray();
+      ByteBuffer buffer = output[i - 1];
+      if (buffer != null && buffer.position() > 0) {
+        byte[] data = Arrays.copyOf(buffer.array(), buffer.position());
         network.send(i, data);
+        buffer.clear();
+      }
+    }
+    Arrays.fill(input, null);
+  }
+
+  /**
+   * Gets the output buffer of a given party, ensuring that it has room for at least the given
+   * number of additional bytes.
+   */
+  private ByteBuffer reserve(int id, int bytes) {
+    ByteBuffer buffer = output[id - 1];
+    if (buffer == null) {
+      buffer = ByteBuffer.allocate(Math.max(INITIAL_BUFFER_SIZE, bytes));
+      output[id - 1] = buffer;
+    } else if (buffer.remaining() < bytes) {
+      int capacity = Math.max(2 * buffer.capacity(), buffer.position() + bytes);
+      ByteBuffer larger = ByteBuffer.allocate(capacity);
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+      output[id - 1] = buffer;
+    }
+    return buffer;
+  }
+
+  private static void writeLength(ByteBuffer buffer, int length) {
+    while ((length & ~0x7F) != 0) {
+      buffer.put((byte) ((length & 0x7F) | 0x80));
+      length >>>= 7;
+    }
+    buffer.put((byte) length);
+  }
+
+  private static int readLength(ByteBuffer buffer) {
+    int length = 0;
+    for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+      byte b = buffer.get();
+      length |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return length;
       }
-      output.remove(i);
     }
-    input.clear();
+    throw new IllegalStateException("Malformed message length");
   }
 }
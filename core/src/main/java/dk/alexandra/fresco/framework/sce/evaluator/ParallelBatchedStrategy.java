@@ -0,0 +1,268 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ParallelizableComputationProtocol;
+import dk.alexandra.fresco.framework.ParallelizableProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batched evaluation strategy which evaluates the protocols of each round on a fork-join pool.
+ * <p>
+ * Rounds are processed exactly as in {@link BatchedStrategy}, except that consecutive runs of
+ * protocols implementing {@link ParallelizableProtocol} are split into chunks which are evaluated
+ * concurrently. Each chunk buffers its outgoing messages per party, and the buffers are handed to
+ * the network in protocol order once all chunks of the run are done. Receiving is likewise kept in
+ * protocol order: a chunk only reads from the network once all chunks before it are done. The
+ * bytes sent on the wire are therefore identical to the bytes sent by {@link BatchedStrategy}.
+ * </p>
+ * <p>
+ * Consecutive runs of protocols implementing {@link ParallelizableComputationProtocol} are
+ * evaluated in three steps: the sequential parts before the local computation are run on the
+ * calling thread in protocol order, then the local computations are run concurrently in chunks,
+ * and finally the sequential parts after the local computation are run on the calling thread in
+ * protocol order. Communication and the use of shared resources such as preprocessed material
+ * thereby happen in the same order as in {@link BatchedStrategy}.
+ * </p>
+ * <p>
+ * Other protocols are evaluated on the calling thread in their original position, since they may
+ * depend on the order in which shared resources are consumed.
+ * </p>
+ */
+public class ParallelBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  private static final int DEFAULT_CHUNK_SIZE = 128;
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private final AtomicLong parallelEvaluations;
+
+  /**
+   * Creates a new strategy evaluating protocols on the common fork-join pool.
+   */
+  public ParallelBatchedStrategy() {
+    this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param pool the pool to evaluate chunks of protocols on
+   * @param chunkSize the number of protocols evaluated by a single task
+   */
+  public ParallelBatchedStrategy(ForkJoinPool pool, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive, was " + chunkSize);
+    }
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.parallelEvaluations = new AtomicLong();
+  }
+
+  /**
+   * Returns the number of protocol rounds, or local computations of protocol rounds, that have
+   * been evaluated on the pool rather than on the calling thread.
+   *
+   * @return the number of rounds evaluated in parallel
+   */
+  public long getParallelEvaluations() {
+    return parallelEvaluations.get();
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    int round = 0;
+    while (protocols.size() > 0) {
+      evaluateCurrentRound(protocols, networkBatchDecorator, resourcePool, round);
+      networkBatchDecorator.flush();
+      round++;
+    }
+  }
+
+  private void evaluateCurrentRound(
+      ProtocolCollection<ResourcePoolT> protocols, Network sceNetwork,
+      ResourcePoolT rp, int round) {
+    List<NativeProtocol<?, ResourcePoolT>> current = new ArrayList<>(protocols.size());
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      current.add(protocol);
+    }
+    boolean[] done = new boolean[current.size()];
+    int runStart = 0;
+    while (runStart < current.size()) {
+      NativeProtocol<?, ResourcePoolT> first = current.get(runStart);
+      int runEnd = runStart + 1;
+      if (first instanceof ParallelizableProtocol) {
+        while (runEnd < current.size() && current.get(runEnd) instanceof ParallelizableProtocol) {
+          runEnd++;
+        }
+        evaluateRun(current, done, runStart, runEnd, sceNetwork, rp, round);
+      } else if (first instanceof ParallelizableComputationProtocol) {
+        while (runEnd < current.size()
+            && current.get(runEnd) instanceof ParallelizableComputationProtocol) {
+          runEnd++;
+        }
+        evaluateComputationRun(current, done, runStart, runEnd, sceNetwork, rp, round);
+      } else {
+        done[runStart] = isDone(first.evaluate(round, rp, sceNetwork));
+      }
+      runStart = runEnd;
+    }
+
+    Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+    int index = 0;
+    while (iterator.hasNext()) {
+      iterator.next();
+      if (done[index++]) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Evaluates the protocols with indices <code>from</code> (inclusive) to <code>to</code>
+   * (exclusive), all of which are parallelizable.
+   */
+  private void evaluateRun(List<NativeProtocol<?, ResourcePoolT>> protocols, boolean[] done,
+      int from, int to, Network sceNetwork, ResourcePoolT rp, int round) {
+    if (to - from <= chunkSize) {
+      for (int i = from; i < to; i++) {
+        done[i] = isDone(protocols.get(i).evaluate(round, rp, sceNetwork));
+      }
+      return;
+    }
+    List<ChunkNetwork> networks = new ArrayList<>();
+    List<CompletableFuture<Void>> chunks = new ArrayList<>();
+    CompletableFuture<Void> predecessors = CompletableFuture.completedFuture(null);
+    for (int start = from; start < to; start += chunkSize) {
+      final int chunkStart = start;
+      final int chunkEnd = Math.min(start + chunkSize, to);
+      ChunkNetwork chunkNetwork = new ChunkNetwork(sceNetwork, predecessors);
+      CompletableFuture<Void> chunk = CompletableFuture.runAsync(() -> {
+        for (int i = chunkStart; i < chunkEnd; i++) {
+          done[i] = isDone(protocols.get(i).evaluate(round, rp, chunkNetwork));
+        }
+      }, pool);
+      networks.add(chunkNetwork);
+      chunks.add(chunk);
+      predecessors = CompletableFuture.allOf(predecessors, chunk);
+    }
+    join(predecessors);
+    parallelEvaluations.addAndGet(to - from);
+    for (ChunkNetwork chunkNetwork : networks) {
+      chunkNetwork.transferTo(sceNetwork);
+    }
+  }
+
+  /**
+   * Evaluates the protocols with indices <code>from</code> (inclusive) to <code>to</code>
+   * (exclusive), all of which implement {@link ParallelizableComputationProtocol}.
+   */
+  private void evaluateComputationRun(List<NativeProtocol<?, ResourcePoolT>> protocols,
+      boolean[] done, int from, int to, Network sceNetwork, ResourcePoolT rp, int round) {
+    List<ParallelizableComputationProtocol<ResourcePoolT>> run = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      run.add(asComputationProtocol(protocols.get(i)));
+    }
+    for (ParallelizableComputationProtocol<ResourcePoolT> protocol : run) {
+      protocol.prepare(round, rp, sceNetwork);
+    }
+    if (run.size() <= chunkSize) {
+      for (ParallelizableComputationProtocol<ResourcePoolT> protocol : run) {
+        protocol.compute(round, rp);
+      }
+    } else {
+      List<CompletableFuture<Void>> chunks = new ArrayList<>();
+      for (int start = 0; start < run.size(); start += chunkSize) {
+        List<ParallelizableComputationProtocol<ResourcePoolT>> chunk =
+            run.subList(start, Math.min(start + chunkSize, run.size()));
+        chunks.add(CompletableFuture.runAsync(() -> {
+          for (ParallelizableComputationProtocol<ResourcePoolT> protocol : chunk) {
+            protocol.compute(round, rp);
+          }
+        }, pool));
+      }
+      join(CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])));
+      parallelEvaluations.addAndGet(run.size());
+    }
+    for (int i = from; i < to; i++) {
+      done[i] = isDone(run.get(i - from).finish(round, rp, sceNetwork));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private ParallelizableComputationProtocol<ResourcePoolT> asComputationProtocol(
+      NativeProtocol<?, ResourcePoolT> protocol) {
+    return (ParallelizableComputationProtocol<ResourcePoolT>) protocol;
+  }
+
+  private static void join(CompletableFuture<Void> future) {
+    try {
+      future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static boolean isDone(EvaluationStatus status) {
+    return status.equals(EvaluationStatus.IS_DONE);
+  }
+
+  /**
+   * The view of the network given to the protocols of a single chunk. Outgoing messages are kept
+   * until the whole run of chunks is done, and incoming messages are only read once all previous
+   * chunks are done.
+   */
+  private static class ChunkNetwork implements Network {
+
+    private final Network network;
+    private final CompletableFuture<Void> predecessors;
+    private final Map<Integer, List<byte[]>> output;
+
+    private ChunkNetwork(Network network, CompletableFuture<Void> predecessors) {
+      this.network = network;
+      this.predecessors = predecessors;
+      this.output = new HashMap<>();
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      output.computeIfAbsent(partyId, (i) -> new ArrayList<>()).add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      predecessors.join();
+      return network.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+
+    private void transferTo(Network network) {
+      for (Map.Entry<Integer, List<byte[]>> entry : output.entrySet()) {
+        for (byte[] data : entry.getValue()) {
+          network.send(entry.getKey(), data);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batched evaluation strategy which keeps several parts of a batch in flight at the same time.
+ * <p>
+ * The batch is split into a number of consecutive stages. The stages are evaluated in a round robin
+ * fashion, one round at a time, and the messages of a stage are flushed as soon as its round has
+ * been evaluated. While the messages of one stage travel the network the following stages are
+ * evaluated, so local computation overlaps with the round trip time of the network.
+ * </p>
+ * <p>
+ * The protocols are evaluated in the same order as with {@link BatchedStrategy}, i.e., all
+ * protocols are evaluated in round <i>r</i> before any protocol is evaluated in round <i>r+1</i>.
+ * Messages are not tagged, since the stages are flushed and read in the same deterministic order by
+ * all parties. This requires all parties to use the same number of stages and the same batch size.
+ * </p>
+ * <p>
+ * Note that only protocols within a single batch are pipelined: the protocol producer allows the
+ * protocols of a batch to depend on all protocols of previous batches, so a batch can not be
+ * evaluated before the previous batch is done.
+ * </p>
+ */
+public class PipelinedBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  private static final int DEFAULT_STAGES = 4;
+  private static final int DEFAULT_MIN_STAGE_SIZE = 64;
+
+  private final int stages;
+  private final int minStageSize;
+
+  /**
+   * Creates a new strategy with a default number of stages.
+   */
+  public PipelinedBatchedStrategy() {
+    this(DEFAULT_STAGES, DEFAULT_MIN_STAGE_SIZE);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param stages the maximum number of stages a batch is split into
+   * @param minStageSize the minimum number of protocols in a stage. Smaller batches are split into
+   *     fewer stages
+   */
+  public PipelinedBatchedStrategy(int stages, int minStageSize) {
+    if (stages < 1 || minStageSize < 1) {
+      throw new IllegalArgumentException(
+          "Stages and stage size must be positive, was " + stages + " and " + minStageSize);
+    }
+    this.stages = stages;
+    this.minStageSize = minStageSize;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    List<List<NativeProtocol<?, ResourcePoolT>>> pipeline = split(protocols);
+    int round = 0;
+    boolean hasMoreRounds = !pipeline.isEmpty();
+    while (hasMoreRounds) {
+      hasMoreRounds = false;
+      for (List<NativeProtocol<?, ResourcePoolT>> stage : pipeline) {
+        if (!stage.isEmpty()) {
+          evaluateRound(stage, networkBatchDecorator, resourcePool, round);
+          networkBatchDecorator.flush();
+          hasMoreRounds |= !stage.isEmpty();
+        }
+      }
+      round++;
+    }
+  }
+
+  private List<List<NativeProtocol<?, ResourcePoolT>>> split(
+      ProtocolCollection<ResourcePoolT> protocols) {
+    int size = protocols.size();
+    int numberOfStages = Math.max(1, Math.min(stages, size / minStageSize));
+    int stageSize = (size + numberOfStages - 1) / numberOfStages;
+    List<List<NativeProtocol<?, ResourcePoolT>>> pipeline = new ArrayList<>(numberOfStages);
+    List<NativeProtocol<?, ResourcePoolT>> stage = null;
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      if (stage == null || stage.size() == stageSize) {
+        stage = new ArrayList<>(stageSize);
+        pipeline.add(stage);
+      }
+      stage.add(protocol);
+    }
+    return pipeline;
+  }
+
+  private void evaluateRound(List<NativeProtocol<?, ResourcePoolT>> stage,
+      NetworkBatchDecorator network, ResourcePoolT rp, int round) {
+    int remaining = 0;
+    for (int i = 0; i < stage.size(); i++) {
+      NativeProtocol<?, ResourcePoolT> protocol = stage.get(i);
+      EvaluationStatus status = protocol.evaluate(round, rp, network);
+      if (status.equals(EvaluationStatus.HAS_MORE_ROUNDS)) {
+        stage.set(remaining++, protocol);
+      }
+    }
+    stage.subList(remaining, stage.size()).clear();
+  }
+}
@@ -3,37 +3,141 @@ package dk.alexandra.fresco.framework.sce.evaluator;
 import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.NoSuchElementException;
 
+/**
+ * A {@link ProtocolCollection} backed by an array.
+ * <p>
+ * Removing protocols through the iterator does not shift the remaining protocols. Instead the
+ * protocols that are kept are compacted towards the front of the array as the iteration proceeds,
+ * so evaluating a round and removing the finished protocols takes a single pass without any
+ * allocation. The array is kept when the collection is emptied, so a collection can be reused for
+ * many batches.
+ * </p>
+ */
 public class ProtocolCollectionList<ResourcePoolT extends ResourcePool>
     implements ProtocolCollection<ResourcePoolT> {
 
-  private int capacity;
-  private List<NativeProtocol<?, ResourcePoolT>> protocols;
+  private static final int INITIAL_SIZE = 16;
+
+  private final int capacity;
+  private NativeProtocol<?, ResourcePoolT>[] protocols;
+  private int size;
+  // a gap left by an iteration with removals that was not run to the end
+  private int gapStart;
+  private int gapEnd;
 
   public ProtocolCollectionList(int capacity) {
     this.capacity = capacity;
-    this.protocols = new LinkedList<>();
+    this.protocols = newArray(Math.min(capacity, INITIAL_SIZE));
   }
 
   @Override
   public void addProtocol(NativeProtocol<?, ResourcePoolT> protocol) {
-    protocols.add(protocol);
+    closeGap();
+    if (size == protocols.length) {
+      protocols = Arrays.copyOf(protocols, Math.max(size + 1, Math.min(2 * size, capacity)));
+    }
+    protocols[size++] = protocol;
   }
 
   @Override
   public boolean hasFreeCapacity() {
-    return protocols.size() < capacity;
+    return size() < capacity;
   }
 
   @Override
   public Iterator<NativeProtocol<?, ResourcePoolT>> iterator() {
-    return protocols.iterator();
+    closeGap();
+    return new CompactingIterator();
   }
 
+  @Override
   public int size() {
-    return protocols.size();
+    return size - (gapEnd - gapStart);
+  }
+
+  /**
+   * Removes all protocols while keeping the allocated storage.
+   */
+  public void clear() {
+    Arrays.fill(protocols, 0, size, null);
+    size = 0;
+    gapStart = 0;
+    gapEnd = 0;
+  }
+
+  private void closeGap() {
+    if (gapStart < gapEnd) {
+      System.arraycopy(protocols, gapEnd, protocols, gapStart, size - gapEnd);
+      int newSize = size - (gapEnd - gapStart);
+      Arrays.fill(protocols, newSize, size, null);
+      size = newSize;
+    }
+    gapStart = 0;
+    gapEnd = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <ResourcePoolT extends ResourcePool> NativeProtocol<?, ResourcePoolT>[] newArray(
+      int length) {
+    return (NativeProtocol<?, ResourcePoolT>[]) new NativeProtocol<?, ?>[length];
+  }
+
+  /**
+   * Iterator moving each returned protocol to the end of the kept protocols. The protocols between
+   * the kept protocols and the next protocol to return form the gap of the collection.
+   */
+  private final class CompactingIterator implements Iterator<NativeProtocol<?, ResourcePoolT>> {
+
+    private int next;
+    private boolean canRemove;
+    private boolean closed;
+
+    @Override
+    public boolean hasNext() {
+      if (next < size) {
+        return true;
+      }
+      if (!closed) {
+        closeGap();
+        next = size;
+        closed = true;
+      }
+      return false;
+    }
+
+    @Override
+    public NativeProtocol<?, ResourcePoolT> next() {
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+      NativeProtocol<?, ResourcePoolT> protocol = protocols[next];
+      protocols[gapStart] = protocol;
+      gapStart++;
+      next++;
+      gapEnd = next;
+      canRemove = true;
+      return protocol;
+    }
+
+    @Override
+    public void remove() {
+      if (!canRemove) {
+        throw new IllegalStateException();
+      }
+      if (closed) {
+        // the gap has been closed, so the last returned protocol is the last one kept
+        size--;
+        protocols[size] = null;
+        next = size;
+      } else {
+        gapStart--;
+        protocols[gapStart] = null;
+      }
+      canRemove = false;
+    }
   }
 }
@@ -9,8 +9,8 @@ import java.util.stream.IntStream;
 
 /**
  * Supplies generic pre-processed material common across arithmetic SPDZ-like suites, including
- * random elements, bits, and multiplication triples. <p>Uses {@link Random} to deterministically
- * generate all material. NOT secure.</p>
+ * random elements, bits, multiplication triples, and truncation pairs. <p>Uses {@link Random} to
+ * deterministically generate all material. NOT secure.</p>
  */
 public class ArithmeticDummyDataSupplier {
 
@@ -74,6 +74,19 @@ public class ArithmeticDummyDataSupplier {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Computes the next random truncation pair, i.e., a random element r of the given bit length and
+   * r shifted to the right, and this party's shares.
+   */
+  public TruncationPairShares getTruncationPairShares(int bitLength, int shifts) {
+    BigInteger r = new BigInteger(bitLength, random);
+    BigInteger shiftedR = r.shiftRight(shifts);
+    return new TruncationPairShares(
+        new Pair<>(r, sharer.share(r, noOfParties).get(myId - 1)),
+        new Pair<>(shiftedR, sharer.share(shiftedR, noOfParties).get(myId - 1))
+    );
+  }
+
   private BigInteger sampleRandomBigInteger() {
     return reducer.apply(new BigInteger(modBitLength, random));
   }
@@ -0,0 +1,367 @@
+package dk.alexandra.fresco.framework.util;
+
+import dk.alexandra.fresco.framework.network.Network;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates batches of pre-processed material of several kinds in a background thread, for use by
+ * data suppliers whose pre-processing is an interactive protocol.
+ * <p>
+ * Each kind of material is kept in its own queue with a low and a high watermark. The background
+ * thread refills queues in batches in the following order of priority: queues which the online
+ * phase is waiting for, queues below their low watermark and queues below their high watermark.
+ * When all queues are at their high watermark the thread waits until material is consumed, so
+ * memory use is bounded.
+ * </p>
+ * <p>
+ * The pre-processing protocol is interactive, so all parties must generate the same kinds of
+ * material in the same order. The decisions of what to generate are therefore made by the
+ * background thread of party 1 and sent to the other parties over the pre-processing network.
+ * Since all parties consume material in the same order, the decisions of party 1 always eventually
+ * serve the needs of the other parties.
+ * </p>
+ * <p>
+ * The pre-processing network should not be used by anything else while the supplier is running.
+ * The supplier should be closed when no longer needed, which stops the background thread of all
+ * parties.
+ * </p>
+ */
+public class BackgroundSupplier implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(BackgroundSupplier.class);
+  private static final int LEADER_ID = 1;
+  private static final int STOP = -1;
+
+  private final String name;
+  private final int myId;
+  private final int noOfParties;
+  private final Supplier<Network> network;
+  private final Function<Network, BatchGenerator> generatorFactory;
+
+  private final Object lock = new Object();
+  private final List<ArrayDeque<Object>> queues;
+  private final List<Watermarks> watermarks;
+  private final int[] demands;
+  private Thread producer;
+  private boolean closed;
+  private Exception failure;
+
+  private long stallCount;
+  private long stallNanos;
+  private long refillCount;
+  private long refillNanos;
+
+  /**
+   * Creates new {@link BackgroundSupplier}.
+   *
+   * @param name name of the pre-processing protocol, used for the background thread and in error
+   *     messages
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param network supplier of the network used for pre-processing, called by the background
+   *     thread
+   * @param generatorFactory creates the generator of batches from the pre-processing network,
+   *     called by the background thread
+   * @param watermarks the watermarks of the queue of each kind of material, where the kinds are
+   *     the indices of this list
+   */
+  public BackgroundSupplier(String name, int myId, int noOfParties, Supplier<Network> network,
+      Function<Network, BatchGenerator> generatorFactory, List<Watermarks> watermarks) {
+    this.name = name;
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.network = network;
+    this.generatorFactory = generatorFactory;
+    this.watermarks = new ArrayList<>(watermarks);
+    this.queues = new ArrayList<>(watermarks.size());
+    this.demands = new int[watermarks.size()];
+    for (int kind = 0; kind < watermarks.size(); kind++) {
+      queues.add(new ArrayDeque<>());
+    }
+  }
+
+  /**
+   * Starts generating material in the background. This is done automatically when material is
+   * first requested, but starting early lets the queues fill up before the online phase.
+   */
+  public void start() {
+    synchronized (lock) {
+      if (producer == null && !closed) {
+        producer = new Thread(this::produce, name + "-preprocessing-" + myId);
+        producer.setDaemon(true);
+        producer.start();
+      }
+    }
+  }
+
+  /**
+   * Takes material from a queue, waiting for the background thread if there is not enough.
+   *
+   * @param kind the kind of material
+   * @param amount the number of elements to take
+   * @return the elements taken from the front of the queue
+   */
+  @SuppressWarnings("unchecked")
+  public <T> List<T> take(int kind, int amount) {
+    start();
+    ArrayDeque<Object> queue = queues.get(kind);
+    List<T> taken = new ArrayList<>(amount);
+    synchronized (lock) {
+      if (queue.size() < amount) {
+        long start = System.nanoTime();
+        stallCount++;
+        demands[kind] = amount;
+        lock.notifyAll();
+        while (queue.size() < amount) {
+          checkRunning();
+          waitForChange();
+        }
+        demands[kind] = 0;
+        stallNanos += System.nanoTime() - start;
+      }
+      for (int i = 0; i < amount; i++) {
+        taken.add((T) queue.pop());
+      }
+      lock.notifyAll();
+    }
+    return taken;
+  }
+
+  /**
+   * Stops the background thread. For party 1 this also stops the background threads of the other
+   * parties.
+   */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      closed = true;
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Resets the stall and refill statistics.
+   */
+  public void reset() {
+    synchronized (lock) {
+      stallCount = 0;
+      stallNanos = 0;
+      refillCount = 0;
+      refillNanos = 0;
+    }
+  }
+
+  /**
+   * Gets the number of times material was requested before it was available.
+   */
+  public long getStallCount() {
+    synchronized (lock) {
+      return stallCount;
+    }
+  }
+
+  /**
+   * Gets the total time spent waiting for material, in nanoseconds.
+   */
+  public long getStallNanos() {
+    synchronized (lock) {
+      return stallNanos;
+    }
+  }
+
+  /**
+   * Gets the number of batches generated.
+   */
+  public long getRefillCount() {
+    synchronized (lock) {
+      return refillCount;
+    }
+  }
+
+  /**
+   * Gets the total time spent generating batches, in nanoseconds.
+   */
+  public long getRefillNanos() {
+    synchronized (lock) {
+      return refillNanos;
+    }
+  }
+
+  /**
+   * Gets the number of elements currently in the queue of the given kind.
+   */
+  public int getQueueSize(int kind) {
+    synchronized (lock) {
+      return queues.get(kind).size();
+    }
+  }
+
+  private void checkRunning() {
+    if (failure != null) {
+      throw new RuntimeException(name + " pre-processing failed", failure);
+    }
+    if (closed) {
+      throw new IllegalStateException("Supplier has been closed");
+    }
+  }
+
+  private void waitForChange() {
+    try {
+      lock.wait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for pre-processed material", e);
+    }
+  }
+
+  /**
+   * The loop run by the background thread.
+   */
+  private void produce() {
+    try {
+      Network network = this.network.get();
+      BatchGenerator generator = generatorFactory.apply(network);
+      while (true) {
+        int kind;
+        if (myId == LEADER_ID) {
+          kind = nextKind();
+          byte[] decision = ByteBuffer.allocate(Integer.BYTES).putInt(kind).array();
+          for (int partyId = 1; partyId <= noOfParties; partyId++) {
+            if (partyId != myId) {
+              network.send(partyId, decision);
+            }
+          }
+        } else {
+          kind = ByteBuffer.wrap(network.receive(LEADER_ID)).getInt();
+        }
+        if (kind == STOP) {
+          return;
+        }
+        logger.trace("Generating batch of kind {}", kind);
+        long start = System.nanoTime();
+        List<?> batch = generator.generate(kind);
+        long elapsed = System.nanoTime() - start;
+        synchronized (lock) {
+          queues.get(kind).addAll(batch);
+          refillCount++;
+          refillNanos += elapsed;
+          lock.notifyAll();
+        }
+      }
+    } catch (Exception e) {
+      logger.error(name + " pre-processing failed", e);
+      synchronized (lock) {
+        failure = e;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Decides which kind of material to generate next, waiting until some queue needs refilling.
+   * Only called by the leader.
+   */
+  private int nextKind() throws InterruptedException {
+    synchronized (lock) {
+      while (true) {
+        if (closed) {
+          return STOP;
+        }
+        int kind = mostUrgent();
+        if (kind != STOP) {
+          return kind;
+        }
+        lock.wait();
+      }
+    }
+  }
+
+  private int mostUrgent() {
+    for (int kind = 0; kind < queues.size(); kind++) {
+      if (demands[kind] > queues.get(kind).size()) {
+        return kind;
+      }
+    }
+    int lowest = lowestFill(true);
+    if (lowest != STOP) {
+      return lowest;
+    }
+    return lowestFill(false);
+  }
+
+  /**
+   * Finds the queue which is filled the least relative to one of its watermarks, considering only
+   * queues below that watermark.
+   */
+  private int lowestFill(boolean lowWatermark) {
+    int best = STOP;
+    double bestFill = Double.MAX_VALUE;
+    for (int kind = 0; kind < queues.size(); kind++) {
+      Watermarks marks = watermarks.get(kind);
+      int mark = lowWatermark ? marks.getLow() : marks.getHigh();
+      int size = queues.get(kind).size();
+      if (size < mark && (double) size / mark < bestFill) {
+        best = kind;
+        bestFill = (double) size / mark;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Generates batches of pre-processed material. Only called by the background thread.
+   */
+  @FunctionalInterface
+  public interface BatchGenerator {
+
+    /**
+     * Generates a batch of material of the given kind, interacting with the other parties.
+     *
+     * @param kind the kind of material
+     * @return the batch
+     */
+    List<?> generate(int kind);
+  }
+
+  /**
+   * Low and high watermark for a queue of pre-processed material. The queue is refilled with
+   * priority when below the low watermark and is refilled when there is nothing more urgent to do
+   * while below the high watermark.
+   */
+  public static final class Watermarks {
+
+    private final int low;
+    private final int high;
+
+    /**
+     * Creates new watermarks.
+     *
+     * @param low the low watermark
+     * @param high the high watermark, at least as large as the low watermark
+     */
+    public Watermarks(int low, int high) {
+      if (low < 0 || high < low) {
+        throw new IllegalArgumentException(
+            "Watermarks must satisfy 0 <= low <= high, was " + low + " and " + high);
+      }
+      this.low = low;
+      this.high = high;
+    }
+
+    public int getLow() {
+      return low;
+    }
+
+    public int getHigh() {
+      return high;
+    }
+  }
+}
@@ -1,52 +1,143 @@
 package dk.alexandra.fresco.framework.util;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Implements {@link OpenedValueStore}.
+ * <p>
+ * Lists of authenticated and opened values pushed in bulk are kept by reference until they are
+ * popped, so packed lists, such as a
+ * {@link dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector}, are not unpacked
+ * while waiting for the next MAC check. The pushed lists must therefore not be modified by the
+ * caller after they are pushed. When popped, the segments are returned as a single list view
+ * concatenating them, so the values are not copied either.
+ * </p>
  */
 public class OpenedValueStoreImpl<AuthT, OpenT> implements OpenedValueStore<AuthT, OpenT> {
 
-  private List<AuthT> sharesWithMacs;
-  private List<OpenT> openValues;
+  private List<List<AuthT>> sharesWithMacsSegments;
+  private List<List<OpenT>> openValueSegments;
+  private List<AuthT> currentSharesWithMacs;
+  private List<OpenT> currentOpenValues;
+  private int size;
 
   public OpenedValueStoreImpl() {
-    this.sharesWithMacs = new ArrayList<>();
-    this.openValues = new ArrayList<>();
+    this.sharesWithMacsSegments = new ArrayList<>();
+    this.openValueSegments = new ArrayList<>();
+    this.currentSharesWithMacs = null;
+    this.currentOpenValues = null;
+    this.size = 0;
   }
 
   @Override
   public void pushOpenedValues(List<AuthT> newSharesWithMacs, List<OpenT> newOpenedValues) {
-    sharesWithMacs.addAll(newSharesWithMacs);
-    openValues.addAll(newOpenedValues);
+    sharesWithMacsSegments.add(newSharesWithMacs);
+    openValueSegments.add(newOpenedValues);
+    currentSharesWithMacs = null;
+    currentOpenValues = null;
+    size += newSharesWithMacs.size();
   }
 
   @Override
   public void pushOpenedValue(AuthT newShareWithMac, OpenT newOpenedValue) {
-    sharesWithMacs.add(newShareWithMac);
-    openValues.add(newOpenedValue);
+    if (currentSharesWithMacs == null) {
+      currentSharesWithMacs = new ArrayList<>();
+      currentOpenValues = new ArrayList<>();
+      sharesWithMacsSegments.add(currentSharesWithMacs);
+      openValueSegments.add(currentOpenValues);
+    }
+    currentSharesWithMacs.add(newShareWithMac);
+    currentOpenValues.add(newOpenedValue);
+    size++;
   }
 
   @Override
   public Pair<List<AuthT>, List<OpenT>> popValues() {
-    // the caller has the responsibility of managing the returned lists, so we clear by referencing
-    // new empty lists (which avoids copying) and return references to original value lists
-    List<AuthT> tempSharesWithMacs = sharesWithMacs;
-    List<OpenT> tempOpenedValues = openValues;
-    sharesWithMacs = new ArrayList<>();
-    openValues = new ArrayList<>();
+    // the segments are handed over to the caller as concatenated views without copying, and the
+    // store starts over with no segments
+    List<AuthT> tempSharesWithMacs = new SegmentedList<>(sharesWithMacsSegments);
+    List<OpenT> tempOpenedValues = new SegmentedList<>(openValueSegments);
+    sharesWithMacsSegments = new ArrayList<>();
+    openValueSegments = new ArrayList<>();
+    currentSharesWithMacs = null;
+    currentOpenValues = null;
+    size = 0;
     return new Pair<>(tempSharesWithMacs, tempOpenedValues);
   }
 
   @Override
   public boolean hasPendingValues() {
-    return sharesWithMacs.size() > 0;
+    return size > 0;
   }
 
   @Override
   public boolean exceedsThreshold(int threshold) {
-    return sharesWithMacs.size() > threshold;
+    return size > threshold;
   }
 
+  /**
+   * Read-only list concatenating a list of segments. Clearing the list releases the segments.
+   */
+  private static final class SegmentedList<T> extends AbstractList<T> implements RandomAccess {
+
+    private List<List<T>> segments;
+    private int[] starts;
+    private int size;
+    // the segment of the last element accessed, since elements are mostly accessed in order
+    private int lastSegment;
+
+    private SegmentedList(List<List<T>> segments) {
+      this.segments = segments;
+      this.starts = new int[segments.size()];
+      for (int i = 0; i < segments.size(); i++) {
+        starts[i] = size;
+        size += segments.get(i).size();
+      }
+    }
+
+    @Override
+    public T get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of range 0 ... " + size);
+      }
+      int segment = lastSegment;
+      if (index < starts[segment] || index >= starts[segment] + segments.get(segment).size()) {
+        segment = findSegment(index);
+        lastSegment = segment;
+      }
+      return segments.get(segment).get(index - starts[segment]);
+    }
+
+    private int findSegment(int index) {
+      // last segment starting at or before the index, skipping empty segments
+      int low = 0;
+      int high = starts.length - 1;
+      while (low < high) {
+        int middle = (low + high + 1) >>> 1;
+        if (starts[middle] <= index) {
+          low = middle;
+        } else {
+          high = middle - 1;
+        }
+      }
+      return low;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void clear() {
+      segments = Collections.emptyList();
+      starts = new int[0];
+      size = 0;
+      lastSegment = 0;
+    }
+  }
 }
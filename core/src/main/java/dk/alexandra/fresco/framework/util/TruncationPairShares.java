@@ -0,0 +1,28 @@
+package dk.alexandra.fresco.framework.util;
+
+import java.math.BigInteger;
+
+/**
+ * Generic representation of a truncation pair.<p> A truncation pair is a pair of the form r, r'
+ * where r' = r >> d for some number of shifts d (usually secret-shared). For each of the two
+ * values, this class holds the open value as well as this party's share.</p>
+ */
+public class TruncationPairShares {
+
+  private final Pair<BigInteger, BigInteger> r;
+  private final Pair<BigInteger, BigInteger> shiftedR;
+
+  public TruncationPairShares(Pair<BigInteger, BigInteger> r,
+      Pair<BigInteger, BigInteger> shiftedR) {
+    this.r = r;
+    this.shiftedR = shiftedR;
+  }
+
+  public Pair<BigInteger, BigInteger> getR() {
+    return r;
+  }
+
+  public Pair<BigInteger, BigInteger> getShiftedR() {
+    return shiftedR;
+  }
+}
@@ -0,0 +1,82 @@
+package dk.alexandra.fresco.lib.collections;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implements a lookup protocol for a batch of lookup keys in the same table.
+ * <p>
+ * For each lookup key the key is compared to all keys in the table in parallel, giving a vector of
+ * equality indicators. The result is then computed as <code>notFoundValue + sum_i e_i (v_i -
+ * notFoundValue)</code>, i.e., as a single inner product of the indicators and the values. So
+ * unlike {@link LinearLookUp}, which selects the value through a chain of conditional selections,
+ * only a single round of multiplications is needed after the equality tests, and all lookups in
+ * the batch are done in parallel.
+ * </p>
+ * <p>
+ * The keys of the table must be distinct, otherwise the values of all matching keys are added.
+ * </p>
+ */
+public class InnerProductLookUp implements Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<DRes<SInt>> lookUpKeys;
+  private final List<DRes<SInt>> keys;
+  private final List<DRes<SInt>> values;
+  private final DRes<SInt> notFoundValue;
+
+  /**
+   * Makes a new InnerProductLookUp.
+   *
+   * @param lookUpKeys the keys to look up.
+   * @param keys the distinct keys to search among.
+   * @param values the values corresponding to each key.
+   * @param notFoundValue The value to return for lookup keys which are not present.
+   */
+  public InnerProductLookUp(List<DRes<SInt>> lookUpKeys, List<DRes<SInt>> keys,
+      List<DRes<SInt>> values, DRes<SInt> notFoundValue) {
+    if (keys.size() != values.size()) {
+      throw new IllegalArgumentException("Number of keys and values must match, was "
+          + keys.size() + " and " + values.size());
+    }
+    this.lookUpKeys = new ArrayList<>(lookUpKeys);
+    this.keys = new ArrayList<>(keys);
+    this.values = new ArrayList<>(values);
+    this.notFoundValue = notFoundValue;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      List<List<DRes<SInt>>> indicators = new ArrayList<>(lookUpKeys.size());
+      for (DRes<SInt> lookUpKey : lookUpKeys) {
+        List<DRes<SInt>> equalities = new ArrayList<>(keys.size());
+        for (DRes<SInt> key : keys) {
+          equalities.add(par.comparison().equals(lookUpKey, key));
+        }
+        indicators.add(equalities);
+      }
+      Numeric numeric = par.numeric();
+      List<DRes<SInt>> differences = new ArrayList<>(values.size());
+      for (DRes<SInt> value : values) {
+        differences.add(numeric.sub(value, notFoundValue));
+      }
+      return () -> new Pair<>(indicators, differences);
+    }).par((par, indicatorsAndDifferences) -> {
+      List<DRes<SInt>> differences = indicatorsAndDifferences.getSecond();
+      List<DRes<SInt>> results = new ArrayList<>(lookUpKeys.size());
+      for (List<DRes<SInt>> equalities : indicatorsAndDifferences.getFirst()) {
+        results.add(par.seq(seq -> {
+          DRes<SInt> found = seq.advancedNumeric().innerProduct(equalities, differences);
+          return seq.numeric().add(notFoundValue, found);
+        }));
+      }
+      return () -> results;
+    });
+  }
+}
@@ -7,7 +7,6 @@ import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SBool;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class KeyedCompareAndSwap implements
     Computation<List<Pair<List<DRes<SBool>>, List<DRes<SBool>>>>, ProtocolBuilderBinary> {
@@ -40,32 +39,18 @@ public class KeyedCompareAndSwap implements
     return builder.par(seq -> {
 
       DRes<SBool> comparison = seq.comparison().greaterThan(leftKey, rightKey);
-      xorKey = leftKey.stream().map(e -> seq.binary().xor(e, rightKey.get(leftKey.indexOf(e))))
-          .collect(Collectors.toList());
-
-      xorValue =
-          leftValue.stream().map(e -> seq.binary().xor(e, rightValue.get(leftValue.indexOf(e))))
-              .collect(Collectors.toList());
+      xorKey = xor(seq, leftKey, rightKey);
+      xorValue = xor(seq, leftValue, rightValue);
       return () -> comparison;
     }).par((par, data) -> {
 
-      List<DRes<SBool>> firstValue = leftValue.stream()
-          .map(e -> par.advancedBinary().condSelect(data, e, rightValue.get(leftValue.indexOf(e))))
-          .collect(Collectors.toList());
-
-      List<DRes<SBool>> firstKey = leftKey.stream()
-          .map(e -> par.advancedBinary().condSelect(data, e, rightKey.get(leftKey.indexOf(e))))
-          .collect(Collectors.toList());
+      List<DRes<SBool>> firstValue = condSelect(par, data, leftValue, rightValue);
+      List<DRes<SBool>> firstKey = condSelect(par, data, leftKey, rightKey);
 
       return () -> new Pair<>(firstKey, firstValue);
     }).par((par, data) -> {
-      List<DRes<SBool>> lastValue =
-          xorValue.stream().map(e -> par.binary().xor(e, data.getSecond().get(xorValue.indexOf(e))))
-              .collect(Collectors.toList());
-
-      List<DRes<SBool>> lastKey =
-          xorKey.stream().map(e -> par.binary().xor(e, data.getFirst().get(xorKey.indexOf(e))))
-              .collect(Collectors.toList());
+      List<DRes<SBool>> lastValue = xor(par, xorValue, data.getSecond());
+      List<DRes<SBool>> lastKey = xor(par, xorKey, data.getFirst());
 
       List<Pair<List<DRes<SBool>>, List<DRes<SBool>>>> result = new ArrayList<>();
       result.add(data);
@@ -74,4 +59,22 @@ public class KeyedCompareAndSwap implements
       return () -> result;
     });
   }
+
+  private static List<DRes<SBool>> xor(ProtocolBuilderBinary builder, List<DRes<SBool>> left,
+      List<DRes<SBool>> right) {
+    List<DRes<SBool>> result = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      result.add(builder.binary().xor(left.get(i), right.get(i)));
+    }
+    return result;
+  }
+
+  private static List<DRes<SBool>> condSelect(ProtocolBuilderBinary builder,
+      DRes<SBool> condition, List<DRes<SBool>> left, List<DRes<SBool>> right) {
+    List<DRes<SBool>> result = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      result.add(builder.advancedBinary().condSelect(condition, left.get(i), right.get(i)));
+    }
+    return result;
+  }
 }
@@ -0,0 +1,155 @@
+package dk.alexandra.fresco.lib.collections.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.RowPairD;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.collections.Matrix;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts the rows of a matrix of secret values in ascending order of a key column.
+ * <p>
+ * Uses Batcher's odd-even merge sort network. The comparators of the network are grouped in
+ * layers of disjoint pairs of rows, and each layer is evaluated as a single batched comparison
+ * of all its pairs followed by a conditional swap of all its pairs. Sorting <code>n</code> rows
+ * therefore takes <code>log(n)(log(n) + 1) / 2</code> layers independently of the values. Any
+ * number of rows is supported: the network for the next power of two is used, leaving out the
+ * comparators involving the missing rows.
+ * </p>
+ * <p>
+ * The sort is not stable, and the keys must fit within the maximum bit length of the comparison.
+ * </p>
+ */
+public class OddEvenMergeSortRows implements
+    Computation<Matrix<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final DRes<Matrix<DRes<SInt>>> values;
+  private final int keyColumn;
+
+  /**
+   * Constructs a new sorting of the rows of a matrix.
+   *
+   * @param values the rows to sort
+   * @param keyColumn the index of the column to sort by
+   */
+  public OddEvenMergeSortRows(DRes<Matrix<DRes<SInt>>> values, int keyColumn) {
+    this.values = values;
+    this.keyColumn = keyColumn;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    Matrix<DRes<SInt>> input = values.out();
+    if (input.getHeight() < 2) {
+      return values;
+    }
+    if (keyColumn < 0 || keyColumn >= input.getWidth()) {
+      throw new IllegalArgumentException("Key column " + keyColumn
+          + " is out of bounds for a matrix of width " + input.getWidth());
+    }
+    List<List<int[]>> layers = getLayers(input.getHeight());
+    return builder.seq(
+        seq -> new IterationState(0, values)
+    ).whileLoop((state) -> state.layer < layers.size(), (seq, state) -> {
+      DRes<Matrix<DRes<SInt>>> sorted = seq.seq(new Layer(state.rows, layers.get(state.layer)));
+      return new IterationState(state.layer + 1, sorted);
+    }).seq((seq, state) -> state.rows);
+  }
+
+  /**
+   * Computes the layers of the odd-even merge sort network for <code>n</code> inputs. Each layer
+   * is a list of pairs of indices <code>i < j</code>, such that the rows at <code>i</code> and
+   * <code>j</code> must be swapped if the key of <code>i</code> is larger than the key of
+   * <code>j</code>. The pairs of a layer are disjoint.
+   *
+   * @param n the number of inputs
+   * @return the layers of the network
+   */
+  static List<List<int[]>> getLayers(int n) {
+    List<List<int[]>> layers = new ArrayList<>();
+    for (int p = 1; p < n; p <<= 1) {
+      for (int k = p; k >= 1; k >>= 1) {
+        List<int[]> layer = new ArrayList<>();
+        for (int j = k % p; j + k < n; j += 2 * k) {
+          for (int i = 0; i < Math.min(k, n - j - k); i++) {
+            // only compare within the blocks of size 2p that are currently being merged
+            if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+              layer.add(new int[]{i + j, i + j + k});
+            }
+          }
+        }
+        layers.add(layer);
+      }
+    }
+    return layers;
+  }
+
+  /**
+   * A single layer of the network: compares all pairs in one batch and swaps the rows of each
+   * pair that is out of order.
+   */
+  private class Layer implements Computation<Matrix<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+    private final DRes<Matrix<DRes<SInt>>> rows;
+    private final List<int[]> pairs;
+
+    private Layer(DRes<Matrix<DRes<SInt>>> rows, List<int[]> pairs) {
+      this.rows = rows;
+      this.pairs = pairs;
+    }
+
+    @Override
+    public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+      Matrix<DRes<SInt>> matrix = rows.out();
+      List<DRes<SInt>> leftKeys = new ArrayList<>(pairs.size());
+      List<DRes<SInt>> rightKeys = new ArrayList<>(pairs.size());
+      for (int[] pair : pairs) {
+        leftKeys.add(matrix.getRow(pair[0]).get(keyColumn));
+        rightKeys.add(matrix.getRow(pair[1]).get(keyColumn));
+      }
+      return builder.seq(seq -> seq.comparison().compareLEQ(leftKeys, rightKeys)
+      ).par((par, inOrder) -> {
+        Numeric numeric = par.numeric();
+        List<DRes<RowPairD<SInt, SInt>>> swapped = new ArrayList<>(pairs.size());
+        for (int i = 0; i < pairs.size(); i++) {
+          int[] pair = pairs.get(i);
+          ArrayList<DRes<SInt>> left = matrix.getRow(pair[0]);
+          ArrayList<DRes<SInt>> right = matrix.getRow(pair[1]);
+          DRes<SInt> swap = numeric.sub(BigInteger.ONE, inOrder.get(i));
+          swapped.add(par.collections().swapIf(swap, () -> left, () -> right));
+        }
+        return () -> swapped;
+      }).seq((seq, swapped) -> {
+        Matrix<DRes<SInt>> result = new Matrix<>(matrix);
+        for (int i = 0; i < pairs.size(); i++) {
+          int[] pair = pairs.get(i);
+          RowPairD<SInt, SInt> rowPair = swapped.get(i).out();
+          result.setRow(pair[0], new ArrayList<>(rowPair.getFirst().out()));
+          result.setRow(pair[1], new ArrayList<>(rowPair.getSecond().out()));
+        }
+        return () -> result;
+      });
+    }
+  }
+
+  private static final class IterationState implements DRes<IterationState> {
+
+    private final int layer;
+    private final DRes<Matrix<DRes<SInt>>> rows;
+
+    private IterationState(int layer, DRes<Matrix<DRes<SInt>>> rows) {
+      this.layer = layer;
+      this.rows = rows;
+    }
+
+    @Override
+    public IterationState out() {
+      return this;
+    }
+  }
+}
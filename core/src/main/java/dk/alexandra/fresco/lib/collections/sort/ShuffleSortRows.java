@@ -0,0 +1,157 @@
+package dk.alexandra.fresco.lib.collections.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.collections.Matrix;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts the rows of a matrix of secret values in ascending order of a key column by first
+ * shuffling the rows and then running a quicksort in which the results of the comparisons are
+ * opened.
+ * <p>
+ * Since the rows are randomly permuted before sorting, the opened comparison results only reveal
+ * the order of a random permutation as long as all keys are distinct. In each iteration every
+ * unsorted segment is partitioned around its first row, and the comparisons of all segments are
+ * done in a single batch. This gives an expected number of <code>O(log(n))</code> iterations and
+ * <code>O(n log(n))</code> comparisons, compared to <code>O(n log(n)^2)</code> comparisons and
+ * swaps for {@link OddEvenMergeSortRows}. No rows are swapped obliviously, they are simply
+ * rearranged according to the opened comparisons.
+ * </p>
+ * <p>
+ * NOTE: The keys must be distinct. Otherwise the comparisons reveal which rows have equal keys.
+ * Since the rows are shuffled using {@link dk.alexandra.fresco.lib.collections.shuffle.ShuffleRows}
+ * the number of rows must be a power of 2.
+ * </p>
+ */
+public class ShuffleSortRows implements Computation<Matrix<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final DRes<Matrix<DRes<SInt>>> values;
+  private final int keyColumn;
+
+  /**
+   * Constructs a new sorting of the rows of a matrix.
+   *
+   * @param values the rows to sort
+   * @param keyColumn the index of the column to sort by, all keys in this column must be distinct
+   */
+  public ShuffleSortRows(DRes<Matrix<DRes<SInt>>> values, int keyColumn) {
+    this.values = values;
+    this.keyColumn = keyColumn;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    Matrix<DRes<SInt>> input = values.out();
+    if (input.getHeight() < 2) {
+      return values;
+    }
+    if (keyColumn < 0 || keyColumn >= input.getWidth()) {
+      throw new IllegalArgumentException("Key column " + keyColumn
+          + " is out of bounds for a matrix of width " + input.getWidth());
+    }
+    return builder.seq(
+        seq -> seq.collections().shuffle(values)
+    ).seq((seq, shuffled) -> {
+      List<List<Integer>> segments = new ArrayList<>();
+      List<Integer> all = new ArrayList<>(shuffled.getHeight());
+      for (int i = 0; i < shuffled.getHeight(); i++) {
+        all.add(i);
+      }
+      segments.add(all);
+      return new IterationState(shuffled, segments);
+    }).whileLoop((state) -> !state.isSorted(), (seq, state) -> {
+      List<DRes<SInt>> keys = new ArrayList<>();
+      List<DRes<SInt>> pivots = new ArrayList<>();
+      for (List<Integer> segment : state.segments) {
+        if (segment.size() > 1) {
+          DRes<SInt> pivot = state.getKey(segment.get(0));
+          for (int i = 1; i < segment.size(); i++) {
+            keys.add(state.getKey(segment.get(i)));
+            pivots.add(pivot);
+          }
+        }
+      }
+      DRes<List<DRes<SInt>>> comparisons = seq.comparison().compareLEQ(keys, pivots);
+      DRes<List<DRes<BigInteger>>> opened = seq.collections().openList(comparisons);
+      return seq.seq(inner -> state.partition(opened.out()));
+    }).seq((seq, state) -> {
+      ArrayList<ArrayList<DRes<SInt>>> rows = new ArrayList<>(state.shuffled.getHeight());
+      for (List<Integer> segment : state.segments) {
+        rows.add(state.shuffled.getRow(segment.get(0)));
+      }
+      Matrix<DRes<SInt>> sorted =
+          new Matrix<>(state.shuffled.getHeight(), state.shuffled.getWidth(), rows);
+      return () -> sorted;
+    });
+  }
+
+  /**
+   * The shuffled rows and the current division of their indices into segments. The segments are
+   * ordered so that all keys of a segment are smaller than the keys of the following segments.
+   */
+  private final class IterationState implements DRes<IterationState> {
+
+    private final Matrix<DRes<SInt>> shuffled;
+    private final List<List<Integer>> segments;
+
+    private IterationState(Matrix<DRes<SInt>> shuffled, List<List<Integer>> segments) {
+      this.shuffled = shuffled;
+      this.segments = segments;
+    }
+
+    private DRes<SInt> getKey(int row) {
+      return shuffled.getRow(row).get(keyColumn);
+    }
+
+    private boolean isSorted() {
+      return segments.size() == shuffled.getHeight();
+    }
+
+    /**
+     * Splits each segment of more than one row into the rows with keys less than or equal to the
+     * first row, the first row itself, and the rows with larger keys.
+     *
+     * @param comparisons the opened comparisons in the order they were made
+     * @return the next state
+     */
+    private IterationState partition(List<DRes<BigInteger>> comparisons) {
+      List<List<Integer>> next = new ArrayList<>();
+      int comparison = 0;
+      for (List<Integer> segment : segments) {
+        if (segment.size() == 1) {
+          next.add(segment);
+        } else {
+          List<Integer> smaller = new ArrayList<>();
+          List<Integer> larger = new ArrayList<>();
+          for (int i = 1; i < segment.size(); i++) {
+            if (comparisons.get(comparison++).out().equals(BigInteger.ONE)) {
+              smaller.add(segment.get(i));
+            } else {
+              larger.add(segment.get(i));
+            }
+          }
+          if (!smaller.isEmpty()) {
+            next.add(smaller);
+          }
+          List<Integer> pivot = new ArrayList<>(1);
+          pivot.add(segment.get(0));
+          next.add(pivot);
+          if (!larger.isEmpty()) {
+            next.add(larger);
+          }
+        }
+      }
+      return new IterationState(shuffled, next);
+    }
+
+    @Override
+    public IterationState out() {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package dk.alexandra.fresco.lib.compare.gt;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.AdvancedNumeric.RandomAdditiveMask;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.conditional.ConditionalSelect;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes <code>x_i <= y_i</code> for all pairs of two lists of values.
+ * <p>
+ * This is the same protocol as {@link LessThanOrEquals}, but all comparisons are carried out in
+ * lockstep: the additive masks of all comparisons are generated in parallel, all masked values are
+ * opened in the same batch, and the recursive comparisons of the bottom or top halves are done as a
+ * single comparison of two lists. The number of rounds is therefore the same as for a single
+ * comparison, and the values of each round are sent together.
+ * </p>
+ */
+public class LessThanOrEqualsList implements
+    Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final int bitLength;
+  private final int securityParameter;
+  private final List<DRes<SInt>> x;
+  private final List<DRes<SInt>> y;
+
+  /**
+   * Creates a new comparison of two lists.
+   *
+   * @param bitLength the maximum bit length of the values
+   * @param securityParameter the statistical security parameter of the masks
+   * @param x the left hand sides
+   * @param y the right hand sides, must have the same size as <code>x</code>
+   */
+  public LessThanOrEqualsList(int bitLength, int securityParameter, List<DRes<SInt>> x,
+      List<DRes<SInt>> y) {
+    if (x.size() != y.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + x.size() + " and " + y.size());
+    }
+    this.bitLength = bitLength;
+    this.securityParameter = securityParameter;
+    this.x = new ArrayList<>(x);
+    this.y = new ArrayList<>(y);
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    final BigInteger modulus = builder.getBasicNumericContext().getModulus();
+    final int bitLengthBottom = bitLength / 2;
+    final int bitLengthTop = bitLength - bitLengthBottom;
+    final BigInteger twoToBitLength = BigInteger.ONE.shiftLeft(bitLength);
+    final BigInteger twoToBitLengthBottom = BigInteger.ONE.shiftLeft(bitLengthBottom);
+    final BigInteger twoToNegBitLength = twoToBitLength.modInverse(modulus);
+    final BigInteger one = BigInteger.ONE;
+    final int size = x.size();
+
+    return builder.par(par -> {
+      List<DRes<RandomAdditiveMask>> masks = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        masks.add(par.advancedNumeric().additiveMask(bitLength + securityParameter));
+      }
+      return () -> masks;
+    }).par((par, masks) -> {
+      List<DRes<State>> states = new ArrayList<>(size);
+      List<BigInteger> twoPowsBottom = par.getBigIntegerHelper().getTwoPowersList(bitLengthBottom);
+      List<BigInteger> twoPowsTop = par.getBigIntegerHelper().getTwoPowersList(bitLengthTop);
+      for (int i = 0; i < size; i++) {
+        State state = new State(x.get(i), y.get(i));
+        RandomAdditiveMask mask = masks.get(i).out();
+        states.add(par.seq(seq -> {
+          List<DRes<SInt>> bits = mask.bits.subList(0, bitLength);
+          state.rBottom = seq.advancedNumeric()
+              .innerProductWithPublicPart(twoPowsBottom, bits.subList(0, bitLengthBottom));
+          state.rTop = seq.advancedNumeric()
+              .innerProductWithPublicPart(twoPowsTop, bits.subList(bitLengthBottom, bitLength));
+          Numeric numeric = seq.numeric();
+          state.rBar = numeric.add(numeric.mult(twoToBitLengthBottom, state.rTop), state.rBottom);
+          // z = 2^bitLength + y - x, mO = open(z + r)
+          state.z = numeric.add(twoToBitLength, numeric.sub(state.y, state.x));
+          state.mO = numeric.open(numeric.add(state.z, mask.random));
+          return () -> state;
+        }));
+      }
+      return () -> states;
+    }).par((par, states) -> {
+      List<DRes<State>> next = new ArrayList<>(size);
+      for (DRes<State> deferred : states) {
+        State state = deferred.out();
+        next.add(par.seq(seq -> {
+          BigInteger mMod = state.mO.out().mod(twoToBitLength);
+          state.mBar = mMod;
+          state.mBot = mMod.mod(twoToBitLengthBottom);
+          state.mTop = mMod.shiftRight(bitLengthBottom);
+          DRes<SInt> dif = seq.numeric().sub(state.mTop, state.rTop);
+          state.eqResult = seq.comparison().compareZero(dif, bitLengthTop);
+          return () -> state;
+        }));
+      }
+      return () -> next;
+    }).par((par, states) -> {
+      List<DRes<State>> next = new ArrayList<>(size);
+      for (DRes<State> deferred : states) {
+        State state = deferred.out();
+        next.add(par.seq(seq -> {
+          // [eqResult] ? bottom : top, for both m and r
+          state.rPrime = seq.seq(new ConditionalSelect(state.eqResult, state.rBottom, state.rTop));
+          Numeric numeric = seq.numeric();
+          DRes<SInt> negEqResult = numeric.sub(one, state.eqResult);
+          state.mPrime = numeric.add(numeric.mult(state.mBot, state.eqResult),
+              numeric.mult(state.mTop, negEqResult));
+          if (bitLength == 2) {
+            // sub comparison is of length 1: mPrime >= rPrime, i.e., NOT (rPrime AND NOT mPrime)
+            DRes<SInt> mPrimeNegated = numeric.sub(one, state.mPrime);
+            state.subComparisonResult =
+                numeric.sub(one, numeric.mult(mPrimeNegated, state.rPrime));
+          }
+          return () -> state;
+        }));
+      }
+      return () -> next;
+    }).seq((seq, states) -> {
+      if (bitLength == 2) {
+        return () -> states;
+      }
+      List<DRes<SInt>> rPrimes = new ArrayList<>(size);
+      List<DRes<SInt>> mPrimes = new ArrayList<>(size);
+      for (DRes<State> deferred : states) {
+        State state = deferred.out();
+        rPrimes.add(state.rPrime);
+        mPrimes.add(state.mPrime);
+      }
+      // compare the half-length inputs of all comparisons together
+      int nextBitLength = (bitLength + 1) / 2;
+      DRes<List<DRes<SInt>>> subComparisonResults =
+          seq.seq(new LessThanOrEqualsList(nextBitLength, securityParameter, rPrimes, mPrimes));
+      return () -> {
+        for (int i = 0; i < size; i++) {
+          states.get(i).out().subComparisonResult = subComparisonResults.out().get(i);
+        }
+        return states;
+      };
+    }).par((par, states) -> {
+      List<DRes<SInt>> results = new ArrayList<>(size);
+      for (DRes<State> deferred : states) {
+        State state = deferred.out();
+        results.add(par.seq(seq -> {
+          Numeric numeric = seq.numeric();
+          DRes<SInt> u = numeric.sub(one, state.subComparisonResult);
+          // res = z - ((m mod 2^bitLength) - (r mod 2^bitlength) + u*2^bitLength)
+          DRes<SInt> reducedWithError = numeric.sub(state.mBar, state.rBar);
+          DRes<SInt> additiveError = numeric.mult(twoToBitLength, u);
+          DRes<SInt> reducedNoError = numeric.add(additiveError, reducedWithError);
+          DRes<SInt> resUnshifted = numeric.sub(state.z, reducedNoError);
+          // res >> 2^bitLength
+          return numeric.mult(twoToNegBitLength, resUnshifted);
+        }));
+      }
+      return () -> results;
+    });
+  }
+
+  /**
+   * The intermediate values of a single comparison.
+   */
+  private static final class State {
+
+    private final DRes<SInt> x;
+    private final DRes<SInt> y;
+    private DRes<SInt> rBottom;
+    private DRes<SInt> rTop;
+    private DRes<SInt> rBar;
+    private DRes<SInt> z;
+    private DRes<BigInteger> mO;
+    private BigInteger mBar;
+    private BigInteger mBot;
+    private BigInteger mTop;
+    private DRes<SInt> eqResult;
+    private DRes<SInt> rPrime;
+    private DRes<SInt> mPrime;
+    private DRes<SInt> subComparisonResult;
+
+    private State(DRes<SInt> x, DRes<SInt> y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
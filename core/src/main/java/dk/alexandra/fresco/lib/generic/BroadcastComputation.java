@@ -3,10 +3,8 @@ package dk.alexandra.fresco.lib.generic;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.ProtocolBuilderImpl;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Generic active broadcast validation computation.
@@ -14,8 +12,9 @@ import java.util.stream.Collectors;
  * <p>Allows each party to securely broadcast a list of messages and receive the other parties'
  * messages.</p>
  *
- * <p>Uses generic native protocols {@link InsecureBroadcastProtocol} and {@link
- * BroadcastValidationProtocol}.</p>
+ * <p>Uses generic native protocols {@link InsecureBroadcastVectorProtocol} and {@link
+ * BroadcastValidationProtocol}, so all messages of a party are sent as one message and validated
+ * with a single digest, regardless of the number of messages.</p>
  */
 public class BroadcastComputation<BuilderT extends ProtocolBuilderImpl<BuilderT>> implements
     Computation<List<byte[]>, BuilderT> {
@@ -54,21 +53,13 @@ public class BroadcastComputation<BuilderT extends ProtocolBuilderImpl<BuilderT>
 
   @Override
   public DRes<List<byte[]>> buildComputation(BuilderT builder) {
-    return builder.par(par -> {
-      List<DRes<List<byte[]>>> broadcastValues = new ArrayList<>();
-      for (byte[] singleInput : input) {
-        broadcastValues.add(par.append(new InsecureBroadcastProtocol<>(singleInput)));
-      }
-      return () -> broadcastValues;
-    }).seq((seq, lst) -> {
-      List<byte[]> toValidate = lst.stream()
-          .flatMap(broadcast -> broadcast.out().stream())
-          .collect(Collectors.toList());
-      if (runValidation) {
-        seq.append(new BroadcastValidationProtocol<>(toValidate));
-      }
-      return () -> toValidate;
-    });
+    return builder.seq(seq -> seq.append(new InsecureBroadcastVectorProtocol<>(input)))
+        .seq((seq, toValidate) -> {
+          if (runValidation) {
+            seq.append(new BroadcastValidationProtocol<>(toValidate));
+          }
+          return () -> toValidate;
+        });
   }
 
 }
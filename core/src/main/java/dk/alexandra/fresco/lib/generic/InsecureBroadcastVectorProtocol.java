@@ -0,0 +1,112 @@
+package dk.alexandra.fresco.lib.generic;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generic native protocol implementing insecure broadcast of a list of messages. <p>This is
+ * equivalent to running an {@link InsecureBroadcastProtocol} for each message, but all the
+ * messages of a party are sent as a single message. All parties must broadcast the same number of
+ * messages. Used as a building block in {@link BroadcastComputation}.</p>
+ */
+public class InsecureBroadcastVectorProtocol<ResourcePoolT extends ResourcePool> implements
+    NativeProtocol<List<byte[]>, ResourcePoolT> {
+
+  private final List<byte[]> input;
+  private List<byte[]> result;
+
+  /**
+   * Creates new {@link InsecureBroadcastVectorProtocol}.
+   *
+   * @param input own messages to broadcast
+   */
+  public InsecureBroadcastVectorProtocol(List<byte[]> input) {
+    this.input = input;
+  }
+
+  /**
+   * Returns the messages received from all parties. <p>The list holds the first message of each
+   * party ordered by party id, followed by the second message of each party and so on.</p>
+   */
+  @Override
+  public List<byte[]> out() {
+    return result;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, ResourcePoolT resourcePool, Network network) {
+    if (round == 0) {
+      network.sendToAll(encode(input));
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<byte[]> received = network.receiveFromAll();
+      int noOfParties = received.size();
+      List<List<byte[]>> decoded = new ArrayList<>(noOfParties);
+      for (byte[] bytes : received) {
+        decoded.add(decode(bytes, input.size()));
+      }
+      result = new ArrayList<>(input.size() * noOfParties);
+      for (int i = 0; i < input.size(); i++) {
+        for (List<byte[]> messages : decoded) {
+          result.add(messages.get(i));
+        }
+      }
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  /**
+   * Concatenates the messages into a single array, each message prefixed by its length.
+   */
+  static byte[] encode(List<byte[]> messages) {
+    int length = Integer.BYTES;
+    for (byte[] message : messages) {
+      length += Integer.BYTES + message.length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    buffer.putInt(messages.size());
+    for (byte[] message : messages) {
+      buffer.putInt(message.length);
+      buffer.put(message);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Splits an array encoded with {@link #encode(List)} into the original messages.
+   *
+   * @throws MaliciousException if the array does not hold the expected number of messages
+   */
+  static List<byte[]> decode(byte[] bytes, int expectedMessages) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    try {
+      int count = buffer.getInt();
+      if (count != expectedMessages) {
+        throw new MaliciousException(
+            "Expected " + expectedMessages + " broadcast messages but received " + count);
+      }
+      List<byte[]> messages = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+          throw new MaliciousException("Malformed broadcast message");
+        }
+        byte[] message = new byte[length];
+        buffer.get(message);
+        messages.add(message);
+      }
+      if (buffer.hasRemaining()) {
+        throw new MaliciousException("Malformed broadcast message");
+      }
+      return messages;
+    } catch (BufferUnderflowException e) {
+      throw new MaliciousException("Malformed broadcast message");
+    }
+  }
+}
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.lib.generic;
 import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.List;
@@ -29,10 +30,15 @@ public class SecureBroadcastUtil {
   }
 
   /**
-   * Computes digest of messages and resets md.
+   * Computes digest of messages and resets md. <p>Each message is preceded by its length, so
+   * the digest of a list of messages cannot collide with that of a different split of the same
+   * bytes.</p>
    */
   private byte[] computeDigest(List<byte[]> messages) {
+    ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
     for (byte[] message : messages) {
+      length.putInt(0, message.length);
+      messageDigest.update(length.array());
       messageDigest.update(message);
     }
     byte[] digest = messageDigest.digest();
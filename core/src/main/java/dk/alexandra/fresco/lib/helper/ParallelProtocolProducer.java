@@ -3,9 +3,7 @@ package dk.alexandra.fresco.lib.helper;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.ProtocolProducer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,21 +14,21 @@ import java.util.List;
  */
 public class ParallelProtocolProducer implements ProtocolProducer {
 
-  private final Deque<ProtocolProducer> subProducers;
+  private final ProtocolProducer[] subProducers;
+  // the producers before this index are done and have been released
+  private int first;
 
   public ParallelProtocolProducer(List<ProtocolProducer> protocols) {
-    subProducers = new ArrayDeque<>(protocols);
+    subProducers = protocols.toArray(new ProtocolProducer[0]);
   }
 
   @Override
   public boolean hasNextProtocols() {
-    for (Iterator<ProtocolProducer> iterator = subProducers.iterator(); iterator.hasNext(); ) {
-      ProtocolProducer producer = iterator.next();
-      if (producer.hasNextProtocols()) {
+    while (first < subProducers.length) {
+      if (subProducers[first].hasNextProtocols()) {
         return true;
-      } else {
-        iterator.remove();
       }
+      subProducers[first++] = null;
     }
     return false;
   }
@@ -38,15 +36,20 @@ public class ParallelProtocolProducer implements ProtocolProducer {
   @Override
   public <ResourcePoolT extends ResourcePool> void getNextProtocols(
       ProtocolCollection<ResourcePoolT> protocolCollection) {
-    Iterator<ProtocolProducer> iterator = subProducers.iterator();
-    while (iterator.hasNext() && protocolCollection.hasFreeCapacity()) {
-      ProtocolProducer producer = iterator.next();
+    // the producers that are not done are moved to the end of the visited producers, so the done
+    // producers end up before the first unfinished producer
+    int visited = first;
+    int kept = 0;
+    while (visited < subProducers.length && protocolCollection.hasFreeCapacity()) {
+      ProtocolProducer producer = subProducers[visited++];
       if (producer.hasNextProtocols()) {
         producer.getNextProtocols(protocolCollection);
-      } else {
-        iterator.remove();
+        subProducers[first + kept++] = producer;
       }
     }
+    int newFirst = visited - kept;
+    System.arraycopy(subProducers, first, subProducers, newFirst, kept);
+    Arrays.fill(subProducers, first, newFirst, null);
+    first = newFirst;
   }
-
 }
@@ -0,0 +1,440 @@
+package dk.alexandra.fresco.lib.helper.bristol;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.stream.Stream;
+
+/**
+ * A compiled "Bristol" circuit, see
+ * https://www.cs.bris.ac.uk/Research/CryptographySecurity/MPC/ for a specification of the textual
+ * format.
+ *
+ * <p>
+ * Compiling a circuit reorders its gates into a sequence of steps, where the gates of each step are
+ * independent of each other. All AND gates of the same AND-depth are placed in a single step, so
+ * evaluating the circuit takes as many rounds of AND gates as the AND-depth of the circuit. Each
+ * step is followed by the linear gates depending on it, grouped in as few steps as possible. The
+ * compiler also computes the step in which each wire is used for the last time, so an evaluator can
+ * release the wires which are no longer needed, see {@link BristolCircuitEvaluator}.
+ * </p>
+ *
+ * <p>
+ * The compiled circuit is a flat array of integers which can be written to a file and loaded again
+ * through memory mapping, which avoids parsing the textual format on every run.
+ * </p>
+ */
+public final class BristolCircuit {
+
+  static final int XOR = 0;
+  static final int AND = 1;
+  static final int INV = 2;
+
+  private static final int MAGIC = 0x46424331; // "FBC1"
+  private static final int GATE_SIZE = 4;
+  private static final int HEADER_SIZE = 8;
+
+  private final IntBuffer data;
+  private final int numWires;
+  private final int numInput1;
+  private final int numInput2;
+  private final int numOutput;
+  private final int numGates;
+  private final int numSteps;
+  private final int stepsOffset;
+  private final int gatesOffset;
+  private final int releaseStepsOffset;
+  private final int releasesOffset;
+
+  private BristolCircuit(IntBuffer data) {
+    if (data.limit() < HEADER_SIZE || data.get(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a compiled bristol circuit");
+    }
+    this.data = data;
+    this.numWires = data.get(1);
+    this.numInput1 = data.get(2);
+    this.numInput2 = data.get(3);
+    this.numOutput = data.get(4);
+    this.numGates = data.get(5);
+    this.numSteps = data.get(6);
+    this.stepsOffset = HEADER_SIZE;
+    this.gatesOffset = stepsOffset + numSteps + 1;
+    this.releaseStepsOffset = gatesOffset + GATE_SIZE * numGates;
+    this.releasesOffset = releaseStepsOffset + numSteps + 1;
+    if (data.limit() != releasesOffset + data.get(7)) {
+      throw new IllegalArgumentException("Compiled bristol circuit has an invalid size");
+    }
+  }
+
+  /**
+   * Compiles a circuit from its textual representation.
+   *
+   * @param lines the lines of the circuit description
+   * @return the compiled circuit
+   * @throws IllegalArgumentException if the circuit description is malformed, or if a gate reads a
+   *         wire which has not been assigned by a previous gate or as an input
+   */
+  public static BristolCircuit compile(Stream<String> lines) {
+    Iterator<String> linesIter = lines.iterator();
+    int[] meta = parseInts(linesIter.next());
+    int numWires = meta[1];
+    meta = parseInts(linesIter.next());
+    int numInput1 = meta[0];
+    int numInput2 = meta[1];
+    int numOutput = meta[2];
+    int[] types = new int[16];
+    int[][] inputs = new int[16][];
+    int[] outputs = new int[16];
+    int numGates = 0;
+    while (linesIter.hasNext()) {
+      String line = linesIter.next().trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      StringTokenizer tokens = new StringTokenizer(line);
+      int numIn = Integer.parseInt(tokens.nextToken());
+      int numOut = Integer.parseInt(tokens.nextToken());
+      int[] in = new int[numIn];
+      for (int i = 0; i < numIn; i++) {
+        in[i] = Integer.parseInt(tokens.nextToken());
+      }
+      int[] out = new int[numOut];
+      for (int i = 0; i < numOut; i++) {
+        out[i] = Integer.parseInt(tokens.nextToken());
+      }
+      String type = tokens.nextToken();
+      int gateType;
+      if ("XOR".equals(type)) {
+        gateType = XOR;
+      } else if ("AND".equals(type)) {
+        gateType = AND;
+      } else if ("INV".equals(type)) {
+        gateType = INV;
+      } else {
+        throw new IllegalArgumentException("Unknown gate type: " + type);
+      }
+      if (in.length != (gateType == INV ? 1 : 2) || out.length != 1) {
+        throw new IllegalArgumentException("Wrong circuit format for " + type);
+      }
+      if (numGates == types.length) {
+        types = Arrays.copyOf(types, 2 * numGates);
+        inputs = Arrays.copyOf(inputs, 2 * numGates);
+        outputs = Arrays.copyOf(outputs, 2 * numGates);
+      }
+      types[numGates] = gateType;
+      inputs[numGates] = in;
+      outputs[numGates] = out[0];
+      numGates++;
+    }
+    lines.close();
+    return new Compiler(numWires, numInput1, numInput2, numOutput, numGates, types, inputs,
+        outputs).compile();
+  }
+
+  /**
+   * Reads and compiles a circuit description from the class path.
+   *
+   * @param path the path of the circuit description
+   * @return the compiled circuit
+   */
+  public static BristolCircuit readCircuitDescription(String path) {
+    ClassLoader classLoader = BristolCircuit.class.getClassLoader();
+    InputStream is = classLoader.getResourceAsStream(path);
+    if (is == null) {
+      throw new IllegalArgumentException("Couldn't find bristol circuit descritpion at " + path);
+    }
+    return compile(
+        new BufferedReader(new InputStreamReader(is, StandardCharsets.US_ASCII)).lines());
+  }
+
+  /**
+   * Loads a circuit which has previously been written using {@link #write(Path)}. The file is
+   * memory mapped, so the circuit is not copied onto the heap.
+   *
+   * @param file the file to load from
+   * @return the compiled circuit
+   * @throws IOException if the file could not be read
+   */
+  public static BristolCircuit load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new BristolCircuit(channel.map(MapMode.READ_ONLY, 0, channel.size()).asIntBuffer());
+    }
+  }
+
+  /**
+   * Writes this circuit to a file in the compiled binary format.
+   *
+   * @param file the file to write to
+   * @throws IOException if the file could not be written
+   */
+  public void write(Path file) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(data.limit() * Integer.BYTES);
+    bytes.asIntBuffer().put(data.duplicate());
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+  }
+
+  public int getNumWires() {
+    return numWires;
+  }
+
+  public int getNumInput1() {
+    return numInput1;
+  }
+
+  public int getNumInput2() {
+    return numInput2;
+  }
+
+  public int getNumOutput() {
+    return numOutput;
+  }
+
+  public int getNumGates() {
+    return numGates;
+  }
+
+  /**
+   * Returns the number of steps of the circuit. The gates of a step only depend on gates of
+   * previous steps.
+   *
+   * @return the number of steps
+   */
+  public int getNumSteps() {
+    return numSteps;
+  }
+
+  /**
+   * Returns the AND-depth of the circuit, i.e. the number of steps containing AND gates.
+   *
+   * @return the AND-depth
+   */
+  public int getAndDepth() {
+    int depth = 0;
+    for (int step = 0; step < numSteps; step++) {
+      int start = getStepStart(step);
+      if (start < getStepStart(step + 1) && getGateType(start) == AND) {
+        depth++;
+      }
+    }
+    return depth;
+  }
+
+  int getStepStart(int step) {
+    return data.get(stepsOffset + step);
+  }
+
+  int getGateType(int gate) {
+    return data.get(gatesOffset + GATE_SIZE * gate);
+  }
+
+  int getLeftInput(int gate) {
+    return data.get(gatesOffset + GATE_SIZE * gate + 1);
+  }
+
+  int getRightInput(int gate) {
+    return data.get(gatesOffset + GATE_SIZE * gate + 2);
+  }
+
+  int getOutput(int gate) {
+    return data.get(gatesOffset + GATE_SIZE * gate + 3);
+  }
+
+  int getReleaseStart(int step) {
+    return data.get(releaseStepsOffset + step);
+  }
+
+  int getRelease(int index) {
+    return data.get(releasesOffset + index);
+  }
+
+  private static int[] parseInts(String line) {
+    StringTokenizer tokens = new StringTokenizer(line);
+    int[] result = new int[tokens.countTokens()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Integer.parseInt(tokens.nextToken());
+    }
+    return result;
+  }
+
+  /**
+   * Orders the gates of a parsed circuit in steps and computes which wires can be released after
+   * each step.
+   */
+  private static final class Compiler {
+
+    private final int numWires;
+    private final int numInput1;
+    private final int numInput2;
+    private final int numOutput;
+    private final int numGates;
+    private final int[] types;
+    private final int[][] inputs;
+    private final int[] outputs;
+
+    private Compiler(int numWires, int numInput1, int numInput2, int numOutput, int numGates,
+        int[] types, int[][] inputs, int[] outputs) {
+      this.numWires = numWires;
+      this.numInput1 = numInput1;
+      this.numInput2 = numInput2;
+      this.numOutput = numOutput;
+      this.numGates = numGates;
+      this.types = types;
+      this.inputs = inputs;
+      this.outputs = outputs;
+    }
+
+    private BristolCircuit compile() {
+      // The AND-depth of each wire, and the number of linear gates on the longest path from the
+      // last AND gate (or input) to the wire.
+      int[] andDepth = new int[numWires];
+      int[] linearDepth = new int[numWires];
+      boolean[] assigned = new boolean[numWires];
+      for (int i = 0; i < numInput1 + numInput2; i++) {
+        assigned[i] = true;
+      }
+      int maxAndDepth = 0;
+      int maxLinearDepth = 0;
+      for (int gate = 0; gate < numGates; gate++) {
+        int depth = 0;
+        for (int in : inputs[gate]) {
+          if (in < 0 || in >= numWires || !assigned[in]) {
+            throw new IllegalArgumentException(
+                "Gate " + gate + " reads wire " + in + " which has not been assigned");
+          }
+          depth = Math.max(depth, andDepth[in]);
+        }
+        int out = outputs[gate];
+        if (out < 0 || out >= numWires) {
+          throw new IllegalArgumentException("Gate " + gate + " writes to invalid wire " + out);
+        }
+        if (types[gate] == AND) {
+          andDepth[out] = depth + 1;
+          linearDepth[out] = 0;
+        } else {
+          int linear = 0;
+          for (int in : inputs[gate]) {
+            if (andDepth[in] == depth) {
+              linear = Math.max(linear, linearDepth[in]);
+            }
+          }
+          andDepth[out] = depth;
+          linearDepth[out] = linear + 1;
+          maxLinearDepth = Math.max(maxLinearDepth, linear + 1);
+        }
+        maxAndDepth = Math.max(maxAndDepth, andDepth[out]);
+        assigned[out] = true;
+      }
+      for (int i = numWires - numOutput; i < numWires; i++) {
+        if (!assigned[i]) {
+          throw new IllegalArgumentException("Output wire " + i + " is never assigned");
+        }
+      }
+
+      // Step (d, 0) holds the AND gates of AND-depth d, and step (d, l) for l > 0 the linear gates
+      // of AND-depth d and linear depth l. Empty steps are skipped.
+      int slots = (maxAndDepth + 1) * (maxLinearDepth + 1);
+      int[] slotSizes = new int[slots];
+      int[] slotOfGate = new int[numGates];
+      for (int gate = 0; gate < numGates; gate++) {
+        int out = outputs[gate];
+        int slot = andDepth[out] * (maxLinearDepth + 1) + linearDepth[out];
+        slotOfGate[gate] = slot;
+        slotSizes[slot]++;
+      }
+      int[] slotStarts = new int[slots];
+      int[] slotSteps = new int[slots];
+      List<Integer> stepStarts = new ArrayList<>();
+      int position = 0;
+      for (int slot = 0; slot < slots; slot++) {
+        slotStarts[slot] = position;
+        slotSteps[slot] = stepStarts.size();
+        if (slotSizes[slot] > 0) {
+          stepStarts.add(position);
+          position += slotSizes[slot];
+        }
+      }
+      stepStarts.add(position);
+      int numSteps = stepStarts.size() - 1;
+      int[] order = new int[numGates];
+      int[] stepOfGate = new int[numGates];
+      for (int gate = 0; gate < numGates; gate++) {
+        int slot = slotOfGate[gate];
+        order[slotStarts[slot]++] = gate;
+        stepOfGate[gate] = slotSteps[slot];
+      }
+
+      // The last step reading each wire. Outputs are never released.
+      int[] lastUse = new int[numWires];
+      Arrays.fill(lastUse, -1);
+      for (int gate = 0; gate < numGates; gate++) {
+        for (int in : inputs[gate]) {
+          lastUse[in] = Math.max(lastUse[in], stepOfGate[gate]);
+        }
+      }
+      int[] releaseSizes = new int[numSteps];
+      int numReleases = 0;
+      for (int wire = 0; wire < numWires - numOutput; wire++) {
+        if (lastUse[wire] >= 0) {
+          releaseSizes[lastUse[wire]]++;
+          numReleases++;
+        }
+      }
+
+      int gatesOffset = HEADER_SIZE + numSteps + 1;
+      int releaseStepsOffset = gatesOffset + GATE_SIZE * numGates;
+      int releasesOffset = releaseStepsOffset + numSteps + 1;
+      int[] data = new int[releasesOffset + numReleases];
+      data[0] = MAGIC;
+      data[1] = numWires;
+      data[2] = numInput1;
+      data[3] = numInput2;
+      data[4] = numOutput;
+      data[5] = numGates;
+      data[6] = numSteps;
+      data[7] = numReleases;
+      for (int step = 0; step <= numSteps; step++) {
+        data[HEADER_SIZE + step] = stepStarts.get(step);
+      }
+      for (int i = 0; i < numGates; i++) {
+        int gate = order[i];
+        int offset = gatesOffset + GATE_SIZE * i;
+        data[offset] = types[gate];
+        data[offset + 1] = inputs[gate][0];
+        data[offset + 2] = types[gate] == INV ? -1 : inputs[gate][1];
+        data[offset + 3] = outputs[gate];
+      }
+      int[] releasePositions = new int[numSteps];
+      int releaseStart = 0;
+      for (int step = 0; step < numSteps; step++) {
+        data[releaseStepsOffset + step] = releaseStart;
+        releasePositions[step] = releasesOffset + releaseStart;
+        releaseStart += releaseSizes[step];
+      }
+      data[releaseStepsOffset + numSteps] = releaseStart;
+      for (int wire = 0; wire < numWires - numOutput; wire++) {
+        if (lastUse[wire] >= 0) {
+          data[releasePositions[lastUse[wire]]++] = wire;
+        }
+      }
+      return new BristolCircuit(IntBuffer.wrap(data));
+    }
+  }
+}
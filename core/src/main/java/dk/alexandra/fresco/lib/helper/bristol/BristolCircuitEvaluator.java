@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.lib.helper.bristol;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.value.SBool;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates a compiled {@link BristolCircuit}.
+ *
+ * <p>
+ * The circuit is evaluated one step at a time, where all gates of a step are evaluated in parallel
+ * and the AND gates of a step are evaluated together using {@link Binary#and(List, List)}. After
+ * each step the wires which are not used by any of the following steps are released, so only the
+ * wires which are still needed are kept in memory.
+ * </p>
+ */
+public class BristolCircuitEvaluator implements Computation<List<SBool>, ProtocolBuilderBinary> {
+
+  private final BristolCircuit circuit;
+  private final List<DRes<SBool>> in1;
+  private final List<DRes<SBool>> in2;
+
+  /**
+   * Constructs a new evaluation of a circuit.
+   *
+   * @param circuit the compiled circuit
+   * @param in1 the first input, must have the size of the first input of the circuit
+   * @param in2 the second input, must have the size of the second input of the circuit
+   */
+  public BristolCircuitEvaluator(BristolCircuit circuit, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2) {
+    if (in1.size() != circuit.getNumInput1() || in2.size() != circuit.getNumInput2()) {
+      throw new IllegalArgumentException("Input sizes " + in1.size() + ", " + in2.size()
+          + " does not match circuit input sizes " + circuit.getNumInput1() + ", "
+          + circuit.getNumInput2());
+    }
+    this.circuit = circuit;
+    this.in1 = in1;
+    this.in2 = in2;
+  }
+
+  @Override
+  public DRes<List<SBool>> buildComputation(ProtocolBuilderBinary builder) {
+    return builder.seq(seq -> {
+      @SuppressWarnings("unchecked")
+      DRes<SBool>[] wires = new DRes[circuit.getNumWires()];
+      for (int i = 0; i < in1.size(); i++) {
+        wires[i] = in1.get(i);
+      }
+      for (int i = 0; i < in2.size(); i++) {
+        wires[in1.size() + i] = in2.get(i);
+      }
+      return new IterationState(0, wires);
+    }).whileLoop((state) -> state.step < circuit.getNumSteps(), (seq, state) -> {
+      DRes<SBool>[] wires = state.wires;
+      int step = state.step;
+      seq.par(par -> {
+        Binary binary = par.binary();
+        int start = circuit.getStepStart(step);
+        int end = circuit.getStepStart(step + 1);
+        if (start < end && circuit.getGateType(start) == BristolCircuit.AND) {
+          // Steps of AND gates only contain AND gates
+          List<DRes<SBool>> left = new ArrayList<>(end - start);
+          List<DRes<SBool>> right = new ArrayList<>(end - start);
+          for (int gate = start; gate < end; gate++) {
+            left.add(wires[circuit.getLeftInput(gate)]);
+            right.add(wires[circuit.getRightInput(gate)]);
+          }
+          DRes<List<DRes<SBool>>> products = binary.and(left, right);
+          for (int gate = start; gate < end; gate++) {
+            int index = gate - start;
+            wires[circuit.getOutput(gate)] = () -> products.out().get(index).out();
+          }
+        } else {
+          for (int gate = start; gate < end; gate++) {
+            DRes<SBool> left = wires[circuit.getLeftInput(gate)];
+            if (circuit.getGateType(gate) == BristolCircuit.XOR) {
+              wires[circuit.getOutput(gate)] =
+                  binary.xor(left, wires[circuit.getRightInput(gate)]);
+            } else {
+              wires[circuit.getOutput(gate)] = binary.not(left);
+            }
+          }
+        }
+        // The protocols of this step hold their own references to the inputs
+        for (int i = circuit.getReleaseStart(step); i < circuit.getReleaseStart(step + 1); i++) {
+          wires[circuit.getRelease(i)] = null;
+        }
+        return null;
+      });
+      return new IterationState(step + 1, wires);
+    }).seq((seq, state) -> {
+      List<SBool> output = new ArrayList<>(circuit.getNumOutput());
+      int firstOutput = circuit.getNumWires() - circuit.getNumOutput();
+      for (int i = 0; i < circuit.getNumOutput(); i++) {
+        output.add(state.wires[firstOutput + i].out());
+      }
+      return () -> output;
+    });
+  }
+
+  private static final class IterationState implements DRes<IterationState> {
+
+    private final int step;
+    private final DRes<SBool>[] wires;
+
+    private IterationState(int step, DRes<SBool>[] wires) {
+      this.step = step;
+      this.wires = wires;
+    }
+
+    @Override
+    public IterationState out() {
+      return this;
+    }
+  }
+}
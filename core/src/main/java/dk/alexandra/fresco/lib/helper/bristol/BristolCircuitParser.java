@@ -19,7 +19,9 @@ import java.util.stream.Stream;
  * The circuit is expected to be in "Bristol" format, see
  * https://www.cs.bris.ac.uk/Research/CryptographySecurity/MPC/ for a specification of this.
  *
- * Reading is done in a streamed fashion.
+ * Reading is done in a streamed fashion. Gates are evaluated one at a time and all wires are kept
+ * until the evaluation is done, so for circuits which are evaluated more than once, compiling them
+ * to a {@link BristolCircuit} and evaluating them with {@link BristolCircuitEvaluator} is faster.
  */
 public class BristolCircuitParser implements
     dk.alexandra.fresco.framework.builder.Computation<List<SBool>, ProtocolBuilderBinary> {
@@ -27,9 +29,6 @@ public class BristolCircuitParser implements
   private Stream<String> lines;
   private Iterator<String> linesIter;
 
-  // TODO: It is not memory efficient to keep all wires in a map like this.
-  // Given that this circuit is fixed, it should, somehow, be possible to
-  // garbage collect intermediate results early, if they are not used further.
   private Map<Integer, DRes<SBool>> wires;
 
   private List<DRes<SBool>> in1;
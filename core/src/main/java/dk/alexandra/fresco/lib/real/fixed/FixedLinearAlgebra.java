@@ -1,12 +1,231 @@
 package dk.alexandra.fresco.lib.real.fixed;
 
+import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.collections.Matrix;
 import dk.alexandra.fresco.lib.real.DefaultLinearAlgebra;
+import dk.alexandra.fresco.lib.real.SReal;
+import dk.alexandra.fresco.lib.real.fixed.utils.Truncate;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Linear algebra on fixed point numbers.
+ * <p>
+ * Matrix and vector products are computed on the underlying integers: the products of all entries
+ * of the result are computed together in a single layer of vector multiplications, summed without
+ * truncation, and then each entry of the result is truncated once. This avoids truncating every
+ * partial product. Note that this could result in an overflow if a sum of the un-truncated products
+ * exceeds the max bit length.
+ * </p>
+ */
 public class FixedLinearAlgebra extends DefaultLinearAlgebra {
 
+  private final ProtocolBuilderNumeric builder;
+
   public FixedLinearAlgebra(ProtocolBuilderNumeric builder) {
     super(builder);
+    this.builder = builder;
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SReal>>> mult(DRes<Matrix<DRes<SReal>>> a,
+      DRes<Matrix<DRes<SReal>>> b) {
+    return builder.seq(seq -> {
+      checkSizes(a.out(), b.out());
+      return mult(seq, unwrap(a.out()).getRows(), getColumns(unwrap(b.out())));
+    });
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SReal>>> mult(DRes<Matrix<DRes<SReal>>> a, Matrix<BigDecimal> b) {
+    return builder.seq(seq -> {
+      checkSizes(a.out(), b);
+      return multWithPublicPart(seq, unwrap(a.out()).getRows(), getColumns(unscaled(seq, b)),
+          (scope, x) -> scope.advancedNumeric().innerProductWithPublicPart(x.getSecond(),
+              x.getFirst()));
+    });
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SReal>>> mult(Matrix<BigDecimal> a, DRes<Matrix<DRes<SReal>>> b) {
+    return builder.seq(seq -> {
+      checkSizes(a, b.out());
+      return multWithPublicPart(seq, unscaled(seq, a).getRows(), getColumns(unwrap(b.out())),
+          (scope, x) -> scope.advancedNumeric().innerProductWithPublicPart(x.getFirst(),
+              x.getSecond()));
+    });
+  }
+
+  @Override
+  public DRes<Vector<DRes<SReal>>> vectorMult(DRes<Matrix<DRes<SReal>>> a,
+      DRes<Vector<DRes<SReal>>> v) {
+    return builder.seq(seq -> {
+      checkSizes(a.out(), v.out());
+      return mult(seq, unwrap(a.out()).getRows(), Collections.singletonList(unwrap(v.out())));
+    }).seq((seq, product) -> toVector(product));
+  }
+
+  @Override
+  public DRes<Vector<DRes<SReal>>> vectorMult(DRes<Matrix<DRes<SReal>>> a, Vector<BigDecimal> v) {
+    return builder.seq(seq -> {
+      checkSizes(a.out(), v);
+      return multWithPublicPart(seq, unwrap(a.out()).getRows(),
+          Collections.singletonList(unscaled(seq, v)),
+          (scope, x) -> scope.advancedNumeric().innerProductWithPublicPart(x.getSecond(),
+              x.getFirst()));
+    }).seq((seq, product) -> toVector(product));
+  }
+
+  @Override
+  public DRes<Vector<DRes<SReal>>> vectorMult(Matrix<BigDecimal> a, DRes<Vector<DRes<SReal>>> v) {
+    return builder.seq(seq -> {
+      checkSizes(a, v.out());
+      return multWithPublicPart(seq, unscaled(seq, a).getRows(),
+          Collections.singletonList(unwrap(v.out())),
+          (scope, x) -> scope.advancedNumeric().innerProductWithPublicPart(x.getFirst(),
+              x.getSecond()));
+    }).seq((seq, product) -> toVector(product));
+  }
+
+  /**
+   * Calculate the products of the given rows and columns of the underlying integers. All products
+   * are computed in one layer, the products of each entry are summed in the next and each sum is
+   * finally truncated once.
+   *
+   * @param builder The builder to be used for this computation
+   * @param rows The rows of the left factor
+   * @param columns The columns of the right factor
+   * @return the product of the rows and columns as a matrix of fixed point numbers
+   */
+  private DRes<Matrix<DRes<SReal>>> mult(ProtocolBuilderNumeric builder,
+      List<? extends List<DRes<SInt>>> rows, List<List<DRes<SInt>>> columns) {
+    return builder.par(par -> {
+      Matrix<DRes<List<DRes<SInt>>>> products = new Matrix<>(rows.size(), columns.size(), i -> {
+        ArrayList<DRes<List<DRes<SInt>>>> row = new ArrayList<>(columns.size());
+        for (List<DRes<SInt>> column : columns) {
+          row.add(par.numeric().mult(rows.get(i), column));
+        }
+        return row;
+      });
+      return () -> products;
+    }).par((par, products) -> {
+      Matrix<DRes<SInt>> sums = map(products, x -> par.advancedNumeric().sum(x.out()));
+      return () -> sums;
+    }).par(this::truncate);
+  }
+
+  /**
+   * Calculate the products of the given rows and columns of the underlying integers, where either
+   * the rows or the columns are public. Since multiplications by public values are local, the inner
+   * products are computed in one layer and each is then truncated once.
+   *
+   * @param builder The builder to be used for this computation
+   * @param rows The rows of the left factor
+   * @param columns The columns of the right factor
+   * @param innerProductOperator An inner product operator which takes the inner product of a row
+   *        of type <code>A</code> and a column of type <code>B</code>
+   * @return the product of the rows and columns as a matrix of fixed point numbers
+   */
+  private <A, B> DRes<Matrix<DRes<SReal>>> multWithPublicPart(ProtocolBuilderNumeric builder,
+      List<? extends List<A>> rows, List<List<B>> columns,
+      BiFunction<ProtocolBuilderNumeric, Pair<List<A>, List<B>>, DRes<SInt>> innerProductOperator) {
+    return builder.par(par -> {
+      Matrix<DRes<SInt>> sums = new Matrix<>(rows.size(), columns.size(), i -> {
+        ArrayList<DRes<SInt>> row = new ArrayList<>(columns.size());
+        for (List<B> column : columns) {
+          row.add(innerProductOperator.apply(par, new Pair<>(rows.get(i), column)));
+        }
+        return row;
+      });
+      return () -> sums;
+    }).par(this::truncate);
+  }
+
+  private DRes<Matrix<DRes<SReal>>> truncate(ProtocolBuilderNumeric par,
+      Matrix<DRes<SInt>> sums) {
+    int precision = par.getRealNumericContext().getPrecision();
+    Matrix<DRes<SReal>> result = map(sums, x -> new SFixed(par.seq(new Truncate(x, precision))));
+    return () -> result;
+  }
+
+  private static void checkSizes(Matrix<?> a, Matrix<?> b) {
+    if (a.getWidth() != b.getHeight()) {
+      throw new IllegalArgumentException(
+          "Matrice sizes does not match - " + a.getWidth() + " != " + b.getHeight());
+    }
   }
 
+  private static void checkSizes(Matrix<?> a, List<?> v) {
+    if (a.getWidth() != v.size()) {
+      throw new IllegalArgumentException(
+          "Matrix and vector sizes does not match - " + a.getWidth() + " != " + v.size());
+    }
+  }
+
+  private static DRes<Vector<DRes<SReal>>> toVector(Matrix<DRes<SReal>> column) {
+    Vector<DRes<SReal>> result = new Vector<>(column.getColumn(0));
+    return () -> result;
+  }
+
+  private static Matrix<DRes<SInt>> unwrap(Matrix<DRes<SReal>> matrix) {
+    return map(matrix, FixedLinearAlgebra::unwrap);
+  }
+
+  private static List<DRes<SInt>> unwrap(List<DRes<SReal>> vector) {
+    return vector.stream().map(FixedLinearAlgebra::unwrap).collect(Collectors.toList());
+  }
+
+  private static DRes<SInt> unwrap(DRes<SReal> value) {
+    return ((SFixed) value.out()).getSInt();
+  }
+
+  private static Matrix<BigInteger> unscaled(ProtocolBuilderNumeric builder,
+      Matrix<BigDecimal> matrix) {
+    BigDecimal scale = getScale(builder);
+    return map(matrix, x -> unscaled(scale, x));
+  }
+
+  private static List<BigInteger> unscaled(ProtocolBuilderNumeric builder,
+      List<BigDecimal> vector) {
+    BigDecimal scale = getScale(builder);
+    return vector.stream().map(x -> unscaled(scale, x)).collect(Collectors.toList());
+  }
+
+  private static BigInteger unscaled(BigDecimal scale, BigDecimal value) {
+    return value.multiply(scale).setScale(0, RoundingMode.HALF_UP).toBigIntegerExact();
+  }
+
+  private static BigDecimal getScale(ProtocolBuilderNumeric builder) {
+    return new BigDecimal(
+        BigInteger.ONE.shiftLeft(builder.getRealNumericContext().getPrecision()));
+  }
+
+  private static <T> List<List<T>> getColumns(Matrix<T> matrix) {
+    List<List<T>> columns = new ArrayList<>(matrix.getWidth());
+    for (int j = 0; j < matrix.getWidth(); j++) {
+      columns.add(matrix.getColumn(j));
+    }
+    return columns;
+  }
+
+  private static <A, B> Matrix<B> map(Matrix<A> matrix, Function<A, B> function) {
+    return new Matrix<>(matrix.getHeight(), matrix.getWidth(), i -> {
+      ArrayList<B> row = new ArrayList<>(matrix.getWidth());
+      for (A value : matrix.getRow(i)) {
+        row.add(function.apply(value));
+      }
+      return row;
+    });
+  }
 }
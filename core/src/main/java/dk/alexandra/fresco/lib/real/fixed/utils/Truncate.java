@@ -2,8 +2,8 @@ package dk.alexandra.fresco.lib.real.fixed.utils;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
-import dk.alexandra.fresco.framework.builder.numeric.AdvancedNumeric;
-import dk.alexandra.fresco.framework.builder.numeric.AdvancedNumeric.RandomAdditiveMask;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
@@ -19,6 +19,12 @@ import java.math.BigInteger;
  * The protocol is similar to protocol 3.1 in Catrina O., Saxena A. (2010) Secure Computation with
  * Fixed-Point Numbers. In: Sion R. (eds) Financial Cryptography and Data Security. FC 2010. Lecture
  * Notes in Computer Science, vol 6052. Springer, Berlin, Heidelberg.
+ *
+ * The random mask is a truncation pair [r], [r >> shifts] obtained from {@link
+ * PreprocessedValues#getTruncationPair(int)}, so protocol suites with a preprocessing phase can
+ * supply the pairs directly, in which case the truncation only opens a single value. Since the
+ * lower bits of r are uniformly random, the result is rounded up with probability equal to the
+ * fraction which is truncated away, so the rounding is unbiased.
  */
 public class Truncate implements Computation<SInt, ProtocolBuilderNumeric> {
 
@@ -33,41 +39,16 @@ public class Truncate implements Computation<SInt, ProtocolBuilderNumeric> {
 
   @Override
   public DRes<SInt> buildComputation(ProtocolBuilderNumeric sequential) {
-    return sequential.seq((builder) -> {
-      /*
-       * Generate random additive mask of the same length as the input + some extra to avoid
-       * leakage.
-       */
-      AdvancedNumeric additiveMaskBuilder = builder.advancedNumeric();
-      DRes<RandomAdditiveMask> mask =
-          additiveMaskBuilder.additiveMask(sequential.getBasicNumericContext().getMaxBitLength());
-      return mask;
-    }).seq((parSubSequential, randomAdditiveMask) -> {
-      DRes<SInt> result = parSubSequential.numeric().add(input, () -> randomAdditiveMask.random);
-      DRes<BigInteger> open = parSubSequential.numeric().open(result);
-      return () -> new Pair<>(open, randomAdditiveMask);
+    return sequential.seq(
+        builder -> builder.preprocessedValues().getTruncationPair(shifts)
+    ).seq((seq, truncationPair) -> {
+      DRes<SInt> masked = seq.numeric().add(input, truncationPair::getR);
+      DRes<BigInteger> open = seq.numeric().open(masked);
+      return () -> new Pair<>(open, truncationPair);
     }).seq((seq, maskedInput) -> {
-      BigInteger masked = maskedInput.getFirst().out();
-      RandomAdditiveMask mask = maskedInput.getSecond();
-
-      /*
-       * rBottom = r (mod 2^shifts).
-       */
-      final DRes<SInt> rBottom = seq.advancedNumeric().innerProductWithPublicPart(
-          seq.getBigIntegerHelper().getTwoPowersList(shifts), mask.bits);
-
-      BigInteger inverse =
-          BigInteger.ONE.shiftLeft(shifts).modInverse(seq.getBasicNumericContext().getModulus());
-      DRes<SInt> rTop = seq.numeric().sub(mask.random, rBottom);
-
-      /*
-       * rTop is r with the last shifts bits set to zero, and it is hence divisible by 2^shifts, so
-       * multiplying with the inverse in the field corresponds to shifting.
-       */
-      DRes<SInt> rShifted = seq.numeric().mult(inverse, rTop);
-      BigInteger mShifted = masked.shiftRight(shifts);
-      DRes<SInt> result = seq.numeric().sub(mShifted, rShifted);
-      return result;
+      BigInteger mShifted = maskedInput.getFirst().out().shiftRight(shifts);
+      TruncationPair truncationPair = maskedInput.getSecond();
+      return seq.numeric().sub(mShifted, truncationPair::getShiftedR);
     });
   }
 }
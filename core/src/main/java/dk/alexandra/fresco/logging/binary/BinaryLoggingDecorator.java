@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.builder.binary.Binary;
 import dk.alexandra.fresco.framework.value.SBool;
 import dk.alexandra.fresco.logging.PerformanceLogger;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class BinaryLoggingDecorator implements PerformanceLogger, Binary {
@@ -47,12 +48,23 @@ public class BinaryLoggingDecorator implements PerformanceLogger, Binary {
     return this.delegate.open(toOpen, towardsPartyId);
   }
 
+  @Override
+  public DRes<List<DRes<Boolean>>> open(List<DRes<SBool>> toOpen) {
+    return this.delegate.open(toOpen);
+  }
+
   @Override
   public DRes<SBool> and(DRes<SBool> left, DRes<SBool> right) {
     this.andCount++;
     return this.delegate.and(left, right);
   }
 
+  @Override
+  public DRes<List<DRes<SBool>>> and(List<DRes<SBool>> left, List<DRes<SBool>> right) {
+    this.andCount += left.size();
+    return this.delegate.and(left, right);
+  }
+
   @Override
   public DRes<SBool> xor(DRes<SBool> left, DRes<SBool> right) {
     this.xorCount++;
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.suite.dummy.arithmetic;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.LinearCombination;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
@@ -17,6 +18,10 @@ import java.util.Random;
  * A {@link BuilderFactoryNumeric} implementation for the Dummy Arithmetic suite. This class has
  * built-in support for logging the amount of different operations (i.e. protocols) that the
  * application asks for.
+ * <p>
+ * Additions, subtractions and multiplications by public constants are returned as {@link
+ * LinearCombination} instead of being scheduled as native protocols.
+ * </p>
  */
 public class DummyArithmeticBuilderFactory implements BuilderFactoryNumeric {
 
@@ -53,28 +58,33 @@ public class DummyArithmeticBuilderFactory implements BuilderFactoryNumeric {
   public Numeric createNumeric(ProtocolBuilderNumeric builder) {
     return new Numeric() {
 
+      private FieldElement toFieldElement(BigInteger b) {
+        return basicNumericContext.getFieldDefinition().createElement(b);
+      }
+
       private DummyArithmeticSInt createSIntFromConstant(BigInteger b) {
-        return new DummyArithmeticSInt(basicNumericContext.getFieldDefinition().createElement(b));
+        return new DummyArithmeticSInt(toFieldElement(b));
       }
 
       @Override
       public DRes<SInt> sub(DRes<SInt> a, BigInteger b) {
-        DummyArithmeticNativeProtocol<SInt> c =
-            new DummyArithmeticSubtractProtocol(a, () -> createSIntFromConstant(b));
-        return builder.append(c);
+        FieldElement constant = toFieldElement(b);
+        return LinearCombination.of(a, value -> new DummyArithmeticSInt(
+            ((DummyArithmeticSInt) value).getValue().subtract(constant)));
       }
 
       @Override
       public DRes<SInt> sub(BigInteger a, DRes<SInt> b) {
-        DummyArithmeticSubtractProtocol c =
-            new DummyArithmeticSubtractProtocol(() -> createSIntFromConstant(a), b);
-        return builder.append(c);
+        FieldElement constant = toFieldElement(a);
+        return LinearCombination.of(b, value -> new DummyArithmeticSInt(
+            constant.subtract(((DummyArithmeticSInt) value).getValue())));
       }
 
       @Override
       public DRes<SInt> sub(DRes<SInt> a, DRes<SInt> b) {
-        DummyArithmeticSubtractProtocol c = new DummyArithmeticSubtractProtocol(a, b);
-        return builder.append(c);
+        return LinearCombination.of(a, b, (left, right) -> new DummyArithmeticSInt(
+            ((DummyArithmeticSInt) left).getValue()
+                .subtract(((DummyArithmeticSInt) right).getValue())));
       }
 
       @Override
@@ -138,9 +148,9 @@ public class DummyArithmeticBuilderFactory implements BuilderFactoryNumeric {
 
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
-        DummyArithmeticMultProtocol c =
-            new DummyArithmeticMultProtocol(() -> createSIntFromConstant(a), b);
-        return builder.append(c);
+        FieldElement constant = toFieldElement(a);
+        return LinearCombination.of(b, value -> new DummyArithmeticSInt(
+            ((DummyArithmeticSInt) value).getValue().multiply(constant)));
       }
 
       @Override
@@ -180,15 +190,15 @@ public class DummyArithmeticBuilderFactory implements BuilderFactoryNumeric {
 
       @Override
       public DRes<SInt> add(BigInteger a, DRes<SInt> b) {
-        DummyArithmeticAddProtocol c =
-            new DummyArithmeticAddProtocol(() -> createSIntFromConstant(a), b);
-        return builder.append(c);
+        FieldElement constant = toFieldElement(a);
+        return LinearCombination.of(b, value -> new DummyArithmeticSInt(
+            constant.add(((DummyArithmeticSInt) value).getValue())));
       }
 
       @Override
       public DRes<SInt> add(DRes<SInt> a, DRes<SInt> b) {
-        DummyArithmeticAddProtocol c = new DummyArithmeticAddProtocol(a, b);
-        return builder.append(c);
+        return LinearCombination.of(a, b, (left, right) -> new DummyArithmeticSInt(
+            ((DummyArithmeticSInt) left).getValue().add(((DummyArithmeticSInt) right).getValue())));
       }
     };
   }
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.dummy.arithmetic;
 
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.ParallelizableProtocol;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.value.SInt;
@@ -9,7 +10,8 @@ import dk.alexandra.fresco.framework.value.SInt;
  * Implements multiplication for the Dummy Arithmetic protocol suite, where all operations are done
  * in the clear.
  */
-public class DummyArithmeticMultProtocol extends DummyArithmeticNativeProtocol<SInt> {
+public class DummyArithmeticMultProtocol extends DummyArithmeticNativeProtocol<SInt>
+    implements ParallelizableProtocol {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
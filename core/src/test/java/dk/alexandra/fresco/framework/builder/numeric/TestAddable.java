@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
 
@@ -29,6 +30,12 @@ public class TestAddable {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void testSumNoRows() {
+    List<MockAddable> actual = Addable.sumRows(Collections.emptyList());
+    assertEquals(Collections.emptyList(), actual);
+  }
+
   private class MockAddable implements Addable<MockAddable> {
     int value;
 
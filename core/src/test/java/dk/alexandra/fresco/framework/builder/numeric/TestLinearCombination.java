@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.framework.builder.numeric;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class TestLinearCombination {
+
+  private final FieldDefinition definition = new BigIntegerFieldDefinition(BigInteger.valueOf(97));
+
+  private DummyArithmeticSInt create(int value) {
+    return new DummyArithmeticSInt(definition.createElement(value));
+  }
+
+  private SInt add(SInt left, SInt right) {
+    return new DummyArithmeticSInt(((DummyArithmeticSInt) left).getValue()
+        .add(((DummyArithmeticSInt) right).getValue()));
+  }
+
+  private int toInt(DRes<SInt> value) {
+    return definition.convertToUnsigned(((DummyArithmeticSInt) value.out()).getValue())
+        .intValue();
+  }
+
+  @Test
+  public void testEvaluatedLazilyAndOnce() {
+    AtomicInteger calls = new AtomicInteger();
+    DummyArithmeticSInt[] input = new DummyArithmeticSInt[1];
+    DRes<SInt> sum = LinearCombination.of(() -> input[0], () -> create(5), (left, right) -> {
+      calls.incrementAndGet();
+      return add(left, right);
+    });
+    assertEquals(0, calls.get());
+    input[0] = create(3);
+    assertEquals(8, toInt(sum));
+    assertEquals(8, toInt(sum));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void testUnary() {
+    DRes<SInt> doubled = LinearCombination.of(create(21), value -> add(value, value));
+    assertEquals(42, toInt(doubled));
+  }
+
+  @Test
+  public void testSharedOperands() {
+    AtomicInteger calls = new AtomicInteger();
+    DRes<SInt> value = create(1);
+    for (int i = 0; i < 64; i++) {
+      DRes<SInt> operand = value;
+      value = LinearCombination.of(operand, operand, (left, right) -> {
+        calls.incrementAndGet();
+        return add(left, right);
+      });
+    }
+    assertEquals(BigInteger.valueOf(2).modPow(BigInteger.valueOf(64), BigInteger.valueOf(97))
+        .intValue(), toInt(value));
+    assertEquals(64, calls.get());
+  }
+
+  @Test
+  public void testLongChain() {
+    DRes<SInt> sum = create(0);
+    int length = 1_000_000;
+    for (int i = 0; i < length; i++) {
+      sum = LinearCombination.of(sum, create(1), this::add);
+    }
+    assertEquals(length % 97, toInt(sum));
+  }
+
+  @Test
+  public void testConcurrentEvaluation() throws Exception {
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int round = 0; round < 20; round++) {
+        AtomicInteger calls = new AtomicInteger();
+        // A chain of shared sub-expressions, with one root per thread depending on all of it
+        DRes<SInt> shared = create(0);
+        for (int i = 0; i < 10_000; i++) {
+          shared = LinearCombination.of(shared, create(1), (left, right) -> {
+            calls.incrementAndGet();
+            return add(left, right);
+          });
+        }
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          DRes<SInt> root = LinearCombination.of(shared, create(i), (left, right) -> {
+            calls.incrementAndGet();
+            return add(left, right);
+          });
+          tasks.add(() -> toInt(root));
+        }
+        List<Future<Integer>> results = executor.invokeAll(tasks);
+        for (int i = 0; i < threads; i++) {
+          assertEquals((10_000 + i) % 97, (int) results.get(i).get());
+        }
+        assertEquals(10_000 + threads, calls.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package dk.alexandra.fresco.framework.builder.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test for the truncation pairs of {@link PreprocessedValues}.
+ */
+public class TruncationPairTests {
+
+  public static class TestTruncationPair<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    static final int[] shifts = {1, 2, 8, 15};
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() throws Exception {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                List<DRes<TruncationPair>> pairs = new ArrayList<>(shifts.length);
+                for (int shift : shifts) {
+                  pairs.add(par.preprocessedValues().getTruncationPair(shift));
+                }
+                return () -> pairs;
+              }).par((par, pairs) -> {
+                List<DRes<BigInteger>> output = new ArrayList<>(2 * pairs.size());
+                for (DRes<TruncationPair> pair : pairs) {
+                  output.add(par.numeric().open(pair.out().getR()));
+                  output.add(par.numeric().open(pair.out().getShiftedR()));
+                }
+                return () -> output;
+              }).seq((seq, output) -> () ->
+                  output.stream().map(DRes::out).collect(Collectors.toList()));
+          List<BigInteger> output = runApplication(app);
+          for (int i = 0; i < shifts.length; i++) {
+            BigInteger r = output.get(2 * i);
+            BigInteger shiftedR = output.get(2 * i + 1);
+            assertTrue(r.signum() >= 0);
+            assertEquals(r.shiftRight(shifts[i]), shiftedR);
+          }
+        }
+      };
+    }
+  }
+}
@@ -45,14 +45,17 @@ public final class FieldDefinitionTest {
         BigIntegerFieldElement::extractValue);
     test.accept(new MersennePrimeFieldDefinition(bitLength, constant),
         MersennePrimeFieldElement::extractValue);
+    test.accept(new MontgomeryFieldDefinition(modulusValue),
+        MontgomeryFieldElement::extractValue);
   }
 
   /**
-   * Runs the test on two field definitions, simple and mersenne
+   * Runs the test on three field definitions, simple, mersenne and montgomery
    */
   private void testDefinition(Consumer<FieldDefinition> test) {
     test.accept(new BigIntegerFieldDefinition(modulusValue));
     test.accept(new MersennePrimeFieldDefinition(bitLength, constant));
+    test.accept(new MontgomeryFieldDefinition(modulusValue));
   }
 
   private List<BigInteger> toBigIntegers(List<FieldElement> elements,
@@ -92,9 +95,25 @@ public final class FieldDefinitionTest {
       List<FieldElement> result = definition.deserializeList(bytes);
       assertThat(toBigIntegers(result, converter),
           Is.is(toBigIntegers(getElements(definition), converter)));
+      // the returned list must support adding elements
+      result.add(definition.createElement(0));
+      assertThat(result.size(), Is.is(getElements(definition).size() + 1));
     });
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void deserializeTruncatedVector() {
+    // a message missing the last byte must not be read as a shorter vector
+    new MontgomeryFieldDefinition(modulusValue)
+        .deserializeVector(Arrays.copyOf(bytes, bytes.length - 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void deserializeTruncatedList() {
+    new MontgomeryFieldDefinition(modulusValue)
+        .deserializeList(Arrays.copyOf(bytes, bytes.length - 1));
+  }
+
   @Test
   public void serialize() {
     testDefinition((definition, converter) -> {
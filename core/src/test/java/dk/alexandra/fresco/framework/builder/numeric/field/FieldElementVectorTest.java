@@ -0,0 +1,157 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.builder.numeric.Addable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class FieldElementVectorTest {
+
+  private static final BigInteger MODULUS = new BigInteger(
+      "115792089237316195423570985008687907853269984665640564039457584007908834671663");
+  private static final int SIZE = 50;
+
+  private final Random random = new Random(42);
+
+  private List<BigInteger> randomValues() {
+    List<BigInteger> values = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      values.add(new BigInteger(MODULUS.bitLength(), random).mod(MODULUS));
+    }
+    return values;
+  }
+
+  private FieldElementVector createVector(FieldDefinition definition, List<BigInteger> values) {
+    List<FieldElement> elements = new ArrayList<>(values.size());
+    for (BigInteger value : values) {
+      elements.add(definition.createElement(value));
+    }
+    return definition.createVector(elements);
+  }
+
+  private void assertValues(FieldDefinition definition, List<FieldElement> actual,
+      List<BigInteger> expected) {
+    assertThat(actual.size(), Is.is(expected.size()));
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(definition.convertToUnsigned(actual.get(i)), Is.is(expected.get(i).mod(MODULUS)));
+    }
+  }
+
+  private void testArithmetic(FieldDefinition definition) {
+    List<BigInteger> left = randomValues();
+    List<BigInteger> right = randomValues();
+    FieldElementVector leftVector = createVector(definition, left);
+    FieldElementVector rightVector = createVector(definition, right);
+    List<BigInteger> sums = new ArrayList<>();
+    List<BigInteger> differences = new ArrayList<>();
+    List<BigInteger> scaled = new ArrayList<>();
+    BigInteger innerProduct = BigInteger.ZERO;
+    for (int i = 0; i < SIZE; i++) {
+      sums.add(left.get(i).add(right.get(i)));
+      differences.add(left.get(i).subtract(right.get(i)));
+      scaled.add(left.get(i).multiply(right.get(0)));
+      innerProduct = innerProduct.add(left.get(i).multiply(right.get(i)));
+    }
+    assertValues(definition, leftVector.add(rightVector), sums);
+    assertValues(definition, leftVector.subtract(rightVector), differences);
+    assertValues(definition, leftVector.scale(rightVector.get(0)), scaled);
+    assertThat(definition.convertToUnsigned(leftVector.innerProduct(rightVector)),
+        Is.is(innerProduct.mod(MODULUS)));
+    assertValues(definition, leftVector, left);
+    leftVector.accumulate(rightVector);
+    assertValues(definition, leftVector, sums);
+    assertValues(definition, rightVector, right);
+  }
+
+  @Test
+  public void testArithmeticBigInteger() {
+    testArithmetic(new BigIntegerFieldDefinition(MODULUS));
+  }
+
+  @Test
+  public void testArithmeticMontgomery() {
+    testArithmetic(new MontgomeryFieldDefinition(MODULUS));
+  }
+
+  @Test
+  public void testMixedVectors() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    List<BigInteger> left = randomValues();
+    List<BigInteger> right = randomValues();
+    FieldElementVector packed = createVector(definition, left);
+    FieldElementVector boxed = new BoxedFieldElementVector(definition,
+        createVector(definition, right));
+    List<BigInteger> sums = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++) {
+      sums.add(left.get(i).add(right.get(i)));
+    }
+    assertValues(definition, packed.add(boxed), sums);
+    assertValues(definition, boxed.add(packed), sums);
+    packed.accumulate(boxed);
+    assertValues(definition, packed, sums);
+  }
+
+  private void testSerialization(FieldDefinition definition) {
+    List<BigInteger> values = randomValues();
+    FieldElementVector vector = createVector(definition, values);
+    byte[] bytes = vector.serialize();
+    assertThat(bytes, Is.is(definition.serialize(new ArrayList<>(vector))));
+    assertValues(definition, definition.deserializeVector(bytes), values);
+  }
+
+  @Test
+  public void testSerializationBigInteger() {
+    testSerialization(new BigIntegerFieldDefinition(MODULUS));
+  }
+
+  @Test
+  public void testSerializationMontgomery() {
+    testSerialization(new MontgomeryFieldDefinition(MODULUS));
+  }
+
+  @Test
+  public void testSet() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    FieldElementVector vector = createVector(definition, randomValues());
+    FieldElement previous = vector.set(3, definition.createElement(7));
+    assertThat(definition.convertToUnsigned(vector.get(3)), Is.is(BigInteger.valueOf(7)));
+    assertThat(definition.convertToUnsigned(vector.set(3, previous)), Is.is(BigInteger.valueOf(7)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSetFromOtherField() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    FieldElementVector vector = createVector(definition, randomValues());
+    vector.set(0, new BigIntegerFieldDefinition(MODULUS).createElement(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSizeMismatch() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    FieldElementVector vector = createVector(definition, randomValues());
+    vector.add(definition.createVector(vector.subList(0, SIZE - 1)));
+  }
+
+  @Test
+  public void testSumRows() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    List<BigInteger> first = randomValues();
+    List<BigInteger> second = randomValues();
+    List<BigInteger> third = randomValues();
+    List<BigInteger> sums = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++) {
+      sums.add(first.get(i).add(second.get(i)).add(third.get(i)));
+    }
+    FieldElementVector firstVector = createVector(definition, first);
+    List<FieldElement> actual = Addable.sumRows(Arrays.<List<FieldElement>>asList(firstVector,
+        createVector(definition, second), createVector(definition, third)));
+    assertValues(definition, actual, sums);
+    assertValues(definition, firstVector, first);
+  }
+}
@@ -0,0 +1,67 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class MontgomeryFieldDefinitionTest {
+
+  private static final BigInteger MODULUS = new BigInteger(
+      "115792089237316195423570985008687907853269984665640564039457584007908834671663");
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new MontgomeryFieldDefinition(BigInteger.valueOf(1024));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void modulusOne() {
+    new MontgomeryFieldDefinition(BigInteger.ONE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeModulus() {
+    new MontgomeryFieldDefinition(BigInteger.ONE.shiftLeft(256).add(BigInteger.ONE));
+  }
+
+  @Test
+  public void serializationMatchesBigIntegerFieldDefinition() {
+    MontgomeryFieldDefinition montgomery = new MontgomeryFieldDefinition(MODULUS);
+    BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(MODULUS);
+    Random random = new Random(1);
+    List<FieldElement> montgomeryElements = new ArrayList<>();
+    List<FieldElement> referenceElements = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      BigInteger value = new BigInteger(MODULUS.bitLength(), random).mod(MODULUS);
+      montgomeryElements.add(montgomery.createElement(value));
+      referenceElements.add(reference.createElement(value));
+    }
+    byte[] bytes = montgomery.serialize(montgomeryElements);
+    assertThat(bytes, Is.is(reference.serialize(referenceElements)));
+    List<FieldElement> deserialized = montgomery.deserializeList(bytes);
+    for (int i = 0; i < deserialized.size(); i++) {
+      assertThat(montgomery.convertToUnsigned(deserialized.get(i)),
+          Is.is(reference.convertToUnsigned(referenceElements.get(i))));
+    }
+  }
+
+  @Test
+  public void deserializeUnreducedValue() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(BigInteger.valueOf(251));
+    FieldElement element = definition.deserialize(new byte[]{-1});
+    assertThat(definition.convertToUnsigned(element), Is.is(BigInteger.valueOf(4)));
+  }
+
+  @Test
+  public void convertToSigned() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(MODULUS);
+    FieldElement element = definition.createElement(-5);
+    BigInteger unsigned = definition.convertToUnsigned(element);
+    assertThat(definition.convertToSigned(unsigned), Is.is(BigInteger.valueOf(-5)));
+  }
+}
@@ -0,0 +1,148 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.StringContains;
+import org.junit.Test;
+
+public class MontgomeryFieldElementTest {
+
+  private static final List<BigInteger> MODULI = Arrays.asList(
+      BigInteger.valueOf(113),
+      new BigInteger("18446744073709551557"),
+      new BigInteger("340282366920938463463374607431768211283"),
+      new BigInteger("170141183460469231731687303715884105727"),
+      BigInteger.ONE.shiftLeft(192).subtract(BigInteger.valueOf(237)),
+      new BigInteger("1157920892373161954235709850086879078532699846656405640394575840079"
+          + "08834671663")
+  );
+
+  @Test(expected = NullPointerException.class)
+  public void nullValue() {
+    MontgomeryFieldElement.create((BigInteger) null, new MontgomeryModulus(BigInteger.valueOf(11)));
+  }
+
+  @Test
+  public void creators() {
+    MontgomeryModulus modulus = new MontgomeryModulus(BigInteger.valueOf(113));
+    testCreation(27, 27, modulus);
+    testCreation(27 + 113, 27, modulus);
+    testCreation(27 - 113, 27, modulus);
+    testCreation(-1, 113 - 1, modulus);
+    testCreation(0, 0, modulus);
+  }
+
+  private void testCreation(int value, int expected, MontgomeryModulus modulus) {
+    FieldElement element1 = MontgomeryFieldElement.create(value, modulus);
+    FieldElement element2 = MontgomeryFieldElement.create("" + value, modulus);
+    FieldElement element3 = MontgomeryFieldElement.create(BigInteger.valueOf(value), modulus);
+    assertThat(MontgomeryFieldElement.extractValue(element1), Is.is(BigInteger.valueOf(expected)));
+    assertThat(MontgomeryFieldElement.extractValue(element2), Is.is(BigInteger.valueOf(expected)));
+    assertThat(MontgomeryFieldElement.extractValue(element3), Is.is(BigInteger.valueOf(expected)));
+  }
+
+  @Test
+  public void arithmeticMatchesBigInteger() {
+    Random random = new Random(42);
+    for (BigInteger prime : MODULI) {
+      MontgomeryModulus modulus = new MontgomeryModulus(prime);
+      for (int i = 0; i < 1000; i++) {
+        BigInteger a = randomValue(random, prime, i);
+        BigInteger b = randomValue(random, prime, i + 1);
+        FieldElement left = MontgomeryFieldElement.create(a, modulus);
+        FieldElement right = MontgomeryFieldElement.create(b, modulus);
+        assertThat(MontgomeryFieldElement.extractValue(left.add(right)),
+            Is.is(a.add(b).mod(prime)));
+        assertThat(MontgomeryFieldElement.extractValue(left.subtract(right)),
+            Is.is(a.subtract(b).mod(prime)));
+        assertThat(MontgomeryFieldElement.extractValue(left.multiply(right)),
+            Is.is(a.multiply(b).mod(prime)));
+        assertThat(MontgomeryFieldElement.extractValue(left.negate()),
+            Is.is(a.negate().mod(prime)));
+      }
+    }
+  }
+
+  @Test
+  public void packedArithmeticWithScratch() {
+    Random random = new Random(42);
+    for (BigInteger prime : MODULI) {
+      MontgomeryModulus modulus = new MontgomeryModulus(prime);
+      int limbs = modulus.getLimbs();
+      long[] packed = new long[3 * limbs];
+      long[] scratch = new long[limbs];
+      byte[] bytes = new byte[8 * limbs];
+      for (int i = 0; i < 100; i++) {
+        BigInteger a = randomValue(random, prime, i);
+        BigInteger b = randomValue(random, prime, i + 1);
+        MontgomeryModulus.writeBigEndian(MontgomeryModulus.toLimbs(a, limbs), bytes, 0,
+            bytes.length);
+        MontgomeryModulus.readBigEndian(bytes, 0, bytes.length, packed, limbs, limbs);
+        modulus.toMontgomery(packed, limbs, packed, limbs, scratch);
+        System.arraycopy(modulus.toMontgomery(b), 0, packed, 2 * limbs, limbs);
+        // The scratch array is reused without clearing, and the result overlaps an operand
+        modulus.multiply(packed, limbs, packed, 2 * limbs, packed, limbs, scratch);
+        modulus.fromMontgomery(packed, limbs, packed, 0, scratch);
+        assertThat(MontgomeryModulus.toLimbs(a.multiply(b).mod(prime), limbs),
+            Is.is(Arrays.copyOfRange(packed, 0, limbs)));
+      }
+    }
+  }
+
+  /**
+   * Picks values close to the edges of the field once in a while, since these are the values
+   * exercising the carries of the limb arithmetic.
+   */
+  private BigInteger randomValue(Random random, BigInteger prime, int i) {
+    switch (i % 4) {
+      case 0:
+        return prime.subtract(BigInteger.ONE);
+      case 1:
+        return BigInteger.valueOf(i % 3);
+      default:
+        return new BigInteger(prime.bitLength() + 8, random).mod(prime);
+    }
+  }
+
+  @Test
+  public void limbs() {
+    MontgomeryModulus modulus = new MontgomeryModulus(MODULI.get(5));
+    BigInteger value = MODULI.get(5).subtract(BigInteger.valueOf(7));
+    FieldElement element = MontgomeryFieldElement.create(value, modulus);
+    long[] limbs = MontgomeryFieldElement.extractLimbs(element);
+    assertThat(limbs, Is.is(MontgomeryModulus.toLimbs(value, 4)));
+    FieldElement fromLimbs = MontgomeryFieldElement.fromLimbs(limbs, modulus);
+    assertThat(MontgomeryFieldElement.extractValue(fromLimbs), Is.is(value));
+  }
+
+  @Test
+  public void sqrt() {
+    MontgomeryModulus modulus = new MontgomeryModulus(BigInteger.valueOf(113));
+    FieldElement element = MontgomeryFieldElement.create(2, modulus);
+    BigInteger value = MontgomeryFieldElement.extractValue(element.sqrt());
+    assertThat(value, Is.is(BigInteger.valueOf(62)));
+  }
+
+  @Test
+  public void modInverse() {
+    MontgomeryModulus modulus = new MontgomeryModulus(BigInteger.valueOf(113));
+    assertThat(MontgomeryFieldElement
+        .extractValue(MontgomeryFieldElement.create(27, modulus).modInverse()),
+        Is.is(BigInteger.valueOf(67)));
+    assertThat(MontgomeryFieldElement
+        .extractValue(MontgomeryFieldElement.create(112, modulus).modInverse()),
+        Is.is(BigInteger.valueOf(112)));
+  }
+
+  @Test
+  public void toStringTest() {
+    MontgomeryModulus modulus = new MontgomeryModulus(MODULI.get(2));
+    FieldElement element = MontgomeryFieldElement.create(BigInteger.valueOf(7854), modulus);
+    assertThat(element.toString(), StringContains.containsString("7854"));
+  }
+}
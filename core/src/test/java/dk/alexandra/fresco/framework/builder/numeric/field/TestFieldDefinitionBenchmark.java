@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of add, multiply, serialize and deserialize throughput of the {@link
+ * BigIntegerFieldDefinition}, {@link MersennePrimeFieldDefinition} and {@link
+ * MontgomeryFieldDefinition} on the same pseudo-Mersenne moduli. Ignored by default since it takes
+ * long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestFieldDefinitionBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestFieldDefinitionBenchmark.class);
+  private static final int ELEMENTS = 100_000;
+  private static final int ITERATIONS = 20;
+  private static final int RUNS = 5;
+
+  @Test
+  public void testFieldOperations() {
+    benchmark(128, 173);
+    benchmark(256, 189);
+  }
+
+  private void benchmark(int bitLength, int constant) {
+    BigInteger modulus = BigInteger.ONE.shiftLeft(bitLength).subtract(BigInteger.valueOf(constant));
+    Random random = new Random(42);
+    List<BigInteger> left = new ArrayList<>(ELEMENTS);
+    List<BigInteger> right = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      left.add(new BigInteger(bitLength, random).mod(modulus));
+      right.add(new BigInteger(bitLength, random).mod(modulus));
+    }
+    BigInteger expected = null;
+    for (FieldDefinition definition : new FieldDefinition[]{
+        new BigIntegerFieldDefinition(modulus),
+        new MersennePrimeFieldDefinition(bitLength, constant),
+        new MontgomeryFieldDefinition(modulus)}) {
+      BigInteger innerProduct = benchmark(definition, left, right);
+      if (expected == null) {
+        expected = innerProduct;
+      }
+      Assert.assertEquals(expected, innerProduct);
+    }
+  }
+
+  private BigInteger benchmark(FieldDefinition definition, List<BigInteger> leftValues,
+      List<BigInteger> rightValues) {
+    List<FieldElement> left = new ArrayList<>(ELEMENTS);
+    List<FieldElement> right = new ArrayList<>(ELEMENTS);
+    for (int i = 0; i < ELEMENTS; i++) {
+      left.add(definition.createElement(leftValues.get(i)));
+      right.add(definition.createElement(rightValues.get(i)));
+    }
+    FieldElement[] results = new FieldElement[ELEMENTS];
+    byte[] serialized = definition.serialize(left);
+    FieldElementVector leftVector = definition.createVector(left);
+    FieldElementVector rightVector = definition.createVector(right);
+    FieldElement[] innerProduct = new FieldElement[1];
+    String name =
+        definition.getClass().getSimpleName() + ", " + definition.getBitLength() + " bits";
+    logger.info("{}: add {} ns, multiply {} ns, serialize {} ns, deserialize {} ns, "
+            + "vector inner product {} ns, vector accumulate {} ns per element", name,
+        time(i -> results[i] = left.get(i).add(right.get(i))),
+        time(i -> results[i] = left.get(i).multiply(right.get(i))),
+        timeBulk(() -> definition.serialize(left)),
+        timeBulk(() -> definition.deserializeList(serialized)),
+        timeBulk(() -> innerProduct[0] = leftVector.innerProduct(rightVector)),
+        timeBulk(() -> leftVector.accumulate(rightVector)));
+    BigInteger product = leftValues.get(0).multiply(rightValues.get(0));
+    Assert.assertEquals(product.mod(definition.getModulus()),
+        definition.convertToUnsigned(results[0]));
+    return definition.convertToUnsigned(definition.createVector(left)
+        .innerProduct(definition.createVector(right)));
+  }
+
+  /**
+   * Returns the best time in nanoseconds per element of applying an operation to all elements.
+   */
+  private double time(IntConsumer operation) {
+    return timeBulk(() -> {
+      for (int i = 0; i < ELEMENTS; i++) {
+        operation.accept(i);
+      }
+    });
+  }
+
+  /**
+   * Returns the best time in nanoseconds per element of an operation on all elements at once.
+   */
+  private double timeBulk(Runnable operation) {
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < RUNS; run++) {
+      long start = System.nanoTime();
+      for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+        operation.run();
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return Math.round(10.0 * best / ITERATIONS / ELEMENTS) / 10.0;
+  }
+}
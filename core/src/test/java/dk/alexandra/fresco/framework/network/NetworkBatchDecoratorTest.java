@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.framework.network;
 
 import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,25 +66,43 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{1, 123}, transmissions.get(3));
   }
 
-  @Test(expected = RuntimeException.class)
-  public void errorOnBigPackets() throws Exception {
-    networkBatchDecorator.sendToAll(
-        new byte[]{
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-        });
+  @Test
+  public void sendBigPacket() throws Exception {
+    byte[] data = new byte[300];
+    Arrays.fill(data, (byte) 123);
+    networkBatchDecorator.send(1, data);
+    networkBatchDecorator.flush();
+    byte[] sent = transmissions.get(1);
+    Assert.assertEquals(302, sent.length);
+    Assert.assertEquals((byte) 0xAC, sent[0]);
+    Assert.assertEquals((byte) 0x02, sent[1]);
+    Assert.assertArrayEquals(data, Arrays.copyOfRange(sent, 2, sent.length));
+  }
+
+  @Test
+  public void sendAndReceiveManyPackets() throws Exception {
+    int[] lengths = {0, 1, 127, 128, 16383, 16384, 100000};
+    for (int length : lengths) {
+      byte[] data = new byte[length];
+      Arrays.fill(data, (byte) length);
+      networkBatchDecorator.send(2, data);
+    }
+    networkBatchDecorator.flush();
+    for (int length : lengths) {
+      byte[] expected = new byte[length];
+      Arrays.fill(expected, (byte) length);
+      Assert.assertArrayEquals(expected, networkBatchDecorator.receive(2));
+    }
+  }
 
+  @Test
+  public void buffersAreClearedOnFlush() throws Exception {
+    networkBatchDecorator.send(1, new byte[1000]);
+    networkBatchDecorator.flush();
+    networkBatchDecorator.send(1, new byte[]{42});
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{1, 42}, transmissions.get(1));
+    Assert.assertArrayEquals(new byte[]{42}, networkBatchDecorator.receive(1));
   }
 
   private class DummyNetwork implements Network {
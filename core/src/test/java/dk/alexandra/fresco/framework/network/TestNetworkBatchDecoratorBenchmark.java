@@ -0,0 +1,150 @@
+package dk.alexandra.fresco.framework.network;
+
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of {@link NetworkBatchDecorator} against the decorator it replaced, which framed
+ * messages with a single length byte and buffered them in byte array streams. Sends and receives
+ * millions of small messages over a loopback network and reports throughput and the number of
+ * bytes allocated by the benchmark thread. Ignored by default since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestNetworkBatchDecoratorBenchmark {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(TestNetworkBatchDecoratorBenchmark.class);
+  private static final int NO_OF_PARTIES = 2;
+  private static final int MESSAGES = 4_000_000;
+  private static final int BATCH_SIZE = 4096;
+  private static final int RUNS = 3;
+
+  @Test
+  public void testSmallMessages() {
+    for (int messageSize : new int[]{8, 32, 120}) {
+      for (int run = 0; run < RUNS; run++) {
+        LoopbackNetwork legacyNetwork = new LoopbackNetwork();
+        LegacyBatchDecorator legacy = new LegacyBatchDecorator(legacyNetwork);
+        measure("legacy decorator", messageSize, run, legacy::send, legacy::receive,
+            legacy::flush);
+        LoopbackNetwork network = new LoopbackNetwork();
+        NetworkBatchDecorator decorator = new NetworkBatchDecorator(NO_OF_PARTIES, network);
+        measure("NetworkBatchDecorator", messageSize, run, decorator::send, decorator::receive,
+            decorator::flush);
+      }
+    }
+  }
+
+  private void measure(String name, int messageSize, int run, Sender sender, Receiver receiver,
+      Runnable flush) {
+    byte[] message = new byte[messageSize];
+    message[0] = 42;
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+    long allocated = threads.getThreadAllocatedBytes(thread);
+    long start = System.nanoTime();
+    for (int sent = 0; sent < MESSAGES; sent += BATCH_SIZE) {
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        sender.send(2, message);
+      }
+      flush.run();
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        Assert.assertEquals(42, receiver.receive(2)[0]);
+      }
+      flush.run();
+    }
+    long time = System.nanoTime() - start;
+    allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+    if (run == RUNS - 1) {
+      logger.info("{}, {} byte messages: {} ms, {} messages/s, {} bytes allocated per message",
+          name, messageSize, TimeUnit.NANOSECONDS.toMillis(time),
+          MESSAGES * 1_000_000_000L / time, allocated / MESSAGES);
+    }
+  }
+
+  private interface Sender {
+
+    void send(int partyId, byte[] data);
+  }
+
+  private interface Receiver {
+
+    byte[] receive(int partyId);
+  }
+
+  /**
+   * Network delivering every message sent to a party back when receiving from that party.
+   */
+  private static class LoopbackNetwork implements Network {
+
+    private final byte[][] sent = new byte[NO_OF_PARTIES][];
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      sent[partyId - 1] = data;
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return sent[partyId - 1];
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return NO_OF_PARTIES;
+    }
+  }
+
+  /**
+   * The batching decorator before messages were framed with varint lengths.
+   */
+  private static class LegacyBatchDecorator {
+
+    private final Network network;
+    private final Map<Integer, ByteArrayOutputStream> output = new HashMap<>();
+    private final Map<Integer, ByteArrayInputStream> input = new HashMap<>();
+
+    LegacyBatchDecorator(Network network) {
+      this.network = network;
+    }
+
+    byte[] receive(int id) {
+      ByteArrayInputStream byteInputStream = input.get(id);
+      if (byteInputStream == null) {
+        byteInputStream = new ByteArrayInputStream(network.receive(id));
+        input.put(id, byteInputStream);
+      }
+      int count = byteInputStream.read();
+      byte[] bytes = new byte[count];
+      byteInputStream.read(bytes, 0, count);
+      return bytes;
+    }
+
+    void send(int id, byte[] data) {
+      ByteArrayOutputStream buffer = output.computeIfAbsent(id, i -> new ByteArrayOutputStream());
+      buffer.write(data.length);
+      buffer.write(data, 0, data.length);
+    }
+
+    void flush() {
+      for (int i = 1; i <= NO_OF_PARTIES; i++) {
+        if (output.containsKey(i)) {
+          network.send(i, output.get(i).toByteArray());
+        }
+        output.remove(i);
+      }
+      input.clear();
+    }
+  }
+}
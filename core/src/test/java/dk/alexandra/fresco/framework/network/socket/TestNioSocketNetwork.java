@@ -0,0 +1,129 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import static dk.alexandra.fresco.framework.network.socket.Connector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TestNioSocketNetwork extends AbstractCloseableNetworkTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestNioSocketNetwork.class);
+  private static final int BENCHMARK_ROUNDS = 1000;
+  private static final int BENCHMARK_MESSAGE_SIZE = 32;
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    return new NioSocketNetwork(conf, timeout);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingParty() {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    new NioSocketNetwork(confs.get(0), new HashMap<>());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings("resource")
+  public void testUnconnectedChannel() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    Map<Integer, SocketChannel> channelMap = new HashMap<>();
+    channelMap.put(2, SocketChannel.open());
+    new NioSocketNetwork(confs.get(0), channelMap);
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testInteroperatesWithSocketNetwork() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    ExecutorService es = Executors.newFixedThreadPool(2);
+    Future<CloseableNetwork> nio = es.submit(() -> new NioSocketNetwork(confs.get(0)));
+    Future<CloseableNetwork> socket = es.submit(() -> new SocketNetwork(confs.get(1)));
+    networks.put(1, nio.get());
+    networks.put(2, socket.get());
+    es.shutdownNow();
+    byte[] small = new byte[]{1, 2, 3};
+    byte[] large = new byte[1 << 20];
+    large[large.length - 1] = 42;
+    networks.get(1).send(2, small);
+    networks.get(1).send(2, new byte[0]);
+    networks.get(1).send(2, large);
+    networks.get(2).send(1, large);
+    networks.get(2).send(1, small);
+    assertArrayEquals(small, networks.get(2).receive(1));
+    assertArrayEquals(new byte[0], networks.get(2).receive(1));
+    assertArrayEquals(large, networks.get(2).receive(1));
+    assertArrayEquals(large, networks.get(1).receive(2));
+    assertArrayEquals(small, networks.get(1).receive(2));
+  }
+
+  /**
+   * Compares the time it takes for all parties to exchange many small messages, as done when
+   * opening values, using this network and the {@link SocketNetwork}.
+   */
+  @Ignore("Benchmark, run manually")
+  @Test
+  public void benchmarkAgainstSocketNetwork() throws Exception {
+    for (int parties : new int[]{2, 5, 10}) {
+      long nio = timeExchange(parties, NioSocketNetwork::new);
+      long socket = timeExchange(parties, SocketNetwork::new);
+      logger.info("{} parties, {} rounds: NioSocketNetwork {} ms, SocketNetwork {} ms", parties,
+          BENCHMARK_ROUNDS, TimeUnit.NANOSECONDS.toMillis(nio),
+          TimeUnit.NANOSECONDS.toMillis(socket));
+    }
+  }
+
+  private long timeExchange(int parties,
+      Function<NetworkConfiguration, CloseableNetwork> factory) throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(parties);
+    ExecutorService es = Executors.newFixedThreadPool(parties);
+    try {
+      List<Future<CloseableNetwork>> connecting = new ArrayList<>(parties);
+      for (NetworkConfiguration conf : confs) {
+        connecting.add(es.submit(() -> factory.apply(conf)));
+      }
+      for (int i = 0; i < parties; i++) {
+        networks.put(i + 1, connecting.get(i).get());
+      }
+      long start = System.nanoTime();
+      List<Future<?>> exchanging = new ArrayList<>(parties);
+      for (CloseableNetwork network : networks.values()) {
+        exchanging.add(es.submit(() -> {
+          byte[] message = new byte[BENCHMARK_MESSAGE_SIZE];
+          for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+            network.sendToAll(message);
+            network.receiveFromAll();
+          }
+        }));
+      }
+      for (Future<?> future : exchanging) {
+        future.get();
+      }
+      return System.nanoTime() - start;
+    } finally {
+      es.shutdownNow();
+      closeNetworks(networks);
+      networks.clear();
+    }
+  }
+}
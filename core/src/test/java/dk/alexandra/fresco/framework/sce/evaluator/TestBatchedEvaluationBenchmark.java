@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the scheduling overhead of a large dummy arithmetic circuit with many native
+ * protocols per batch. Reports wall time, bytes allocated by all threads and the garbage
+ * collections of the JVM, which hosts both parties. Ignored by default since it takes long to
+ * run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestBatchedEvaluationBenchmark extends AbstractDummyArithmeticTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(TestBatchedEvaluationBenchmark.class);
+  private static final int LAYERS = 64;
+  private static final int WIDTH = 16384;
+  private static final int RUNS = 3;
+
+  @Test
+  public void testLayeredCircuit() {
+    runTest(new LayeredCircuit(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  private static class LayeredCircuit
+      extends TestThreadFactory<DummyArithmeticResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          for (int run = 0; run < RUNS; run++) {
+            long allocated = allocatedBytes();
+            long collections = collections();
+            long collectionMillis = collectionMillis();
+            long start = System.nanoTime();
+            BigInteger result = runApplication(producer -> producer.seq(seq -> {
+              Numeric numeric = seq.numeric();
+              List<DRes<SInt>> values = new ArrayList<>(WIDTH);
+              for (int i = 0; i < WIDTH; i++) {
+                values.add(numeric.known(BigInteger.ONE));
+              }
+              return () -> values;
+            }).seq((seq, values) -> {
+              DRes<List<DRes<SInt>>> layer = () -> values;
+              for (int i = 0; i < LAYERS; i++) {
+                DRes<List<DRes<SInt>>> previous = layer;
+                layer = seq.par(par -> {
+                  Numeric numeric = par.numeric();
+                  List<DRes<SInt>> products = new ArrayList<>(WIDTH);
+                  for (DRes<SInt> value : previous.out()) {
+                    products.add(numeric.mult(value, value));
+                  }
+                  return () -> products;
+                });
+              }
+              return layer;
+            }).seq((seq, last) -> seq.numeric().open(last.get(WIDTH - 1))));
+            long time = System.nanoTime() - start;
+            Assert.assertEquals(BigInteger.ONE, result);
+            if (conf.getMyId() == 1) {
+              logger.info("{} layers of {} multiplications: {} ms, {} MB allocated, "
+                      + "{} collections taking {} ms (both parties)", LAYERS, WIDTH,
+                  TimeUnit.NANOSECONDS.toMillis(time), (allocatedBytes() - allocated) >> 20,
+                  collections() - collections, collectionMillis() - collectionMillis);
+            }
+          }
+        }
+      };
+    }
+  }
+
+  private static long allocatedBytes() {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long total = 0;
+    for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+      total += Math.max(0, allocated);
+    }
+    return total;
+  }
+
+  private static long collections() {
+    long total = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += collector.getCollectionCount();
+    }
+    return total;
+  }
+
+  private static long collectionMillis() {
+    long total = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += collector.getCollectionTime();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,253 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ParallelizableComputationProtocol;
+import dk.alexandra.fresco.framework.ParallelizableProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+public class TestParallelBatchedStrategy {
+
+  private static final int PROTOCOLS = 100;
+
+  @Test
+  public void testSameTrafficAsBatchedStrategy() {
+    List<byte[]> sequentialTraffic = new ArrayList<>();
+    List<EchoProtocol> sequential = evaluate(new BatchedStrategy<>(), sequentialTraffic);
+    List<byte[]> parallelTraffic = new ArrayList<>();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    List<EchoProtocol> parallel = evaluate(new ParallelBatchedStrategy<>(pool, 3),
+        parallelTraffic);
+    pool.shutdown();
+    assertEquals(sequentialTraffic.size(), parallelTraffic.size());
+    for (int i = 0; i < sequentialTraffic.size(); i++) {
+      assertArrayEquals(sequentialTraffic.get(i), parallelTraffic.get(i));
+    }
+    for (int i = 0; i < PROTOCOLS; i++) {
+      assertEquals(i, sequential.get(i).out().intValue());
+      assertEquals(i, parallel.get(i).out().intValue());
+    }
+  }
+
+  @Test
+  public void testComputationProtocols() {
+    List<byte[]> sequentialTraffic = new ArrayList<>();
+    ProtocolCollectionList<ResourcePoolImpl> sequential = computationProtocols();
+    new BatchedStrategy<ResourcePoolImpl>().processBatch(sequential, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, new LoopbackNetwork(sequentialTraffic)));
+    List<byte[]> parallelTraffic = new ArrayList<>();
+    ProtocolCollectionList<ResourcePoolImpl> protocols = computationProtocols();
+    List<EchoProtocol> echoes = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePoolImpl> protocol : protocols) {
+      echoes.add((EchoProtocol) protocol);
+    }
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ParallelBatchedStrategy<ResourcePoolImpl> strategy = new ParallelBatchedStrategy<>(pool, 3);
+    strategy.processBatch(protocols, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, new LoopbackNetwork(parallelTraffic)));
+    pool.shutdown();
+    assertEquals(sequentialTraffic.size(), parallelTraffic.size());
+    for (int i = 0; i < sequentialTraffic.size(); i++) {
+      assertArrayEquals(sequentialTraffic.get(i), parallelTraffic.get(i));
+    }
+    for (int i = 0; i < PROTOCOLS; i++) {
+      assertEquals(2 * i, echoes.get(i).out().intValue());
+    }
+    // Every seventh protocol is evaluated on the calling thread, splitting the others into 14 runs
+    // of 6 protocols, which are computed on the pool in both rounds, and a final run of a single
+    // protocol, which is too short to be worth dispatching
+    assertEquals(2 * 14 * 6, strategy.getParallelEvaluations());
+  }
+
+  private ProtocolCollectionList<ResourcePoolImpl> computationProtocols() {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = new ProtocolCollectionList<>(PROTOCOLS);
+    for (int i = 0; i < PROTOCOLS; i++) {
+      protocols.addProtocol(
+          i % 7 == 0 ? new DoublingEchoProtocol(i) : new ComputationEchoProtocol(i));
+    }
+    return protocols;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalChunkSize() {
+    new ParallelBatchedStrategy<>(ForkJoinPool.commonPool(), 0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testExceptionIsPropagated() {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = new ProtocolCollectionList<>(10);
+    for (int i = 0; i < 10; i++) {
+      protocols.addProtocol(new FailingProtocol());
+    }
+    new ParallelBatchedStrategy<ResourcePoolImpl>(ForkJoinPool.commonPool(), 2)
+        .processBatch(protocols, new ResourcePoolImpl(1, 1),
+            new NetworkBatchDecorator(1, new LoopbackNetwork(new ArrayList<>())));
+  }
+
+  private List<EchoProtocol> evaluate(BatchEvaluationStrategy<ResourcePoolImpl> strategy,
+      List<byte[]> traffic) {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = new ProtocolCollectionList<>(PROTOCOLS);
+    List<EchoProtocol> echoes = new ArrayList<>();
+    for (int i = 0; i < PROTOCOLS; i++) {
+      EchoProtocol protocol = i % 7 == 0 ? new EchoProtocol(i) : new ParallelEchoProtocol(i);
+      protocols.addProtocol(protocol);
+      echoes.add(protocol);
+    }
+    strategy.processBatch(protocols, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, new LoopbackNetwork(traffic)));
+    return echoes;
+  }
+
+  /**
+   * Sends a value to itself in the first round and reads it back in the second round.
+   */
+  private static class EchoProtocol implements NativeProtocol<Integer, ResourcePoolImpl> {
+
+    private final int value;
+    private Integer out;
+
+    private EchoProtocol(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+      if (round == 0) {
+        network.send(1, new byte[]{(byte) value});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      } else {
+        out = (int) network.receive(1)[0];
+        return EvaluationStatus.IS_DONE;
+      }
+    }
+
+    @Override
+    public Integer out() {
+      return out;
+    }
+  }
+
+  private static class ParallelEchoProtocol extends EchoProtocol
+      implements ParallelizableProtocol {
+
+    private ParallelEchoProtocol(int value) {
+      super(value);
+    }
+  }
+
+  /**
+   * Echo protocol which doubles the received value.
+   */
+  private static class DoublingEchoProtocol extends EchoProtocol {
+
+    private DoublingEchoProtocol(int value) {
+      super(value);
+    }
+
+    @Override
+    public Integer out() {
+      return 2 * super.out();
+    }
+  }
+
+  /**
+   * Echo protocol which doubles the received value in its local computation.
+   */
+  private static class ComputationEchoProtocol extends EchoProtocol
+      implements ParallelizableComputationProtocol<ResourcePoolImpl> {
+
+    private final int value;
+    private byte[] received;
+    private Integer out;
+
+    private ComputationEchoProtocol(int value) {
+      super(value);
+      this.value = value;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+      prepare(round, resourcePool, network);
+      compute(round, resourcePool);
+      return finish(round, resourcePool, network);
+    }
+
+    @Override
+    public void prepare(int round, ResourcePoolImpl resourcePool, Network network) {
+      if (round == 1) {
+        received = network.receive(1);
+      }
+    }
+
+    @Override
+    public void compute(int round, ResourcePoolImpl resourcePool) {
+      if (round == 1) {
+        out = 2 * received[0];
+      }
+    }
+
+    @Override
+    public EvaluationStatus finish(int round, ResourcePoolImpl resourcePool, Network network) {
+      if (round == 0) {
+        network.send(1, new byte[]{(byte) value});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      }
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Integer out() {
+      return out;
+    }
+  }
+
+  private static class FailingProtocol implements NativeProtocol<Void, ResourcePoolImpl>,
+      ParallelizableProtocol {
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+  }
+
+  /**
+   * Network with a single party that records everything sent and returns it when receiving.
+   */
+  private static class LoopbackNetwork implements Network {
+
+    private final List<byte[]> traffic;
+    private byte[] last;
+
+    private LoopbackNetwork(List<byte[]> traffic) {
+      this.traffic = traffic;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      traffic.add(data);
+      last = data;
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return last;
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
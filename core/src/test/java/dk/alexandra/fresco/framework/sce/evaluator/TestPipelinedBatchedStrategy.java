@@ -0,0 +1,115 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.junit.Test;
+
+public class TestPipelinedBatchedStrategy {
+
+  @Test
+  public void testStagesAreFlushedSeparately() {
+    FifoNetwork network = new FifoNetwork();
+    List<EchoProtocol> protocols = evaluate(new PipelinedBatchedStrategy<>(4, 10), 100, network);
+    for (int i = 0; i < protocols.size(); i++) {
+      assertEquals(i, protocols.get(i).out().intValue());
+    }
+    assertEquals(4, network.sent);
+  }
+
+  @Test
+  public void testSmallBatchUsesSingleStage() {
+    FifoNetwork network = new FifoNetwork();
+    List<EchoProtocol> protocols = evaluate(new PipelinedBatchedStrategy<>(4, 10), 25, network);
+    for (int i = 0; i < protocols.size(); i++) {
+      assertEquals(i, protocols.get(i).out().intValue());
+    }
+    assertEquals(2, network.sent);
+  }
+
+  @Test
+  public void testEmptyBatch() {
+    FifoNetwork network = new FifoNetwork();
+    evaluate(new PipelinedBatchedStrategy<>(), 0, network);
+    assertEquals(0, network.sent);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalStages() {
+    new PipelinedBatchedStrategy<>(0, 10);
+  }
+
+  private List<EchoProtocol> evaluate(BatchEvaluationStrategy<ResourcePoolImpl> strategy,
+      int size, Network network) {
+    ProtocolCollectionList<ResourcePoolImpl> collection = new ProtocolCollectionList<>(size);
+    List<EchoProtocol> protocols = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      EchoProtocol protocol = new EchoProtocol(i);
+      collection.addProtocol(protocol);
+      protocols.add(protocol);
+    }
+    strategy.processBatch(collection, new ResourcePoolImpl(1, 1),
+        new NetworkBatchDecorator(1, network));
+    return protocols;
+  }
+
+  /**
+   * Sends a value to itself in the first round and reads it back in the second round.
+   */
+  private static class EchoProtocol implements NativeProtocol<Integer, ResourcePoolImpl> {
+
+    private final int value;
+    private Integer out;
+
+    private EchoProtocol(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+      if (round == 0) {
+        network.send(1, new byte[]{(byte) value});
+        return EvaluationStatus.HAS_MORE_ROUNDS;
+      } else {
+        out = (int) network.receive(1)[0];
+        return EvaluationStatus.IS_DONE;
+      }
+    }
+
+    @Override
+    public Integer out() {
+      return out;
+    }
+  }
+
+  /**
+   * Network with a single party that delivers messages in the order they were sent.
+   */
+  private static class FifoNetwork implements Network {
+
+    private final Deque<byte[]> messages = new ArrayDeque<>();
+    private int sent;
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      messages.addLast(data);
+      sent++;
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return messages.removeFirst();
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 1;
+    }
+  }
+}
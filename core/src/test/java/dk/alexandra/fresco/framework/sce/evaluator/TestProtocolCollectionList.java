@@ -0,0 +1,129 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Test;
+
+public class TestProtocolCollectionList {
+
+  private static ProtocolCollectionList<ResourcePoolImpl> create(int count, int capacity) {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = new ProtocolCollectionList<>(capacity);
+    for (int i = 0; i < count; i++) {
+      protocols.addProtocol(new ValueProtocol(i));
+    }
+    return protocols;
+  }
+
+  private static List<Integer> values(ProtocolCollectionList<ResourcePoolImpl> protocols) {
+    List<Integer> values = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePoolImpl> protocol : protocols) {
+      values.add((Integer) protocol.out());
+    }
+    return values;
+  }
+
+  @Test
+  public void testCapacity() {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = create(99, 100);
+    assertTrue(protocols.hasFreeCapacity());
+    protocols.addProtocol(new ValueProtocol(99));
+    assertFalse(protocols.hasFreeCapacity());
+    assertEquals(100, protocols.size());
+  }
+
+  @Test
+  public void testRemoveKeepsOrder() {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = create(10, 10);
+    Iterator<NativeProtocol<?, ResourcePoolImpl>> iterator = protocols.iterator();
+    while (iterator.hasNext()) {
+      if ((Integer) iterator.next().out() % 3 != 1) {
+        iterator.remove();
+      }
+    }
+    assertEquals(3, protocols.size());
+    List<Integer> expected = new ArrayList<>();
+    expected.add(1);
+    expected.add(4);
+    expected.add(7);
+    assertEquals(expected, values(protocols));
+  }
+
+  @Test
+  public void testRemoveAfterLastElement() {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = create(3, 3);
+    Iterator<NativeProtocol<?, ResourcePoolImpl>> iterator = protocols.iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.next();
+    iterator.next();
+    assertFalse(iterator.hasNext());
+    iterator.remove();
+    assertEquals(1, protocols.size());
+    assertEquals(1, values(protocols).get(0).intValue());
+  }
+
+  @Test
+  public void testAbandonedIteration() {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = create(6, 10);
+    Iterator<NativeProtocol<?, ResourcePoolImpl>> iterator = protocols.iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.next();
+    iterator.next();
+    iterator.remove();
+    assertEquals(4, protocols.size());
+    protocols.addProtocol(new ValueProtocol(6));
+    List<Integer> expected = new ArrayList<>();
+    expected.add(1);
+    expected.add(3);
+    expected.add(4);
+    expected.add(5);
+    expected.add(6);
+    assertEquals(expected, values(protocols));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDoubleRemove() {
+    Iterator<NativeProtocol<?, ResourcePoolImpl>> iterator = create(2, 2).iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.remove();
+  }
+
+  @Test
+  public void testReuse() {
+    ProtocolCollectionList<ResourcePoolImpl> protocols = create(5, 5);
+    protocols.clear();
+    assertEquals(0, protocols.size());
+    protocols.addProtocol(new ValueProtocol(42));
+    assertEquals(1, protocols.size());
+    assertEquals(42, values(protocols).get(0).intValue());
+  }
+
+  private static class ValueProtocol implements NativeProtocol<Integer, ResourcePoolImpl> {
+
+    private final int value;
+
+    private ValueProtocol(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public Integer out() {
+      return value;
+    }
+  }
+}
@@ -175,6 +175,30 @@ public class TestArithmeticDummyDataSupplier {
     testGetExpPipe(5);
   }
 
+  @Test
+  public void testGetTruncationPairShares() {
+    int noOfParties = 3;
+    for (BigInteger modulus : moduli) {
+      int bitLength = modulus.bitLength() - 1;
+      List<ArithmeticDummyDataSupplier> suppliers = new ArrayList<>(noOfParties);
+      for (int i = 0; i < noOfParties; i++) {
+        suppliers.add(new ArithmeticDummyDataSupplier(i + 1, noOfParties, modulus));
+      }
+      List<TruncationPairShares> actual = new ArrayList<>();
+      for (ArithmeticDummyDataSupplier supplier : suppliers) {
+        actual.add(supplier.getTruncationPairShares(bitLength, 3));
+      }
+      BigInteger r = actual.get(0).getR().getFirst();
+      BigInteger shiftedR = actual.get(0).getShiftedR().getFirst();
+      assertTrue(r.bitLength() <= bitLength);
+      assertEquals(r.shiftRight(3), shiftedR);
+      assertEquals(r, MathUtils.sum(actual.stream().map(p -> p.getR().getSecond())
+          .collect(Collectors.toList()), modulus));
+      assertEquals(shiftedR, MathUtils.sum(actual.stream().map(p -> p.getShiftedR().getSecond())
+          .collect(Collectors.toList()), modulus));
+    }
+  }
+
   @Test
   public void testBitsNotAllSame() {
     int noOfParties = 2;
@@ -0,0 +1,84 @@
+package dk.alexandra.fresco.framework.util;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.util.BackgroundSupplier.BatchGenerator;
+import dk.alexandra.fresco.framework.util.BackgroundSupplier.Watermarks;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class TestBackgroundSupplier {
+
+  private static final int BATCH_SIZE = 4;
+
+  @Test
+  public void testTakeInOrder() {
+    int[] counters = new int[2];
+    BatchGenerator generator = kind -> {
+      List<Integer> batch = new ArrayList<>();
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        batch.add(100 * kind + counters[kind]++);
+      }
+      return batch;
+    };
+    Watermarks onDemand = new Watermarks(0, 0);
+    try (BackgroundSupplier supplier = createSupplier(generator, onDemand, onDemand)) {
+      assertEquals(Arrays.asList(0, 1, 2), supplier.take(0, 3));
+      assertEquals(Arrays.asList(100), supplier.take(1, 1));
+      assertEquals(Arrays.asList(3, 4, 5, 6, 7, 8), supplier.take(0, 6));
+      assertEquals(Arrays.asList(101, 102), supplier.take(1, 2));
+      assertEquals(3, supplier.getStallCount());
+    }
+  }
+
+  @Test
+  public void testFillsToHighWatermark() throws InterruptedException {
+    BatchGenerator generator = kind -> new ArrayList<>(Collections.nCopies(BATCH_SIZE, kind));
+    try (BackgroundSupplier supplier = createSupplier(generator, new Watermarks(2, 6),
+        new Watermarks(0, 0))) {
+      supplier.start();
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (supplier.getQueueSize(0) < 2 * BATCH_SIZE
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(2 * BATCH_SIZE, supplier.getQueueSize(0));
+      assertEquals(0, supplier.getQueueSize(1));
+      assertEquals(Arrays.asList(0, 0), supplier.take(0, 2));
+      assertEquals(0, supplier.getStallCount());
+    }
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testFailure() {
+    BatchGenerator generator = kind -> {
+      throw new IllegalStateException("Failed");
+    };
+    Watermarks onDemand = new Watermarks(0, 0);
+    try (BackgroundSupplier supplier = createSupplier(generator, onDemand, onDemand)) {
+      supplier.take(0, 1);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClosed() {
+    Watermarks onDemand = new Watermarks(0, 0);
+    BackgroundSupplier supplier = createSupplier(kind -> new ArrayList<>(), onDemand, onDemand);
+    supplier.close();
+    supplier.take(0, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWatermarks() {
+    new Watermarks(10, 5);
+  }
+
+  private BackgroundSupplier createSupplier(BatchGenerator generator, Watermarks first,
+      Watermarks second) {
+    return new BackgroundSupplier("Test", 1, 1, () -> null, network -> generator,
+        Arrays.asList(first, second));
+  }
+}
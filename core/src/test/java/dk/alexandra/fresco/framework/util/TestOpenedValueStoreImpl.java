@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.framework.util;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Assert;
@@ -54,4 +55,58 @@ public class TestOpenedValueStoreImpl {
     Assert.assertEquals(open, second.get(0));
   }
 
+  @Test
+  public void testPopKeepsOrder() {
+    OpenedValueStore<BigInteger, BigInteger> store = new OpenedValueStoreImpl<>();
+    store.pushOpenedValue(authenticated, BigInteger.valueOf(0));
+    store.pushOpenedValues(Arrays.asList(authenticated, authenticated),
+        Arrays.asList(BigInteger.valueOf(1), BigInteger.valueOf(2)));
+    store.pushOpenedValue(authenticated, BigInteger.valueOf(3));
+    store.pushOpenedValue(authenticated, BigInteger.valueOf(4));
+    Assert.assertTrue(store.exceedsThreshold(4));
+    Pair<List<BigInteger>, List<BigInteger>> both = store.popValues();
+    Assert.assertEquals(5, both.getFirst().size());
+    List<BigInteger> opened = both.getSecond();
+    Assert.assertEquals(5, opened.size());
+    for (int i = 0; i < opened.size(); i++) {
+      Assert.assertEquals(BigInteger.valueOf(i), opened.get(i));
+    }
+    opened.clear();
+    Assert.assertFalse(store.hasPendingValues());
+  }
+
+  @Test
+  public void testPopManySegments() {
+    OpenedValueStore<BigInteger, BigInteger> store = new OpenedValueStoreImpl<>();
+    int count = 0;
+    for (int i = 0; i < 50; i++) {
+      // empty and immutable segments must be handled as well
+      store.pushOpenedValues(Collections.emptyList(), Collections.emptyList());
+      store.pushOpenedValues(Collections.singletonList(authenticated),
+          Collections.singletonList(BigInteger.valueOf(count++)));
+      for (int j = 0; j < i; j++) {
+        store.pushOpenedValue(authenticated, BigInteger.valueOf(count++));
+      }
+    }
+    Pair<List<BigInteger>, List<BigInteger>> both = store.popValues();
+    List<BigInteger> opened = both.getSecond();
+    Assert.assertEquals(count, opened.size());
+    Assert.assertEquals(count, both.getFirst().size());
+    // random access and iteration
+    Assert.assertEquals(BigInteger.valueOf(count - 1), opened.get(count - 1));
+    Assert.assertEquals(BigInteger.valueOf(7), opened.get(7));
+    int expected = 0;
+    for (BigInteger value : opened) {
+      Assert.assertEquals(BigInteger.valueOf(expected++), value);
+    }
+    opened.clear();
+    Assert.assertTrue(opened.isEmpty());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testPopOutOfRange() {
+    OpenedValueStore<BigInteger, BigInteger> store = new OpenedValueStoreImpl<>();
+    store.pushOpenedValue(authenticated, open);
+    store.popValues().getSecond().get(1);
+  }
 }
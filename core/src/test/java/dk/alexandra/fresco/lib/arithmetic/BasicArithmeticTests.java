@@ -604,6 +604,102 @@ public class BasicArithmeticTests {
     }
   }
 
+  /**
+   * Test multiplying two lists of secret values pairwise.
+   */
+  public static class TestMultList<ResourcePoolT extends NumericResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int size = 1000;
+      List<BigInteger> left = new ArrayList<>(size);
+      List<BigInteger> right = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        left.add(BigInteger.valueOf(i));
+        right.add(BigInteger.valueOf(size - 2 * i));
+      }
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Numeric numeric = par.numeric();
+                List<DRes<SInt>> leftClosed =
+                    left.stream().map(numeric::known).collect(Collectors.toList());
+                List<DRes<SInt>> rightClosed =
+                    right.stream().map(numeric::known).collect(Collectors.toList());
+                return Pair.lazy(leftClosed, rightClosed);
+              }).seq((seq, pair) -> seq.numeric().mult(pair.getFirst(), pair.getSecond())
+              ).par((par, products) -> {
+                Numeric numeric = par.numeric();
+                List<DRes<BigInteger>> opened =
+                    products.stream().map(numeric::open).collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+
+          Assert.assertThat(output.size(), Is.is(size));
+          BigInteger modulus = conf.getResourcePool().getModulus();
+          for (int i = 0; i < size; i++) {
+            Assert.assertEquals(left.get(i).multiply(right.get(i)).mod(modulus), output.get(i));
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Test multiplying lists of values close to the modulus, which are closed and opened as lists.
+   */
+  public static class TestMultListWithOverflow<ResourcePoolT extends NumericResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int size = 100;
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          BigInteger modulus = conf.getResourcePool().getModulus();
+          List<BigInteger> left = new ArrayList<>(size);
+          List<BigInteger> right = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            left.add(modulus.subtract(BigInteger.valueOf(i + 1)));
+            right.add(modulus.subtract(BigInteger.valueOf(2 * i + 1)));
+          }
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Collections collections = par.collections();
+                DRes<List<DRes<SInt>>> leftClosed;
+                DRes<List<DRes<SInt>>> rightClosed;
+                if (par.getBasicNumericContext().getMyId() == 1) {
+                  leftClosed = collections.closeList(left, 1);
+                  rightClosed = collections.closeList(right, 1);
+                } else {
+                  leftClosed = collections.closeList(size, 1);
+                  rightClosed = collections.closeList(size, 1);
+                }
+                return Pair.lazy(leftClosed, rightClosed);
+              }).seq((seq, pair) -> seq.numeric()
+                  .mult(pair.getFirst().out(), pair.getSecond().out())
+              ).seq((seq, products) -> {
+                DRes<List<DRes<BigInteger>>> opened = seq.collections().openList(() -> products);
+                return () -> opened.out().stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+
+          Assert.assertThat(output.size(), Is.is(size));
+          for (int i = 0; i < size; i++) {
+            Assert.assertEquals(left.get(i).multiply(right.get(i)).mod(modulus), output.get(i));
+          }
+        }
+      };
+    }
+  }
+
   /**
    * Test a computation of doing a many multiplications and additions alternating between the two.
    * This should ensure batches with both types of protocols.
@@ -12,6 +12,7 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.collections.LinearLookUp;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import org.junit.Assert;
 
@@ -64,4 +65,61 @@ public class SearchingTests {
       };
     }
   }
+
+  public static class TestInnerProductLookUp<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() throws Exception {
+          final int pairs = 16;
+          final int notFound = 12345;
+          List<BigInteger> values = new ArrayList<>(pairs);
+          Random rand = new Random(0);
+          for (int i = 0; i < pairs; i++) {
+            values.add(BigInteger.valueOf(rand.nextInt(20000)));
+          }
+          // look up a key in the middle, the last key, a missing key and the first key
+          int[] lookUpKeys = {7, pairs - 1, pairs + 3, 0};
+          Application<Pair<List<BigInteger>, BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> {
+                Numeric numeric = producer.numeric();
+                List<DRes<SInt>> keys = new ArrayList<>(pairs);
+                List<DRes<SInt>> closedValues = new ArrayList<>(pairs);
+                for (int i = 0; i < pairs; i++) {
+                  keys.add(numeric.known(BigInteger.valueOf(2 * i)));
+                  closedValues.add(numeric.known(values.get(i)));
+                }
+                List<DRes<SInt>> closedLookUpKeys = new ArrayList<>(lookUpKeys.length);
+                for (int key : lookUpKeys) {
+                  closedLookUpKeys.add(numeric.known(BigInteger.valueOf(2 * key)));
+                }
+                DRes<SInt> closedNotFound = numeric.known(BigInteger.valueOf(notFound));
+                DRes<List<DRes<SInt>>> results = producer.collections()
+                    .lookUp(closedLookUpKeys, keys, closedValues, closedNotFound);
+                DRes<SInt> single = producer.collections()
+                    .lookUp(closedLookUpKeys.get(0), keys, closedValues, closedNotFound);
+                DRes<List<DRes<BigInteger>>> opened = producer.collections().openList(results);
+                DRes<BigInteger> openedSingle = producer.numeric().open(single);
+                return () -> {
+                  List<BigInteger> out = new ArrayList<>();
+                  for (DRes<BigInteger> value : opened.out()) {
+                    out.add(value.out());
+                  }
+                  return new Pair<>(out, openedSingle.out());
+                };
+              };
+          Pair<List<BigInteger>, BigInteger> output = runApplication(app);
+          List<BigInteger> results = output.getFirst();
+          Assert.assertEquals(values.get(7), results.get(0));
+          Assert.assertEquals(values.get(pairs - 1), results.get(1));
+          Assert.assertEquals(BigInteger.valueOf(notFound), results.get(2));
+          Assert.assertEquals(values.get(0), results.get(3));
+          Assert.assertEquals(values.get(7), output.getSecond());
+        }
+      };
+    }
+  }
 }
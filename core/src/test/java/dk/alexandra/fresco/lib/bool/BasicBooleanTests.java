@@ -167,6 +167,49 @@ public class BasicBooleanTests {
     }
   }
 
+  public static class TestAndList<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
+
+    private final boolean doAsserts;
+
+    public TestAndList(boolean doAsserts) {
+      this.doAsserts = doAsserts;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderBinary> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderBinary>() {
+        // More than eight values to test values packed in several bytes
+        private final int size = 21;
+
+        @Override
+        public void test() throws Exception {
+          Application<List<Boolean>, ProtocolBuilderBinary> app = producer -> producer.seq(seq -> {
+            Binary builder = seq.binary();
+            List<DRes<SBool>> left = new ArrayList<>(size);
+            List<DRes<SBool>> right = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+              left.add(builder.input(i % 3 == 0, 1));
+              right.add(builder.input(i % 2 == 0, 1));
+            }
+            return builder.and(left, right);
+          }).seq((seq, products) -> seq.binary().open(products)
+          ).seq((seq, opened) -> {
+            return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+          });
+
+          List<Boolean> outs = runApplication(app);
+          if (doAsserts) {
+            Assert.assertEquals(size, outs.size());
+            for (int i = 0; i < size; i++) {
+              Assert.assertEquals(i % 6 == 0, outs.get(i));
+            }
+          }
+        }
+      };
+    }
+  }
+
   public static class TestMultipleAnds<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
 
@@ -0,0 +1,163 @@
+package dk.alexandra.fresco.lib.collections;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.logging.BatchEvaluationLoggingDecorator;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of table lookups with {@link LinearLookUp} and with {@link InnerProductLookUp} through
+ * {@link dk.alexandra.fresco.framework.builder.numeric.Collections#lookUp}, for tables of 16 to
+ * 65536 entries with 32 bit keys in the dummy arithmetic suite. Ignored by default since it takes
+ * long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestLookUpBenchmark extends AbstractDummyArithmeticTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestLookUpBenchmark.class);
+  private static final int[] TABLE_SIZES = {16, 256, 4096, 65536};
+  private static final int MAX_LINEAR_TABLE_SIZE = 4096;
+  private static final int MAX_BATCH_TABLE_SIZE = 256;
+  private static final int BATCH_SIZE = 16;
+  private static final int NOT_FOUND = -1;
+  private static final int MAX_BIT_LENGTH = 32;
+
+  @Test
+  public void testLookUp() {
+    runTest(new LookUpBenchmark(), new TestParameters().numParties(2)
+        .evaluationStrategy(EvaluationStrategy.SEQUENTIAL_BATCHED).maxBitLength(MAX_BIT_LENGTH)
+        .performanceLogging(true));
+  }
+
+  private class LookUpBenchmark
+      extends TestThreadFactory<DummyArithmeticResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric>() {
+
+        private PerformanceLogger performanceLogger;
+
+        @Override
+        public void test() {
+          performanceLogger = performanceLoggers.get(conf.getMyId());
+          // warm up
+          measure(TABLE_SIZES[1], "warm up", lookUpKeys -> lookUpKeys.subList(0, 1),
+              (builder, table) -> linear(builder, table, table.lookUpKeys.get(0)));
+          for (int size : TABLE_SIZES) {
+            if (size <= MAX_LINEAR_TABLE_SIZE) {
+              measure(size, "LinearLookUp, one key", keys -> keys.subList(0, 1),
+                  (builder, table) -> linear(builder, table, table.lookUpKeys.get(0)));
+            }
+            measure(size, "Collections.lookUp, one key", keys -> keys.subList(0, 1),
+                (builder, table) -> {
+                  DRes<SInt> result = builder.collections()
+                      .lookUp(table.lookUpKeys.get(0), table.keys, table.values, table.notFound);
+                  return () -> Collections.singletonList(result);
+                });
+            if (size <= MAX_BATCH_TABLE_SIZE) {
+              measure(size, "Collections.lookUp, " + BATCH_SIZE + " keys", keys -> keys,
+                  (builder, table) -> builder.collections()
+                      .lookUp(table.lookUpKeys, table.keys, table.values, table.notFound));
+            }
+          }
+        }
+
+        private DRes<List<DRes<SInt>>> linear(ProtocolBuilderNumeric builder, Table table,
+            DRes<SInt> lookUpKey) {
+          DRes<SInt> result = builder.seq(new LinearLookUp(lookUpKey,
+              new ArrayList<>(table.keys), new ArrayList<>(table.values), table.notFound));
+          return () -> Collections.singletonList(result);
+        }
+
+        private void measure(int size, String description,
+            UnaryOperator<List<Integer>> lookUpKeys, LookUp lookUp) {
+          List<Integer> keys = lookUpKeys.apply(lookUpKeys(size));
+          Table table = runApplication(producer -> {
+            Numeric numeric = producer.numeric();
+            Table result = new Table();
+            for (int i = 0; i < size; i++) {
+              result.keys.add(numeric.known(BigInteger.valueOf(2 * i)));
+              result.values.add(numeric.known(BigInteger.valueOf(3 * i)));
+            }
+            for (int key : keys) {
+              result.lookUpKeys.add(numeric.known(BigInteger.valueOf(key)));
+            }
+            result.notFound = numeric.known(BigInteger.valueOf(NOT_FOUND));
+            return () -> result;
+          });
+          performanceLogger.reset();
+          long start = System.nanoTime();
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.seq(seq -> lookUp.apply(seq, table))
+                  .seq((seq, results) -> seq.collections().openList(() -> results))
+                  .seq((seq, opened) -> () -> opened.stream().map(DRes::out)
+                      .collect(Collectors.toList()));
+          List<BigInteger> results = runApplication(app);
+          long time = System.nanoTime() - start;
+          Long batches = performanceLogger.getLoggedValues()
+              .get(BatchEvaluationLoggingDecorator.BATCH_COUNTER);
+          for (int i = 0; i < keys.size(); i++) {
+            int key = keys.get(i);
+            BigInteger expected = BigInteger.valueOf(key % 2 == 0 ? 3 * (key / 2) : NOT_FOUND);
+            Assert.assertEquals(expected, field(results.get(i)));
+          }
+          if (conf.getMyId() == 1) {
+            logger.info("{}, table of {}: {} ms, {} batches", description, size,
+                TimeUnit.NANOSECONDS.toMillis(time), batches);
+          }
+        }
+
+        private BigInteger field(BigInteger value) {
+          return conf.getResourcePool().getFieldDefinition().convertToSigned(value);
+        }
+      };
+    }
+  }
+
+  /**
+   * Returns lookup keys hitting the first, middle and last entries of a table of the given size,
+   * and some missing keys.
+   */
+  private static List<Integer> lookUpKeys(int size) {
+    List<Integer> keys = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      // even keys are in the table, odd keys are not
+      keys.add(i % 4 == 3 ? 2 * i + 1 : 2 * (i * (size - 1) / (BATCH_SIZE - 1)));
+    }
+    return keys;
+  }
+
+  private interface LookUp {
+
+    DRes<List<DRes<SInt>>> apply(ProtocolBuilderNumeric builder, Table table);
+  }
+
+  private static class Table {
+
+    private final List<DRes<SInt>> keys = new ArrayList<>();
+    private final List<DRes<SInt>> values = new ArrayList<>();
+    private final List<DRes<SInt>> lookUpKeys = new ArrayList<>();
+    private DRes<SInt> notFound;
+  }
+}
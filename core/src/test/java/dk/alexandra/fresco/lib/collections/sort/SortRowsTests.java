@@ -0,0 +1,101 @@
+package dk.alexandra.fresco.lib.collections.sort;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.collections.Matrix;
+import dk.alexandra.fresco.lib.collections.MatrixUtils;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Test class for sorting the rows of matrices of arithmetic values.
+ */
+public class SortRowsTests {
+
+  public static class TestSortRowsGeneric<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    final Matrix<BigInteger> input;
+    final int keyColumn;
+    final boolean shuffle;
+
+    TestSortRowsGeneric(Matrix<BigInteger> input, int keyColumn, boolean shuffle) {
+      this.input = input;
+      this.keyColumn = keyColumn;
+      this.shuffle = shuffle;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() throws Exception {
+          Application<Matrix<BigInteger>, ProtocolBuilderNumeric> testApplication = root -> {
+            DRes<Matrix<DRes<SInt>>> closed = root.collections().closeMatrix(input, 1);
+            DRes<Matrix<DRes<SInt>>> sorted = shuffle
+                ? root.collections().shuffleSort(closed, keyColumn)
+                : root.collections().sort(closed, keyColumn);
+            DRes<Matrix<DRes<BigInteger>>> opened = root.collections().openMatrix(sorted);
+            return () -> new MatrixUtils().unwrapMatrix(opened);
+          };
+          Matrix<BigInteger> actual = runApplication(testApplication);
+          ArrayList<ArrayList<BigInteger>> expected = new Matrix<>(input).getRows();
+          expected.sort(Comparator.comparing(row -> row.get(keyColumn)));
+          assertThat(actual.getRows(), is(expected));
+        }
+      };
+    }
+  }
+
+  private static Matrix<BigInteger> randomMatrix(int height, int keyColumn) {
+    Random random = new Random(42);
+    ArrayList<Integer> keys = new ArrayList<>();
+    for (int i = 0; i < height; i++) {
+      keys.add(i * 3 + 1);
+    }
+    java.util.Collections.shuffle(keys, random);
+    return new Matrix<>(height, 3, i -> {
+      ArrayList<BigInteger> row = new ArrayList<>();
+      for (int j = 0; j < 3; j++) {
+        row.add(j == keyColumn ? BigInteger.valueOf(keys.get(i)) : BigInteger.valueOf(i));
+      }
+      return row;
+    });
+  }
+
+  public static <ResourcePoolT extends ResourcePool> TestSortRowsGeneric<ResourcePoolT> sortRows() {
+    return new TestSortRowsGeneric<>(randomMatrix(13, 1), 1, false);
+  }
+
+  public static <ResourcePoolT extends ResourcePool>
+      TestSortRowsGeneric<ResourcePoolT> sortRowsRepeatedKeys() {
+    Matrix<BigInteger> input = new Matrix<>(6, 2, i -> {
+      ArrayList<BigInteger> row = new ArrayList<>();
+      row.add(BigInteger.valueOf(i % 2));
+      row.add(BigInteger.valueOf(i % 2));
+      return row;
+    });
+    return new TestSortRowsGeneric<>(input, 0, false);
+  }
+
+  public static <ResourcePoolT extends ResourcePool>
+      TestSortRowsGeneric<ResourcePoolT> shuffleSortRows() {
+    return new TestSortRowsGeneric<>(randomMatrix(16, 0), 0, true);
+  }
+
+  public static <ResourcePoolT extends ResourcePool>
+      TestSortRowsGeneric<ResourcePoolT> sortRowsEmpty() {
+    return new TestSortRowsGeneric<>(new Matrix<>(0, 0, i -> new ArrayList<>()), 0, false);
+  }
+}
@@ -0,0 +1,56 @@
+package dk.alexandra.fresco.lib.collections.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class TestOddEvenMergeSortRows {
+
+  @Test
+  public void testNetworkSortsAllZeroOneInputs() {
+    // by the zero-one principle a comparator network sorting all 0-1 inputs sorts all inputs
+    for (int n = 1; n <= 16; n++) {
+      List<List<int[]>> layers = OddEvenMergeSortRows.getLayers(n);
+      for (int input = 0; input < (1 << n); input++) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+          values[i] = (input >> i) & 1;
+        }
+        for (List<int[]> layer : layers) {
+          for (int[] pair : layer) {
+            if (values[pair[0]] > values[pair[1]]) {
+              int tmp = values[pair[0]];
+              values[pair[0]] = values[pair[1]];
+              values[pair[1]] = tmp;
+            }
+          }
+        }
+        for (int i = 1; i < n; i++) {
+          assertTrue("n = " + n + ", input = " + input, values[i - 1] <= values[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLayersAreDisjoint() {
+    for (List<int[]> layer : OddEvenMergeSortRows.getLayers(100)) {
+      boolean[] used = new boolean[100];
+      for (int[] pair : layer) {
+        assertTrue(pair[0] < pair[1]);
+        assertTrue(!used[pair[0]] && !used[pair[1]]);
+        used[pair[0]] = true;
+        used[pair[1]] = true;
+      }
+    }
+  }
+
+  @Test
+  public void testNumberOfLayers() {
+    assertEquals(0, OddEvenMergeSortRows.getLayers(1).size());
+    assertEquals(10, OddEvenMergeSortRows.getLayers(16).size());
+    assertEquals(136, OddEvenMergeSortRows.getLayers(1 << 16).size());
+  }
+}
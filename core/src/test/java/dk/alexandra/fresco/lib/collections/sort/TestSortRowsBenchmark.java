@@ -0,0 +1,114 @@
+package dk.alexandra.fresco.lib.collections.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.collections.Matrix;
+import dk.alexandra.fresco.lib.collections.MatrixUtils;
+import dk.alexandra.fresco.logging.BatchEvaluationLoggingDecorator;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of sorting the rows of a matrix by a key column with the sorting network of {@link
+ * OddEvenMergeSortRows} and with {@link ShuffleSortRows}, in the dummy arithmetic suite. Reports
+ * the number of evaluated batches and the wall time. Ignored by default since it takes long to
+ * run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSortRowsBenchmark extends AbstractDummyArithmeticTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestSortRowsBenchmark.class);
+  private static final int[] HEIGHTS = {1 << 8, 1 << 10};
+  private static final int MAX_BIT_LENGTH = 32;
+
+  @Test
+  public void testSortRows() {
+    runTest(new SortBenchmark(), new TestParameters().numParties(2)
+        .evaluationStrategy(EvaluationStrategy.SEQUENTIAL_BATCHED).maxBitLength(MAX_BIT_LENGTH)
+        .performanceLogging(true));
+  }
+
+  private class SortBenchmark
+      extends TestThreadFactory<DummyArithmeticResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric>() {
+
+        private PerformanceLogger performanceLogger;
+
+        @Override
+        public void test() {
+          performanceLogger = performanceLoggers.get(conf.getMyId());
+          // warm up
+          measure(HEIGHTS[0], false);
+          for (int height : HEIGHTS) {
+            measure(height, false);
+            measure(height, true);
+          }
+        }
+
+        private void measure(int height, boolean shuffle) {
+          Matrix<BigInteger> input = randomMatrix(height);
+          Matrix<DRes<SInt>> closed = runApplication(producer -> producer.collections()
+              .closeMatrix(input, 1));
+          performanceLogger.reset();
+          long start = System.nanoTime();
+          Matrix<BigInteger> sorted = runApplication(producer -> {
+            DRes<Matrix<DRes<SInt>>> result = shuffle
+                ? producer.collections().shuffleSort(() -> closed, 0)
+                : producer.collections().sort(() -> closed, 0);
+            DRes<Matrix<DRes<BigInteger>>> opened = producer.collections().openMatrix(result);
+            return () -> new MatrixUtils().unwrapMatrix(opened);
+          });
+          long time = System.nanoTime() - start;
+          Long batches = performanceLogger.getLoggedValues()
+              .get(BatchEvaluationLoggingDecorator.BATCH_COUNTER);
+          for (int i = 0; i < height; i++) {
+            Assert.assertEquals(BigInteger.valueOf(i), sorted.getRow(i).get(0));
+            Assert.assertEquals(BigInteger.valueOf(2 * i), sorted.getRow(i).get(1));
+          }
+          if (conf.getMyId() == 1) {
+            logger.info("{}, {} rows: {} ms, {} batches",
+                shuffle ? "shuffleSort" : "sort", height, TimeUnit.NANOSECONDS.toMillis(time),
+                batches);
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Returns a matrix with a column of the distinct keys <code>0, ..., height - 1</code> in random
+   * order and a column holding twice the key.
+   */
+  private static Matrix<BigInteger> randomMatrix(int height) {
+    List<Integer> keys = new ArrayList<>(height);
+    for (int i = 0; i < height; i++) {
+      keys.add(i);
+    }
+    Collections.shuffle(keys, new Random(42));
+    return new Matrix<>(height, 2, i -> {
+      ArrayList<BigInteger> row = new ArrayList<>();
+      row.add(BigInteger.valueOf(keys.get(i)));
+      row.add(BigInteger.valueOf(2 * keys.get(i)));
+      return row;
+    });
+  }
+}
@@ -110,6 +110,53 @@ public class CompareTests {
     }
   }
 
+  /**
+   * Compares lists of numbers pairwise and checks the results against a direct comparison.
+   */
+  public static class TestCompareLTList<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        private final List<BigInteger> left = Arrays.asList(BigInteger.valueOf(3),
+            BigInteger.valueOf(5), BigInteger.valueOf(3), BigInteger.ZERO,
+            BigInteger.valueOf(-7), BigInteger.valueOf(1000), BigInteger.valueOf(-1000),
+            BigInteger.valueOf(123456));
+        private final List<BigInteger> right = Arrays.asList(BigInteger.valueOf(5),
+            BigInteger.valueOf(3), BigInteger.valueOf(3), BigInteger.valueOf(-1),
+            BigInteger.valueOf(2), BigInteger.valueOf(999), BigInteger.valueOf(-999),
+            BigInteger.valueOf(123456));
+
+        @Override
+        public void test() throws Exception {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = builder -> {
+            Numeric input = builder.numeric();
+            List<DRes<SInt>> x = left.stream().map(value -> input.input(value, 1))
+                .collect(Collectors.toList());
+            List<DRes<SInt>> y = right.stream().map(value -> input.input(value, 1))
+                .collect(Collectors.toList());
+            DRes<List<DRes<SInt>>> results = builder.comparison().compareLEQ(x, y);
+            return builder.seq(seq -> {
+              List<DRes<BigInteger>> opened = results.out().stream()
+                  .map(seq.numeric()::open).collect(Collectors.toList());
+              return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+            });
+          };
+          List<BigInteger> output = runApplication(app);
+          Assert.assertEquals(left.size(), output.size());
+          for (int i = 0; i < left.size(); i++) {
+            BigInteger expected = left.get(i).compareTo(right.get(i)) <= 0
+                ? BigInteger.ONE
+                : BigInteger.ZERO;
+            Assert.assertEquals("Comparison " + i, expected, output.get(i));
+          }
+        }
+      };
+    }
+  }
+
   /**
    * Compares the two numbers 3 and 5 and checks that 3 == 3. Also checks that 3 != 5
    */
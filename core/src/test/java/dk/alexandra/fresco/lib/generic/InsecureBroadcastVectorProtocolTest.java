@@ -0,0 +1,46 @@
+package dk.alexandra.fresco.lib.generic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class InsecureBroadcastVectorProtocolTest {
+
+  @Test
+  public void testEncodeDecode() {
+    List<byte[]> messages = Arrays.asList(new byte[]{1, 2, 3}, new byte[]{}, new byte[]{4});
+    List<byte[]> decoded = InsecureBroadcastVectorProtocol
+        .decode(InsecureBroadcastVectorProtocol.encode(messages), messages.size());
+    assertEquals(messages.size(), decoded.size());
+    for (int i = 0; i < messages.size(); i++) {
+      assertArrayEquals(messages.get(i), decoded.get(i));
+    }
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testDecodeWrongNumberOfMessages() {
+    byte[] encoded = InsecureBroadcastVectorProtocol.encode(Arrays.asList(new byte[]{1}));
+    InsecureBroadcastVectorProtocol.decode(encoded, 2);
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testDecodeTruncated() {
+    byte[] encoded = InsecureBroadcastVectorProtocol.encode(Arrays.asList(new byte[]{1, 2}));
+    InsecureBroadcastVectorProtocol.decode(Arrays.copyOf(encoded, encoded.length - 1), 1);
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testDecodeTrailingBytes() {
+    byte[] encoded = InsecureBroadcastVectorProtocol.encode(Arrays.asList(new byte[]{1, 2}));
+    InsecureBroadcastVectorProtocol.decode(Arrays.copyOf(encoded, encoded.length + 1), 1);
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testDecodeTooShort() {
+    InsecureBroadcastVectorProtocol.decode(new byte[]{0, 0}, 0);
+  }
+}
@@ -16,10 +16,8 @@ import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 import org.junit.Test;
 
 public class TestBroadcastComputation extends AbstractDummyArithmeticTest {
@@ -34,6 +32,11 @@ public class TestBroadcastComputation extends AbstractDummyArithmeticTest {
     runTest(new TestValidBroadcast<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 3);
   }
 
+  @Test
+  public void testValidBroadcastListFive() {
+    runTest(new TestValidBroadcastList<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 5);
+  }
+
   @Test
   public void testInvalidBroadcastThree() {
     runTest(new TestInvalidBroadcast<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 3);
@@ -69,6 +72,43 @@ public class TestBroadcastComputation extends AbstractDummyArithmeticTest {
     }
   }
 
+  private static class TestValidBroadcastList<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() throws Exception {
+          int noParties = conf.getResourcePool().getNoOfParties();
+          int noMessages = 20;
+          List<List<byte[]>> inputs = new ArrayList<>();
+          Random random = new Random(42);
+          for (int i = 1; i <= noParties; i++) {
+            List<byte[]> messages = new ArrayList<>();
+            for (int j = 0; j < noMessages; j++) {
+              byte[] bytes = new byte[j % 3 * 8];
+              random.nextBytes(bytes);
+              messages.add(bytes);
+            }
+            inputs.add(messages);
+          }
+          Application<List<byte[]>, ProtocolBuilderNumeric> testApplication =
+              root -> new BroadcastComputation<ProtocolBuilderNumeric>(
+                  inputs.get(root.getBasicNumericContext().getMyId() - 1), true)
+                  .buildComputation(root);
+          List<byte[]> actual = runApplication(testApplication);
+          assertEquals(noParties * noMessages, actual.size());
+          for (int j = 0; j < noMessages; j++) {
+            for (int i = 0; i < noParties; i++) {
+              assertArrayEquals(inputs.get(i).get(j), actual.get(j * noParties + i));
+            }
+          }
+        }
+      };
+    }
+  }
+
   private static class TestInvalidBroadcast<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
@@ -121,29 +161,21 @@ public class TestBroadcastComputation extends AbstractDummyArithmeticTest {
 
     @Override
     public DRes<List<byte[]>> buildComputation(ProtocolBuilderNumeric builder) {
-      return builder.par(par -> {
-        List<DRes<List<byte[]>>> broadcastValues = new LinkedList<>();
-        for (byte[] singleInput : inputCopy) {
-          broadcastValues.add(par.append(new MaliciousAllBroadcast<>(singleInput)));
-        }
-        return () -> broadcastValues;
-      }).seq((seq, lst) -> {
-        List<byte[]> toValidate = lst.stream()
-            .flatMap(broadcast -> broadcast.out().stream())
-            .collect(Collectors.toList());
-        seq.append(new BroadcastValidationProtocol<>(toValidate));
-        return () -> toValidate;
-      });
+      return builder.seq(seq -> seq.append(new MaliciousAllBroadcast<>(inputCopy)))
+          .seq((seq, toValidate) -> {
+            seq.append(new BroadcastValidationProtocol<>(toValidate));
+            return () -> toValidate;
+          });
     }
   }
 
   private static class MaliciousAllBroadcast<ResourcePoolT extends ResourcePool> extends
-      InsecureBroadcastProtocol<ResourcePoolT> {
+      InsecureBroadcastVectorProtocol<ResourcePoolT> {
 
-    private final byte[] inputCopy;
+    private final List<byte[]> inputCopy;
     private List<byte[]> resultCopy;
 
-    MaliciousAllBroadcast(byte[] input) {
+    MaliciousAllBroadcast(List<byte[]> input) {
       super(input);
       this.inputCopy = input;
     }
@@ -159,17 +191,24 @@ public class TestBroadcastComputation extends AbstractDummyArithmeticTest {
       if (round == 0) {
         for (int i = 1; i <= resourcePool.getNoOfParties(); i++) {
           if (i == 1) {
-            byte[] malicious = inputCopy.clone();
-            malicious[0] = (byte) ~malicious[0];
-            network.send(i, malicious);
+            List<byte[]> malicious = new ArrayList<>();
+            for (byte[] message : inputCopy) {
+              byte[] maliciousMessage = message.clone();
+              maliciousMessage[0] = (byte) ~maliciousMessage[0];
+              malicious.add(maliciousMessage);
+            }
+            network.send(i, encode(malicious));
           } else {
-            network.send(i, inputCopy);
+            network.send(i, encode(inputCopy));
           }
 
         }
         return EvaluationStatus.HAS_MORE_ROUNDS;
       } else {
-        resultCopy = network.receiveFromAll();
+        resultCopy = new ArrayList<>();
+        for (byte[] bytes : network.receiveFromAll()) {
+          resultCopy.addAll(decode(bytes, inputCopy.size()));
+        }
         return EvaluationStatus.IS_DONE;
       }
     }
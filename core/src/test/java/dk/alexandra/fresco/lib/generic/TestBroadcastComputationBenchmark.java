@@ -0,0 +1,143 @@
+package dk.alexandra.fresco.lib.generic;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.logging.NetworkLoggingDecorator;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of broadcasting a list of messages with validation, as done when opening values in the
+ * SPDZ2k MAC check, comparing {@link BroadcastComputation} with one {@link
+ * InsecureBroadcastProtocol} per message, which is how it was done before. Reports the time per
+ * broadcast and the network messages and bytes received by party 1. Ignored by default since it
+ * takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestBroadcastComputationBenchmark extends AbstractDummyArithmeticTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(TestBroadcastComputationBenchmark.class);
+  private static final int MESSAGES = 1024;
+  private static final int MESSAGE_LENGTH = 16;
+  private static final int RUNS = 50;
+
+  @Test
+  public void testThreeParties() {
+    runBenchmark(3);
+  }
+
+  @Test
+  public void testFourParties() {
+    runBenchmark(4);
+  }
+
+  @Test
+  public void testFiveParties() {
+    runBenchmark(5);
+  }
+
+  private void runBenchmark(int parties) {
+    runTest(new BroadcastBenchmark(), new TestParameters().numParties(parties)
+        .evaluationStrategy(EvaluationStrategy.SEQUENTIAL_BATCHED).performanceLogging(true));
+  }
+
+  private class BroadcastBenchmark
+      extends TestThreadFactory<DummyArithmeticResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<DummyArithmeticResourcePool, ProtocolBuilderNumeric>() {
+
+        private PerformanceLogger performanceLogger;
+
+        @Override
+        public void test() {
+          performanceLogger = performanceLoggers.get(conf.getMyId());
+          List<byte[]> messages = new ArrayList<>(MESSAGES);
+          Random random = new Random(conf.getMyId());
+          for (int i = 0; i < MESSAGES; i++) {
+            byte[] message = new byte[MESSAGE_LENGTH];
+            random.nextBytes(message);
+            messages.add(message);
+          }
+          // warm up
+          measure("warm up", () -> new LegacyBroadcastComputation(messages));
+          measure("warm up", () -> new BroadcastComputation<>(messages, true));
+          measure("one message per value", () -> new LegacyBroadcastComputation(messages));
+          measure("one message per party", () -> new BroadcastComputation<>(messages, true));
+        }
+
+        private void measure(String description,
+            Supplier<Computation<List<byte[]>, ProtocolBuilderNumeric>> broadcast) {
+          int parties = conf.getResourcePool().getNoOfParties();
+          performanceLogger.reset();
+          long start = System.nanoTime();
+          for (int run = 0; run < RUNS; run++) {
+            Application<List<byte[]>, ProtocolBuilderNumeric> app =
+                producer -> producer.seq(broadcast.get());
+            List<byte[]> received = runApplication(app);
+            Assert.assertEquals(parties * MESSAGES, received.size());
+          }
+          long time = System.nanoTime() - start;
+          Map<String, Long> values = performanceLogger.getLoggedValues();
+          if (conf.getMyId() == 1) {
+            logger.info("{} parties, {}: {} us per broadcast of {} messages, {} network messages "
+                    + "and {} bytes received per broadcast", parties, description,
+                time / RUNS / 1000, MESSAGES,
+                values.get(NetworkLoggingDecorator.NETWORK_TOTAL_BATCHES) / RUNS,
+                values.get(NetworkLoggingDecorator.NETWORK_TOTAL_BYTES) / RUNS);
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Broadcast of a list of messages with one {@link InsecureBroadcastProtocol} per message and a
+   * single validation of all messages.
+   */
+  private static class LegacyBroadcastComputation
+      implements Computation<List<byte[]>, ProtocolBuilderNumeric> {
+
+    private final List<byte[]> input;
+
+    LegacyBroadcastComputation(List<byte[]> input) {
+      this.input = input;
+    }
+
+    @Override
+    public DRes<List<byte[]>> buildComputation(ProtocolBuilderNumeric builder) {
+      return builder.par(par -> {
+        List<DRes<List<byte[]>>> broadcastValues = new ArrayList<>();
+        for (byte[] singleInput : input) {
+          broadcastValues.add(par.append(new InsecureBroadcastProtocol<>(singleInput)));
+        }
+        return () -> broadcastValues;
+      }).seq((seq, lst) -> {
+        List<byte[]> toValidate = lst.stream()
+            .flatMap(broadcast -> broadcast.out().stream())
+            .collect(Collectors.toList());
+        seq.append(new BroadcastValidationProtocol<>(toValidate));
+        return () -> toValidate;
+      });
+    }
+  }
+}
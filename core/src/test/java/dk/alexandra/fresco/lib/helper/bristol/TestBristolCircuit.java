@@ -0,0 +1,186 @@
+package dk.alexandra.fresco.lib.helper.bristol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestBristolCircuit {
+
+  private static final String SMALL_CIRCUIT = String.join("\n",
+      "5 7",
+      "1 1 1",
+      "",
+      "2 1 0 1 2 XOR",
+      "2 1 0 1 3 AND",
+      "2 1 2 3 4 AND",
+      "1 1 4 5 INV",
+      "2 1 5 2 6 XOR");
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testCompileSmallCircuit() {
+    BristolCircuit circuit = BristolCircuit.compile(Stream.of(SMALL_CIRCUIT.split("\n")));
+    assertEquals(7, circuit.getNumWires());
+    assertEquals(5, circuit.getNumGates());
+    assertEquals(2, circuit.getAndDepth());
+    // The XOR, each of the AND gates and each of the two linear gates following the last AND
+    assertEquals(5, circuit.getNumSteps());
+    int[] expectedOutputs = {2, 3, 4, 5, 6};
+    for (int step = 0; step < circuit.getNumSteps(); step++) {
+      assertEquals(step, circuit.getStepStart(step));
+      assertEquals(expectedOutputs[step], circuit.getOutput(step));
+    }
+    // Wire 0 and 1 are last used by the first AND, the output wire 6 is never released
+    int[][] expectedReleases = {{}, {0, 1}, {3}, {4}, {2, 5}};
+    for (int step = 0; step < circuit.getNumSteps(); step++) {
+      int start = circuit.getReleaseStart(step);
+      int[] releases = new int[circuit.getReleaseStart(step + 1) - start];
+      for (int i = 0; i < releases.length; i++) {
+        releases[i] = circuit.getRelease(start + i);
+      }
+      assertArrayEquals(expectedReleases[step], releases);
+    }
+    // (x XOR y) AND (x AND y) is always false, so the output is NOT (x XOR y)
+    for (boolean x : new boolean[]{false, true}) {
+      for (boolean y : new boolean[]{false, true}) {
+        assertEquals(x == y, evaluate(circuit, new boolean[]{x, y})[0]);
+      }
+    }
+  }
+
+  @Test
+  public void testCompiledCircuitsMatchText() {
+    Random random = new Random(42);
+    for (String path : new String[]{"circuits/AES-non-expanded.txt", "circuits/md5.txt",
+        "circuits/sha-1.txt", "circuits/mult_32x32.txt"}) {
+      List<String> lines = readLines(path);
+      BristolCircuit circuit = BristolCircuit.compile(lines.stream());
+      boolean[] input = new boolean[circuit.getNumInput1() + circuit.getNumInput2()];
+      for (int i = 0; i < input.length; i++) {
+        input[i] = random.nextBoolean();
+      }
+      assertArrayEquals(path, evaluateText(lines, input), evaluate(circuit, input));
+    }
+  }
+
+  @Test
+  public void testWriteAndLoad() throws IOException {
+    BristolCircuit circuit = BristolCircuit.readCircuitDescription("circuits/AES-non-expanded.txt");
+    Path file = folder.newFile().toPath();
+    circuit.write(file);
+    BristolCircuit loaded = BristolCircuit.load(file);
+    assertEquals(circuit.getNumWires(), loaded.getNumWires());
+    assertEquals(circuit.getNumInput1(), loaded.getNumInput1());
+    assertEquals(circuit.getNumInput2(), loaded.getNumInput2());
+    assertEquals(circuit.getNumOutput(), loaded.getNumOutput());
+    assertEquals(circuit.getNumGates(), loaded.getNumGates());
+    assertEquals(circuit.getNumSteps(), loaded.getNumSteps());
+    assertEquals(circuit.getAndDepth(), loaded.getAndDepth());
+    boolean[] input = new boolean[circuit.getNumInput1() + circuit.getNumInput2()];
+    input[3] = true;
+    input[200] = true;
+    assertArrayEquals(evaluate(circuit, input), evaluate(loaded, input));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLoadInvalid() throws IOException {
+    BristolCircuit.load(folder.newFile().toPath());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnassignedWire() {
+    BristolCircuit.compile(Stream.of("2 4", "1 1 1", "", "2 1 0 2 3 XOR", "2 1 0 1 2 AND"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownGate() {
+    BristolCircuit.compile(Stream.of("1 3", "1 1 1", "", "2 1 0 1 2 OR"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongArity() {
+    BristolCircuit.compile(Stream.of("1 3", "1 1 1", "", "1 1 0 2 AND"));
+  }
+
+  /**
+   * Evaluates a compiled circuit in the clear, releasing wires as the evaluator does and checking
+   * that released wires are not read afterwards.
+   */
+  private static boolean[] evaluate(BristolCircuit circuit, boolean[] input) {
+    Boolean[] wires = new Boolean[circuit.getNumWires()];
+    for (int i = 0; i < input.length; i++) {
+      wires[i] = input[i];
+    }
+    for (int step = 0; step < circuit.getNumSteps(); step++) {
+      Boolean[] next = wires.clone();
+      for (int gate = circuit.getStepStart(step); gate < circuit.getStepStart(step + 1); gate++) {
+        // Gates in a step must only read wires assigned by previous steps
+        Boolean left = wires[circuit.getLeftInput(gate)];
+        assertNotNull(left);
+        int type = circuit.getGateType(gate);
+        if (type == BristolCircuit.INV) {
+          next[circuit.getOutput(gate)] = !left;
+        } else {
+          Boolean right = wires[circuit.getRightInput(gate)];
+          assertNotNull(right);
+          next[circuit.getOutput(gate)] = type == BristolCircuit.AND ? left & right : left ^ right;
+        }
+      }
+      for (int i = circuit.getReleaseStart(step); i < circuit.getReleaseStart(step + 1); i++) {
+        next[circuit.getRelease(i)] = null;
+      }
+      wires = next;
+    }
+    boolean[] output = new boolean[circuit.getNumOutput()];
+    for (int i = 0; i < output.length; i++) {
+      output[i] = wires[circuit.getNumWires() - output.length + i];
+    }
+    return output;
+  }
+
+  private static boolean[] evaluateText(List<String> lines, boolean[] input) {
+    int numWires = Integer.parseInt(lines.get(0).trim().split("\\s+")[1]);
+    int numOutput = Integer.parseInt(lines.get(1).trim().split("\\s+")[2]);
+    boolean[] wires = new boolean[numWires];
+    System.arraycopy(input, 0, wires, 0, input.length);
+    for (String line : lines.subList(3, lines.size())) {
+      String[] tokens = line.trim().split("\\s+");
+      if (tokens.length < 2) {
+        continue;
+      }
+      int numIn = Integer.parseInt(tokens[0]);
+      boolean left = wires[Integer.parseInt(tokens[2])];
+      int out = Integer.parseInt(tokens[2 + numIn]);
+      String type = tokens[3 + numIn];
+      if ("INV".equals(type)) {
+        wires[out] = !left;
+      } else {
+        boolean right = wires[Integer.parseInt(tokens[3])];
+        wires[out] = "AND".equals(type) ? left & right : left ^ right;
+      }
+    }
+    boolean[] output = new boolean[numOutput];
+    System.arraycopy(wires, numWires - numOutput, output, 0, numOutput);
+    return output;
+  }
+
+  private static List<String> readLines(String path) {
+    return new BufferedReader(new InputStreamReader(
+        TestBristolCircuit.class.getClassLoader().getResourceAsStream(path))).lines()
+        .collect(Collectors.toList());
+  }
+}
@@ -5,8 +5,11 @@ import static org.junit.Assert.assertThat;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.ExponentiationPipeTests;
+import dk.alexandra.fresco.framework.builder.numeric.TruncationPairTests;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.arithmetic.AdvancedNumericTests.TestMinInfFrac;
@@ -22,6 +25,7 @@ import dk.alexandra.fresco.lib.collections.permute.PermuteRows;
 import dk.alexandra.fresco.lib.collections.permute.PermuteRowsTests;
 import dk.alexandra.fresco.lib.collections.relational.LeakyAggregationTests;
 import dk.alexandra.fresco.lib.collections.shuffle.ShuffleRowsTests;
+import dk.alexandra.fresco.lib.collections.sort.SortRowsTests;
 import dk.alexandra.fresco.lib.compare.CompareTests;
 import dk.alexandra.fresco.lib.conditional.ConditionalSelectTests;
 import dk.alexandra.fresco.lib.conditional.ConditionalSwapNeighborsTests;
@@ -98,11 +102,41 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new BasicArithmeticTests.TestSumAndMult<>(), new TestParameters());
   }
 
+  @Test
+  public void testMultList() {
+    runTest(new BasicArithmeticTests.TestMultList<>(), new TestParameters());
+  }
+
+  @Test
+  public void testMultListWithOverflow() {
+    runTest(new BasicArithmeticTests.TestMultListWithOverflow<>(), new TestParameters());
+  }
+
+  @Test
+  public void testMultListMontgomery() {
+    runTest(new BasicArithmeticTests.TestMultList<>(), new TestParameters()
+        .field(new MontgomeryFieldDefinition(ModulusFinder.findSuitableModulus(256))));
+  }
+
   @Test
   public void testSumAndProduct() {
     runTest(new TestSumAndProduct<>(), new TestParameters());
   }
 
+  @Test
+  public void testSumAndProductParallelBatched() {
+    runTest(new TestSumAndProduct<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void testSumAndProductPipelinedBatched() {
+    runTest(new TestSumAndProduct<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
   @Test
   public void test_MinInfFrac_Sequential() {
     runTest(new TestMinInfFrac<>(), new TestParameters());
@@ -118,6 +152,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new CompareTests.TestCompareLT<>(), new TestParameters());
   }
 
+  @Test
+  public void test_compareLt_List_Sequential() {
+    runTest(new CompareTests.TestCompareLTList<>(), new TestParameters());
+  }
+
   @Test
   public void testCompareLtEdgeCasesSequential() {
     runTest(new CompareTests.TestCompareLTEdgeCases<>(), new TestParameters());
@@ -301,6 +340,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new SearchingTests.TestIsSorted<>(), new TestParameters());
   }
 
+  @Test
+  public void test_Inner_Product_Look_Up() {
+    runTest(new SearchingTests.TestInnerProductLookUp<>(), new TestParameters());
+  }
+
   @Test
   public void test_permute_empty_rows() {
     runTest(PermuteRowsTests.permuteEmptyRows(), new TestParameters().numParties(2));
@@ -333,6 +377,26 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(ShuffleRowsTests.shuffleRowsEmpty(), new TestParameters().numParties(2));
   }
 
+  @Test
+  public void test_sort_rows() {
+    runTest(SortRowsTests.sortRows(), new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_sort_rows_repeated_keys() {
+    runTest(SortRowsTests.sortRowsRepeatedKeys(), new TestParameters());
+  }
+
+  @Test
+  public void test_sort_rows_empty() {
+    runTest(SortRowsTests.sortRowsEmpty(), new TestParameters());
+  }
+
+  @Test
+  public void test_shuffle_sort_rows() {
+    runTest(SortRowsTests.shuffleSortRows(), new TestParameters().numParties(2));
+  }
+
   @Test
   public void test_leaky_aggregate_two() {
     runTest(LeakyAggregationTests.aggregate(), new TestParameters().numParties(2));
@@ -434,6 +498,17 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
             .performanceLogging(false));
   }
 
+  @Test
+  public void test_LpSolverDanzigMontgomery() {
+    runTest(new LpBuildingBlockTests.TestLpSolver<>(LPSolver.PivotRule.DANZIG),
+        new TestParameters()
+            .numParties(2)
+            .field(new MontgomeryFieldDefinition(ModulusFinder.findSuitableModulus(128)))
+            .maxBitLength(30)
+            .fixedPointPrecesion(8)
+            .performanceLogging(false));
+  }
+
   private FieldDefinition getModulus(int i) {
     return new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(i));
   }
@@ -603,6 +678,11 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new ExponentiationPipeTests.TestPreprocessedValues<>(), new TestParameters());
   }
 
+  @Test
+  public void test_Truncation_Pair() {
+    runTest(new TruncationPairTests.TestTruncationPair<>(), new TestParameters());
+  }
+
   @Test
   public void test_Real_Input_Sequential() {
     runTest(new BasicFixedPointTests.TestInput<>(), new TestParameters().numParties(2));
@@ -702,6 +782,12 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
         new TestParameters().numParties(2));
   }
 
+  @Test
+  public void test_Real_Matrix_Multiplication_Parallel_Batched() {
+    runTest(new LinearAlgebraTests.TestMatrixMultiplication<>(),
+        new TestParameters().numParties(2).evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
   @Test
   public void test_Real_Matrix_Scale() {
     runTest(new LinearAlgebraTests.TestMatrixScale<>(), new TestParameters().numParties(2));
@@ -40,6 +40,8 @@ public class TestDummyProtocolSuite extends AbstractDummyBooleanTest {
     runTest(new BasicBooleanTests.TestNOT<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED, true);
     runTest(new BasicBooleanTests.TestRandomBit<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED,
         true);
+    runTest(new BasicBooleanTests.TestAndList<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        true);
 
     assertThat(performanceLoggers.get(1).get(2).getLoggedValues()
         .get(BinaryLoggingDecorator.BINARY_BASIC_XOR), is((long) 4));
@@ -47,6 +49,8 @@ public class TestDummyProtocolSuite extends AbstractDummyBooleanTest {
         .get(BinaryLoggingDecorator.BINARY_BASIC_AND), is((long) 4));
     assertThat(performanceLoggers.get(1).get(5).getLoggedValues()
         .get(BinaryLoggingDecorator.BINARY_BASIC_RANDOM), is((long) 1));
+    assertThat(performanceLoggers.get(1).get(6).getLoggedValues()
+        .get(BinaryLoggingDecorator.BINARY_BASIC_AND), is((long) 21));
   }
 
   // lib.field.bool.generic
@@ -1,6 +1,8 @@
 package dk.alexandra.fresco.demo.cli;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
@@ -65,7 +67,7 @@ public class CmdLineProtocolSuite {
               + "54255445443244279389455058889493431223951165286470575994074291745908195329");
       this.resourcePool =
           new DummyArithmeticResourcePoolImpl(myId, noOfPlayers,
-              new BigIntegerFieldDefinition(mod));
+              createFieldDefinition(properties, new BigInteger(mod)));
     } else if (protocolSuiteName.equals("spdz")) {
       this.protocolSuite = getSpdzProtocolSuite(properties);
       this.resourcePool =
@@ -101,8 +103,25 @@ public class CmdLineProtocolSuite {
             + "54255445443244279389455058889493431223951165286470575994074291745908195329");
     int maxBitLength = Integer.parseInt(properties.getProperty("maxbitlength", "150"));
     int fixedPointPrecision = Integer.parseInt(properties.getProperty("fixedPointPrecision", "16"));
-    return new DummyArithmeticProtocolSuite(new BigIntegerFieldDefinition(mod), maxBitLength,
-        fixedPointPrecision);
+    return new DummyArithmeticProtocolSuite(createFieldDefinition(properties, new BigInteger(mod)),
+        maxBitLength, fixedPointPrecision);
+  }
+
+  /**
+   * Creates the field definition selected by the <code>field</code> property, which is either
+   * <code>biginteger</code> (the default) or <code>montgomery</code>. The latter only supports odd
+   * moduli of at most 256 bits.
+   */
+  private static FieldDefinition createFieldDefinition(Properties properties,
+      BigInteger modulus) {
+    String field = properties.getProperty("field", "biginteger");
+    if (field.equals("biginteger")) {
+      return new BigIntegerFieldDefinition(modulus);
+    } else if (field.equals("montgomery")) {
+      return new MontgomeryFieldDefinition(modulus);
+    } else {
+      throw new IllegalArgumentException("Unknown field definition: " + field);
+    }
   }
 
   private ProtocolSuite<?, ?> getSpdzProtocolSuite(Properties properties) {
@@ -124,9 +143,11 @@ public class CmdLineProtocolSuite {
     final PreprocessingStrategy strategy = PreprocessingStrategy.valueOf(strat);
     SpdzDataSupplier supplier = null;
     if (strategy == PreprocessingStrategy.DUMMY) {
-      BigInteger modulus = ModulusFinder.findSuitableModulus(512);
+      int modulusBitLength =
+          Integer.parseInt(properties.getProperty("spdz.modulusBitLength", "512"));
+      BigInteger modulus = ModulusFinder.findSuitableModulus(modulusBitLength);
       supplier = new SpdzDummyDataSupplier(myId, noOfPlayers,
-          new BigIntegerFieldDefinition(modulus), modulus);
+          createFieldDefinition(properties, modulus), modulus);
     }
     if (strategy == PreprocessingStrategy.STATIC) {
       int noOfThreadsUsed = 1;
@@ -9,6 +9,7 @@ import dk.alexandra.fresco.demo.cli.CmdLineUtil;
 import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
 import dk.alexandra.fresco.framework.network.CloseableNetwork;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
@@ -89,6 +90,19 @@ public class TestCmdLineUtil {
     assertTrue(cmd.getSce() instanceof SecureComputationEngineImpl);
   }
 
+  @Test
+  public void testSpdzMontgomeryFieldFromCmdLine() {
+    CmdLineUtil<SpdzResourcePool, ProtocolBuilderNumeric> cmd = parseAndCloseNetwork("spdz", "-b",
+        "4048", "-D", "spdz.preprocessingStrategy=DUMMY", "-D", "spdz.modulusBitLength=256", "-D",
+        "field=montgomery");
+    assertTrue(cmd.getResourcePool().getFieldDefinition() instanceof MontgomeryFieldDefinition);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadFieldFromCmdLine() {
+    parseAndCloseNetwork("dummyarithmetic", "-b", "4048", "-D", "field=nofield");
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testSpdzBadBitLength() {
     parseAndCloseNetwork("spdz", "-b", "4048", "-D", "spdz.preprocessingStrategy=DUMMY", "-D",
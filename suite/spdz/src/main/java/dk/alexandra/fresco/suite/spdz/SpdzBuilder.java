@@ -2,29 +2,37 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.LinearCombination;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.compare.MiscBigIntegerGenerators;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.lib.real.RealNumericContext;
-import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocol;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzInputProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
-import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocolKnownLeft;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMultVectorProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputSingleProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputToAllProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzRandomProtocol;
-import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownRight;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Basic native builder for the SPDZ protocol suite.
+ * <p>
+ * Additions and subtractions of secret values and multiplications by public constants are local,
+ * so they are returned as {@link LinearCombination} instead of being scheduled as native protocols.
+ * Operations with public constants that need the mac key share are still native protocols.
+ * </p>
  */
 public class SpdzBuilder implements BuilderFactoryNumeric {
 
@@ -49,10 +57,19 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
 
   @Override
   public PreprocessedValues createPreprocessedValues(ProtocolBuilderNumeric protocolBuilder) {
-    return pipeLength -> {
-      SpdzExponentiationPipeProtocol spdzExpPipeProtocol =
-          new SpdzExponentiationPipeProtocol(pipeLength);
-      return protocolBuilder.append(spdzExpPipeProtocol);
+    return new PreprocessedValues() {
+      @Override
+      public DRes<List<DRes<SInt>>> getExponentiationPipe(int pipeLength) {
+        SpdzExponentiationPipeProtocol spdzExpPipeProtocol =
+            new SpdzExponentiationPipeProtocol(pipeLength);
+        return protocolBuilder.append(spdzExpPipeProtocol);
+      }
+
+      @Override
+      public DRes<TruncationPair> getTruncationPair(int shifts) {
+        return protocolBuilder.append(new SpdzTruncationPairProtocol(
+            protocolBuilder.getBasicNumericContext().getMaxBitLength(), shifts));
+      }
     };
   }
 
@@ -61,8 +78,8 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
     return new Numeric() {
       @Override
       public DRes<SInt> add(DRes<SInt> a, DRes<SInt> b) {
-        SpdzAddProtocol spdzAddProtocol = new SpdzAddProtocol(a, b);
-        return protocolBuilder.append(spdzAddProtocol);
+        return LinearCombination.of(a, b,
+            (left, right) -> ((SpdzSInt) left).add((SpdzSInt) right));
       }
 
       @Override
@@ -73,8 +90,8 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
 
       @Override
       public DRes<SInt> sub(DRes<SInt> a, DRes<SInt> b) {
-        SpdzSubtractProtocol spdzSubtractProtocol = new SpdzSubtractProtocol(a, b);
-        return protocolBuilder.append(spdzSubtractProtocol);
+        return LinearCombination.of(a, b,
+            (left, right) -> ((SpdzSInt) left).subtract((SpdzSInt) right));
       }
 
       @Override
@@ -97,10 +114,16 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(spdzMultProtocol);
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> mult(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        SpdzMultVectorProtocol spdzMultVectorProtocol = new SpdzMultVectorProtocol(a, b);
+        return protocolBuilder.append(spdzMultVectorProtocol);
+      }
+
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
-        SpdzMultProtocolKnownLeft spdzMultProtocol4 = new SpdzMultProtocolKnownLeft(a, b);
-        return protocolBuilder.append(spdzMultProtocol4);
+        FieldElement constant = basicNumericContext.getFieldDefinition().createElement(a);
+        return LinearCombination.of(b, value -> ((SpdzSInt) value).multiply(constant));
       }
 
       @Override
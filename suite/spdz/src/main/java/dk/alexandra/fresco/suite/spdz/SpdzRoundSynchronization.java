@@ -1,5 +1,8 @@
 package dk.alexandra.fresco.suite.spdz;
 
+import dk.alexandra.fresco.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.commitment.HashBasedCommitmentSerializer;
+import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
@@ -7,17 +10,27 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ByteArrayHelper;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputProtocol;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStreamingOpenedValueStore;
 import java.security.SecureRandom;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
 
 /**
  * A default implementation of the round synchronization for spdz - mostly doing the MAC check if
  * needed.
+ * <p>
+ * When the resource pool uses a {@link SpdzStreamingOpenedValueStore} the opened values are folded
+ * into a single value as they are opened. Before the first batch the parties toss a coin to seed
+ * the store, and the seed tossed by each MAC check is used to refresh it.
+ * </p>
  */
 public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResourcePool> {
 
@@ -59,17 +72,51 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     BatchedProtocolEvaluator<SpdzResourcePool> evaluator =
         new BatchedProtocolEvaluator<>(batchStrategy, spdzProtocolSuite, batchSize);
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
+    Consumer<byte[]> jointSeedConsumer = seed -> {
+    };
+    if (store instanceof SpdzStreamingOpenedValueStore) {
+      // start the next epoch of the streaming store from the seed tossed by this check
+      jointSeedConsumer = ((SpdzStreamingOpenedValueStore) store)::reseed;
+    }
     SpdzMacCheckProtocol macCheck = new SpdzMacCheckProtocol(
         store.popValues(),
         resourcePool.getModulus(),
         resourcePool::createRandomGenerator,
         resourcePool.getDataSupplier().getSecretSharedKey(),
-        resourcePool.getDrbgSeedBitLength());
+        resourcePool.getDrbgSeedBitLength(),
+        jointSeedConsumer);
     ProtocolBuilderNumeric sequential = spdzBuilder.createSequential();
     macCheck.buildComputation(sequential);
     evaluator.eval(sequential.build(), resourcePool, network);
   }
 
+  /**
+   * Seeds a streaming store with a seed tossed jointly by all parties, so that no party can
+   * predict the coefficients used for the first values opened. The coin is tossed directly on the
+   * network using commitments, since evaluating a computation here would need a seeded store.
+   */
+  protected void seedStore(SpdzStreamingOpenedValueStore store, SpdzResourcePool resourcePool,
+      Network network) {
+    byte[] jointSeed = new byte[resourcePool.getDrbgSeedBitLength() / Byte.SIZE];
+    byte[] ownSeed = new byte[jointSeed.length];
+    secRand.nextBytes(ownSeed);
+    HashBasedCommitmentSerializer serializer = new HashBasedCommitmentSerializer();
+    HashBasedCommitment ownCommitment = new HashBasedCommitment();
+    byte[] opening = ownCommitment.commit(new AesCtrDrbg(), ownSeed);
+    network.sendToAll(serializer.serialize(ownCommitment));
+    List<byte[]> commitments = network.receiveFromAll();
+    network.sendToAll(opening);
+    List<byte[]> openings = network.receiveFromAll();
+    for (int i = 0; i < openings.size(); i++) {
+      byte[] seed = serializer.deserialize(commitments.get(i)).open(openings.get(i));
+      if (seed.length != jointSeed.length) {
+        throw new MaliciousException("P" + (i + 1) + " opened a seed of the wrong length");
+      }
+      ByteArrayHelper.xor(jointSeed, seed);
+    }
+    store.reseed(jointSeed);
+  }
+
   @Override
   public void finishedBatch(int gatesEvaluated, SpdzResourcePool resourcePool, Network network) {
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
@@ -94,9 +141,13 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   public void beforeBatch(
       ProtocolCollection<SpdzResourcePool> protocols, SpdzResourcePool resourcePool,
       Network network) {
+    OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
+    if (store instanceof SpdzStreamingOpenedValueStore
+        && !((SpdzStreamingOpenedValueStore) store).isSeeded()) {
+      seedStore((SpdzStreamingOpenedValueStore) store, resourcePool, network);
+    }
     isCheckRequired = StreamSupport.stream(protocols.spliterator(), false)
         .anyMatch(p -> p instanceof SpdzOutputProtocol);
-    OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues() && isCheckRequired) {
       doMacCheck(resourcePool, network);
     }
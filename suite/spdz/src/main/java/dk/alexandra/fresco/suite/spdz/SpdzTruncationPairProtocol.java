@@ -0,0 +1,32 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol;
+
+public class SpdzTruncationPairProtocol extends SpdzNativeProtocol<TruncationPair> {
+
+  private final int bitLength;
+  private final int shifts;
+  private TruncationPair pair;
+
+  public SpdzTruncationPairProtocol(int bitLength, int shifts) {
+    if (shifts < 1 || shifts > bitLength) {
+      throw new IllegalArgumentException(
+          "Shifts must be between 1 and the maximum bit length, was " + shifts);
+    }
+    this.bitLength = bitLength;
+    this.shifts = shifts;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
+    this.pair = resourcePool.getDataSupplier().getNextTruncationPair(bitLength, shifts);
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public TruncationPair out() {
+    return pair;
+  }
+}
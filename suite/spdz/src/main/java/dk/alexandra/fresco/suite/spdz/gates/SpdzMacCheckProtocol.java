@@ -15,6 +15,7 @@ import dk.alexandra.fresco.lib.generic.CommitmentComputation;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -29,6 +30,7 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
   private final FieldElement alpha;
   private final Function<byte[], Drbg> jointDrbgSupplier;
   private final int drbgByteLength;
+  private final Consumer<byte[]> jointSeedConsumer;
 
   /**
    * Protocol which handles the MAC check internal to SPDZ. If this protocol reaches the end, no
@@ -39,19 +41,37 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
    * @param jointDrbgSupplier supplier of DRBG to be used for joint randomness
    * @param alpha this party's key share
    * @param drbgSeedBitLength seed length for local DRBG
+   * @param jointSeedConsumer receives the jointly tossed seed, e.g., to refresh a {@link
+   *     dk.alexandra.fresco.suite.spdz.storage.SpdzStreamingOpenedValueStore}
    */
   public SpdzMacCheckProtocol(
       final Pair<List<SpdzSInt>, List<FieldElement>> toCheck,
       final BigInteger modulus,
       final Function<byte[], Drbg> jointDrbgSupplier,
       final FieldElement alpha,
-      final int drbgSeedBitLength) {
+      final int drbgSeedBitLength,
+      final Consumer<byte[]> jointSeedConsumer) {
     this.closedValues = toCheck.getFirst();
     this.openedValues = toCheck.getSecond();
     this.modulus = modulus;
     this.jointDrbgSupplier = jointDrbgSupplier;
     this.alpha = alpha;
     this.drbgByteLength = drbgSeedBitLength / 8;
+    this.jointSeedConsumer = jointSeedConsumer;
+  }
+
+  /**
+   * Same as {@link #SpdzMacCheckProtocol(Pair, BigInteger, Function, FieldElement, int,
+   * Consumer)} but discards the jointly tossed seed.
+   */
+  public SpdzMacCheckProtocol(
+      final Pair<List<SpdzSInt>, List<FieldElement>> toCheck,
+      final BigInteger modulus,
+      final Function<byte[], Drbg> jointDrbgSupplier,
+      final FieldElement alpha,
+      final int drbgSeedBitLength) {
+    this(toCheck, modulus, jointDrbgSupplier, alpha, drbgSeedBitLength, seed -> {
+    });
   }
 
   @Override
@@ -65,6 +85,7 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
     return builder
         .seq(new CoinTossingComputation(drbgByteLength, commitmentSerializer, localDrbg))
         .seq((seq, seed) -> {
+          jointSeedConsumer.accept(seed);
           Drbg jointDrbg = jointDrbgSupplier.apply(seed);
           FieldElement[] rs = sampleRandomCoefficients(openedValues.size(), definition,
               jointDrbg);
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.spdz.gates;
 
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.ParallelizableComputationProtocol;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
@@ -8,9 +9,17 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
-import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 
-public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
+/**
+ * Multiplication of two secret shared values using a multiplication triple.
+ * <p>
+ * Taking the triple, receiving the opened differences and storing the opened values are done in
+ * protocol order, while the local arithmetic of each round may be evaluated concurrently with
+ * other multiplications.
+ * </p>
+ */
+public class SpdzMultProtocol extends SpdzNativeProtocol<SInt>
+    implements ParallelizableComputationProtocol<SpdzResourcePool> {
 
   private DRes<SInt> left;
   private DRes<SInt> right;
@@ -18,6 +27,12 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
   private SpdzTriple triple;
   private SpdzSInt epsilon;  // my share of the differences [x]-[a]
   private SpdzSInt delta;  // and [y]-[b].
+  private FieldElement macKeyShare;
+  private byte[][] received;
+  private byte[] epsilonBytes;
+  private byte[] deltaBytes;
+  private FieldElement e;
+  private FieldElement d;
 
   public SpdzMultProtocol(DRes<SInt> left, DRes<SInt> right) {
     this.left = left;
@@ -27,35 +42,45 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
   @Override
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
-    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
-    int noOfPlayers = spdzResourcePool.getNoOfParties();
-    ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
-    if (round == 0) {
-      this.triple = dataSupplier.getNextTriple();
-
-      epsilon = ((SpdzSInt) left.out()).subtract(triple.getA());
-      delta = ((SpdzSInt) right.out()).subtract(triple.getB());
+    prepare(round, spdzResourcePool, network);
+    compute(round, spdzResourcePool);
+    return finish(round, spdzResourcePool, network);
+  }
 
-      network.sendToAll(epsilon.serializeShare(serializer));
-      network.sendToAll(delta.serializeShare(serializer));
-      return EvaluationStatus.HAS_MORE_ROUNDS;
+  @Override
+  public void prepare(int round, SpdzResourcePool spdzResourcePool, Network network) {
+    if (round == 0) {
+      this.triple = spdzResourcePool.getDataSupplier().getNextTriple();
     } else {
-      FieldElement[] epsilonShares = new FieldElement[noOfPlayers];
-      FieldElement[] deltaShares = new FieldElement[noOfPlayers];
+      int noOfPlayers = spdzResourcePool.getNoOfParties();
+      macKeyShare = spdzResourcePool.getDataSupplier().getSecretSharedKey();
+      received = new byte[2 * noOfPlayers][];
       for (int i = 0; i < noOfPlayers; i++) {
-        epsilonShares[i] = serializer.deserialize(network.receive(i + 1));
-        deltaShares[i] = serializer.deserialize(network.receive(i + 1));
+        received[2 * i] = network.receive(i + 1);
+        received[2 * i + 1] = network.receive(i + 1);
       }
+    }
+  }
 
-      FieldElement e = epsilonShares[0];
-      FieldElement d = deltaShares[0];
-      for (int i = 1; i < epsilonShares.length; i++) {
-        e = e.add(epsilonShares[i]);
-        d = d.add(deltaShares[i]);
+  @Override
+  public void compute(int round, SpdzResourcePool spdzResourcePool) {
+    ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
+    if (round == 0) {
+      epsilon = ((SpdzSInt) left.out()).subtract(triple.getA());
+      delta = ((SpdzSInt) right.out()).subtract(triple.getB());
+      epsilonBytes = epsilon.serializeShare(serializer);
+      deltaBytes = delta.serializeShare(serializer);
+    } else {
+      e = serializer.deserialize(received[0]);
+      d = serializer.deserialize(received[1]);
+      for (int i = 2; i < received.length; i += 2) {
+        e = e.add(serializer.deserialize(received[i]));
+        d = d.add(serializer.deserialize(received[i + 1]));
       }
+      received = null;
 
       FieldElement product = e.multiply(d);
-      FieldElement mac = dataSupplier.getSecretSharedKey().multiply(product);
+      FieldElement mac = macKeyShare.multiply(product);
 
       SpdzSInt ed = new SpdzSInt(
           product,
@@ -65,6 +90,19 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
       out = res.add(triple.getB().multiply(e))
           .add(triple.getA().multiply(d))
           .add(ed, spdzResourcePool.getMyId());
+    }
+  }
+
+  @Override
+  public EvaluationStatus finish(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    if (round == 0) {
+      network.sendToAll(epsilonBytes);
+      network.sendToAll(deltaBytes);
+      epsilonBytes = null;
+      deltaBytes = null;
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
       // Set the opened and closed value.
       spdzResourcePool.getOpenedValueStore().pushOpenedValue(epsilon, e);
       spdzResourcePool.getOpenedValueStore().pushOpenedValue(delta, d);
@@ -0,0 +1,98 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multiplies two lists of secret values pairwise.
+ * <p>
+ * This is equivalent to running a {@link SpdzMultProtocol} for each pair, but all triples are
+ * fetched at once, the shares of all epsilons and deltas are sent to each party as a single message
+ * and all opened values are pushed to the opened value store in a single call.
+ * </p>
+ */
+public class SpdzMultVectorProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private List<DRes<SInt>> out;
+  private List<SpdzTriple> triples;
+  private List<SpdzSInt> openings;  // my shares of [x_i]-[a_i] followed by [y_i]-[b_i]
+
+  /**
+   * Creates a new protocol multiplying the given lists pairwise.
+   *
+   * @param left the left factors
+   * @param right the right factors, must have the same size as left
+   */
+  public SpdzMultVectorProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    int noOfPlayers = spdzResourcePool.getNoOfParties();
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    int size = left.size();
+    if (round == 0) {
+      triples = dataSupplier.getNextTriples(size);
+      openings = new ArrayList<>(2 * size);
+      for (int i = 0; i < size; i++) {
+        openings.add(((SpdzSInt) left.get(i).out()).subtract(triples.get(i).getA()));
+      }
+      for (int i = 0; i < size; i++) {
+        openings.add(((SpdzSInt) right.get(i).out()).subtract(triples.get(i).getB()));
+      }
+      List<FieldElement> shares = new ArrayList<>(2 * size);
+      for (SpdzSInt opening : openings) {
+        shares.add(opening.getShare());
+      }
+      network.sendToAll(definition.createVector(shares).serialize());
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      FieldElementVector opened = definition.deserializeVector(network.receive(1));
+      for (int i = 2; i <= noOfPlayers; i++) {
+        opened.accumulate(definition.deserializeVector(network.receive(i)));
+      }
+      FieldElement secretSharedKey = dataSupplier.getSecretSharedKey();
+      int myId = spdzResourcePool.getMyId();
+      out = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        FieldElement e = opened.get(i);
+        FieldElement d = opened.get(size + i);
+        FieldElement product = e.multiply(d);
+        SpdzSInt ed = new SpdzSInt(product, secretSharedKey.multiply(product));
+        SpdzTriple triple = triples.get(i);
+        out.add(triple.getC().add(triple.getB().multiply(e))
+            .add(triple.getA().multiply(d))
+            .add(ed, myId));
+      }
+      spdzResourcePool.getOpenedValueStore().pushOpenedValues(openings, opened);
+      triples = null;
+      openings = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
@@ -0,0 +1,119 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads fixed-width records written by {@link SpdzBinaryDataWriter} sequentially from a memory
+ * mapped file.
+ * <p>
+ * The file is mapped in chunks holding a whole number of records, so files larger than what can be
+ * mapped at once are supported and only the chunk currently being read needs to be resident.
+ * </p>
+ */
+final class MappedRecordReader {
+
+  static final long DEFAULT_CHUNK_SIZE = 1L << 26;
+
+  private final Path file;
+  private final int elementsPerRecord;
+  private final int recordLength;
+  private final long chunkLength;
+  private final long fileSize;
+  private long chunkPosition;
+  private MappedByteBuffer chunk;
+  private long remaining;
+
+  /**
+   * Opens a file and validates its header.
+   *
+   * @param file the file to read
+   * @param elementByteLength the expected byte length of each field element
+   * @param chunkSize the maximum number of bytes to map at once
+   */
+  MappedRecordReader(Path file, int elementByteLength, long chunkSize) {
+    this.file = file;
+    ByteBuffer header = ByteBuffer.allocate(SpdzBinaryDataWriter.HEADER_LENGTH);
+    this.fileSize = ExceptionConverter.safe(() -> {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        while (header.hasRemaining() && channel.read(header) >= 0) {
+          // keep reading until the header is complete or the file ends
+        }
+        return channel.size();
+      }
+    }, "Unable to read preprocessed material from " + file);
+    header.flip();
+    if (header.remaining() < SpdzBinaryDataWriter.HEADER_LENGTH
+        || header.getInt() != SpdzBinaryDataWriter.MAGIC) {
+      throw new IllegalArgumentException(file + " is not a binary SPDZ preprocessing file");
+    }
+    int storedByteLength = header.getInt();
+    if (storedByteLength != elementByteLength) {
+      throw new IllegalArgumentException("Elements in " + file + " have " + storedByteLength
+          + " bytes, expected " + elementByteLength);
+    }
+    this.elementsPerRecord = header.getInt();
+    if (elementsPerRecord <= 0) {
+      throw new IllegalArgumentException("Invalid record size in " + file);
+    }
+    this.recordLength = elementsPerRecord * elementByteLength;
+    this.chunkLength = Math.max(1, chunkSize / recordLength) * recordLength;
+    this.chunkPosition = SpdzBinaryDataWriter.HEADER_LENGTH;
+    this.remaining = (fileSize - SpdzBinaryDataWriter.HEADER_LENGTH) / recordLength;
+  }
+
+  /**
+   * Returns the number of field elements in each record.
+   */
+  int getElementsPerRecord() {
+    return elementsPerRecord;
+  }
+
+  /**
+   * Returns the number of records which have not been read yet.
+   */
+  long remaining() {
+    return remaining;
+  }
+
+  /**
+   * Reads the next records.
+   *
+   * @param records the number of records to read, must be at most {@link #remaining()}
+   * @return the bytes of the records
+   */
+  byte[] next(int records) {
+    if (records > remaining) {
+      throw new IllegalStateException(
+          "Requested " + records + " records but only " + remaining + " remain in " + file);
+    }
+    byte[] bytes = new byte[records * recordLength];
+    int offset = 0;
+    while (offset < bytes.length) {
+      if (chunk == null || !chunk.hasRemaining()) {
+        mapNextChunk();
+      }
+      int length = Math.min(chunk.remaining(), bytes.length - offset);
+      chunk.get(bytes, offset, length);
+      offset += length;
+    }
+    remaining -= records;
+    return bytes;
+  }
+
+  private void mapNextChunk() {
+    long length = Math.min(chunkLength, fileSize - chunkPosition);
+    chunk = ExceptionConverter.safe(() -> {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        // the mapping stays valid after the channel is closed
+        return channel.map(MapMode.READ_ONLY, chunkPosition, length);
+      }
+    }, "Unable to map preprocessed material from " + file);
+    chunkPosition += length;
+  }
+}
@@ -0,0 +1,234 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.BackgroundSupplier;
+import dk.alexandra.fresco.framework.util.BackgroundSupplier.Watermarks;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotFormatConverter;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier based on the Mascot protocol which generates pre-processed material in a
+ * background thread, so the online phase rarely has to wait for a Mascot batch.
+ * <p>
+ * Each type of material (triples, random elements, bits and input masks towards each party) is
+ * kept in its own queue, which is refilled in batches by a {@link BackgroundSupplier} according to
+ * the watermarks of the queue. The Mascot network should not be used by anything else while the
+ * supplier is running. The supplier should be closed when no longer needed, which stops the
+ * background thread of all parties.
+ * </p>
+ */
+public class SpdzAsyncMascotDataSupplier implements SpdzDataSupplier, PerformanceLogger,
+    Closeable {
+
+  public static final String STALL_COUNT = "MASCOT_ONLINE_STALLS";
+  public static final String STALL_TIME = "MASCOT_ONLINE_STALL_MILLIS";
+  public static final String REFILL_COUNT = "MASCOT_REFILLS";
+  public static final String REFILL_TIME = "MASCOT_REFILL_MILLIS";
+  public static final String QUEUE_DEPTH_PREFIX = "MASCOT_QUEUE_DEPTH_";
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzAsyncMascotDataSupplier.class);
+  private static final int TRIPLES = 0;
+  private static final int RANDOM_ELEMENTS = 1;
+  private static final int BITS = 2;
+  private static final int INPUT_MASKS = 3;
+
+  private final int numberOfPlayers;
+  private final FieldDefinition fieldDefinition;
+  private final Function<Integer, SpdzSInt[]> preprocessedValues;
+  private final FieldElement ssk;
+  private final int modBitLength;
+  private final BackgroundSupplier background;
+
+  /**
+   * Creates {@link SpdzAsyncMascotDataSupplier}. The parameters are the same as for {@link
+   * SpdzMascotDataSupplier} except for the watermarks.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param instanceId identifier used to distinguish parallel instances of Mascot
+   * @param tripleNetwork network supplier for network to be used by Mascot instance
+   * @param fieldDefinition field definition
+   * @param modBitLength bit length of modulus
+   * @param preprocessedValues callback to generate exponentiation pipes
+   * @param prgSeedLength bit length of prg
+   * @param batchSize batch size in which Mascot will generate pre-processed material
+   * @param ssk mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   * @param tripleWatermarks watermarks of the triple queue
+   * @param randomElementWatermarks watermarks of the random element queue
+   * @param bitWatermarks watermarks of the random bit queue
+   * @param inputMaskWatermarks watermarks of each of the input mask queues
+   */
+  public SpdzAsyncMascotDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
+      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
+      FieldElement ssk, Map<Integer, RotList> seedOts, Drbg drbg, Watermarks tripleWatermarks,
+      Watermarks randomElementWatermarks, Watermarks bitWatermarks,
+      Watermarks inputMaskWatermarks) {
+    this.numberOfPlayers = numberOfPlayers;
+    this.fieldDefinition = fieldDefinition;
+    this.preprocessedValues = preprocessedValues;
+    this.ssk = ssk;
+    this.modBitLength = modBitLength;
+    List<Watermarks> watermarks = new ArrayList<>(INPUT_MASKS + numberOfPlayers);
+    watermarks.add(tripleWatermarks);
+    watermarks.add(randomElementWatermarks);
+    watermarks.add(bitWatermarks);
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      watermarks.add(inputMaskWatermarks);
+    }
+    this.background = new BackgroundSupplier("Mascot-" + instanceId, myId, numberOfPlayers,
+        tripleNetwork, network -> {
+          int numCandidatesPerTriple = 3;
+          Mascot mascot = new Mascot(
+              new MascotResourcePoolImpl(myId, numberOfPlayers, instanceId, drbg, seedOts,
+                  new MascotSecurityParameters(modBitLength, prgSeedLength,
+                      numCandidatesPerTriple), fieldDefinition), network, ssk);
+          return kind -> generate(mascot, kind, batchSize);
+        }, watermarks);
+  }
+
+  /**
+   * Creates instance of {@link SpdzAsyncMascotDataSupplier} which keeps between 4 and 16 batches
+   * of triples and between 1 and 4 batches of each other kind of material.
+   */
+  public static SpdzAsyncMascotDataSupplier createSimpleSupplier(int myId, int numberOfPlayers,
+      Supplier<Network> tripleNetwork, int modBitLength, FieldDefinition fieldDefinition,
+      Function<Integer, SpdzSInt[]> preprocessedValues,
+      Map<Integer, RotList> seedOts, Drbg drbg, FieldElement ssk) {
+    int prgSeedLength = 256;
+    int batchSize = 16;
+    Watermarks other = new Watermarks(batchSize, 4 * batchSize);
+    return new SpdzAsyncMascotDataSupplier(myId, numberOfPlayers, 1, tripleNetwork,
+        fieldDefinition, modBitLength, preprocessedValues, prgSeedLength, batchSize, ssk, seedOts,
+        drbg, new Watermarks(4 * batchSize, 16 * batchSize), other, other, other);
+  }
+
+  /**
+   * Starts generating material in the background. This is done automatically when material is
+   * first requested, but starting early lets the queues fill up before the online phase.
+   */
+  public void start() {
+    background.start();
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return MascotFormatConverter
+        .toSpdzTriple(background.<MultiplicationTriple>take(TRIPLES, 1).get(0));
+  }
+
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    List<MultiplicationTriple> triples = background.take(TRIPLES, amount);
+    List<SpdzTriple> next = new ArrayList<>(amount);
+    for (MultiplicationTriple triple : triples) {
+      next.add(MascotFormatConverter.toSpdzTriple(triple));
+    }
+    return next;
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return MascotFormatConverter
+        .toSpdzSInt(background.<AuthenticatedElement>take(RANDOM_ELEMENTS, 1).get(0));
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    logger.trace("Getting another exp pipe");
+    SpdzSInt[] pipe = preprocessedValues.apply(modBitLength);
+    logger.trace("Got another exp pipe");
+    return pipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardsPlayerId) {
+    return MascotFormatConverter.toSpdzInputMask(
+        background.<InputMask>take(INPUT_MASKS + towardsPlayerId - 1, 1).get(0));
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return MascotFormatConverter
+        .toSpdzSInt(background.<AuthenticatedElement>take(BITS, 1).get(0));
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return fieldDefinition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  /**
+   * Stops the background thread. For party 1 this also stops the background threads of the other
+   * parties.
+   */
+  @Override
+  public void close() {
+    background.close();
+  }
+
+  @Override
+  public void reset() {
+    background.reset();
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    values.put(STALL_COUNT, background.getStallCount());
+    values.put(STALL_TIME, TimeUnit.NANOSECONDS.toMillis(background.getStallNanos()));
+    values.put(REFILL_COUNT, background.getRefillCount());
+    values.put(REFILL_TIME, TimeUnit.NANOSECONDS.toMillis(background.getRefillNanos()));
+    values.put(QUEUE_DEPTH_PREFIX + "TRIPLES", (long) background.getQueueSize(TRIPLES));
+    values.put(QUEUE_DEPTH_PREFIX + "RANDOM_ELEMENTS",
+        (long) background.getQueueSize(RANDOM_ELEMENTS));
+    values.put(QUEUE_DEPTH_PREFIX + "BITS", (long) background.getQueueSize(BITS));
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      values.put(QUEUE_DEPTH_PREFIX + "INPUT_MASKS_" + partyId,
+          (long) background.getQueueSize(INPUT_MASKS + partyId - 1));
+    }
+    return values;
+  }
+
+  private static List<?> generate(Mascot mascot, int kind, int batchSize) {
+    if (kind == TRIPLES) {
+      return mascot.getTriples(batchSize);
+    } else if (kind == RANDOM_ELEMENTS) {
+      return mascot.getRandomElements(batchSize);
+    } else if (kind == BITS) {
+      return mascot.getRandomBits(batchSize);
+    } else {
+      return mascot.getInputMasks(kind - INPUT_MASKS + 1, batchSize);
+    }
+  }
+}
@@ -0,0 +1,252 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.resources.storage.StreamedStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.exceptions.NoMoreElementsException;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes preprocessed material for a single party in the binary format read by {@link
+ * SpdzMappedDataSupplier}.
+ * <p>
+ * Each type of material is written to its own file named by the storage name followed by one of
+ * the suffixes used by {@link SpdzStorageDataSupplier}. A file starts with a header of three big
+ * endian ints: a magic number, the byte length of a field element and the number of field elements
+ * in each record. The header is followed by the records, where each field element is written in the
+ * fixed-length big endian format of {@link FieldDefinition#serialize(FieldElement)}. The records
+ * are:
+ * </p>
+ * <ul>
+ * <li>global: the modulus and the share of the mac key</li>
+ * <li>triples: share and mac of <i>a</i>, <i>b</i> and <i>c</i></li>
+ * <li>input masks: share and mac of the mask followed by the real value of the mask for the input
+ * party</li>
+ * <li>bits: share and mac</li>
+ * <li>exponentiation pipes: share and mac of each entry</li>
+ * </ul>
+ */
+public class SpdzBinaryDataWriter implements Closeable {
+
+  static final int MAGIC = 0x5350445a;
+  static final int HEADER_LENGTH = 3 * Integer.BYTES;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Path directory;
+  private final String storageName;
+  private final FieldDefinition definition;
+  private final int elementByteLength;
+  private final Map<String, RecordStream> streams;
+
+  /**
+   * Creates a new writer and writes the global values.
+   *
+   * @param directory the directory to write to, which is created if it does not exist
+   * @param storageName the prefix of all file names, e.g., identifying the party
+   * @param definition the field definition
+   * @param secretSharedKey the party's share of the mac key
+   */
+  public SpdzBinaryDataWriter(Path directory, String storageName, FieldDefinition definition,
+      FieldElement secretSharedKey) {
+    this.directory = directory;
+    this.storageName = storageName;
+    this.definition = definition;
+    this.elementByteLength = definition.serialize(definition.createElement(0)).length;
+    this.streams = new HashMap<>();
+    ExceptionConverter.safe(() -> Files.createDirectories(directory),
+        "Unable to create directory " + directory);
+    RecordStream global = open(SpdzStorageDataSupplier.GLOBAL_STORAGE, 2);
+    global.writeBytes(toFixedLength(definition.getModulus()));
+    global.write(secretSharedKey);
+    close(SpdzStorageDataSupplier.GLOBAL_STORAGE);
+  }
+
+  /**
+   * Appends a triple.
+   */
+  public void writeTriple(SpdzTriple triple) {
+    RecordStream stream = getStream(SpdzStorageDataSupplier.TRIPLE_STORAGE, 6);
+    writeSInt(stream, triple.getA());
+    writeSInt(stream, triple.getB());
+    writeSInt(stream, triple.getC());
+  }
+
+  /**
+   * Appends an input mask towards a party. Either all or none of the masks towards a party must
+   * include the real value.
+   */
+  public void writeInputMask(int towardPlayerId, SpdzInputMask mask) {
+    boolean hasRealValue = mask.getRealValue() != null;
+    RecordStream stream = getStream(SpdzStorageDataSupplier.INPUT_STORAGE + towardPlayerId,
+        hasRealValue ? 3 : 2);
+    writeSInt(stream, mask.getMask());
+    if (hasRealValue) {
+      stream.write(mask.getRealValue());
+    }
+  }
+
+  /**
+   * Appends a bit.
+   */
+  public void writeBit(SpdzSInt bit) {
+    writeSInt(getStream(SpdzStorageDataSupplier.BIT_STORAGE, 2), bit);
+  }
+
+  /**
+   * Appends an exponentiation pipe. All pipes must have the same length.
+   */
+  public void writeExpPipe(SpdzSInt[] expPipe) {
+    RecordStream stream = getStream(SpdzStorageDataSupplier.EXP_PIPE_STORAGE,
+        2 * expPipe.length);
+    for (SpdzSInt value : expPipe) {
+      writeSInt(stream, value);
+    }
+  }
+
+  @Override
+  public void close() {
+    for (RecordStream stream : streams.values()) {
+      stream.close();
+    }
+    streams.clear();
+  }
+
+  /**
+   * Converts material from the serialized format read by {@link SpdzStorageDataSupplier} to the
+   * binary format. All material stored under the given storage name is consumed.
+   *
+   * @param storage the storage holding the serialized material
+   * @param storageName the storage name used with {@link SpdzStorageDataSupplier}
+   * @param noOfParties the number of parties
+   * @param directory the directory to write the binary files to
+   * @param binaryStorageName the prefix of the binary files
+   */
+  public static void convert(StreamedStorage storage, String storageName, int noOfParties,
+      Path directory, String binaryStorageName) {
+    SpdzStorageDataSupplier supplier =
+        new SpdzStorageDataSupplier(storage, storageName, noOfParties);
+    try (SpdzBinaryDataWriter writer = new SpdzBinaryDataWriter(directory, binaryStorageName,
+        supplier.getFieldDefinition(), supplier.getSecretSharedKey())) {
+      String tripleName = storageName + SpdzStorageDataSupplier.TRIPLE_STORAGE;
+      for (SpdzTriple triple = next(storage, tripleName); triple != null;
+          triple = next(storage, tripleName)) {
+        writer.writeTriple(triple);
+      }
+      for (int towardPlayerId = 1; towardPlayerId <= noOfParties; towardPlayerId++) {
+        String name = storageName + SpdzStorageDataSupplier.INPUT_STORAGE + towardPlayerId;
+        for (SpdzInputMask mask = next(storage, name); mask != null; mask = next(storage, name)) {
+          writer.writeInputMask(towardPlayerId, mask);
+        }
+      }
+      String bitName = storageName + SpdzStorageDataSupplier.BIT_STORAGE;
+      for (SpdzSInt bit = next(storage, bitName); bit != null; bit = next(storage, bitName)) {
+        writer.writeBit(bit);
+      }
+      String expName = storageName + SpdzStorageDataSupplier.EXP_PIPE_STORAGE;
+      for (SpdzSInt[] pipe = next(storage, expName); pipe != null;
+          pipe = next(storage, expName)) {
+        writer.writeExpPipe(pipe);
+      }
+    }
+  }
+
+  private static <T extends Serializable> T next(StreamedStorage storage, String name) {
+    try {
+      return storage.getNext(name);
+    } catch (NoMoreElementsException e) {
+      return null;
+    }
+  }
+
+  private void writeSInt(RecordStream stream, SpdzSInt value) {
+    stream.write(value.getShare());
+    stream.write(value.getMac());
+  }
+
+  private RecordStream getStream(String type, int elementsPerRecord) {
+    RecordStream stream = streams.get(type);
+    if (stream == null) {
+      stream = open(type, elementsPerRecord);
+    } else if (stream.elementsPerRecord != elementsPerRecord) {
+      throw new IllegalArgumentException("Records of type " + type + " must all have "
+          + stream.elementsPerRecord + " elements, got " + elementsPerRecord);
+    }
+    return stream;
+  }
+
+  private RecordStream open(String type, int elementsPerRecord) {
+    Path file = directory.resolve(storageName + type);
+    OutputStream output = ExceptionConverter.safe(() -> Files.newOutputStream(file),
+        "Unable to open " + file);
+    RecordStream stream = new RecordStream(file,
+        new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE)), elementsPerRecord);
+    stream.writeHeader();
+    streams.put(type, stream);
+    return stream;
+  }
+
+  private void close(String type) {
+    streams.remove(type).close();
+  }
+
+  private byte[] toFixedLength(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    byte[] result = new byte[elementByteLength];
+    int length = Math.min(bytes.length, elementByteLength);
+    System.arraycopy(bytes, bytes.length - length, result, elementByteLength - length, length);
+    return result;
+  }
+
+  private final class RecordStream {
+
+    private final Path file;
+    private final DataOutputStream output;
+    private final int elementsPerRecord;
+
+    private RecordStream(Path file, DataOutputStream output, int elementsPerRecord) {
+      this.file = file;
+      this.output = output;
+      this.elementsPerRecord = elementsPerRecord;
+    }
+
+    private void writeHeader() {
+      ExceptionConverter.safe(() -> {
+        output.writeInt(MAGIC);
+        output.writeInt(elementByteLength);
+        output.writeInt(elementsPerRecord);
+        return null;
+      }, "Unable to write to " + file);
+    }
+
+    private void write(FieldElement element) {
+      writeBytes(definition.serialize(element));
+    }
+
+    private void writeBytes(byte[] bytes) {
+      ExceptionConverter.safe(() -> {
+        output.write(bytes);
+        return null;
+      }, "Unable to write to " + file);
+    }
+
+    private void close() {
+      ExceptionConverter.safe(() -> {
+        output.close();
+        return null;
+      }, "Unable to close " + file);
+    }
+  }
+}
@@ -1,11 +1,15 @@
 package dk.alexandra.fresco.suite.spdz.storage;
 
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.lib.compare.zerotest.ZeroTestBruteforce;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface SpdzDataSupplier {
 
@@ -16,6 +20,21 @@ public interface SpdzDataSupplier {
    */
   SpdzTriple getNextTriple();
 
+  /**
+   * Supplies a number of triples. The triples are the same as would be returned by calling {@link
+   * #getNextTriple()} the given number of times.
+   *
+   * @param amount the number of triples
+   * @return the next new triples
+   */
+  default List<SpdzTriple> getNextTriples(int amount) {
+    List<SpdzTriple> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      triples.add(getNextTriple());
+    }
+    return triples;
+  }
+
   /**
    * Supplies the next exponentiation pipe. <p>An exponentiation pipe is a list of numbers in the
    * following format: r^{-1}, r, r^{2}, r^{3}, ..., r^{l}, where r is a random element, l is the
@@ -41,6 +60,31 @@ public interface SpdzDataSupplier {
    */
   SpdzSInt getNextBit();
 
+  /**
+   * Supplies the next truncation pair, i.e., a random value r of the given bit length and r
+   * shifted to the right. <p>By default the pair is computed locally from the next
+   * <code>bitLength</code> bits.</p>
+   *
+   * @param bitLength the bit length of r
+   * @param shifts the number of positions to shift r
+   * @return the next new truncation pair with values of type {@link SpdzSInt}
+   */
+  default TruncationPair getNextTruncationPair(int bitLength, int shifts) {
+    FieldDefinition definition = getFieldDefinition();
+    SpdzSInt zero = new SpdzSInt(definition.createElement(0), definition.createElement(0));
+    SpdzSInt r = zero;
+    SpdzSInt shiftedR = zero;
+    for (int i = 0; i < bitLength; i++) {
+      SpdzSInt bit = getNextBit();
+      r = r.add(bit.multiply(definition.createElement(BigInteger.ONE.shiftLeft(i))));
+      if (i >= shifts) {
+        shiftedR = shiftedR.add(
+            bit.multiply(definition.createElement(BigInteger.ONE.shiftLeft(i - shifts))));
+      }
+    }
+    return new TruncationPair(r, shiftedR);
+  }
+
   /**
    * The field definition used for this instance of SPDZ.
    *
@@ -1,11 +1,13 @@
 package dk.alexandra.fresco.suite.spdz.storage;
 
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues.TruncationPair;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.util.ArithmeticDummyDataSupplier;
 import dk.alexandra.fresco.framework.util.ModularReductionAlgorithm;
 import dk.alexandra.fresco.framework.util.MultiplicationTripleShares;
 import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.TruncationPairShares;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
@@ -69,6 +71,12 @@ public class SpdzDummyDataSupplier implements SpdzDataSupplier {
     return toSpdzSInt(supplier.getRandomBitShare());
   }
 
+  @Override
+  public TruncationPair getNextTruncationPair(int bitLength, int shifts) {
+    TruncationPairShares raw = supplier.getTruncationPairShares(bitLength, shifts);
+    return new TruncationPair(toSpdzSInt(raw.getR()), toSpdzSInt(raw.getShiftedR()));
+  }
+
   @Override
   public FieldDefinition getFieldDefinition() {
     return fieldDefinition;
@@ -0,0 +1,217 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Data supplier which reads preprocessed material written by {@link SpdzBinaryDataWriter}.
+ * <p>
+ * Unlike {@link SpdzStorageDataSupplier} no Java serialization is involved. The files are memory
+ * mapped in chunks and read sequentially, and the field elements of a batch of records are
+ * deserialized with a single call to {@link FieldDefinition#deserializeList(byte[])}.
+ * </p>
+ */
+public class SpdzMappedDataSupplier implements SpdzDataSupplier {
+
+  private final Path directory;
+  private final String storageName;
+  private final long chunkSize;
+  private final FieldDefinition definition;
+  private final FieldElement ssk;
+  private final int elementByteLength;
+  private final MappedRecordReader[] inputMaskReaders;
+  private MappedRecordReader tripleReader;
+  private MappedRecordReader expPipeReader;
+  private MappedRecordReader bitReader;
+
+  private long tripleCounter = 0;
+  private long expPipeCounter = 0;
+  private final long[] inputMaskCounters;
+  private long bitCounter = 0;
+
+  /**
+   * Creates a new supplier reading the given files.
+   *
+   * @param directory the directory holding the files
+   * @param storageName the storage name used when writing the files
+   * @param noOfParties the number of parties in the computation
+   * @param definition the field definition to use, which must have the stored modulus. If this is
+   *     <code>null</code> a {@link BigIntegerFieldDefinition} is used.
+   */
+  public SpdzMappedDataSupplier(Path directory, String storageName, int noOfParties,
+      FieldDefinition definition) {
+    this(directory, storageName, noOfParties, definition, MappedRecordReader.DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a new supplier reading the given files using a {@link BigIntegerFieldDefinition}.
+   *
+   * @param directory the directory holding the files
+   * @param storageName the storage name used when writing the files
+   * @param noOfParties the number of parties in the computation
+   */
+  public SpdzMappedDataSupplier(Path directory, String storageName, int noOfParties) {
+    this(directory, storageName, noOfParties, null);
+  }
+
+  SpdzMappedDataSupplier(Path directory, String storageName, int noOfParties,
+      FieldDefinition definition, long chunkSize) {
+    this.directory = directory;
+    this.storageName = storageName;
+    this.chunkSize = chunkSize;
+    this.inputMaskReaders = new MappedRecordReader[noOfParties];
+    this.inputMaskCounters = new long[noOfParties];
+    Path global = directory.resolve(storageName + SpdzStorageDataSupplier.GLOBAL_STORAGE);
+    if (!Files.exists(global)) {
+      throw new IllegalArgumentException("Modulus was not present in the storage " + global);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(ExceptionConverter.safe(() -> Files.readAllBytes(global),
+        "Unable to read preprocessed material from " + global));
+    if (buffer.remaining() < SpdzBinaryDataWriter.HEADER_LENGTH
+        || buffer.getInt() != SpdzBinaryDataWriter.MAGIC) {
+      throw new IllegalArgumentException(global + " is not a binary SPDZ preprocessing file");
+    }
+    this.elementByteLength = buffer.getInt();
+    buffer.getInt();
+    if (buffer.remaining() != 2 * elementByteLength) {
+      throw new IllegalArgumentException("Unexpected length of " + global);
+    }
+    byte[] modulusBytes = new byte[elementByteLength];
+    buffer.get(modulusBytes);
+    BigInteger modulus = new BigInteger(1, modulusBytes);
+    if (definition == null) {
+      this.definition = new BigIntegerFieldDefinition(modulus);
+    } else if (definition.getModulus().equals(modulus)) {
+      this.definition = definition;
+    } else {
+      throw new IllegalArgumentException(
+          "Field definition has modulus " + definition.getModulus() + " but stored modulus is "
+              + modulus);
+    }
+    byte[] sskBytes = new byte[elementByteLength];
+    buffer.get(sskBytes);
+    this.ssk = this.definition.deserialize(sskBytes);
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return getNextTriples(1).get(0);
+  }
+
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    if (tripleReader == null) {
+      tripleReader = open(SpdzStorageDataSupplier.TRIPLE_STORAGE, "Triple no. " + tripleCounter);
+    }
+    if (tripleReader.remaining() < amount) {
+      throw notPresent("Triple no. " + (tripleCounter + tripleReader.remaining()),
+          SpdzStorageDataSupplier.TRIPLE_STORAGE);
+    }
+    List<FieldElement> elements = definition.deserializeList(tripleReader.next(amount));
+    List<SpdzTriple> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      int offset = 6 * i;
+      triples.add(new SpdzTriple(
+          toSInt(elements, offset), toSInt(elements, offset + 2), toSInt(elements, offset + 4)));
+    }
+    tripleCounter += amount;
+    return triples;
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    if (expPipeReader == null) {
+      expPipeReader = open(SpdzStorageDataSupplier.EXP_PIPE_STORAGE,
+          "expPipe no. " + expPipeCounter);
+    }
+    if (expPipeReader.remaining() < 1) {
+      throw notPresent("expPipe no. " + expPipeCounter, SpdzStorageDataSupplier.EXP_PIPE_STORAGE);
+    }
+    List<FieldElement> elements = definition.deserializeList(expPipeReader.next(1));
+    SpdzSInt[] expPipe = new SpdzSInt[elements.size() / 2];
+    for (int i = 0; i < expPipe.length; i++) {
+      expPipe[i] = toSInt(elements, 2 * i);
+    }
+    expPipeCounter++;
+    return expPipe;
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    String type = SpdzStorageDataSupplier.INPUT_STORAGE + towardPlayerId;
+    String description = "Mask no. " + inputMaskCounters[towardPlayerId - 1]
+        + " towards player " + towardPlayerId;
+    MappedRecordReader reader = inputMaskReaders[towardPlayerId - 1];
+    if (reader == null) {
+      reader = open(type, description);
+      inputMaskReaders[towardPlayerId - 1] = reader;
+    }
+    if (reader.remaining() < 1) {
+      throw notPresent(description, type);
+    }
+    List<FieldElement> elements = definition.deserializeList(reader.next(1));
+    inputMaskCounters[towardPlayerId - 1]++;
+    if (elements.size() > 2) {
+      return new SpdzInputMask(toSInt(elements, 0), elements.get(2));
+    } else {
+      return new SpdzInputMask(toSInt(elements, 0));
+    }
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    if (bitReader == null) {
+      bitReader = open(SpdzStorageDataSupplier.BIT_STORAGE, "Bit no. " + bitCounter);
+    }
+    if (bitReader.remaining() < 1) {
+      throw notPresent("Bit no. " + bitCounter, SpdzStorageDataSupplier.BIT_STORAGE);
+    }
+    SpdzSInt bit = toSInt(definition.deserializeList(bitReader.next(1)), 0);
+    bitCounter++;
+    return bit;
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return definition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return getNextTriple().getA();
+  }
+
+  private MappedRecordReader open(String type, String description) {
+    Path file = directory.resolve(storageName + type);
+    if (!Files.exists(file)) {
+      throw notPresent(description, type);
+    }
+    return new MappedRecordReader(file, elementByteLength, chunkSize);
+  }
+
+  private IllegalArgumentException notPresent(String description, String type) {
+    return new IllegalArgumentException(description + " was not present in the storage: "
+        + directory.resolve(storageName + type));
+  }
+
+  private static SpdzSInt toSInt(List<FieldElement> elements, int offset) {
+    return new SpdzSInt(elements.get(offset), elements.get(offset + 1));
+  }
+}
@@ -20,7 +20,9 @@ import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.security.SecureRandom;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -128,6 +130,21 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     return MascotFormatConverter.toSpdzTriple(triple);
   }
 
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    ensureInitialized();
+    while (triples.size() < amount) {
+      logger.trace("Getting another triple batch");
+      triples.addAll(mascot.getTriples(batchSize));
+      logger.trace("Got another triple batch");
+    }
+    List<SpdzTriple> next = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      next.add(MascotFormatConverter.toSpdzTriple(triples.pop()));
+    }
+    return next;
+  }
+
   @Override
   public SpdzSInt getNextRandomFieldElement() {
     ensureInitialized();
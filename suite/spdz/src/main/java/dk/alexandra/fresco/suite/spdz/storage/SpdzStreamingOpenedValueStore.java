@@ -0,0 +1,208 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An {@link OpenedValueStore} for SPDZ which does not retain the opened values, but folds them
+ * into a random linear combination as they are pushed.
+ * <p>
+ * The store keeps the running sums <i>a = sum r_j x_j</i> of the opened values and <i>gamma = sum
+ * r_j m_j</i> of the corresponding mac shares. When popped it returns a single authenticated value
+ * and its opened value, so the mac check only has to commit to and open one element regardless of
+ * how many values were opened since the last check.
+ * </p>
+ * <p>
+ * The coefficients must not be known before the values they are applied to are fixed, since a
+ * cheating party could otherwise introduce errors that cancel out in the combination. The
+ * coefficients for each batch of pushed values are therefore sampled from a DRBG seeded with a hash
+ * chain over all opened values pushed so far. The chain is started from a joint seed, and is
+ * refreshed with {@link #reseed(byte[])} using the coin toss done by each mac check. The store
+ * refuses opened values until it has been seeded, so the chain never starts from a public
+ * constant. As in the
+ * Fiat-Shamir heuristic a cheating party can try to find errors for which the combination is zero,
+ * so the field should be large enough for guessing a single field element to be infeasible.
+ * </p>
+ * <p>
+ * All parties must push the same opened values in the same order, which is already required by
+ * SPDZ.
+ * </p>
+ */
+public class SpdzStreamingOpenedValueStore implements OpenedValueStore<SpdzSInt, FieldElement> {
+
+  private static final int MAX_PENDING = 1024;
+
+  private final FieldDefinition definition;
+  private final MessageDigest digest;
+  private final int coefficientByteLength;
+  private final List<SpdzSInt> pendingSharesWithMacs;
+  private final List<FieldElement> pendingOpenedValues;
+  private byte[] state;  // null until seeded
+  private FieldElement shareSum;
+  private FieldElement macSum;
+  private FieldElement openedSum;
+  private int count;
+
+  /**
+   * Creates a new store which must be seeded using {@link #reseed(byte[])} with a seed agreed on
+   * by all parties before values are pushed. When the store is used in a resource pool this is
+   * done by {@link dk.alexandra.fresco.suite.spdz.SpdzRoundSynchronization} before the first batch
+   * is evaluated.
+   *
+   * @param definition the field definition used by SPDZ
+   */
+  public SpdzStreamingOpenedValueStore(FieldDefinition definition) {
+    this.definition = definition;
+    this.digest = ExceptionConverter.safe(
+        () -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for Spdz");
+    this.coefficientByteLength = (definition.getBitLength() + Byte.SIZE - 1) / Byte.SIZE;
+    this.pendingSharesWithMacs = new ArrayList<>();
+    this.pendingOpenedValues = new ArrayList<>();
+    reset();
+  }
+
+  /**
+   * Creates a new store seeded with the given seed.
+   *
+   * @param definition the field definition used by SPDZ
+   * @param jointSeed a seed agreed on by all parties, used to start the hash chain
+   */
+  public SpdzStreamingOpenedValueStore(FieldDefinition definition, byte[] jointSeed) {
+    this(definition);
+    reseed(Objects.requireNonNull(jointSeed));
+  }
+
+  /**
+   * Mixes a new seed agreed on by all parties into the hash chain used to derive coefficients, or
+   * starts the hash chain from the seed if the store has not been seeded yet.
+   *
+   * @param jointSeed the seed
+   */
+  public void reseed(byte[] jointSeed) {
+    if (state != null) {
+      digest.update(state);
+    }
+    state = digest.digest(jointSeed);
+  }
+
+  /**
+   * Checks if the hash chain has been started from a joint seed, which is required before values
+   * can be pushed.
+   *
+   * @return true if the store has been seeded
+   */
+  public boolean isSeeded() {
+    return state != null;
+  }
+
+  @Override
+  public void pushOpenedValues(List<SpdzSInt> newSharesWithMacs,
+      List<FieldElement> newOpenedValues) {
+    checkSeeded();
+    flushPending();
+    fold(newSharesWithMacs, newOpenedValues);
+  }
+
+  @Override
+  public void pushOpenedValue(SpdzSInt newShareWithMac, FieldElement newOpenedValue) {
+    checkSeeded();
+    pendingSharesWithMacs.add(newShareWithMac);
+    pendingOpenedValues.add(newOpenedValue);
+    if (pendingOpenedValues.size() >= MAX_PENDING) {
+      flushPending();
+    }
+  }
+
+  @Override
+  public Pair<List<SpdzSInt>, List<FieldElement>> popValues() {
+    flushPending();
+    List<SpdzSInt> sharesWithMacs = new ArrayList<>(1);
+    List<FieldElement> openedValues = new ArrayList<>(1);
+    if (count > 0) {
+      sharesWithMacs.add(new SpdzSInt(shareSum, macSum));
+      openedValues.add(openedSum);
+    }
+    reset();
+    return new Pair<>(sharesWithMacs, openedValues);
+  }
+
+  @Override
+  public boolean hasPendingValues() {
+    return count + pendingOpenedValues.size() > 0;
+  }
+
+  @Override
+  public boolean exceedsThreshold(int threshold) {
+    return count + pendingOpenedValues.size() > threshold;
+  }
+
+  private void checkSeeded() {
+    if (state == null) {
+      throw new IllegalStateException("Store must be seeded with a joint seed before use");
+    }
+  }
+
+  private void reset() {
+    shareSum = definition.createElement(0);
+    macSum = definition.createElement(0);
+    openedSum = definition.createElement(0);
+    count = 0;
+  }
+
+  private void flushPending() {
+    if (!pendingOpenedValues.isEmpty()) {
+      fold(pendingSharesWithMacs, pendingOpenedValues);
+      pendingSharesWithMacs.clear();
+      pendingOpenedValues.clear();
+    }
+  }
+
+  private void fold(List<SpdzSInt> sharesWithMacs, List<FieldElement> openedValues) {
+    if (sharesWithMacs.size() != openedValues.size()) {
+      throw new IllegalArgumentException("Number of shares and opened values must match, was "
+          + sharesWithMacs.size() + " and " + openedValues.size());
+    }
+    if (openedValues.isEmpty()) {
+      return;
+    }
+    digest.update(state);
+    state = digest.digest(definition.serialize(openedValues));
+    Drbg drbg = new AesCtrDrbg(state.clone());
+    List<FieldElement> coefficients = new ArrayList<>(openedValues.size());
+    List<FieldElement> shares = new ArrayList<>(openedValues.size());
+    List<FieldElement> macs = new ArrayList<>(openedValues.size());
+    for (SpdzSInt shareWithMac : sharesWithMacs) {
+      byte[] bytes = new byte[coefficientByteLength];
+      drbg.nextBytes(bytes);
+      coefficients.add(definition.createElement(new BigInteger(1, bytes)));
+      shares.add(shareWithMac.getShare());
+      macs.add(shareWithMac.getMac());
+    }
+    FieldElementVector coefficientVector = definition.createVector(coefficients);
+    openedSum = openedSum.add(coefficientVector.innerProduct(asVector(openedValues)));
+    shareSum = shareSum.add(coefficientVector.innerProduct(definition.createVector(shares)));
+    macSum = macSum.add(coefficientVector.innerProduct(definition.createVector(macs)));
+    count += openedValues.size();
+  }
+
+  private FieldElementVector asVector(List<FieldElement> elements) {
+    if (elements instanceof FieldElementVector) {
+      return (FieldElementVector) elements;
+    } else {
+      return definition.createVector(elements);
+    }
+  }
+}
@@ -9,6 +9,7 @@ import dk.alexandra.fresco.framework.TestThreadRunner;
 import dk.alexandra.fresco.framework.builder.numeric.DefaultPreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
 import dk.alexandra.fresco.framework.configuration.NetworkUtil;
@@ -27,6 +28,7 @@ import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
@@ -56,6 +58,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -116,7 +119,8 @@ public abstract class AbstractSpdzTest {
       PerformanceLoggerCountingAggregate aggregate = new PerformanceLoggerCountingAggregate();
 
       ProtocolSuiteNumeric<SpdzResourcePool> protocolSuite = createProtocolSuite(maxBitLength);
-      BatchEvaluationStrategy<SpdzResourcePool> batchEvalStrat = evalStrategy.getStrategy();
+      BatchEvaluationStrategy<SpdzResourcePool> batchEvalStrat =
+          createEvaluationStrategy(evalStrategy);
       if (logPerformance) {
         protocolSuite = new NumericSuiteLogging<>(protocolSuite);
         aggregate.add((PerformanceLogger) protocolSuite);
@@ -159,6 +163,11 @@ public abstract class AbstractSpdzTest {
     expPipeManager.close();
   }
 
+  protected BatchEvaluationStrategy<SpdzResourcePool> createEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    return evalStrategy.getStrategy();
+  }
+
   protected SpdzProtocolSuite createProtocolSuite(int maxBitLength) {
     return new SpdzProtocolSuite(maxBitLength);
   }
@@ -248,7 +257,7 @@ public abstract class AbstractSpdzTest {
       Map<Integer, RotList> seedOts =
           getSeedOts(myId, partyIds, PRG_SEED_LENGTH, drbg, otGenerator.createExtraNetwork(myId));
       FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
-      supplier = SpdzMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
+      supplier = createMascotDataSupplier(myId, numberOfParties,
           () -> tripleGenerator.createExtraNetwork(myId), modBitLength,
           definition,
           new Function<Integer, SpdzSInt[]>() {
@@ -278,8 +287,21 @@ public abstract class AbstractSpdzTest {
           new FilebasedStreamedStorageImpl(new InMemoryStorage());
       supplier = new SpdzStorageDataSupplier(storage, storageName, numberOfParties);
     }
-    return new SpdzResourcePoolImpl(myId, numberOfParties, new OpenedValueStoreImpl<>(), supplier,
-        AesCtrDrbg::new);
+    return new SpdzResourcePoolImpl(myId, numberOfParties,
+        createOpenedValueStore(supplier.getFieldDefinition()), supplier, AesCtrDrbg::new);
+  }
+
+  protected SpdzDataSupplier createMascotDataSupplier(int myId, int numberOfParties,
+      Supplier<Network> tripleNetwork, int modBitLength, FieldDefinition definition,
+      Function<Integer, SpdzSInt[]> preprocessedValues, Map<Integer, RotList> seedOts,
+      Drbg drbg, FieldElement ssk) {
+    return SpdzMascotDataSupplier.createSimpleSupplier(myId, numberOfParties, tripleNetwork,
+        modBitLength, definition, preprocessedValues, seedOts, drbg, ssk);
+  }
+
+  protected OpenedValueStore<SpdzSInt, FieldElement> createOpenedValueStore(
+      FieldDefinition definition) {
+    return new OpenedValueStoreImpl<>();
   }
 
   private SpdzSInt[] computeSInts(DRes<List<DRes<SInt>>> pipe) {
@@ -1,20 +1,20 @@
 package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.LinearCombination;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.lib.real.RealNumericContext;
-import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocol;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
-import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputSingleProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputToAllProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzRandomProtocol;
-import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownRight;
 import java.math.BigInteger;
@@ -30,8 +30,8 @@ public class MaliciousSpdzBuilder extends SpdzBuilder {
     return new Numeric() {
       @Override
       public DRes<SInt> add(DRes<SInt> a, DRes<SInt> b) {
-        SpdzAddProtocol spdzAddProtocol = new SpdzAddProtocol(a, b);
-        return protocolBuilder.append(spdzAddProtocol);
+        return LinearCombination.of(a, b,
+            (left, right) -> ((SpdzSInt) left).add((SpdzSInt) right));
       }
 
       @Override
@@ -42,8 +42,8 @@ public class MaliciousSpdzBuilder extends SpdzBuilder {
 
       @Override
       public DRes<SInt> sub(DRes<SInt> a, DRes<SInt> b) {
-        SpdzSubtractProtocol spdzSubtractProtocol = new SpdzSubtractProtocol(a, b);
-        return protocolBuilder.append(spdzSubtractProtocol);
+        return LinearCombination.of(a, b,
+            (left, right) -> ((SpdzSInt) left).subtract((SpdzSInt) right));
       }
 
       @Override
@@ -68,8 +68,8 @@ public class MaliciousSpdzBuilder extends SpdzBuilder {
 
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
-        SpdzMultProtocolKnownLeft spdzMultProtocol4 = new SpdzMultProtocolKnownLeft(a, b);
-        return protocolBuilder.append(spdzMultProtocol4);
+        FieldElement constant = getBasicNumericContext().getFieldDefinition().createElement(a);
+        return LinearCombination.of(b, value -> ((SpdzSInt) value).multiply(constant));
       }
 
       @Override
@@ -12,5 +12,11 @@ public class TestLookUpProtocol extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2);
   }
 
+  @Test
+  public void test_inner_product_lookup() {
+    runTest(new SearchingTests.TestInnerProductLookUp<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
 
 }
@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.suite.spdz;
 
+import dk.alexandra.fresco.framework.builder.numeric.TruncationPairTests;
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.lib.arithmetic.AdvancedNumericTests;
 import dk.alexandra.fresco.lib.math.integer.exp.ExponentiationTests.TestExponentiation;
@@ -33,6 +34,17 @@ public class TestSpdzAdvancedNumeric extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2, 256, 150, 16);
   }
 
+  @Test
+  public void test_Truncation_Pair() {
+    runTest(new TruncationPairTests.TestTruncationPair<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_Truncation_Pair_Mascot() {
+    runTest(new TruncationPairTests.TestTruncationPair<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 64, 32, 16);
+  }
+
   @Test
   public void testRealLog() {
     runTest(new MathTests.TestLog<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
@@ -111,6 +111,12 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
   }
 
+  @Test
+  public void testMultListMascot() {
+    runTest(new BasicArithmeticTests.TestMultList<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
   @Test
   public void test_Lots_Of_Mults_Sequential_Batched_Different_Modulus() {
     runTest(new BasicArithmeticTests.TestLotsMult<>(),
@@ -1,8 +1,16 @@
 package dk.alexandra.fresco.suite.spdz;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy;
 import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
 
 /**
@@ -11,6 +19,20 @@ import org.junit.Test;
  */
 public class TestSpdzBasicArithmetic3Parties extends AbstractSpdzTest {
 
+  private final List<ParallelBatchedStrategy<SpdzResourcePool>> parallelStrategies =
+      Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  protected BatchEvaluationStrategy<SpdzResourcePool> createEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    if (evalStrategy == EvaluationStrategy.PARALLEL_BATCHED) {
+      ParallelBatchedStrategy<SpdzResourcePool> strategy = new ParallelBatchedStrategy<>();
+      parallelStrategies.add(strategy);
+      return strategy;
+    }
+    return super.createEvaluationStrategy(evalStrategy);
+  }
+
   @Test
   public void test_Input_Sequential() {
     runTest(new BasicArithmeticTests.TestInput<>(),
@@ -41,6 +63,29 @@ public class TestSpdzBasicArithmetic3Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 3);
   }
 
+  @Test
+  public void test_Lots_Of_Mults_Parallel_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+    // The local computations of the multiplications must have been dispatched to the pool
+    assertEquals(3, parallelStrategies.size());
+    for (ParallelBatchedStrategy<SpdzResourcePool> strategy : parallelStrategies) {
+      assertTrue(strategy.getParallelEvaluations() > 0);
+    }
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Pipelined_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+  }
+
+  @Test
+  public void test_Mult_List() {
+    runTest(new BasicArithmeticTests.TestMultList<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
   @Test
   public void test_Alternating() {
     runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(),
@@ -10,6 +10,7 @@ import dk.alexandra.fresco.lib.collections.permute.PermuteRows;
 import dk.alexandra.fresco.lib.collections.permute.PermuteRowsTests;
 import dk.alexandra.fresco.lib.collections.relational.LeakyAggregationTests;
 import dk.alexandra.fresco.lib.collections.shuffle.ShuffleRowsTests;
+import dk.alexandra.fresco.lib.collections.sort.SortRowsTests;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import java.util.ArrayList;
 import org.junit.Test;
@@ -83,6 +84,18 @@ public class TestSpdzCollections extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2);
   }
 
+  @Test
+  public void test_sort_rows() {
+    runTest(SortRowsTests.sortRows(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_shuffle_sort_rows() {
+    runTest(SortRowsTests.shuffleSortRows(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
   @Test
   public void test_MiMC_aggregate_two() {
     runTest(LeakyAggregationTests.aggregate(),
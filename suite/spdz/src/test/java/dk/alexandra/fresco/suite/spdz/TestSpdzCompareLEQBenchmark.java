@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.logging.BatchEvaluationLoggingDecorator;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of many comparisons in SPDZ, comparing the list version of {@link
+ * dk.alexandra.fresco.framework.builder.numeric.Comparison#compareLEQ} with one comparison per pair
+ * of values. Ignored by default since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdzCompareLEQBenchmark extends AbstractSpdzTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestSpdzCompareLEQBenchmark.class);
+  // a single comparison shows the number of rounds
+  private static final int[] COMPARISONS = {1, 1_000, 10_000};
+
+  private final List<BatchEvaluationLoggingDecorator<SpdzResourcePool>> strategies =
+      Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  protected BatchEvaluationStrategy<SpdzResourcePool> createEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    BatchEvaluationLoggingDecorator<SpdzResourcePool> strategy =
+        new BatchEvaluationLoggingDecorator<>(super.createEvaluationStrategy(evalStrategy));
+    strategies.add(strategy);
+    return strategy;
+  }
+
+  @Test
+  public void testCompareLEQ() {
+    runTest(new CompareBenchmark(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  private class CompareBenchmark
+      extends TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          // warm up
+          measure(COMPARISONS[1], "warm up", this::single);
+          for (int comparisons : COMPARISONS) {
+            measure(comparisons, "one compareLEQ per pair", this::single);
+            measure(comparisons, "compareLEQ of lists", (builder, values) -> builder
+                .comparison().compareLEQ(values.get(0), values.get(1)));
+          }
+        }
+
+        private DRes<List<DRes<SInt>>> single(ProtocolBuilderNumeric builder,
+            List<List<DRes<SInt>>> values) {
+          return builder.par(par -> {
+            List<DRes<SInt>> results = new ArrayList<>(values.get(0).size());
+            for (int i = 0; i < values.get(0).size(); i++) {
+              results.add(par.comparison().compareLEQ(values.get(0).get(i), values.get(1).get(i)));
+            }
+            return () -> results;
+          });
+        }
+
+        private void measure(int comparisons, String description,
+            BiFunction<ProtocolBuilderNumeric, List<List<DRes<SInt>>>,
+                DRes<List<DRes<SInt>>>> compare) {
+          List<List<DRes<SInt>>> values = runApplication(producer -> {
+            Numeric numeric = producer.numeric();
+            List<DRes<SInt>> left = new ArrayList<>(comparisons);
+            List<DRes<SInt>> right = new ArrayList<>(comparisons);
+            for (int i = 0; i < comparisons; i++) {
+              left.add(numeric.known(BigInteger.valueOf(i)));
+              right.add(numeric.known(BigInteger.valueOf(comparisons - i)));
+            }
+            List<List<DRes<SInt>>> result = new ArrayList<>();
+            result.add(left);
+            result.add(right);
+            return () -> result;
+          });
+          // strategies are created in order of party id
+          BatchEvaluationLoggingDecorator<SpdzResourcePool> strategy =
+              strategies.get(conf.getMyId() - 1);
+          strategy.reset();
+          long start = System.nanoTime();
+          List<DRes<BigInteger>> results = runApplication(producer -> producer
+              .seq(seq -> compare.apply(seq, values))
+              .seq((seq, compared) -> seq.collections().openList(() -> compared)));
+          long time = System.nanoTime() - start;
+          for (int i = 0; i < comparisons; i++) {
+            BigInteger expected = i <= comparisons - i ? BigInteger.ONE : BigInteger.ZERO;
+            Assert.assertEquals(expected, results.get(i).out());
+          }
+          if (conf.getMyId() == 1) {
+            logger.info("{}, {} comparisons: {} ms, {} batches", description, comparisons,
+                TimeUnit.NANOSECONDS.toMillis(time),
+                strategy.getLoggedValues().get(BatchEvaluationLoggingDecorator.BATCH_COUNTER));
+          }
+        }
+      };
+    }
+  }
+}
@@ -19,6 +19,12 @@ public class TestSpdzComparison extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2);
   }
 
+  @Test
+  public void test_compareLT_List_Sequential() {
+    runTest(new CompareTests.TestCompareLTList<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
   @Test
   public void test_compareLTEdge_Sequential() {
     runTest(new CompareTests.TestCompareLTEdgeCases<>(),
@@ -0,0 +1,97 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark comparing the throughput of SPDZ multiplications evaluated with the sequential batched
+ * strategy and with {@link ParallelBatchedStrategy} on pools of different sizes. Ignored by default
+ * since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdzEvaluationStrategyBenchmark extends AbstractSpdzTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(TestSpdzEvaluationStrategyBenchmark.class);
+  private static final int MULTIPLICATIONS = 100_000;
+  private static final int RUNS = 3;
+  private static final int CHUNK_SIZE = 128;
+
+  private int parallelism;
+  private String description;
+
+  @Override
+  protected BatchEvaluationStrategy<SpdzResourcePool> createEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    if (evalStrategy == EvaluationStrategy.PARALLEL_BATCHED) {
+      return new ParallelBatchedStrategy<>(new ForkJoinPool(parallelism), CHUNK_SIZE);
+    }
+    return super.createEvaluationStrategy(evalStrategy);
+  }
+
+  @Test
+  public void testMultiplyTwoParties() {
+    description = "SEQUENTIAL_BATCHED";
+    runTest(new MultiplyBenchmark(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+    for (parallelism = 1; parallelism <= 4; parallelism *= 2) {
+      description = "PARALLEL_BATCHED, pool of " + parallelism;
+      runTest(new MultiplyBenchmark(), EvaluationStrategy.PARALLEL_BATCHED,
+          PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+    }
+  }
+
+  private class MultiplyBenchmark
+      extends TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          long best = Long.MAX_VALUE;
+          for (int run = 0; run < RUNS; run++) {
+            DRes<SInt> left = runApplication(producer -> producer.numeric().known(3));
+            DRes<SInt> right = runApplication(producer -> producer.numeric().known(5));
+            long start = System.nanoTime();
+            List<DRes<SInt>> products = runApplication(producer -> producer.par(par -> {
+              Numeric numeric = par.numeric();
+              List<DRes<SInt>> result = new ArrayList<>(MULTIPLICATIONS);
+              for (int i = 0; i < MULTIPLICATIONS; i++) {
+                result.add(numeric.mult(left, right));
+              }
+              return () -> result;
+            }));
+            best = Math.min(best, System.nanoTime() - start);
+            Assert.assertEquals(BigInteger.valueOf(15), runApplication(
+                producer -> producer.numeric().open(products.get(MULTIPLICATIONS - 1))));
+          }
+          if (conf.getMyId() == 1) {
+            logger.info("{}: {} multiplications in {} ms, {} multiplications/s", description,
+                MULTIPLICATIONS, TimeUnit.NANOSECONDS.toMillis(best),
+                MULTIPLICATIONS * 1_000_000_000L / best);
+          }
+        }
+      };
+    }
+  }
+}
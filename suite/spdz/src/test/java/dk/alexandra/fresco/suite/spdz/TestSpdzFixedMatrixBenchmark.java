@@ -0,0 +1,124 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.lib.collections.Matrix;
+import dk.alexandra.fresco.lib.collections.MatrixUtils;
+import dk.alexandra.fresco.lib.real.SReal;
+import dk.alexandra.fresco.logging.BatchEvaluationLoggingDecorator;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of multiplying two secret fixed point matrices with {@link
+ * dk.alexandra.fresco.lib.real.RealLinearAlgebra#mult} in SPDZ with dummy preprocessing. Reports
+ * the wall time and the number of evaluated batches, which shows the rounds of the product.
+ * Ignored by default since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdzFixedMatrixBenchmark extends AbstractSpdzTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestSpdzFixedMatrixBenchmark.class);
+  private static final int[] SIZES = {16, 32, 64};
+  private static final int RUNS = 3;
+
+  private final List<BatchEvaluationLoggingDecorator<SpdzResourcePool>> strategies =
+      Collections.synchronizedList(new ArrayList<>());
+
+  @Override
+  protected BatchEvaluationStrategy<SpdzResourcePool> createEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    BatchEvaluationLoggingDecorator<SpdzResourcePool> strategy =
+        new BatchEvaluationLoggingDecorator<>(super.createEvaluationStrategy(evalStrategy));
+    strategies.add(strategy);
+    return strategy;
+  }
+
+  @Test
+  public void testMatrixProduct() {
+    runTest(new MatrixProduct(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  private class MatrixProduct
+      extends TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          // warm up
+          measure(SIZES[0]);
+          for (int size : SIZES) {
+            for (int run = 0; run < RUNS; run++) {
+              measure(size);
+            }
+          }
+        }
+
+        private void measure(int size) {
+          Matrix<BigDecimal> left = matrix(size, 1);
+          Matrix<BigDecimal> right = matrix(size, 2);
+          Matrix<DRes<SReal>> closedLeft =
+              runApplication(producer -> producer.realLinAlg().input(left, 1));
+          Matrix<DRes<SReal>> closedRight =
+              runApplication(producer -> producer.realLinAlg().input(right, 2));
+          // strategies are created in order of party id
+          BatchEvaluationLoggingDecorator<SpdzResourcePool> strategy =
+              strategies.get(conf.getMyId() - 1);
+          strategy.reset();
+          long start = System.nanoTime();
+          Matrix<BigDecimal> product = runApplication(producer -> {
+            DRes<Matrix<DRes<SReal>>> result =
+                producer.realLinAlg().mult(() -> closedLeft, () -> closedRight);
+            DRes<Matrix<DRes<BigDecimal>>> opened = producer.realLinAlg().openMatrix(result);
+            return () -> new MatrixUtils().unwrapMatrix(opened);
+          });
+          long time = System.nanoTime() - start;
+          for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+              BigDecimal expected = BigDecimal.ZERO;
+              for (int k = 0; k < size; k++) {
+                expected = expected.add(left.getRow(i).get(k).multiply(right.getRow(k).get(j)));
+              }
+              Assert.assertEquals(expected.doubleValue(),
+                  product.getRow(i).get(j).doubleValue(), 0.01);
+            }
+          }
+          if (conf.getMyId() == 1) {
+            logger.info("{}x{} matrix product: {} ms, {} batches", size, size,
+                TimeUnit.NANOSECONDS.toMillis(time),
+                strategy.getLoggedValues().get(BatchEvaluationLoggingDecorator.BATCH_COUNTER));
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Returns a matrix of quarters between -3/4 and 3/4.
+   */
+  private static Matrix<BigDecimal> matrix(int size, int seed) {
+    return new Matrix<>(size, size, i -> {
+      ArrayList<BigDecimal> row = new ArrayList<>(size);
+      for (int j = 0; j < size; j++) {
+        row.add(BigDecimal.valueOf(((seed * i + 2 * j) % 7 - 3) / 4.0));
+      }
+      return row;
+    });
+  }
+}
@@ -0,0 +1,250 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import dk.alexandra.fresco.lib.real.RealNumericContext;
+import dk.alexandra.fresco.logging.BatchEvaluationLoggingDecorator;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of local linear operations in SPDZ, comparing the lazily evaluated linear combinations
+ * of {@link SpdzBuilder} with a native protocol per operation, which is how they were evaluated
+ * before. Reports the number of batches, native protocols and the wall time. Ignored by default
+ * since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdzLinearCombinationBenchmark extends AbstractSpdzTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(TestSpdzLinearCombinationBenchmark.class);
+  private static final int ELEMENTS = 1_000_000;
+
+  private final List<BatchEvaluationLoggingDecorator<SpdzResourcePool>> strategies =
+      Collections.synchronizedList(new ArrayList<>());
+  private boolean nativeLinearOperations;
+
+  @Override
+  protected BatchEvaluationStrategy<SpdzResourcePool> createEvaluationStrategy(
+      EvaluationStrategy evalStrategy) {
+    BatchEvaluationLoggingDecorator<SpdzResourcePool> strategy =
+        new BatchEvaluationLoggingDecorator<>(super.createEvaluationStrategy(evalStrategy));
+    strategies.add(strategy);
+    return strategy;
+  }
+
+  @Override
+  protected SpdzProtocolSuite createProtocolSuite(int maxBitLength) {
+    if (!nativeLinearOperations) {
+      return super.createProtocolSuite(maxBitLength);
+    }
+    return new SpdzProtocolSuite(maxBitLength) {
+      @Override
+      public BuilderFactoryNumeric init(SpdzResourcePool resourcePool) {
+        return new NativeLinearBuilder(createNumericContext(resourcePool),
+            createRealNumericContext());
+      }
+    };
+  }
+
+  @Test
+  public void testLinearOperations() {
+    nativeLinearOperations = true;
+    runTest(new LinearBenchmark("native protocols"), PreprocessingStrategy.DUMMY, 2);
+    strategies.clear();
+    nativeLinearOperations = false;
+    runTest(new LinearBenchmark("linear combinations"), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  private class LinearBenchmark
+      extends TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> {
+
+    private final String description;
+
+    LinearBenchmark(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          List<DRes<SInt>> values = runApplication(producer -> {
+            Numeric numeric = producer.numeric();
+            List<DRes<SInt>> result = new ArrayList<>(ELEMENTS);
+            for (int i = 0; i < ELEMENTS; i++) {
+              result.add(numeric.known(i));
+            }
+            return () -> result;
+          });
+          // strategies are created in order of party id
+          BatchEvaluationLoggingDecorator<SpdzResourcePool> strategy =
+              strategies.get(conf.getMyId() - 1);
+          strategy.reset();
+          long start = System.nanoTime();
+          // sum of 3 * x_i + x_(i+1) - x_i for a cyclic shift, which is 3 times the sum of x_i
+          BigInteger sum = runApplication(producer -> producer.par(par -> {
+            List<DRes<SInt>> terms = new ArrayList<>(ELEMENTS);
+            for (int i = 0; i < ELEMENTS; i++) {
+              DRes<SInt> value = values.get(i);
+              DRes<SInt> next = values.get((i + 1) % ELEMENTS);
+              terms.add(par.seq(seq -> {
+                Numeric numeric = seq.numeric();
+                return numeric.sub(numeric.add(numeric.mult(3, value), next), value);
+              }));
+            }
+            return () -> terms;
+          }).seq((seq, terms) -> seq.advancedNumeric().sum(terms))
+              .seq((seq, total) -> seq.numeric().open(total)));
+          long time = System.nanoTime() - start;
+          Assert.assertEquals(BigInteger.valueOf(3L * ELEMENTS * (ELEMENTS - 1) / 2), sum);
+          if (conf.getMyId() == 1) {
+            Map<String, Long> batches = strategy.getLoggedValues();
+            logger.info("{}: {} linear operations in {} ms, {} batches, {} native protocols",
+                description, 4 * ELEMENTS - 1, TimeUnit.NANOSECONDS.toMillis(time),
+                batches.get(BatchEvaluationLoggingDecorator.BATCH_COUNTER),
+                batches.get(BatchEvaluationLoggingDecorator.BATCH_NATIVE_PROTOCOLS));
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Builder evaluating additions, subtractions and multiplications by constants as native
+   * protocols.
+   */
+  private static class NativeLinearBuilder extends SpdzBuilder {
+
+    NativeLinearBuilder(BasicNumericContext basicNumericContext,
+        RealNumericContext realNumericContext) {
+      super(basicNumericContext, realNumericContext);
+    }
+
+    @Override
+    public Numeric createNumeric(ProtocolBuilderNumeric protocolBuilder) {
+      Numeric delegate = super.createNumeric(protocolBuilder);
+      return new Numeric() {
+        @Override
+        public DRes<SInt> add(DRes<SInt> a, DRes<SInt> b) {
+          return protocolBuilder.append(new LinearProtocol(a, b, SpdzSInt::add));
+        }
+
+        @Override
+        public DRes<SInt> add(BigInteger a, DRes<SInt> b) {
+          return delegate.add(a, b);
+        }
+
+        @Override
+        public DRes<SInt> sub(DRes<SInt> a, DRes<SInt> b) {
+          return protocolBuilder.append(new LinearProtocol(a, b, SpdzSInt::subtract));
+        }
+
+        @Override
+        public DRes<SInt> sub(BigInteger a, DRes<SInt> b) {
+          return delegate.sub(a, b);
+        }
+
+        @Override
+        public DRes<SInt> sub(DRes<SInt> a, BigInteger b) {
+          return delegate.sub(a, b);
+        }
+
+        @Override
+        public DRes<SInt> mult(DRes<SInt> a, DRes<SInt> b) {
+          return delegate.mult(a, b);
+        }
+
+        @Override
+        public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
+          FieldElement constant = getBasicNumericContext().getFieldDefinition().createElement(a);
+          return protocolBuilder.append(
+              new LinearProtocol(b, b, (value, ignored) -> value.multiply(constant)));
+        }
+
+        @Override
+        public DRes<SInt> randomBit() {
+          return delegate.randomBit();
+        }
+
+        @Override
+        public DRes<SInt> randomElement() {
+          return delegate.randomElement();
+        }
+
+        @Override
+        public DRes<SInt> known(BigInteger value) {
+          return delegate.known(value);
+        }
+
+        @Override
+        public DRes<SInt> input(BigInteger value, int inputParty) {
+          return delegate.input(value, inputParty);
+        }
+
+        @Override
+        public DRes<BigInteger> open(DRes<SInt> secretShare) {
+          return delegate.open(secretShare);
+        }
+
+        @Override
+        public DRes<BigInteger> open(DRes<SInt> secretShare, int outputParty) {
+          return delegate.open(secretShare, outputParty);
+        }
+      };
+    }
+  }
+
+  /**
+   * Native protocol computing a local operation on two shares in a single round.
+   */
+  private static class LinearProtocol extends SpdzNativeProtocol<SInt> {
+
+    private final DRes<SInt> left;
+    private final DRes<SInt> right;
+    private final BinaryOperator<SpdzSInt> operation;
+    private SpdzSInt out;
+
+    LinearProtocol(DRes<SInt> left, DRes<SInt> right, BinaryOperator<SpdzSInt> operation) {
+      this.left = left;
+      this.right = right;
+      this.operation = operation;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
+      out = operation.apply((SpdzSInt) left.out(), (SpdzSInt) right.out());
+      return EvaluationStatus.IS_DONE;
+    }
+
+    @Override
+    public SInt out() {
+      return out;
+    }
+  }
+}
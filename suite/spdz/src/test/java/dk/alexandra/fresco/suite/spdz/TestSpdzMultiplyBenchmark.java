@@ -0,0 +1,99 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark comparing multiplication of two lists with a single {@link
+ * dk.alexandra.fresco.suite.spdz.gates.SpdzMultVectorProtocol} and with a {@link
+ * dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol} per pair of values. Uses the dummy data
+ * supplier, so only the online phase is measured. Ignored by default since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdzMultiplyBenchmark extends AbstractSpdzTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestSpdzMultiplyBenchmark.class);
+  private static final int WARMUP_MULTIPLICATIONS = 100_000;
+  private static final int MULTIPLICATIONS = 1_000_000;
+
+  @Test
+  public void testMultiplyTwoParties() {
+    runTest(new MultiplyBenchmark(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  private static class MultiplyBenchmark
+      extends TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          measure(WARMUP_MULTIPLICATIONS);
+          measure(MULTIPLICATIONS);
+        }
+
+        private void measure(int size) {
+          List<DRes<SInt>> left = runApplication(known(size, 3));
+          List<DRes<SInt>> right = runApplication(known(size, 5));
+          BigInteger last = BigInteger.valueOf(15L * (size - 1) * (size - 1));
+          long start = System.nanoTime();
+          List<DRes<SInt>> products =
+              runApplication(producer -> producer.numeric().mult(left, right));
+          long vector = System.nanoTime() - start;
+          assertLast(last, products);
+          products = null;
+          start = System.nanoTime();
+          products = runApplication(producer -> producer.par(par -> {
+            Numeric numeric = par.numeric();
+            List<DRes<SInt>> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+              result.add(numeric.mult(left.get(i), right.get(i)));
+            }
+            return () -> result;
+          }));
+          long object = System.nanoTime() - start;
+          assertLast(last, products);
+          if (conf.getMyId() == 1) {
+            logger.info("{} multiplications: vector protocol {} ms, protocol per product {} ms",
+                size, TimeUnit.NANOSECONDS.toMillis(vector), TimeUnit.NANOSECONDS.toMillis(object));
+          }
+        }
+
+        private void assertLast(BigInteger expected, List<DRes<SInt>> products) {
+          DRes<SInt> last = products.get(products.size() - 1);
+          Assert.assertEquals(expected,
+              runApplication(producer -> producer.numeric().open(last)));
+        }
+
+        private Application<List<DRes<SInt>>, ProtocolBuilderNumeric> known(int size,
+            int factor) {
+          return producer -> {
+            Numeric numeric = producer.numeric();
+            List<DRes<SInt>> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+              values.add(numeric.known(BigInteger.valueOf((long) factor * i)));
+            }
+            return () -> values;
+          };
+        }
+      };
+    }
+  }
+}
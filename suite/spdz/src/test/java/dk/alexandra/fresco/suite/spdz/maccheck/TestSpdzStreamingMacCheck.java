@@ -0,0 +1,107 @@
+package dk.alexandra.fresco.suite.spdz.maccheck;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.lib.math.integer.division.DivisionTests.TestDivision;
+import dk.alexandra.fresco.suite.spdz.AbstractSpdzTest;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStreamingOpenedValueStore;
+import java.math.BigInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs SPDZ with a {@link SpdzStreamingOpenedValueStore} instead of the default store.
+ */
+public class TestSpdzStreamingMacCheck extends AbstractSpdzTest {
+
+  @Override
+  protected OpenedValueStore<SpdzSInt, FieldElement> createOpenedValueStore(
+      FieldDefinition definition) {
+    return new SpdzStreamingOpenedValueStore(definition);
+  }
+
+  @Test
+  public void testDivision() {
+    runTest(new TestDivision<>(), PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
+
+  @Test
+  public void testMultList() {
+    runTest(new BasicArithmeticTests.TestMultList<>(), PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testOutputs() {
+    runTest(new BasicArithmeticTests.TestOutputToSingleParty<>(), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testMultListMascot() {
+    runTest(new BasicArithmeticTests.TestMultList<>(), PreprocessingStrategy.MASCOT, 2);
+  }
+
+  @Test
+  public void testModifyShare() {
+    int noOfParties = 3;
+    for (int cheatingPartyId = 1; cheatingPartyId <= noOfParties; cheatingPartyId++) {
+      runTest(new TestModifyShare<>(cheatingPartyId), PreprocessingStrategy.DUMMY, noOfParties);
+    }
+  }
+
+  private static class TestModifyShare<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final int cheatingPartyId;
+
+    TestModifyShare(int cheatingPartyId) {
+      this.cheatingPartyId = cheatingPartyId;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<BigInteger, ProtocolBuilderNumeric> app = producer -> {
+            Numeric numeric = producer.numeric();
+            DRes<SInt> first = numeric.input(BigInteger.ONE, 1);
+            DRes<SInt> second = numeric.input(BigInteger.TEN, 2);
+            DRes<SInt> product = numeric.mult(first, second);
+            return producer.seq(seq -> {
+              SInt value = product.out();
+              if (seq.getBasicNumericContext().getMyId() == cheatingPartyId) {
+                FieldDefinition definition = seq.getBasicNumericContext().getFieldDefinition();
+                value = ((SpdzSInt) value).multiply(definition.createElement(2));
+              }
+              final SInt finalSInt = value;
+              return seq.numeric().open(() -> finalSInt);
+            });
+          };
+          try {
+            runApplication(app);
+            Assert.fail("Tampering with a share should be detected");
+          } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof MaliciousException)) {
+              cause = cause.getCause();
+            }
+            Assert.assertNotNull("Expected a MaliciousException but got " + e, cause);
+          }
+        }
+      };
+    }
+  }
+}
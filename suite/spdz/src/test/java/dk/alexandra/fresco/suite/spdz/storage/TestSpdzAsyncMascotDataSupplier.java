@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.BackgroundSupplier.Watermarks;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz.AbstractSpdzTest;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs SPDZ with pre-processed material generated by a {@link SpdzAsyncMascotDataSupplier}.
+ */
+public class TestSpdzAsyncMascotDataSupplier extends AbstractSpdzTest {
+
+  @Override
+  protected SpdzDataSupplier createMascotDataSupplier(int myId, int numberOfParties,
+      Supplier<Network> tripleNetwork, int modBitLength, FieldDefinition definition,
+      Function<Integer, SpdzSInt[]> preprocessedValues, Map<Integer, RotList> seedOts,
+      Drbg drbg, FieldElement ssk) {
+    return SpdzAsyncMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
+        tripleNetwork, modBitLength, definition, preprocessedValues, seedOts, drbg, ssk);
+  }
+
+  @Test
+  public void testMultList() {
+    runTest(new BasicArithmeticTests.TestMultList<>(), PreprocessingStrategy.MASCOT, 2);
+  }
+
+  @Test
+  public void testInputFromAll() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), PreprocessingStrategy.MASCOT, 3);
+  }
+
+  @Test
+  public void testRandomBit() {
+    runTest(new BasicArithmeticTests.TestRandomBit<>(), PreprocessingStrategy.MASCOT, 2);
+  }
+
+  @Test
+  public void testMetricsAndClose() {
+    runTest(new TestMetricsAndClose<>(), PreprocessingStrategy.MASCOT, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWatermarks() {
+    new Watermarks(10, 5);
+  }
+
+  private static class TestMetricsAndClose<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          int amount = 40;
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = producer -> {
+            Numeric numeric = producer.numeric();
+            DRes<SInt> value = numeric.known(BigInteger.valueOf(3));
+            List<DRes<BigInteger>> opened = new ArrayList<>(amount);
+            for (int i = 0; i < amount; i++) {
+              opened.add(numeric.open(numeric.mult(value, value)));
+            }
+            return () -> {
+              List<BigInteger> result = new ArrayList<>(amount);
+              for (DRes<BigInteger> product : opened) {
+                result.add(product.out());
+              }
+              return result;
+            };
+          };
+          List<BigInteger> output = runApplication(app);
+          for (BigInteger product : output) {
+            Assert.assertEquals(BigInteger.valueOf(9), product);
+          }
+          SpdzAsyncMascotDataSupplier supplier =
+              (SpdzAsyncMascotDataSupplier) conf.getResourcePool().getDataSupplier();
+          Map<String, Long> metrics = supplier.getLoggedValues();
+          Assert.assertTrue(metrics.get(SpdzAsyncMascotDataSupplier.REFILL_COUNT) >= 3);
+          Assert.assertTrue(metrics.get(SpdzAsyncMascotDataSupplier.STALL_COUNT) >= 1);
+          Assert.assertTrue(
+              metrics.containsKey(SpdzAsyncMascotDataSupplier.QUEUE_DEPTH_PREFIX + "TRIPLES"));
+          supplier.reset();
+          Assert.assertEquals(0L,
+              (long) supplier.getLoggedValues().get(SpdzAsyncMascotDataSupplier.REFILL_COUNT));
+          supplier.close();
+          try {
+            supplier.getNextTriples(10000);
+            Assert.fail("Closed supplier should not generate new material");
+          } catch (IllegalStateException e) {
+            // expected
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark loading triples through {@link SpdzStorageDataSupplier}, which reads Java serialized
+ * triples, and through {@link SpdzMappedDataSupplier}, which reads the binary memory-mapped
+ * format. Ignored by default since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdzDataSupplierBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestSpdzDataSupplierBenchmark.class);
+  private static final int NO_OF_PARTIES = 2;
+  private static final int TRIPLES = 200_000;
+  private static final int GENERATION_BATCH = 10_000;
+  private static final int BULK_SIZE = 1024;
+  private static final String STORAGE_NAME = "SPDZ_1_";
+
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+  private Path directory;
+  private String serializedName;
+
+  @Before
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("spdz-benchmark");
+    serializedName = directory.resolve("serialized_").toString();
+    List<FieldElement> alphaShares = FakeTripGen.generateAlphaShares(NO_OF_PARTIES, definition);
+    FieldElement alpha = definition.createElement(0);
+    for (FieldElement share : alphaShares) {
+      alpha = alpha.add(share);
+    }
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    try (SpdzBinaryDataWriter writer =
+        new SpdzBinaryDataWriter(directory, STORAGE_NAME, definition, alphaShares.get(0))) {
+      for (int written = 0; written < TRIPLES; written += GENERATION_BATCH) {
+        for (SpdzTriple[] triple : FakeTripGen
+            .generateTriples(GENERATION_BATCH, NO_OF_PARTIES, definition, alpha)) {
+          writer.writeTriple(triple[0]);
+          storage.putNext(serializedName + SpdzStorageDataSupplier.TRIPLE_STORAGE, triple[0]);
+        }
+      }
+    }
+    storage.shutdown();
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void testLoadTriples() throws IOException {
+    logger.info("{} triples: serialized file {} bytes, binary file {} bytes", TRIPLES,
+        Files.size(directory.resolve("serialized_" + SpdzStorageDataSupplier.TRIPLE_STORAGE)),
+        Files.size(directory.resolve(STORAGE_NAME + SpdzStorageDataSupplier.TRIPLE_STORAGE)));
+    for (int run = 0; run < 2; run++) {
+      FilebasedStreamedStorageImpl storage =
+          new FilebasedStreamedStorageImpl(new InMemoryStorage());
+      SpdzDataSupplier serialized =
+          new SpdzStorageDataSupplier(storage, serializedName, NO_OF_PARTIES);
+      long start = System.nanoTime();
+      for (int i = 0; i < TRIPLES; i++) {
+        serialized.getNextTriple();
+      }
+      report("SpdzStorageDataSupplier.getNextTriple", System.nanoTime() - start);
+      storage.shutdown();
+
+      SpdzDataSupplier mapped =
+          new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES);
+      start = System.nanoTime();
+      for (int i = 0; i < TRIPLES; i++) {
+        mapped.getNextTriple();
+      }
+      report("SpdzMappedDataSupplier.getNextTriple", System.nanoTime() - start);
+
+      mapped = new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES);
+      start = System.nanoTime();
+      for (int i = 0; i < TRIPLES; i += BULK_SIZE) {
+        mapped.getNextTriples(Math.min(BULK_SIZE, TRIPLES - i));
+      }
+      report("SpdzMappedDataSupplier.getNextTriples", System.nanoTime() - start);
+
+      mapped = new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES,
+          new MontgomeryFieldDefinition(definition.getModulus()));
+      start = System.nanoTime();
+      for (int i = 0; i < TRIPLES; i += BULK_SIZE) {
+        mapped.getNextTriples(Math.min(BULK_SIZE, TRIPLES - i));
+      }
+      report("SpdzMappedDataSupplier.getNextTriples (Montgomery)", System.nanoTime() - start);
+      Assert.assertEquals(definition.getModulus(), mapped.getFieldDefinition().getModulus());
+    }
+  }
+
+  private void report(String name, long nanos) {
+    logger.info("{}: {} triples in {} ms, {} triples/s", name, TRIPLES,
+        TimeUnit.NANOSECONDS.toMillis(nanos), TRIPLES * 1_000_000_000L / nanos);
+  }
+}
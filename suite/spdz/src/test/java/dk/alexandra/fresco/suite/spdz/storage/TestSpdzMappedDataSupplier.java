@@ -0,0 +1,215 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzMappedDataSupplier {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final String STORAGE_NAME = "SPDZ_1_";
+
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+  private Path directory;
+  private FieldElement ssk;
+  private List<SpdzTriple[]> triples;
+  private List<List<SpdzInputMask[]>> inputMasks;
+  private List<SpdzSInt[]> bits;
+  private List<SpdzSInt[][]> expPipes;
+
+  @Before
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("spdz-mapped");
+    FieldElement alpha = definition.createElement(0);
+    List<FieldElement> alphaShares = FakeTripGen.generateAlphaShares(NO_OF_PARTIES, definition);
+    for (FieldElement share : alphaShares) {
+      alpha = alpha.add(share);
+    }
+    ssk = alphaShares.get(0);
+    triples = FakeTripGen.generateTriples(25, NO_OF_PARTIES, definition, alpha);
+    inputMasks = FakeTripGen.generateInputMasks(5, NO_OF_PARTIES, definition, alpha);
+    bits = FakeTripGen.generateBits(5, NO_OF_PARTIES, definition, alpha);
+    expPipes = FakeTripGen.generateExpPipes(2, NO_OF_PARTIES, definition, alpha);
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  private void writeAll() {
+    try (SpdzBinaryDataWriter writer =
+        new SpdzBinaryDataWriter(directory, STORAGE_NAME, definition, ssk)) {
+      for (SpdzTriple[] triple : triples) {
+        writer.writeTriple(triple[0]);
+      }
+      for (int towardPlayerId = 1; towardPlayerId <= NO_OF_PARTIES; towardPlayerId++) {
+        for (SpdzInputMask[] mask : inputMasks.get(towardPlayerId - 1)) {
+          writer.writeInputMask(towardPlayerId, mask[0]);
+        }
+      }
+      for (SpdzSInt[] bit : bits) {
+        writer.writeBit(bit[0]);
+      }
+      for (SpdzSInt[][] expPipe : expPipes) {
+        writer.writeExpPipe(expPipe[0]);
+      }
+    }
+  }
+
+  private void assertEquals(FieldElement expected, FieldElement actual) {
+    Assert.assertEquals(definition.convertToUnsigned(expected),
+        definition.convertToUnsigned(actual));
+  }
+
+  private void assertEquals(SpdzSInt expected, SpdzSInt actual) {
+    assertEquals(expected.getShare(), actual.getShare());
+    assertEquals(expected.getMac(), actual.getMac());
+  }
+
+  private void assertEquals(SpdzTriple expected, SpdzTriple actual) {
+    assertEquals(expected.getA(), actual.getA());
+    assertEquals(expected.getB(), actual.getB());
+    assertEquals(expected.getC(), actual.getC());
+  }
+
+  private void assertReadsAll(SpdzDataSupplier supplier) {
+    assertEquals(ssk, supplier.getSecretSharedKey());
+    Assert.assertEquals(definition.getModulus(), supplier.getFieldDefinition().getModulus());
+    List<SpdzTriple> firstTriples = supplier.getNextTriples(10);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(triples.get(i)[0], firstTriples.get(i));
+    }
+    for (int i = 10; i < triples.size(); i++) {
+      assertEquals(triples.get(i)[0], supplier.getNextTriple());
+    }
+    for (int towardPlayerId = 1; towardPlayerId <= NO_OF_PARTIES; towardPlayerId++) {
+      for (SpdzInputMask[] expected : inputMasks.get(towardPlayerId - 1)) {
+        SpdzInputMask actual = supplier.getNextInputMask(towardPlayerId);
+        assertEquals(expected[0].getMask(), actual.getMask());
+        if (expected[0].getRealValue() == null) {
+          Assert.assertNull(actual.getRealValue());
+        } else {
+          assertEquals(expected[0].getRealValue(), actual.getRealValue());
+        }
+      }
+    }
+    for (SpdzSInt[] bit : bits) {
+      assertEquals(bit[0], supplier.getNextBit());
+    }
+    for (SpdzSInt[][] expPipe : expPipes) {
+      SpdzSInt[] actual = supplier.getNextExpPipe();
+      Assert.assertEquals(expPipe[0].length, actual.length);
+      for (int i = 0; i < actual.length; i++) {
+        assertEquals(expPipe[0][i], actual[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testWriteAndRead() {
+    writeAll();
+    assertReadsAll(new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES));
+  }
+
+  @Test
+  public void testReadInSmallChunks() {
+    writeAll();
+    // chunks of two triples, so bulk reads span several chunks
+    assertReadsAll(new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES, null,
+        200));
+  }
+
+  @Test
+  public void testReadWithMontgomeryField() {
+    writeAll();
+    MontgomeryFieldDefinition montgomery = new MontgomeryFieldDefinition(definition.getModulus());
+    SpdzMappedDataSupplier supplier =
+        new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES, montgomery);
+    SpdzTriple triple = supplier.getNextTriple();
+    Assert.assertEquals(definition.convertToUnsigned(triples.get(0)[0].getC().getMac()),
+        montgomery.convertToUnsigned(triple.getC().getMac()));
+  }
+
+  @Test
+  public void testConvertFromSerializedStorage() {
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    String storageName = directory.resolve("serialized_").toString();
+    storage.putNext(storageName + SpdzStorageDataSupplier.MODULUS_KEY, definition.getModulus());
+    storage.putNext(storageName + SpdzStorageDataSupplier.SSK_KEY, ssk);
+    for (SpdzTriple[] triple : triples) {
+      storage.putNext(storageName + SpdzStorageDataSupplier.TRIPLE_STORAGE, triple[0]);
+    }
+    for (int towardPlayerId = 1; towardPlayerId <= NO_OF_PARTIES; towardPlayerId++) {
+      for (SpdzInputMask[] mask : inputMasks.get(towardPlayerId - 1)) {
+        storage.putNext(storageName + SpdzStorageDataSupplier.INPUT_STORAGE + towardPlayerId,
+            mask[0]);
+      }
+    }
+    for (SpdzSInt[] bit : bits) {
+      storage.putNext(storageName + SpdzStorageDataSupplier.BIT_STORAGE, bit[0]);
+    }
+    for (SpdzSInt[][] expPipe : expPipes) {
+      storage.putNext(storageName + SpdzStorageDataSupplier.EXP_PIPE_STORAGE, expPipe[0]);
+    }
+    storage.shutdown();
+    SpdzBinaryDataWriter.convert(new FilebasedStreamedStorageImpl(new InMemoryStorage()),
+        storageName, NO_OF_PARTIES, directory, STORAGE_NAME);
+    assertReadsAll(new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTriplesExhausted() {
+    writeAll();
+    new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES)
+        .getNextTriples(triples.size() + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingGlobal() {
+    new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingBits() {
+    new SpdzBinaryDataWriter(directory, STORAGE_NAME, definition, ssk).close();
+    new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES).getNextBit();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongModulus() {
+    writeAll();
+    new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES,
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotBinaryFile() throws IOException {
+    writeAll();
+    Files.write(directory.resolve(STORAGE_NAME + SpdzStorageDataSupplier.TRIPLE_STORAGE),
+        new byte[]{1, 2, 3});
+    new SpdzMappedDataSupplier(directory, STORAGE_NAME, NO_OF_PARTIES).getNextTriple();
+  }
+}
@@ -0,0 +1,156 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.AbstractSpdzTest;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of an online phase of sequential multiplication rounds using triples from {@link
+ * SpdzMascotDataSupplier}, which generates them synchronously when it runs dry, and from {@link
+ * SpdzAsyncMascotDataSupplier}, which generates them on a background thread. Ignored by default
+ * since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdzMascotSupplierBenchmark extends AbstractSpdzTest {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(TestSpdzMascotSupplierBenchmark.class);
+  private static final int ROUNDS = 32;
+  private static final int MULTIPLICATIONS_PER_ROUND = 16;
+  private static final long PREFILL_TRIPLES = 256;
+
+  private boolean asynchronous;
+
+  @Override
+  protected SpdzDataSupplier createMascotDataSupplier(int myId, int numberOfParties,
+      Supplier<Network> tripleNetwork, int modBitLength, FieldDefinition definition,
+      Function<Integer, SpdzSInt[]> preprocessedValues, Map<Integer, RotList> seedOts,
+      Drbg drbg, FieldElement ssk) {
+    if (asynchronous) {
+      return SpdzAsyncMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
+          tripleNetwork, modBitLength, definition, preprocessedValues, seedOts, drbg, ssk);
+    }
+    return super.createMascotDataSupplier(myId, numberOfParties, tripleNetwork, modBitLength,
+        definition, preprocessedValues, seedOts, drbg, ssk);
+  }
+
+  @Test
+  public void testSequentialRounds() {
+    asynchronous = false;
+    runTest(new SequentialRounds(), PreprocessingStrategy.MASCOT, 2);
+    asynchronous = true;
+    runTest(new SequentialRounds(), PreprocessingStrategy.MASCOT, 2);
+  }
+
+  private class SequentialRounds
+      extends TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<SpdzResourcePool, ProtocolBuilderNumeric> next() {
+      return new TestThread<SpdzResourcePool, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() throws Exception {
+          // warms up the online phase and, for the synchronous supplier, Mascot itself
+          runRounds(2);
+          measure("first use");
+          SpdzDataSupplier supplier = conf.getResourcePool().getDataSupplier();
+          if (supplier instanceof SpdzAsyncMascotDataSupplier) {
+            SpdzAsyncMascotDataSupplier async = (SpdzAsyncMascotDataSupplier) supplier;
+            String depth = SpdzAsyncMascotDataSupplier.QUEUE_DEPTH_PREFIX + "TRIPLES";
+            long start = System.nanoTime();
+            while (async.getLoggedValues().get(depth) < PREFILL_TRIPLES) {
+              Thread.sleep(10);
+            }
+            if (conf.getMyId() == 1) {
+              logger.info("Waited {} ms for {} triples in the background",
+                  TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), PREFILL_TRIPLES);
+            }
+            async.reset();
+            measure("prefilled queue");
+          }
+        }
+
+        private void measure(String description) {
+          long start = System.nanoTime();
+          runRounds(ROUNDS);
+          long time = System.nanoTime() - start;
+          if (conf.getMyId() == 1) {
+            SpdzDataSupplier supplier = conf.getResourcePool().getDataSupplier();
+            logger.info("{}, {}: {} rounds of {} multiplications in {} ms{}",
+                supplier.getClass().getSimpleName(), description, ROUNDS,
+                MULTIPLICATIONS_PER_ROUND, TimeUnit.NANOSECONDS.toMillis(time),
+                supplier instanceof SpdzAsyncMascotDataSupplier
+                    ? ", " + ((SpdzAsyncMascotDataSupplier) supplier).getLoggedValues() : "");
+          }
+        }
+
+        private void runRounds(int rounds) {
+          List<BigInteger> output = runApplication(producer -> producer.seq(seq -> {
+            Numeric numeric = seq.numeric();
+            List<DRes<SInt>> values = new ArrayList<>(MULTIPLICATIONS_PER_ROUND);
+            for (int i = 0; i < MULTIPLICATIONS_PER_ROUND; i++) {
+              values.add(numeric.known(BigInteger.ONE));
+            }
+            return () -> values;
+          }).seq((seq, values) -> {
+            DRes<List<DRes<SInt>>> current = () -> values;
+            for (int round = 0; round < rounds; round++) {
+              DRes<List<DRes<SInt>>> previous = current;
+              current = seq.par(par -> {
+                Numeric numeric = par.numeric();
+                List<DRes<SInt>> products = new ArrayList<>(MULTIPLICATIONS_PER_ROUND);
+                for (DRes<SInt> value : previous.out()) {
+                  products.add(numeric.mult(value, numeric.known(BigInteger.valueOf(2))));
+                }
+                return () -> products;
+              });
+            }
+            DRes<List<DRes<SInt>>> result = current;
+            return seq.par(par -> {
+              Numeric numeric = par.numeric();
+              List<DRes<BigInteger>> opened = new ArrayList<>(MULTIPLICATIONS_PER_ROUND);
+              for (DRes<SInt> value : result.out()) {
+                opened.add(numeric.open(value));
+              }
+              return () -> opened;
+            });
+          }).seq((seq, opened) -> {
+            List<BigInteger> values = new ArrayList<>(opened.size());
+            for (DRes<BigInteger> value : opened) {
+              values.add(value.out());
+            }
+            return () -> values;
+          }));
+          for (BigInteger value : output) {
+            Assert.assertEquals(BigInteger.ONE.shiftLeft(rounds), value);
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdzStreamingOpenedValueStore {
+
+  private static final BigInteger MODULUS = ModulusFinder.findSuitableModulus(128);
+  private static final byte[] SEED = {4, 2};
+
+  private final Random random = new Random(1);
+
+  private FieldElement randomElement(FieldDefinition definition) {
+    return definition.createElement(new BigInteger(MODULUS.bitLength(), random).mod(MODULUS));
+  }
+
+  /**
+   * Pushes values authenticated under the given key, with a single party holding all shares.
+   */
+  private void pushValues(SpdzStreamingOpenedValueStore store, FieldDefinition definition,
+      FieldElement alpha, int count) {
+    List<SpdzSInt> shares = new ArrayList<>();
+    List<FieldElement> opened = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      FieldElement value = randomElement(definition);
+      SpdzSInt share = new SpdzSInt(value, value.multiply(alpha));
+      if (i % 3 == 0) {
+        store.pushOpenedValue(share, value);
+      } else {
+        shares.add(share);
+        opened.add(value);
+      }
+    }
+    store.pushOpenedValues(shares, opened);
+  }
+
+  private void testAccumulatesValidMacs(FieldDefinition definition) {
+    SpdzStreamingOpenedValueStore store = new SpdzStreamingOpenedValueStore(definition, SEED);
+    FieldElement alpha = randomElement(definition);
+    pushValues(store, definition, alpha, 3000);
+    Assert.assertTrue(store.hasPendingValues());
+    Assert.assertTrue(store.exceedsThreshold(2999));
+    Assert.assertFalse(store.exceedsThreshold(3000));
+    Pair<List<SpdzSInt>, List<FieldElement>> popped = store.popValues();
+    Assert.assertFalse(store.hasPendingValues());
+    Assert.assertEquals(1, popped.getFirst().size());
+    Assert.assertEquals(1, popped.getSecond().size());
+    SpdzSInt combined = popped.getFirst().get(0);
+    FieldElement opened = popped.getSecond().get(0);
+    Assert.assertEquals(definition.convertToUnsigned(opened),
+        definition.convertToUnsigned(combined.getShare()));
+    Assert.assertEquals(definition.convertToUnsigned(opened.multiply(alpha)),
+        definition.convertToUnsigned(combined.getMac()));
+  }
+
+  @Test
+  public void testAccumulatesValidMacs() {
+    testAccumulatesValidMacs(new BigIntegerFieldDefinition(MODULUS));
+  }
+
+  @Test
+  public void testAccumulatesValidMacsMontgomery() {
+    testAccumulatesValidMacs(new MontgomeryFieldDefinition(MODULUS));
+  }
+
+  @Test
+  public void testDetectsTamperedValue() {
+    FieldDefinition definition = new BigIntegerFieldDefinition(MODULUS);
+    SpdzStreamingOpenedValueStore store = new SpdzStreamingOpenedValueStore(definition, SEED);
+    FieldElement alpha = randomElement(definition);
+    pushValues(store, definition, alpha, 100);
+    FieldElement value = randomElement(definition);
+    store.pushOpenedValue(new SpdzSInt(value, value.multiply(alpha)),
+        value.add(definition.createElement(1)));
+    pushValues(store, definition, alpha, 100);
+    Pair<List<SpdzSInt>, List<FieldElement>> popped = store.popValues();
+    FieldElement opened = popped.getSecond().get(0);
+    Assert.assertNotEquals(definition.convertToUnsigned(opened.multiply(alpha)),
+        definition.convertToUnsigned(popped.getFirst().get(0).getMac()));
+  }
+
+  @Test
+  public void testReseedChangesCoefficients() {
+    FieldDefinition definition = new BigIntegerFieldDefinition(MODULUS);
+    SpdzStreamingOpenedValueStore first = new SpdzStreamingOpenedValueStore(definition, SEED);
+    SpdzStreamingOpenedValueStore second = new SpdzStreamingOpenedValueStore(definition, SEED);
+    second.reseed(new byte[]{1});
+    FieldElement value = randomElement(definition);
+    SpdzSInt share = new SpdzSInt(value, value);
+    first.pushOpenedValue(share, value);
+    second.pushOpenedValue(share, value);
+    Assert.assertNotEquals(definition.convertToUnsigned(first.popValues().getSecond().get(0)),
+        definition.convertToUnsigned(second.popValues().getSecond().get(0)));
+  }
+
+  @Test
+  public void testPopEmpty() {
+    SpdzStreamingOpenedValueStore store =
+        new SpdzStreamingOpenedValueStore(new BigIntegerFieldDefinition(MODULUS));
+    Assert.assertFalse(store.hasPendingValues());
+    Pair<List<SpdzSInt>, List<FieldElement>> popped = store.popValues();
+    Assert.assertTrue(popped.getFirst().isEmpty());
+    Assert.assertTrue(popped.getSecond().isEmpty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNotSeeded() {
+    FieldDefinition definition = new BigIntegerFieldDefinition(MODULUS);
+    SpdzStreamingOpenedValueStore store = new SpdzStreamingOpenedValueStore(definition);
+    Assert.assertFalse(store.isSeeded());
+    FieldElement value = randomElement(definition);
+    store.pushOpenedValue(new SpdzSInt(value, value), value);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSizeMismatch() {
+    FieldDefinition definition = new BigIntegerFieldDefinition(MODULUS);
+    SpdzStreamingOpenedValueStore store = new SpdzStreamingOpenedValueStore(definition, SEED);
+    List<FieldElement> opened = new ArrayList<>();
+    opened.add(definition.createElement(1));
+    store.pushOpenedValues(new ArrayList<>(), opened);
+  }
+}
@@ -2,9 +2,13 @@ package dk.alexandra.fresco.suite.spdz2k;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.Collections;
+import dk.alexandra.fresco.framework.builder.numeric.DefaultCollections;
+import dk.alexandra.fresco.framework.builder.numeric.LinearCombination;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.collections.io.OpenList;
 import dk.alexandra.fresco.lib.compare.MiscBigIntegerGenerators;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.lib.real.RealNumericContext;
@@ -12,6 +16,7 @@ import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kInputComputation;
+import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kInputVectorComputation;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kAddKnownProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyProtocol;
@@ -21,6 +26,8 @@ import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kRandomBitProtoco
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kRandomElementProtocol;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kSubtractFromKnownProtocol;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -49,7 +56,8 @@ public class Spdz2kBuilder<PlainT extends CompUInt<?, ?, PlainT>> implements
     return new Numeric() {
       @Override
       public DRes<SInt> add(DRes<SInt> a, DRes<SInt> b) {
-        return () -> toSpdz2kSInt(a).add(toSpdz2kSInt(b));
+        return LinearCombination.of(a, b,
+            (left, right) -> toSpdz2kSInt(left).add(toSpdz2kSInt(right)));
       }
 
       @Override
@@ -59,7 +67,8 @@ public class Spdz2kBuilder<PlainT extends CompUInt<?, ?, PlainT>> implements
 
       @Override
       public DRes<SInt> sub(DRes<SInt> a, DRes<SInt> b) {
-        return () -> (toSpdz2kSInt(a)).subtract(toSpdz2kSInt(b));
+        return LinearCombination.of(a, b,
+            (left, right) -> toSpdz2kSInt(left).subtract(toSpdz2kSInt(right)));
       }
 
       @Override
@@ -79,9 +88,15 @@ public class Spdz2kBuilder<PlainT extends CompUInt<?, ?, PlainT>> implements
         return builder.append(new Spdz2kMultiplyProtocol<>(a, b));
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> mult(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        return multVector(builder, a, b);
+      }
+
       @Override
       public DRes<SInt> mult(BigInteger a, DRes<SInt> b) {
-        return () -> toSpdz2kSInt(b).multiply(factory.createElement(a));
+        PlainT constant = factory.createElement(a);
+        return LinearCombination.of(b, value -> toSpdz2kSInt(value).multiply(constant));
       }
 
       @Override
@@ -118,6 +133,77 @@ public class Spdz2kBuilder<PlainT extends CompUInt<?, ?, PlainT>> implements
     };
   }
 
+  @Override
+  public Collections createCollections(ProtocolBuilderNumeric builder) {
+    return new DefaultCollections(builder) {
+      @Override
+      public DRes<List<DRes<SInt>>> closeList(List<BigInteger> openList, int inputParty) {
+        List<PlainT> inputs = new ArrayList<>(openList.size());
+        for (BigInteger value : openList) {
+          inputs.add(factory.createElement(value));
+        }
+        return inputVector(builder, inputs, inputParty);
+      }
+
+      @Override
+      public DRes<List<DRes<SInt>>> closeList(int numberOfInputs, int inputParty) {
+        List<PlainT> inputs = new ArrayList<>(numberOfInputs);
+        for (int i = 0; i < numberOfInputs; i++) {
+          inputs.add(null);
+        }
+        return inputVector(builder, inputs, inputParty);
+      }
+
+      @Override
+      public <T extends DRes<SInt>> DRes<List<DRes<BigInteger>>> openList(
+          DRes<List<T>> closedList) {
+        return openVector(builder, closedList);
+      }
+    };
+  }
+
+  /**
+   * Inputs a list of values from a single party, see {@link Collections#closeList(List, int)}.
+   * <p>This implementation appends a {@link Spdz2kInputVectorComputation}, which validates the
+   * broadcast of all the masked inputs at once. Subclasses for a concrete {@link PlainT} may
+   * override this to input all values in a single native protocol.</p>
+   *
+   * @param inputs the values to input, only used by the input party
+   */
+  protected DRes<List<DRes<SInt>>> inputVector(ProtocolBuilderNumeric builder,
+      List<PlainT> inputs, int inputParty) {
+    return builder.seq(new Spdz2kInputVectorComputation<>(inputs, inputParty));
+  }
+
+  /**
+   * Opens a list of secret values to all parties, see {@link Collections#openList(DRes)}.
+   * <p>This implementation opens each value separately. Subclasses for a concrete {@link PlainT}
+   * may override this to open all values in a single native protocol.</p>
+   */
+  protected <T extends DRes<SInt>> DRes<List<DRes<BigInteger>>> openVector(
+      ProtocolBuilderNumeric builder, DRes<List<T>> closedList) {
+    return builder.par(new OpenList<>(closedList));
+  }
+
+  /**
+   * Multiplies two lists of secret values pairwise, see {@link Numeric#mult(List, List)}. <p>This
+   * implementation appends a {@link Spdz2kMultiplyProtocol} for each pair. Subclasses for a
+   * concrete {@link PlainT} may override this to multiply all pairs in a single native
+   * protocol.</p>
+   */
+  protected DRes<List<DRes<SInt>>> multVector(ProtocolBuilderNumeric builder,
+      List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    if (a.size() != b.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + a.size() + " and " + b.size());
+    }
+    List<DRes<SInt>> products = new ArrayList<>(a.size());
+    for (int i = 0; i < a.size(); i++) {
+      products.add(builder.append(new Spdz2kMultiplyProtocol<>(a.get(i), b.get(i))));
+    }
+    return () -> products;
+  }
+
   @Override
   public MiscBigIntegerGenerators getBigIntegerHelper() {
     throw new UnsupportedOperationException();
@@ -0,0 +1,47 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kInputVectorComputation128;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyVectorProtocol128;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kOutputToAllVectorProtocol128;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Native builder for the SPDZ2k protocol suite using {@link CompUInt128} as the underlying
+ * plain-value type. <p>In addition to the operations of {@link Spdz2kBuilder}, list
+ * multiplication, and closing and opening of lists are each done by a single native protocol
+ * holding the shares in columns of primitive longs.</p>
+ */
+public class Spdz2kBuilderK64 extends Spdz2kBuilder<CompUInt128> {
+
+  public Spdz2kBuilderK64(CompUIntFactory<CompUInt128> factory,
+      BasicNumericContext numericContext) {
+    super(factory, numericContext);
+  }
+
+  @Override
+  protected DRes<List<DRes<SInt>>> multVector(ProtocolBuilderNumeric builder,
+      List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    return builder.append(new Spdz2kMultiplyVectorProtocol128(a, b));
+  }
+
+  @Override
+  protected DRes<List<DRes<SInt>>> inputVector(ProtocolBuilderNumeric builder,
+      List<CompUInt128> inputs, int inputParty) {
+    return builder.seq(new Spdz2kInputVectorComputation128(inputs, inputParty));
+  }
+
+  @Override
+  protected <T extends DRes<SInt>> DRes<List<DRes<BigInteger>>> openVector(
+      ProtocolBuilderNumeric builder, DRes<List<T>> closedList) {
+    return builder.seq(seq -> seq.append(
+        new Spdz2kOutputToAllVectorProtocol128(closedList.out())));
+  }
+
+}
@@ -1,11 +1,15 @@
 package dk.alexandra.fresco.suite.spdz2k;
 
+import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter128;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt64;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
 
 /**
- * Protocol suite using {@link CompUInt128} as the underlying plain-value type.
+ * Protocol suite using {@link CompUInt128} as the underlying plain-value type. <p>Uses {@link
+ * Spdz2kBuilderK64}, which evaluates list operations on shares stored in primitive long
+ * arrays.</p>
  */
 public class Spdz2kProtocolSuiteK64 extends Spdz2kProtocolSuite<UInt64, UInt64, CompUInt128> {
 
@@ -13,4 +17,10 @@ public class Spdz2kProtocolSuiteK64 extends Spdz2kProtocolSuite<UInt64, UInt64,
     super(new CompUIntConverter128());
   }
 
+  @Override
+  public BuilderFactoryNumeric init(Spdz2kResourcePool<CompUInt128> resourcePool) {
+    return new Spdz2kBuilderK64(resourcePool.getFactory(),
+        createBasicNumericContext(resourcePool));
+  }
+
 }
@@ -57,6 +57,10 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
     this.low = low;
   }
 
+  CompUInt128(long high, long low) {
+    this(high, (int) (low >>> 32), (int) low);
+  }
+
   CompUInt128(UInt64 value) {
     this(value.toLong());
   }
@@ -163,6 +167,13 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
     return (UInt.toUnLong(this.mid) << 32) + UInt.toUnLong(this.low);
   }
 
+  /**
+   * Returns the 64 most significant bits as a long, see {@link #getMostSignificant()}.
+   */
+  long toLongHigh() {
+    return high;
+  }
+
   @Override
   public int toInt() {
     return low;
@@ -0,0 +1,283 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A fixed size vector of {@link CompUInt128} elements stored as pairs of primitive longs.
+ *
+ * <p>The most and least significant 64 bits of all entries are stored in a single array, and the
+ * bulk operations below work directly on that array. A vector is also a list, so it can be passed
+ * anywhere a list of {@link CompUInt128} is expected, in which case an element object is only
+ * created when it is read with {@link #get(int)}.</p>
+ */
+public final class CompUInt128Vector extends AbstractList<CompUInt128> implements RandomAccess {
+
+  private static final int BYTES_PER_LONG = Long.BYTES;
+  private final int size;
+  // the most significant bits of entry i are at 2 * i, the least significant at 2 * i + 1
+  private final long[] values;
+
+  /**
+   * Creates a new vector of the given size with all entries zero.
+   */
+  public CompUInt128Vector(int size) {
+    this.size = size;
+    this.values = new long[2 * size];
+  }
+
+  /**
+   * Creates a new vector holding the given elements.
+   */
+  public static CompUInt128Vector create(List<CompUInt128> elements) {
+    CompUInt128Vector vector = new CompUInt128Vector(elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      vector.set(i, elements.get(i));
+    }
+    return vector;
+  }
+
+  /**
+   * Reads a vector serialized with {@link #serialize()}.
+   */
+  public static CompUInt128Vector deserialize(byte[] bytes) {
+    if (bytes.length % (2 * BYTES_PER_LONG) != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    CompUInt128Vector vector = new CompUInt128Vector(bytes.length / (2 * BYTES_PER_LONG));
+    for (int i = 0; i < vector.values.length; i++) {
+      vector.values[i] = readLong(bytes, i * BYTES_PER_LONG);
+    }
+    return vector;
+  }
+
+  /**
+   * Sums vectors of least significant bits serialized with {@link #serializeLeastSignificant()}.
+   *
+   * <p>The least significant bits are added as 128-bit integers, so the result is the same as
+   * summing the elements deserialized from each 8 byte value, i.e., a carry from the least
+   * significant bits is kept in the most significant bits.</p>
+   *
+   * @param serialized the serialized vectors, which must all have the same length
+   * @return the entry-wise sum
+   */
+  public static CompUInt128Vector sumLeastSignificant(List<byte[]> serialized) {
+    int length = serialized.get(0).length;
+    if (length % BYTES_PER_LONG != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    CompUInt128Vector sum = new CompUInt128Vector(length / BYTES_PER_LONG);
+    for (byte[] bytes : serialized) {
+      if (bytes.length != length) {
+        throw new IllegalArgumentException(
+            "Vectors must have same length, was " + length + " and " + bytes.length);
+      }
+      for (int i = 0; i < sum.size; i++) {
+        long value = readLong(bytes, i * BYTES_PER_LONG);
+        long low = sum.values[2 * i + 1] + value;
+        if (Long.compareUnsigned(low, value) < 0) {
+          sum.values[2 * i]++;
+        }
+        sum.values[2 * i + 1] = low;
+      }
+    }
+    return sum;
+  }
+
+  @Override
+  public CompUInt128 get(int index) {
+    checkIndex(index);
+    return new CompUInt128(values[2 * index], values[2 * index + 1]);
+  }
+
+  @Override
+  public CompUInt128 set(int index, CompUInt128 element) {
+    CompUInt128 previous = get(index);
+    values[2 * index] = element.toLongHigh();
+    values[2 * index + 1] = element.toLong();
+    return previous;
+  }
+
+  /**
+   * Returns the 64 least significant bits of the entry at the given index.
+   */
+  public long getLeastSignificantAsLong(int index) {
+    checkIndex(index);
+    return values[2 * index + 1];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Computes the entry-wise sum of this vector and another vector of the same size.
+   *
+   * @param other operand
+   * @return a new vector <code>this + other</code>
+   */
+  public CompUInt128Vector add(CompUInt128Vector other) {
+    checkSize(other);
+    CompUInt128Vector result = new CompUInt128Vector(size);
+    for (int offset = 0; offset < values.length; offset += 2) {
+      add(values, offset, other.values[offset], other.values[offset + 1], result.values);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the entry-wise difference of this vector and another vector of the same size.
+   *
+   * @param other operand
+   * @return a new vector <code>this - other</code>
+   */
+  public CompUInt128Vector subtract(CompUInt128Vector other) {
+    checkSize(other);
+    CompUInt128Vector result = new CompUInt128Vector(size);
+    for (int offset = 0; offset < values.length; offset += 2) {
+      // add the two's complement of the other entry
+      long low = -other.values[offset + 1];
+      long high = ~other.values[offset] + (low == 0 ? 1 : 0);
+      add(values, offset, high, low, result.values);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the entry-wise product of this vector and another vector of the same size.
+   *
+   * @param other operand
+   * @return a new vector with entries <code>this[i] * other[i]</code>
+   */
+  public CompUInt128Vector multiply(CompUInt128Vector other) {
+    checkSize(other);
+    CompUInt128Vector result = new CompUInt128Vector(size);
+    for (int offset = 0; offset < values.length; offset += 2) {
+      multiply(values, offset, other.values[offset], other.values[offset + 1], result.values);
+    }
+    return result;
+  }
+
+  /**
+   * Multiplies each entry of this vector by a scalar.
+   *
+   * @param scalar the scalar
+   * @return a new vector <code>scalar * this</code>
+   */
+  public CompUInt128Vector scale(CompUInt128 scalar) {
+    long high = scalar.toLongHigh();
+    long low = scalar.toLong();
+    CompUInt128Vector result = new CompUInt128Vector(size);
+    for (int offset = 0; offset < values.length; offset += 2) {
+      multiply(values, offset, high, low, result.values);
+    }
+    return result;
+  }
+
+  /**
+   * Adds another vector of the same size to this vector in place.
+   *
+   * @param other operand
+   */
+  public void accumulate(CompUInt128Vector other) {
+    checkSize(other);
+    for (int offset = 0; offset < values.length; offset += 2) {
+      add(values, offset, other.values[offset], other.values[offset + 1], values);
+    }
+  }
+
+  /**
+   * Serializes all entries in the format of {@link CompUInt128#toByteArray()}.
+   *
+   * @return the serialized entries, 16 bytes per entry
+   */
+  public byte[] serialize() {
+    byte[] bytes = new byte[values.length * BYTES_PER_LONG];
+    for (int i = 0; i < values.length; i++) {
+      writeLong(values[i], bytes, i * BYTES_PER_LONG);
+    }
+    return bytes;
+  }
+
+  /**
+   * Serializes the 64 least significant bits of all entries in the format of
+   * {@link UInt64#toByteArray()}.
+   *
+   * @return the serialized least significant bits, 8 bytes per entry
+   */
+  public byte[] serializeLeastSignificant() {
+    byte[] bytes = new byte[size * BYTES_PER_LONG];
+    for (int i = 0; i < size; i++) {
+      writeLong(values[2 * i + 1], bytes, i * BYTES_PER_LONG);
+    }
+    return bytes;
+  }
+
+  /**
+   * Adds the entry at the given offset to the given 128-bit value and stores the result at the same
+   * offset in the result array.
+   */
+  private static void add(long[] values, int offset, long high, long low, long[] result) {
+    long sumLow = values[offset + 1] + low;
+    long carry = Long.compareUnsigned(sumLow, low) < 0 ? 1 : 0;
+    result[offset] = values[offset] + high + carry;
+    result[offset + 1] = sumLow;
+  }
+
+  /**
+   * Multiplies the entry at the given offset by the given 128-bit value and stores the result at
+   * the same offset in the result array.
+   */
+  private static void multiply(long[] values, int offset, long high, long low, long[] result) {
+    long thisHigh = values[offset];
+    long thisLow = values[offset + 1];
+    // the product of the two high parts overflows 2^128
+    result[offset] = multiplyHighUnsigned(thisLow, low) + thisHigh * low + thisLow * high;
+    result[offset + 1] = thisLow * low;
+  }
+
+  /**
+   * Returns the 64 most significant bits of the unsigned 128-bit product of two longs.
+   */
+  static long multiplyHighUnsigned(long x, long y) {
+    long x0 = x & 0xffffffffL;
+    long x1 = x >>> 32;
+    long y0 = y & 0xffffffffL;
+    long y1 = y >>> 32;
+    long t = x1 * y0 + ((x0 * y0) >>> 32);
+    long w1 = (t & 0xffffffffL) + x0 * y1;
+    return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+  }
+
+  private static long readLong(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = 0; i < BYTES_PER_LONG; i++) {
+      value = (value << 8) | (bytes[offset + i] & 0xFFL);
+    }
+    return value;
+  }
+
+  private static void writeLong(long value, byte[] bytes, int offset) {
+    for (int i = BYTES_PER_LONG - 1; i >= 0; i--) {
+      bytes[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private void checkSize(CompUInt128Vector other) {
+    if (other.size != size) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + size + " and " + other.size);
+    }
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+  }
+}
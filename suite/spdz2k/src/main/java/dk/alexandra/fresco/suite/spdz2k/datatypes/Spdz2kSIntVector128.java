@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A fixed size vector of authenticated, secret-shared {@link CompUInt128} elements.
+ *
+ * <p>The shares and the mac shares are stored in two {@link CompUInt128Vector} columns, so bulk
+ * arithmetic works on primitive longs and the vector only takes 32 bytes per entry. A vector is
+ * also a list of {@link Spdz2kSInt}, where an element object is only created when it is read with
+ * {@link #get(int)}.</p>
+ */
+public final class Spdz2kSIntVector128 extends AbstractList<Spdz2kSInt<CompUInt128>>
+    implements RandomAccess {
+
+  private final CompUInt128Vector shares;
+  private final CompUInt128Vector macShares;
+
+  /**
+   * Creates a new vector from the given shares and mac shares, which must have the same size.
+   */
+  public Spdz2kSIntVector128(CompUInt128Vector shares, CompUInt128Vector macShares) {
+    if (shares.size() != macShares.size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + shares.size() + " and " + macShares.size());
+    }
+    this.shares = shares;
+    this.macShares = macShares;
+  }
+
+  /**
+   * Creates a new vector of the given size with all entries zero.
+   */
+  public Spdz2kSIntVector128(int size) {
+    this(new CompUInt128Vector(size), new CompUInt128Vector(size));
+  }
+
+  /**
+   * Creates a new vector holding the results of the given deferred values, which must all be
+   * {@link Spdz2kSInt} instances over {@link CompUInt128}.
+   */
+  @SuppressWarnings("unchecked")
+  public static Spdz2kSIntVector128 create(List<? extends DRes<SInt>> elements) {
+    Spdz2kSIntVector128 vector = new Spdz2kSIntVector128(elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      vector.set(i,
+          Objects.requireNonNull((Spdz2kSInt<CompUInt128>) elements.get(i).out()));
+    }
+    return vector;
+  }
+
+  @Override
+  public Spdz2kSInt<CompUInt128> get(int index) {
+    return new Spdz2kSInt<>(shares.get(index), macShares.get(index));
+  }
+
+  @Override
+  public Spdz2kSInt<CompUInt128> set(int index, Spdz2kSInt<CompUInt128> element) {
+    Spdz2kSInt<CompUInt128> previous = get(index);
+    shares.set(index, element.getShare());
+    macShares.set(index, element.getMacShare());
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return shares.size();
+  }
+
+  /**
+   * Return shares.
+   */
+  public CompUInt128Vector getShares() {
+    return shares;
+  }
+
+  /**
+   * Return mac shares.
+   */
+  public CompUInt128Vector getMacShares() {
+    return macShares;
+  }
+
+  /**
+   * Compute entry-wise sum of this and other.
+   */
+  public Spdz2kSIntVector128 add(Spdz2kSIntVector128 other) {
+    return new Spdz2kSIntVector128(shares.add(other.shares), macShares.add(other.macShares));
+  }
+
+  /**
+   * Compute entry-wise difference of this and other.
+   */
+  public Spdz2kSIntVector128 subtract(Spdz2kSIntVector128 other) {
+    return new Spdz2kSIntVector128(shares.subtract(other.shares),
+        macShares.subtract(other.macShares));
+  }
+
+  /**
+   * Compute entry-wise product of this and constant (open) values.
+   */
+  public Spdz2kSIntVector128 multiply(CompUInt128Vector other) {
+    return new Spdz2kSIntVector128(shares.multiply(other), macShares.multiply(other));
+  }
+
+  /**
+   * Compute entry-wise sum of this and constant (open) values. <p>As in {@link
+   * Spdz2kSInt#addConstant(CompUInt, CompUInt, CompUInt, boolean)} all parties add their mac share
+   * of the public values to the mac shares, but only party 1 adds the values to its shares.</p>
+   *
+   * @param other constant, open values
+   * @param macKeyShare mac key share for maccing open values
+   * @param isPartyOne used to ensure that only one party adds values to shares
+   * @return result of sum
+   */
+  public Spdz2kSIntVector128 addConstant(CompUInt128Vector other, CompUInt128 macKeyShare,
+      boolean isPartyOne) {
+    return new Spdz2kSIntVector128(isPartyOne ? shares.add(other) : shares,
+        macShares.add(other.scale(macKeyShare)));
+  }
+
+}
@@ -0,0 +1,114 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotSender;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The inputter party's side of the Correlated Oblivious Product Evaluation (COPE) protocol over
+ * the ring of integers modulo 2<sup>k + s</sup>.
+ *
+ * <p>COPE allows two parties, the <i>inputter</i> and the <i>signer</i>, where the inputter holds
+ * input values <i>x<sub>1</sub>, ..., x<sub>n</sub></i>, and the signer holds a single
+ * <i>s</i>-bit value <i>alpha</i>, to compute an additive sharing of <i>alpha * x<sub>1</sub>,
+ * ..., alpha * x<sub>n</sub></i>. When initialized, the signer uses the bits of <i>alpha</i> as
+ * choice bits in <i>s</i> random OTs, and the two parties use the messages as seeds of PRGs. For
+ * each input the inputter sends <i>t<sub>0,j</sub> - t<sub>1,j</sub> + x<sub>i</sub></i> for
+ * each bit <i>j</i>, where <i>t<sub>0,j</sub>, t<sub>1,j</sub></i> are the next outputs of the
+ * PRGs. Since the choice bits are fixed at initialization, the signer uses the same
+ * <i>alpha</i> for all inputs. For the other side of the protocol, see {@link
+ * Spdz2kCopeSigner}.</p>
+ *
+ * @param <PlainT> the type of the ring elements
+ */
+public class Spdz2kCopeInputter<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final ByteSerializer<PlainT> serializer;
+  private final Network network;
+  private final int otherId;
+  private final int elementBytes;
+  private final List<Drbg> zeroPrgs;
+  private final List<Drbg> onePrgs;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates a new {@link Spdz2kCopeInputter} and seeds the PRGs using random OTs with the signer,
+   * who must create a {@link Spdz2kCopeSigner} at the same time.
+   *
+   * @param factory factory for the ring elements
+   * @param sender sender of the random OT extension with the signer
+   * @param network network used to communicate with the signer
+   * @param otherId the id of the signer
+   */
+  public Spdz2kCopeInputter(CompUIntFactory<PlainT> factory, RotSender sender, Network network,
+      int otherId) {
+    this.factory = factory;
+    this.serializer = factory.getSerializer();
+    this.network = network;
+    this.otherId = otherId;
+    this.elementBytes = factory.getCompositeBitLength() / Byte.SIZE;
+    int keyBitLength = factory.getHighBitLength();
+    Pair<byte[], byte[]> seeds = sender.extendToBytes(keyBitLength);
+    int seedBytes = seeds.getFirst().length / keyBitLength;
+    this.zeroPrgs = new ArrayList<>(keyBitLength);
+    this.onePrgs = new ArrayList<>(keyBitLength);
+    this.powersOfTwo = new ArrayList<>(keyBitLength);
+    for (int j = 0; j < keyBitLength; j++) {
+      zeroPrgs.add(new AesCtrDrbg(Arrays.copyOfRange(seeds.getFirst(), j * seedBytes,
+          j * seedBytes + AesCtrDrbg.SEED_LENGTH)));
+      onePrgs.add(new AesCtrDrbg(Arrays.copyOfRange(seeds.getSecond(), j * seedBytes,
+          j * seedBytes + AesCtrDrbg.SEED_LENGTH)));
+      powersOfTwo.add(factory.createElement(BigInteger.ONE.shiftLeft(j)));
+    }
+  }
+
+  /**
+   * Computes shares of the products of this party's inputs and the signer's value.
+   *
+   * @param inputs this party's inputs
+   * @return this party's shares of the products
+   */
+  public List<PlainT> extend(List<PlainT> inputs) {
+    List<PlainT> shares = new ArrayList<>(inputs.size());
+    if (inputs.isEmpty()) {
+      return shares;
+    }
+    int keyBitLength = zeroPrgs.size();
+    byte[][] zeroMasks = new byte[keyBitLength][inputs.size() * elementBytes];
+    byte[][] oneMasks = new byte[keyBitLength][inputs.size() * elementBytes];
+    for (int j = 0; j < keyBitLength; j++) {
+      zeroPrgs.get(j).nextBytes(zeroMasks[j]);
+      onePrgs.get(j).nextBytes(oneMasks[j]);
+    }
+    List<PlainT> diffs = new ArrayList<>(inputs.size() * keyBitLength);
+    for (int i = 0; i < inputs.size(); i++) {
+      PlainT input = inputs.get(i);
+      PlainT share = factory.zero();
+      for (int j = 0; j < keyBitLength; j++) {
+        PlainT zeroMask = toElement(zeroMasks[j], i);
+        PlainT oneMask = toElement(oneMasks[j], i);
+        diffs.add(zeroMask.subtract(oneMask).add(input));
+        share = share.subtract(zeroMask.multiply(powersOfTwo.get(j)));
+      }
+      shares.add(share);
+    }
+    network.send(otherId, serializer.serialize(diffs));
+    return shares;
+  }
+
+  private PlainT toElement(byte[] masks, int index) {
+    return factory.deserialize(
+        Arrays.copyOfRange(masks, index * elementBytes, (index + 1) * elementBytes));
+  }
+
+}
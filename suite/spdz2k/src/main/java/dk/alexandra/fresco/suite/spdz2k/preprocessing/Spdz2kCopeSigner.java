@@ -0,0 +1,105 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotReceiver;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The signer party's side of the Correlated Oblivious Product Evaluation (COPE) protocol over the
+ * ring of integers modulo 2<sup>k + s</sup>. The signer's value is its <i>s</i>-bit share of the
+ * mac key. For a description of the protocol, see {@link Spdz2kCopeInputter}.
+ *
+ * @param <PlainT> the type of the ring elements
+ */
+public class Spdz2kCopeSigner<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final ByteSerializer<PlainT> serializer;
+  private final Network network;
+  private final int otherId;
+  private final int elementBytes;
+  private final StrictBitVector macKeyBits;
+  private final List<Drbg> prgs;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates a new {@link Spdz2kCopeSigner} and seeds the PRGs using random OTs with the inputter,
+   * who must create a {@link Spdz2kCopeInputter} at the same time.
+   *
+   * @param factory factory for the ring elements
+   * @param receiver receiver of the random OT extension with the inputter
+   * @param network network used to communicate with the inputter
+   * @param otherId the id of the inputter
+   * @param macKeyShare this party's share of the mac key, which must be less than
+   *     2<sup>s</sup>
+   */
+  public Spdz2kCopeSigner(CompUIntFactory<PlainT> factory, RotReceiver receiver,
+      Network network, int otherId, PlainT macKeyShare) {
+    this.factory = factory;
+    this.serializer = factory.getSerializer();
+    this.network = network;
+    this.otherId = otherId;
+    this.elementBytes = factory.getCompositeBitLength() / Byte.SIZE;
+    int keyBitLength = factory.getHighBitLength();
+    BigInteger macKey = macKeyShare.toBigInteger();
+    this.macKeyBits = new StrictBitVector(keyBitLength);
+    for (int j = 0; j < keyBitLength; j++) {
+      macKeyBits.setBit(j, macKey.testBit(j), false);
+    }
+    byte[] seeds = receiver.extendToBytes(macKeyBits);
+    int seedBytes = seeds.length / keyBitLength;
+    this.prgs = new ArrayList<>(keyBitLength);
+    this.powersOfTwo = new ArrayList<>(keyBitLength);
+    for (int j = 0; j < keyBitLength; j++) {
+      prgs.add(new AesCtrDrbg(
+          Arrays.copyOfRange(seeds, j * seedBytes, j * seedBytes + AesCtrDrbg.SEED_LENGTH)));
+      powersOfTwo.add(factory.createElement(BigInteger.ONE.shiftLeft(j)));
+    }
+  }
+
+  /**
+   * Computes shares of the products of this party's mac key share and the inputter's inputs.
+   *
+   * @param numInputs the number of inputs of the inputter
+   * @return this party's shares of the products
+   */
+  public List<PlainT> extend(int numInputs) {
+    List<PlainT> shares = new ArrayList<>(numInputs);
+    if (numInputs == 0) {
+      return shares;
+    }
+    int keyBitLength = prgs.size();
+    List<PlainT> diffs = serializer.deserializeList(network.receive(otherId));
+    if (diffs.size() != numInputs * keyBitLength) {
+      throw new MaliciousException("Received wrong number of elements from party " + otherId);
+    }
+    byte[][] masks = new byte[keyBitLength][numInputs * elementBytes];
+    for (int j = 0; j < keyBitLength; j++) {
+      prgs.get(j).nextBytes(masks[j]);
+    }
+    for (int i = 0; i < numInputs; i++) {
+      PlainT share = factory.zero();
+      for (int j = 0; j < keyBitLength; j++) {
+        PlainT mask = factory.deserialize(
+            Arrays.copyOfRange(masks[j], i * elementBytes, (i + 1) * elementBytes));
+        if (macKeyBits.getBit(j, false)) {
+          mask = mask.add(diffs.get(i * keyBitLength + j));
+        }
+        share = share.add(mask.multiply(powersOfTwo.get(j)));
+      }
+      shares.add(share);
+    }
+    return shares;
+  }
+
+}
@@ -0,0 +1,256 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotReceiver;
+import dk.alexandra.fresco.tools.ot.otextension.RotSender;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Two-party multiplication of ring elements based on the random OT extension.
+ *
+ * <p>One party, the <i>sender</i>, holds <i>m</i> lists of elements <i>x<sub>u,1</sub>, ...,
+ * x<sub>u,n</sub></i> and the other party, the <i>receiver</i>, holds elements <i>y<sub>1</sub>,
+ * ..., y<sub>n</sub></i>. The result is an additive sharing of the products <i>x<sub>u,i</sub> *
+ * y<sub>i</sub></i> modulo 2<sup>k + s</sup>. The receiver uses the bits of <i>y<sub>i</sub></i>
+ * as choice bits in one random OT per bit. For the j'th bit the sender learns random messages,
+ * which are cut into random elements <i>r<sub>0,u</sub>, r<sub>1,u</sub></i>, and sends
+ * <i>r<sub>0,u</sub> - r<sub>1,u</sub> + x<sub>u,i</sub></i>, from which the receiver computes
+ * <i>r<sub>0,u</sub> + y<sub>i,j</sub> * x<sub>u,i</sub></i>. Summing over the bits weighted by
+ * 2<sup>j</sup> gives the shares (Gilboa's protocol). All <i>m</i> products with the same
+ * <i>y<sub>i</sub></i> are computed with the same OTs, which is used to compute the two products
+ * needed to sacrifice a triple at the cost of one.</p>
+ *
+ * <p>The OTs are taken directly from the correlation checked OT extension as concatenated
+ * messages, and the OTs of a batch are extended in as few extensions as possible. The correlation
+ * check ensures that the receiver uses consistent choice bits. The sender may use inconsistent
+ * factors for the different bits, which is detected by the sacrifice and mac checks of {@link
+ * Spdz2kOtPreprocessing}.</p>
+ *
+ * @param <PlainT> the type of the ring elements
+ */
+public class Spdz2kOtMultiplier<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final ByteSerializer<PlainT> serializer;
+  private final RotSender sender;
+  private final RotReceiver receiver;
+  private final Network network;
+  private final int otherId;
+  private final int extensionSize;
+  private final int elementBytes;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates a new multiplier.
+   *
+   * @param factory factory for the ring elements
+   * @param sender sender of the random OT extension with the other party
+   * @param receiver receiver of the random OT extension with the other party
+   * @param network network used to communicate with the other party
+   * @param otherId the id of the other party
+   * @param extensionSize the maximum number of OTs in a single extension, which must be divisible
+   *     by 8
+   */
+  public Spdz2kOtMultiplier(CompUIntFactory<PlainT> factory, RotSender sender,
+      RotReceiver receiver, Network network, int otherId, int extensionSize) {
+    if (extensionSize < Byte.SIZE || extensionSize % Byte.SIZE != 0) {
+      throw new IllegalArgumentException("Extension size must be a positive multiple of 8");
+    }
+    this.factory = factory;
+    this.serializer = factory.getSerializer();
+    this.sender = sender;
+    this.receiver = receiver;
+    this.network = network;
+    this.otherId = otherId;
+    this.extensionSize = extensionSize;
+    this.elementBytes = factory.getCompositeBitLength() / Byte.SIZE;
+    int bitLength = factory.getCompositeBitLength();
+    this.powersOfTwo = new ArrayList<>(bitLength);
+    for (int j = 0; j < bitLength; j++) {
+      powersOfTwo.add(factory.createElement(BigInteger.ONE.shiftLeft(j)));
+    }
+  }
+
+  /**
+   * Runs the sender's side of the multiplication.
+   *
+   * @param factors the sender's lists of factors, which must all be of the same size as the
+   *     receiver's list of factors
+   * @param choiceBitLength the number of least significant bits of the receiver's factors which
+   *     may be non-zero, e.g., 1 if the receiver's factors are bits
+   * @return the sender's shares of the products, one list per list of factors
+   */
+  public List<List<PlainT>> multiplyAsSender(List<List<PlainT>> factors, int choiceBitLength) {
+    int numFactors = factors.get(0).size();
+    List<List<PlainT>> shares = new ArrayList<>(factors.size());
+    if (numFactors == 0) {
+      for (int u = 0; u < factors.size(); u++) {
+        shares.add(new ArrayList<>());
+      }
+      return shares;
+    }
+    int numOts = numberOfOts(numFactors, choiceBitLength);
+    Pair<byte[], byte[]> messages = sendOts(numOts);
+    int messageBytes = messageBytes(messages.getFirst(), numOts, factors.size());
+    List<PlainT> diffs = new ArrayList<>(numFactors * choiceBitLength * factors.size());
+    for (int u = 0; u < factors.size(); u++) {
+      shares.add(new ArrayList<>(Collections.nCopies(numFactors, factory.zero())));
+    }
+    for (int i = 0; i < numFactors; i++) {
+      for (int j = 0; j < choiceBitLength; j++) {
+        int ot = i * choiceBitLength + j;
+        for (int u = 0; u < factors.size(); u++) {
+          PlainT zeroMessage = toElement(messages.getFirst(), ot * messageBytes, u);
+          PlainT oneMessage = toElement(messages.getSecond(), ot * messageBytes, u);
+          diffs.add(zeroMessage.subtract(oneMessage).add(factors.get(u).get(i)));
+          List<PlainT> uthShares = shares.get(u);
+          uthShares.set(i, uthShares.get(i).subtract(zeroMessage.multiply(powersOfTwo.get(j))));
+        }
+      }
+    }
+    network.send(otherId, serializer.serialize(diffs));
+    return shares;
+  }
+
+  /**
+   * Runs the receiver's side of the multiplication.
+   *
+   * @param factors the receiver's factors
+   * @param choiceBitLength the number of least significant bits of the factors which may be
+   *     non-zero, the remaining bits are ignored
+   * @param numSenderLists the number of lists of factors of the sender
+   * @return the receiver's shares of the products, one list per list of factors of the sender
+   */
+  public List<List<PlainT>> multiplyAsReceiver(List<PlainT> factors, int choiceBitLength,
+      int numSenderLists) {
+    List<List<PlainT>> shares = new ArrayList<>(numSenderLists);
+    if (factors.isEmpty()) {
+      for (int u = 0; u < numSenderLists; u++) {
+        shares.add(new ArrayList<>());
+      }
+      return shares;
+    }
+    int numOts = numberOfOts(factors.size(), choiceBitLength);
+    StrictBitVector choices = new StrictBitVector(numOts);
+    for (int i = 0; i < factors.size(); i++) {
+      BigInteger factor = factors.get(i).toBigInteger();
+      for (int j = 0; j < choiceBitLength; j++) {
+        choices.setBit(i * choiceBitLength + j, factor.testBit(j), false);
+      }
+    }
+    byte[] messages = receiveOts(choices);
+    int messageBytes = messageBytes(messages, numOts, numSenderLists);
+    List<PlainT> diffs = serializer.deserializeList(network.receive(otherId));
+    if (diffs.size() != factors.size() * choiceBitLength * numSenderLists) {
+      throw new MaliciousException("Received wrong number of elements from party " + otherId);
+    }
+    for (int u = 0; u < numSenderLists; u++) {
+      shares.add(new ArrayList<>(Collections.nCopies(factors.size(), factory.zero())));
+    }
+    for (int i = 0; i < factors.size(); i++) {
+      for (int j = 0; j < choiceBitLength; j++) {
+        int ot = i * choiceBitLength + j;
+        boolean choice = choices.getBit(ot, false);
+        for (int u = 0; u < numSenderLists; u++) {
+          PlainT message = toElement(messages, ot * messageBytes, u);
+          if (choice) {
+            message = message.add(diffs.get(ot * numSenderLists + u));
+          }
+          List<PlainT> uthShares = shares.get(u);
+          uthShares.set(i, uthShares.get(i).add(message.multiply(powersOfTwo.get(j))));
+        }
+      }
+    }
+    return shares;
+  }
+
+  /**
+   * Extends the given number of OTs as sender, in extensions of at most {@link #extensionSize}
+   * OTs.
+   */
+  private Pair<byte[], byte[]> sendOts(int numOts) {
+    if (numOts <= extensionSize) {
+      return sender.extendToBytes(numOts);
+    }
+    byte[] zeroMessages = null;
+    byte[] oneMessages = null;
+    for (int from = 0; from < numOts; from += extensionSize) {
+      int size = Math.min(extensionSize, numOts - from);
+      Pair<byte[], byte[]> chunk = sender.extendToBytes(size);
+      int messageBytes = chunk.getFirst().length / size;
+      if (zeroMessages == null) {
+        zeroMessages = new byte[numOts * messageBytes];
+        oneMessages = new byte[numOts * messageBytes];
+      }
+      System.arraycopy(chunk.getFirst(), 0, zeroMessages, from * messageBytes,
+          chunk.getFirst().length);
+      System.arraycopy(chunk.getSecond(), 0, oneMessages, from * messageBytes,
+          chunk.getSecond().length);
+    }
+    return new Pair<>(zeroMessages, oneMessages);
+  }
+
+  /**
+   * Extends OTs with the given choices as receiver, in extensions of at most {@link
+   * #extensionSize} OTs.
+   */
+  private byte[] receiveOts(StrictBitVector choices) {
+    int numOts = choices.getSize();
+    if (numOts <= extensionSize) {
+      return receiver.extendToBytes(choices);
+    }
+    byte[] choiceBytes = choices.toByteArray();
+    byte[] messages = null;
+    for (int from = 0; from < numOts; from += extensionSize) {
+      int size = Math.min(extensionSize, numOts - from);
+      byte[] chunk = receiver.extendToBytes(new StrictBitVector(
+          Arrays.copyOfRange(choiceBytes, from / Byte.SIZE, (from + size) / Byte.SIZE)));
+      int messageBytes = chunk.length / size;
+      if (messages == null) {
+        messages = new byte[numOts * messageBytes];
+      }
+      System.arraycopy(chunk, 0, messages, from * messageBytes, chunk.length);
+    }
+    return messages;
+  }
+
+  /**
+   * Returns the number of bytes of each OT message and checks that it is long enough to hold the
+   * given number of elements.
+   */
+  private int messageBytes(byte[] messages, int numOts, int elementsPerMessage) {
+    int messageBytes = messages.length / numOts;
+    if (elementsPerMessage * elementBytes > messageBytes) {
+      throw new IllegalArgumentException(
+          "An OT message can hold at most " + messageBytes / elementBytes + " elements");
+    }
+    return messageBytes;
+  }
+
+  /**
+   * Reads the element with the given index in the message starting at the given offset.
+   */
+  private PlainT toElement(byte[] messages, int offset, int index) {
+    int from = offset + index * elementBytes;
+    return factory.deserialize(Arrays.copyOfRange(messages, from, from + elementBytes));
+  }
+
+  /**
+   * The OT extension works on whole bytes of choice bits, so the number of OTs is rounded up to a
+   * multiple of 8.
+   */
+  private static int numberOfOts(int numFactors, int choiceBitLength) {
+    return (numFactors * choiceBitLength + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+  }
+
+}
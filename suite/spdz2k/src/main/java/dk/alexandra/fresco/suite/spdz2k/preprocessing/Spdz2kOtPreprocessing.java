@@ -0,0 +1,584 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.commitment.HashBasedCommitmentSerializer;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import dk.alexandra.fresco.tools.ot.otextension.RotReceiver;
+import dk.alexandra.fresco.tools.ot.otextension.RotSender;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Generates pre-processing material for SPDZ2k using oblivious transfer, with security against
+ * active adversaries.
+ *
+ * <p>All values are additively secret-shared over the ring of integers modulo 2<sup>k + s</sup>
+ * and authenticated with the mac key <i>alpha</i>, which is the sum of the mac key shares of the
+ * parties. Every product of values held by two different parties is computed pairwise on top of
+ * the correlation checked OT extension:</p>
+ *
+ * <ul>
+ * <li>A value <i>x</i> is authenticated by computing shares of <i>x<sub>i</sub> *
+ * alpha<sub>j</sub></i> for all pairs of parties <i>i != j</i> with {@link Spdz2kCopeInputter}
+ * and {@link Spdz2kCopeSigner}. The bits of the mac key shares are fixed as choice bits when the
+ * pre-processing is initialized, so all values are authenticated under the same key.</li>
+ * <li>A triple is created from random shares of <i>a</i>, <i>a'</i> and <i>b</i> by computing
+ * shares of <i>a<sub>i</sub> * b<sub>j</sub></i> and <i>a'<sub>i</sub> * b<sub>j</sub></i> for
+ * all pairs of parties with {@link Spdz2kOtMultiplier}. After authentication, the triple <i>(a',
+ * b, c')</i> is sacrificed to check the triple <i>(a, b, c)</i>: for a random <i>t</i> the parties
+ * open <i>rho = t * a - a'</i> and check that <i>t * c - c' - rho * b = 0</i>.</li>
+ * <li>A random bit <i>b</i> is the xor of a random bit chosen by each party, where the xor with
+ * the bit of party <i>j</i> is computed as <i>c + b<sub>j</sub> - 2 * c * b<sub>j</sub></i>. The
+ * parties check that <i>b</i> is a bit by computing <i>b * b</i> with a triple and checking that
+ * <i>b * b - b = 0</i>.</li>
+ * <li>An input mask is a random value for which the other parties send their shares to the
+ * input party.</li>
+ * </ul>
+ *
+ * <p>All authenticated values of a batch are checked before they are returned. The parties open a
+ * random linear combination of the values, masked by an extra random value, and run a mac check
+ * on the opened values, in which the parties commit to their shares of <i>m - alpha * y</i> for
+ * the combination <i>m</i> of the mac shares and the combination <i>y</i> of the opened values.
+ * The coefficients are drawn from a joint source of randomness which is seeded after the values
+ * are fixed. The shares sent to the input party of an input mask are not checked, so a corrupt
+ * party can add an error to the input of an honest party, but cannot learn the input or forge
+ * macs.</p>
+ *
+ * <p>The pairwise protocols are run in the same order by all parties, so a single network can be
+ * used for all of them. The network should not be used for anything else while material is
+ * generated.</p>
+ *
+ * @param <PlainT> the type of the ring elements
+ */
+public class Spdz2kOtPreprocessing<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  // the OT extension runs on 2^16 OTs at a time, some of which are sacrificed
+  private static final int MAX_EXTENSION = 1 << 16;
+
+  private final int myId;
+  private final int noOfParties;
+  private final CompUIntFactory<PlainT> factory;
+  private final ByteSerializer<PlainT> serializer;
+  private final ByteSerializer<HashBasedCommitment> commitmentSerializer;
+  private final PlainT macKeyShare;
+  private final Network network;
+  private final Drbg drbg;
+  private final Map<Integer, RotList> seedOts;
+  private final int computationalSecurityParameter;
+  private final int statisticalSecurityParameter;
+  private Map<Integer, Spdz2kOtMultiplier<PlainT>> multipliers;
+  private Map<Integer, Spdz2kCopeInputter<PlainT>> inputters;
+  private Map<Integer, Spdz2kCopeSigner<PlainT>> signers;
+
+  /**
+   * Creates new {@link Spdz2kOtPreprocessing}. The OT extension is initialized with the
+   * other parties when material is first generated.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param factory factory for the ring elements
+   * @param macKeyShare this party's share of the mac key, which must be less than 2<sup>s</sup>,
+   *     see {@link #sampleMacKeyShare(CompUIntFactory, Drbg)}
+   * @param network network used for communication with all other parties
+   * @param drbg source of randomness
+   * @param seedOts seed OTs with each of the other parties, each containing as many OTs as the
+   *     computational security parameter
+   * @param computationalSecurityParameter computational security parameter of the OT extension
+   * @param statisticalSecurityParameter statistical security parameter of the OT extension
+   */
+  public Spdz2kOtPreprocessing(int myId, int noOfParties, CompUIntFactory<PlainT> factory,
+      PlainT macKeyShare, Network network, Drbg drbg, Map<Integer, RotList> seedOts,
+      int computationalSecurityParameter, int statisticalSecurityParameter) {
+    if (macKeyShare.toBigInteger().bitLength() > factory.getHighBitLength()) {
+      throw new IllegalArgumentException(
+          "Mac key share must have at most " + factory.getHighBitLength() + " bits");
+    }
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.factory = factory;
+    this.serializer = factory.getSerializer();
+    this.commitmentSerializer = new HashBasedCommitmentSerializer();
+    this.macKeyShare = macKeyShare;
+    this.network = network;
+    this.drbg = drbg;
+    this.seedOts = seedOts;
+    this.computationalSecurityParameter = computationalSecurityParameter;
+    this.statisticalSecurityParameter = statisticalSecurityParameter;
+  }
+
+  /**
+   * Samples a random share of the mac key with <i>s</i> bits.
+   *
+   * @param factory factory for the ring elements
+   * @param drbg source of randomness
+   * @return the mac key share
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> PlainT sampleMacKeyShare(
+      CompUIntFactory<PlainT> factory, Drbg drbg) {
+    byte[] bytes = new byte[factory.getHighBitLength() / Byte.SIZE];
+    drbg.nextBytes(bytes);
+    return factory.createElement(new BigInteger(1, bytes));
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   */
+  public List<Spdz2kTriple<PlainT>> generateTriples(int amount) {
+    List<PlainT> left = sampleElements(amount);
+    List<PlainT> sacrificeLeft = sampleElements(amount);
+    List<PlainT> right = sampleElements(amount);
+    List<List<PlainT>> products = crossProducts(Arrays.asList(left, sacrificeLeft), right,
+        factory.getCompositeBitLength());
+    List<PlainT> product = products.get(0);
+    List<PlainT> sacrificeProduct = products.get(1);
+    for (int i = 0; i < amount; i++) {
+      product.set(i, product.get(i).add(left.get(i).multiply(right.get(i))));
+      sacrificeProduct.set(i,
+          sacrificeProduct.get(i).add(sacrificeLeft.get(i).multiply(right.get(i))));
+    }
+    List<PlainT> toAuthenticate = new ArrayList<>(5 * amount + 1);
+    toAuthenticate.addAll(left);
+    toAuthenticate.addAll(sacrificeLeft);
+    toAuthenticate.addAll(right);
+    toAuthenticate.addAll(product);
+    toAuthenticate.addAll(sacrificeProduct);
+    toAuthenticate.addAll(sampleElements(1));
+    List<Spdz2kSInt<PlainT>> authenticated = authenticate(toAuthenticate);
+    Drbg jointDrbg = jointDrbg();
+    Spdz2kSInt<PlainT> combination = combine(authenticated, jointDrbg);
+    List<PlainT> coefficients = sampleCoefficients(jointDrbg, amount);
+    List<Spdz2kSInt<PlainT>> toOpen = new ArrayList<>(amount + 1);
+    toOpen.add(combination);
+    for (int i = 0; i < amount; i++) {
+      toOpen.add(authenticated.get(i).multiply(coefficients.get(i))
+          .subtract(authenticated.get(amount + i)));
+    }
+    List<PlainT> opened = open(toOpen);
+    List<Spdz2kSInt<PlainT>> toCheck = new ArrayList<>(toOpen);
+    for (int i = 0; i < amount; i++) {
+      toCheck.add(authenticated.get(3 * amount + i).multiply(coefficients.get(i))
+          .subtract(authenticated.get(4 * amount + i))
+          .subtract(authenticated.get(2 * amount + i).multiply(opened.get(i + 1))));
+    }
+    checkMacs(toCheck, withZeros(opened, amount));
+    List<Spdz2kTriple<PlainT>> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      triples.add(new Spdz2kTriple<>(authenticated.get(i), authenticated.get(2 * amount + i),
+          authenticated.get(3 * amount + i)));
+    }
+    return triples;
+  }
+
+  /**
+   * Generates a batch of random elements.
+   */
+  public List<Spdz2kSInt<PlainT>> generateRandomElements(int amount) {
+    return authenticateAndCheck(sampleElements(amount));
+  }
+
+  /**
+   * Generates a batch of input masks for the given input party.
+   */
+  public List<Spdz2kInputMask<PlainT>> generateInputMasks(int towardPlayerId, int amount) {
+    List<PlainT> shares = sampleElements(amount);
+    List<Spdz2kSInt<PlainT>> authenticated = authenticateAndCheck(shares);
+    List<Spdz2kInputMask<PlainT>> masks = new ArrayList<>(amount);
+    if (myId != towardPlayerId) {
+      network.send(towardPlayerId, serializer.serialize(shares));
+      for (Spdz2kSInt<PlainT> maskShare : authenticated) {
+        masks.add(new Spdz2kInputMask<>(maskShare));
+      }
+    } else {
+      List<PlainT> openValues = new ArrayList<>(shares);
+      for (int partyId = 1; partyId <= noOfParties; partyId++) {
+        if (partyId != myId) {
+          addTo(openValues, receiveElements(partyId, amount));
+        }
+      }
+      for (int i = 0; i < amount; i++) {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i), openValues.get(i)));
+      }
+    }
+    return masks;
+  }
+
+  /**
+   * Generates a batch of random bits.
+   */
+  public List<Spdz2kSInt<PlainT>> generateBits(int amount) {
+    List<PlainT> myBits = sampleBits(amount);
+    List<PlainT> zeros = Collections.nCopies(amount, factory.zero());
+    List<PlainT> xor = new ArrayList<>(myId == 1 ? myBits : zeros);
+    PlainT two = factory.createElement(2);
+    for (int partyId = 2; partyId <= noOfParties; partyId++) {
+      List<PlainT> products =
+          multiplyTowards(partyId, Collections.singletonList(xor), myBits, 1).get(0);
+      for (int i = 0; i < amount; i++) {
+        PlainT next = xor.get(i);
+        PlainT product = products.get(i);
+        if (myId == partyId) {
+          PlainT bit = myBits.get(i);
+          product = product.add(next.multiply(bit));
+          next = next.add(bit);
+        }
+        xor.set(i, next.subtract(product.multiply(two)));
+      }
+    }
+    List<Spdz2kTriple<PlainT>> triples = generateTriples(amount);
+    xor.addAll(sampleElements(1));
+    List<Spdz2kSInt<PlainT>> bits = authenticate(xor);
+    List<Spdz2kSInt<PlainT>> toOpen = new ArrayList<>(2 * amount + 1);
+    toOpen.add(combine(bits, jointDrbg()));
+    for (int i = 0; i < amount; i++) {
+      toOpen.add(bits.get(i).subtract(triples.get(i).getLeft()));
+    }
+    for (int i = 0; i < amount; i++) {
+      toOpen.add(bits.get(i).subtract(triples.get(i).getRight()));
+    }
+    List<PlainT> opened = open(toOpen);
+    List<Spdz2kSInt<PlainT>> toCheck = new ArrayList<>(toOpen);
+    for (int i = 0; i < amount; i++) {
+      Spdz2kTriple<PlainT> triple = triples.get(i);
+      PlainT epsilon = opened.get(i + 1);
+      PlainT delta = opened.get(amount + i + 1);
+      Spdz2kSInt<PlainT> square = triple.getProduct()
+          .add(triple.getRight().multiply(epsilon))
+          .add(triple.getLeft().multiply(delta))
+          .addConstant(epsilon.multiply(delta), macKeyShare, factory.zero(), myId == 1);
+      toCheck.add(square.subtract(bits.get(i)));
+    }
+    checkMacs(toCheck, withZeros(opened, amount));
+    return new ArrayList<>(bits.subList(0, amount));
+  }
+
+  /**
+   * Authenticates values given by this party's shares and checks the macs.
+   */
+  private List<Spdz2kSInt<PlainT>> authenticateAndCheck(List<PlainT> shares) {
+    List<PlainT> toAuthenticate = new ArrayList<>(shares);
+    toAuthenticate.addAll(sampleElements(1));
+    List<Spdz2kSInt<PlainT>> authenticated = authenticate(toAuthenticate);
+    List<Spdz2kSInt<PlainT>> toCheck =
+        Collections.singletonList(combine(authenticated, jointDrbg()));
+    checkMacs(toCheck, open(toCheck));
+    return new ArrayList<>(authenticated.subList(0, shares.size()));
+  }
+
+  /**
+   * Authenticates values given by this party's shares, without checking the macs.
+   */
+  private List<Spdz2kSInt<PlainT>> authenticate(List<PlainT> shares) {
+    ensureInitialized();
+    List<PlainT> macShares = new ArrayList<>(shares.size());
+    for (PlainT share : shares) {
+      macShares.add(macKeyShare.multiply(share));
+    }
+    // the inputters only send, so all parties can input before signing
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId != myId) {
+        addTo(macShares, inputters.get(partyId).extend(shares));
+      }
+    }
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId != myId) {
+        addTo(macShares, signers.get(partyId).extend(shares.size()));
+      }
+    }
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(shares.size());
+    for (int i = 0; i < shares.size(); i++) {
+      authenticated.add(new Spdz2kSInt<>(shares.get(i), macShares.get(i)));
+    }
+    return authenticated;
+  }
+
+  /**
+   * Computes a random linear combination of the given values, where the last value is a random
+   * mask which is added to the combination.
+   */
+  private Spdz2kSInt<PlainT> combine(List<Spdz2kSInt<PlainT>> values, Drbg jointDrbg) {
+    int last = values.size() - 1;
+    List<PlainT> coefficients = sampleCoefficients(jointDrbg, last);
+    Spdz2kSInt<PlainT> combination = values.get(last);
+    for (int i = 0; i < last; i++) {
+      combination = combination.add(values.get(i).multiply(coefficients.get(i)));
+    }
+    return combination;
+  }
+
+  /**
+   * Checks the macs of the given values against the given open values.
+   *
+   * @throws MaliciousException if the check fails
+   */
+  private void checkMacs(List<Spdz2kSInt<PlainT>> values, List<PlainT> openValues) {
+    List<PlainT> coefficients = sampleCoefficients(jointDrbg(), values.size());
+    List<PlainT> macShares = values.stream()
+        .map(Spdz2kSInt::getMacShare)
+        .collect(Collectors.toList());
+    PlainT y = UInt.innerProduct(openValues, coefficients);
+    PlainT z = UInt.innerProduct(macShares, coefficients).subtract(macKeyShare.multiply(y));
+    List<PlainT> zs = commitAndOpen(serializer.serialize(z)).stream()
+        .map(serializer::deserialize)
+        .collect(Collectors.toList());
+    if (!UInt.sum(zs).isZero()) {
+      throw new MaliciousException("Mac check failed");
+    }
+  }
+
+  /**
+   * Opens the given values to all parties.
+   */
+  private List<PlainT> open(List<Spdz2kSInt<PlainT>> values) {
+    List<PlainT> shares = values.stream()
+        .map(Spdz2kSInt::getShare)
+        .collect(Collectors.toList());
+    network.sendToAll(serializer.serialize(shares));
+    List<PlainT> opened = new ArrayList<>(Collections.nCopies(values.size(), factory.zero()));
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      addTo(opened, receiveElements(partyId, values.size()));
+    }
+    return opened;
+  }
+
+  /**
+   * Returns a source of randomness seeded jointly by all parties.
+   */
+  private Drbg jointDrbg() {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    drbg.nextBytes(seed);
+    byte[] jointSeed = new byte[AesCtrDrbg.SEED_LENGTH];
+    for (byte[] otherSeed : commitAndOpen(seed)) {
+      if (otherSeed.length != jointSeed.length) {
+        throw new MaliciousException("Received seed of wrong length");
+      }
+      for (int i = 0; i < jointSeed.length; i++) {
+        jointSeed[i] ^= otherSeed[i];
+      }
+    }
+    return new AesCtrDrbg(jointSeed);
+  }
+
+  /**
+   * Commits to the given value and opens it to all other parties, after receiving commitments to
+   * their values.
+   *
+   * @return the values of all parties, ordered by party id
+   */
+  private List<byte[]> commitAndOpen(byte[] value) {
+    HashBasedCommitment commitment = new HashBasedCommitment();
+    byte[] opening = commitment.commit(drbg, value);
+    network.sendToAll(commitmentSerializer.serialize(commitment));
+    List<byte[]> rawCommitments = network.receiveFromAll();
+    // for more than two parties the commitments must be broadcast
+    if (noOfParties > 2) {
+      validateBroadcast(rawCommitments);
+    }
+    network.sendToAll(opening);
+    List<byte[]> openings = network.receiveFromAll();
+    List<byte[]> values = new ArrayList<>(noOfParties);
+    for (int i = 0; i < noOfParties; i++) {
+      values.add(commitmentSerializer.deserialize(rawCommitments.get(i)).open(openings.get(i)));
+    }
+    return values;
+  }
+
+  /**
+   * Checks that all parties received the same messages by comparing hashes of them.
+   */
+  private void validateBroadcast(List<byte[]> messages) {
+    MessageDigest digest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for broadcast validation");
+    for (byte[] message : messages) {
+      digest.update(message);
+    }
+    byte[] ownDigest = digest.digest();
+    network.sendToAll(ownDigest);
+    for (byte[] otherDigest : network.receiveFromAll()) {
+      if (!Arrays.equals(ownDigest, otherDigest)) {
+        throw new MaliciousException("Broadcast validation failed");
+      }
+    }
+  }
+
+  /**
+   * Computes this party's shares of the entry-wise products <i>x<sub>i</sub> * y<sub>j</sub></i>
+   * summed over all pairs of different parties <i>i</i> and <i>j</i>, for each list of left
+   * factors.
+   */
+  private List<List<PlainT>> crossProducts(List<List<PlainT>> left, List<PlainT> right,
+      int choiceBitLength) {
+    List<List<PlainT>> result = zeroLists(left.size(), right.size());
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      addAllTo(result, multiplyTowards(partyId, left, right, choiceBitLength));
+    }
+    return result;
+  }
+
+  /**
+   * Computes this party's shares of the entry-wise products <i>x<sub>i</sub> * y<sub>j</sub></i>
+   * summed over all parties <i>i</i> other than the receiving party <i>j</i>, for each list of
+   * left factors.
+   *
+   * @param receiverId the id of the receiving party <i>j</i>
+   * @param left this party's lists of left factors, not used by the receiving party
+   * @param right this party's right factors, only used by the receiving party
+   * @param choiceBitLength the number of least significant bits of the right factors used
+   */
+  private List<List<PlainT>> multiplyTowards(int receiverId, List<List<PlainT>> left,
+      List<PlainT> right, int choiceBitLength) {
+    ensureInitialized();
+    List<List<PlainT>> result = zeroLists(left.size(), right.size());
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId == receiverId) {
+        continue;
+      }
+      if (myId == partyId) {
+        addAllTo(result, multipliers.get(receiverId).multiplyAsSender(left, choiceBitLength));
+      } else if (myId == receiverId) {
+        addAllTo(result,
+            multipliers.get(partyId).multiplyAsReceiver(right, choiceBitLength, left.size()));
+      }
+    }
+    return result;
+  }
+
+  private List<PlainT> receiveElements(int partyId, int amount) {
+    List<PlainT> elements = serializer.deserializeList(network.receive(partyId));
+    if (elements.size() != amount) {
+      throw new MaliciousException("Received wrong number of elements from party " + partyId);
+    }
+    return elements;
+  }
+
+  private List<PlainT> withZeros(List<PlainT> values, int numZeros) {
+    List<PlainT> result = new ArrayList<>(values);
+    result.addAll(Collections.nCopies(numZeros, factory.zero()));
+    return result;
+  }
+
+  private List<List<PlainT>> zeroLists(int numLists, int size) {
+    List<List<PlainT>> lists = new ArrayList<>(numLists);
+    for (int u = 0; u < numLists; u++) {
+      lists.add(new ArrayList<>(Collections.nCopies(size, factory.zero())));
+    }
+    return lists;
+  }
+
+  private void addAllTo(List<List<PlainT>> sums, List<List<PlainT>> terms) {
+    for (int u = 0; u < sums.size(); u++) {
+      addTo(sums.get(u), terms.get(u));
+    }
+  }
+
+  private void addTo(List<PlainT> sums, List<PlainT> terms) {
+    for (int i = 0; i < sums.size(); i++) {
+      sums.set(i, sums.get(i).add(terms.get(i)));
+    }
+  }
+
+  private List<PlainT> sampleElements(int amount) {
+    List<PlainT> elements = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      byte[] bytes = new byte[factory.getCompositeBitLength() / Byte.SIZE];
+      drbg.nextBytes(bytes);
+      elements.add(factory.deserialize(bytes));
+    }
+    return elements;
+  }
+
+  /**
+   * Samples <i>s</i>-bit coefficients for the checks from the given joint source of randomness.
+   */
+  private List<PlainT> sampleCoefficients(Drbg jointDrbg, int amount) {
+    List<PlainT> coefficients = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      byte[] bytes = new byte[factory.getHighBitLength() / Byte.SIZE];
+      jointDrbg.nextBytes(bytes);
+      coefficients.add(factory.createElement(new BigInteger(1, bytes)));
+    }
+    return coefficients;
+  }
+
+  private List<PlainT> sampleBits(int amount) {
+    byte[] bytes = new byte[(amount + Byte.SIZE - 1) / Byte.SIZE];
+    drbg.nextBytes(bytes);
+    List<PlainT> bits = new ArrayList<>(amount);
+    PlainT one = factory.createElement(1);
+    for (int i = 0; i < amount; i++) {
+      boolean bit = ((bytes[i / Byte.SIZE] >>> (i % Byte.SIZE)) & 1) == 1;
+      bits.add(bit ? one : factory.zero());
+    }
+    return bits;
+  }
+
+  /**
+   * Sets up the OT extension, COPE and multiplication with each other party, going through the
+   * pairs of parties in the same order as all other parties.
+   */
+  private void ensureInitialized() {
+    if (multipliers != null) {
+      return;
+    }
+    multipliers = new HashMap<>();
+    inputters = new HashMap<>();
+    signers = new HashMap<>();
+    for (int first = 1; first <= noOfParties; first++) {
+      for (int second = first + 1; second <= noOfParties; second++) {
+        if (myId == first) {
+          initialize(second);
+        } else if (myId == second) {
+          initialize(first);
+        }
+      }
+    }
+  }
+
+  private void initialize(int otherId) {
+    CoinTossing coinTossing = new CoinTossing(myId, otherId, drbg);
+    coinTossing.initialize(network);
+    OtExtensionResourcePool resources = new OtExtensionResourcePoolImpl(myId, otherId,
+        computationalSecurityParameter, statisticalSecurityParameter, 1, drbg, coinTossing,
+        seedOts.get(otherId));
+    RotFactory rotFactory = new RotFactory(resources, network);
+    RotSender sender = rotFactory.createSender();
+    RotReceiver receiver = rotFactory.createReceiver();
+    // the party with the lowest id acts as inputter first
+    if (myId < otherId) {
+      inputters.put(otherId, new Spdz2kCopeInputter<>(factory, sender, network, otherId));
+      signers.put(otherId,
+          new Spdz2kCopeSigner<>(factory, receiver, network, otherId, macKeyShare));
+    } else {
+      signers.put(otherId,
+          new Spdz2kCopeSigner<>(factory, receiver, network, otherId, macKeyShare));
+      inputters.put(otherId, new Spdz2kCopeInputter<>(factory, sender, network, otherId));
+    }
+    int extensionSize = (MAX_EXTENSION - computationalSecurityParameter
+        - statisticalSecurityParameter) / Byte.SIZE * Byte.SIZE;
+    multipliers.put(otherId,
+        new Spdz2kOtMultiplier<>(factory, sender, receiver, network, otherId, extensionSize));
+  }
+
+}
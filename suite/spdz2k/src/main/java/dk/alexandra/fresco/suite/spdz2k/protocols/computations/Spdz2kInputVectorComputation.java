@@ -0,0 +1,60 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.generic.BroadcastValidationProtocol;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kInputOnlyProtocol;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Native computation for inputting a list of private values from a single party. <p>Consists of a
+ * {@link Spdz2kInputOnlyProtocol} for each value, as {@link Spdz2kInputComputation}, followed by a
+ * single {@link BroadcastValidationProtocol} of the bytes of all the masked inputs, so the whole
+ * list is validated with one digest per party.</p>
+ */
+public class Spdz2kInputVectorComputation<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<PlainT> inputs;
+  private final int inputPartyId;
+
+  /**
+   * Creates new {@link Spdz2kInputVectorComputation}.
+   *
+   * @param inputs values to secret-share, only used by the input party
+   * @param inputPartyId id of input party
+   */
+  public Spdz2kInputVectorComputation(List<PlainT> inputs, int inputPartyId) {
+    this.inputs = inputs;
+    this.inputPartyId = inputPartyId;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      List<DRes<Pair<DRes<SInt>, byte[]>>> sharesAndMaskBytes = new ArrayList<>(inputs.size());
+      for (PlainT input : inputs) {
+        sharesAndMaskBytes.add(par.append(new Spdz2kInputOnlyProtocol<>(input, inputPartyId)));
+      }
+      return () -> sharesAndMaskBytes;
+    }).seq((seq, sharesAndMaskBytes) -> {
+      List<DRes<SInt>> shares = new ArrayList<>(sharesAndMaskBytes.size());
+      List<byte[]> maskBytes = new ArrayList<>(sharesAndMaskBytes.size());
+      for (DRes<Pair<DRes<SInt>, byte[]>> shareAndMaskBytes : sharesAndMaskBytes) {
+        Pair<DRes<SInt>, byte[]> unwrapped = shareAndMaskBytes.out();
+        shares.add(unwrapped.getFirst());
+        maskBytes.add(unwrapped.getSecond());
+      }
+      if (!shares.isEmpty()) {
+        seq.append(new BroadcastValidationProtocol<>(maskBytes));
+      }
+      return () -> shares;
+    });
+  }
+
+}
@@ -0,0 +1,43 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.generic.BroadcastValidationProtocol;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kInputOnlyVectorProtocol128;
+import java.util.List;
+
+/**
+ * Native computation for inputting a list of private values over {@link CompUInt128}. <p>Consists
+ * of native protocols {@link Spdz2kInputOnlyVectorProtocol128} and {@link
+ * BroadcastValidationProtocol}, as {@link Spdz2kInputComputation}, but with a single broadcast
+ * validation of the bytes of all the masked inputs.</p>
+ */
+public class Spdz2kInputVectorComputation128 implements
+    Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final List<CompUInt128> inputs;
+  private final int inputPartyId;
+
+  public Spdz2kInputVectorComputation128(List<CompUInt128> inputs, int inputPartyId) {
+    this.inputs = inputs;
+    this.inputPartyId = inputPartyId;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    DRes<Pair<List<DRes<SInt>>, byte[]>> sharesAndMaskBytes = builder
+        .append(new Spdz2kInputOnlyVectorProtocol128(inputs, inputPartyId));
+    return builder.seq(seq -> {
+      Pair<List<DRes<SInt>>, byte[]> unwrapped = sharesAndMaskBytes.out();
+      if (!unwrapped.getFirst().isEmpty()) {
+        seq.append(new BroadcastValidationProtocol<>(unwrapped.getSecond()));
+      }
+      return unwrapped::getFirst;
+    });
+  }
+
+}
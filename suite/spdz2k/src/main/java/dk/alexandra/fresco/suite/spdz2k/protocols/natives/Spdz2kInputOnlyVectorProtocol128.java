@@ -0,0 +1,92 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Vector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSIntVector128;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Native protocol for inputting a list of values over {@link CompUInt128} from a single party.
+ * <p>This is equivalent to running a {@link Spdz2kInputOnlyProtocol} for each value, but the masked
+ * inputs are sent as a single message. The result of this protocol is this party's shares of the
+ * inputs, as well as the bytes of all the masked inputs which are later used in a single broadcast
+ * validation.</p>
+ */
+public class Spdz2kInputOnlyVectorProtocol128
+    extends Spdz2kNativeProtocol<Pair<List<DRes<SInt>>, byte[]>, CompUInt128> {
+
+  private final List<CompUInt128> inputs;
+  private final int inputPartyId;
+  private Spdz2kSIntVector128 maskShares;
+  private Pair<List<DRes<SInt>>, byte[]> sharesAndMaskBytes;
+
+  /**
+   * Creates new {@link Spdz2kInputOnlyVectorProtocol128}.
+   *
+   * @param inputs values to secret-share, only used by the input party
+   * @param inputPartyId id of input party
+   */
+  public Spdz2kInputOnlyVectorProtocol128(List<CompUInt128> inputs, int inputPartyId) {
+    this.inputs = inputs;
+    this.inputPartyId = inputPartyId;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, Spdz2kResourcePool<CompUInt128> resourcePool,
+      Network network) {
+    int myId = resourcePool.getMyId();
+    Spdz2kDataSupplier<CompUInt128> dataSupplier = resourcePool.getDataSupplier();
+    int size = inputs.size();
+    if (size == 0) {
+      sharesAndMaskBytes = new Pair<>(new ArrayList<>(), new byte[0]);
+      return EvaluationStatus.IS_DONE;
+    }
+    if (round == 0) {
+      List<Spdz2kInputMask<CompUInt128>> inputMasks =
+          dataSupplier.getNextInputMasks(inputPartyId, size);
+      maskShares = new Spdz2kSIntVector128(size);
+      CompUInt128Vector openMasks = new CompUInt128Vector(size);
+      for (int i = 0; i < size; i++) {
+        Spdz2kInputMask<CompUInt128> inputMask = inputMasks.get(i);
+        maskShares.set(i, inputMask.getMaskShare());
+        if (myId == inputPartyId) {
+          openMasks.set(i, inputMask.getOpenValue());
+        }
+      }
+      if (myId == inputPartyId) {
+        CompUInt128Vector bcValues = CompUInt128Vector.create(inputs).subtract(openMasks);
+        network.sendToAll(bcValues.serialize());
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      byte[] inputMaskBytes = network.receive(inputPartyId);
+      CompUInt128Vector bcValues = CompUInt128Vector.deserialize(inputMaskBytes);
+      if (bcValues.size() != size) {
+        throw new MaliciousException(
+            "Expected " + size + " masked inputs but received " + bcValues.size());
+      }
+      Spdz2kSIntVector128 out = maskShares.addConstant(bcValues,
+          dataSupplier.getSecretSharedKey(),
+          myId == 1);
+      this.sharesAndMaskBytes = new Pair<>(Collections.unmodifiableList(out), inputMaskBytes);
+      maskShares = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public Pair<List<DRes<SInt>>, byte[]> out() {
+    return sharesAndMaskBytes;
+  }
+
+}
@@ -0,0 +1,106 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Vector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSIntVector128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Native protocol for computing the pairwise products of two lists of secret numbers over {@link
+ * CompUInt128}. <p>This is equivalent to running a {@link Spdz2kMultiplyProtocol} for each pair,
+ * but the shares are kept in {@link Spdz2kSIntVector128} columns, the shares of all epsilons and of
+ * all deltas are each sent as a single message, and the opened values are pushed to the opened
+ * value store in bulk.</p>
+ */
+public class Spdz2kMultiplyVectorProtocol128 extends
+    Spdz2kNativeProtocol<List<DRes<SInt>>, CompUInt128> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private Spdz2kSIntVector128 tripleLeft;
+  private Spdz2kSIntVector128 tripleRight;
+  private Spdz2kSIntVector128 tripleProduct;
+  private Spdz2kSIntVector128 epsilons;
+  private Spdz2kSIntVector128 deltas;
+  private List<DRes<SInt>> products;
+
+  /**
+   * Creates new {@link Spdz2kMultiplyVectorProtocol128}.
+   *
+   * @param left left factors
+   * @param right right factors, must have the same size as left
+   */
+  public Spdz2kMultiplyVectorProtocol128(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, Spdz2kResourcePool<CompUInt128> resourcePool,
+      Network network) {
+    Spdz2kDataSupplier<CompUInt128> dataSupplier = resourcePool.getDataSupplier();
+    int size = left.size();
+    if (size == 0) {
+      products = new ArrayList<>();
+      return EvaluationStatus.IS_DONE;
+    }
+    if (round == 0) {
+      List<Spdz2kTriple<CompUInt128>> triples = dataSupplier.getNextTripleShares(size);
+      tripleLeft = new Spdz2kSIntVector128(size);
+      tripleRight = new Spdz2kSIntVector128(size);
+      tripleProduct = new Spdz2kSIntVector128(size);
+      for (int i = 0; i < size; i++) {
+        Spdz2kTriple<CompUInt128> triple = triples.get(i);
+        tripleLeft.set(i, triple.getLeft());
+        tripleRight.set(i, triple.getRight());
+        tripleProduct.set(i, triple.getProduct());
+      }
+      epsilons = Spdz2kSIntVector128.create(left).subtract(tripleLeft);
+      deltas = Spdz2kSIntVector128.create(right).subtract(tripleRight);
+      network.sendToAll(epsilons.getShares().serializeLeastSignificant());
+      network.sendToAll(deltas.getShares().serializeLeastSignificant());
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      CompUInt128Vector e = CompUInt128Vector.sumLeastSignificant(network.receiveFromAll());
+      CompUInt128Vector d = CompUInt128Vector.sumLeastSignificant(network.receiveFromAll());
+      // compute [prod] = [c] + epsilon * [b] + delta * [a] + epsilon * delta
+      Spdz2kSIntVector128 product = tripleProduct
+          .add(tripleRight.multiply(e))
+          .add(tripleLeft.multiply(d))
+          .addConstant(e.multiply(d),
+              dataSupplier.getSecretSharedKey(),
+              resourcePool.getMyId() == 1);
+      OpenedValueStore<Spdz2kSInt<CompUInt128>, CompUInt128> openedValueStore =
+          resourcePool.getOpenedValueStore();
+      openedValueStore.pushOpenedValues(epsilons, e);
+      openedValueStore.pushOpenedValues(deltas, d);
+      this.products = Collections.unmodifiableList(product);
+      tripleLeft = null;
+      tripleRight = null;
+      tripleProduct = null;
+      epsilons = null;
+      deltas = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return products;
+  }
+
+}
@@ -0,0 +1,69 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Vector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSIntVector128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt64;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Native protocol for opening a list of secret values over {@link CompUInt128} to all parties.
+ * <p>This is equivalent to running a {@link Spdz2kOutputToAllProtocol} for each value, but the
+ * shares of all values are sent as a single message and the opened values are pushed to the opened
+ * value store in bulk.</p>
+ */
+public class Spdz2kOutputToAllVectorProtocol128
+    extends Spdz2kNativeProtocol<List<DRes<BigInteger>>, CompUInt128>
+    implements RequiresMacCheck {
+
+  private final List<? extends DRes<SInt>> shares;
+  private List<DRes<BigInteger>> opened;
+  private Spdz2kSIntVector128 authenticatedElements;
+
+  /**
+   * Creates new {@link Spdz2kOutputToAllVectorProtocol128}.
+   *
+   * @param shares values to open
+   */
+  public Spdz2kOutputToAllVectorProtocol128(List<? extends DRes<SInt>> shares) {
+    this.shares = shares;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, Spdz2kResourcePool<CompUInt128> resourcePool,
+      Network network) {
+    if (shares.isEmpty()) {
+      opened = new ArrayList<>();
+      return EvaluationStatus.IS_DONE;
+    }
+    if (round == 0) {
+      authenticatedElements = Spdz2kSIntVector128.create(shares);
+      network.sendToAll(authenticatedElements.getShares().serializeLeastSignificant());
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      CompUInt128Vector recombined =
+          CompUInt128Vector.sumLeastSignificant(network.receiveFromAll());
+      resourcePool.getOpenedValueStore().pushOpenedValues(authenticatedElements, recombined);
+      List<DRes<BigInteger>> result = new ArrayList<>(recombined.size());
+      for (int i = 0; i < recombined.size(); i++) {
+        BigInteger value = new UInt64(recombined.getLeastSignificantAsLong(i)).toBigInteger();
+        result.add(() -> value);
+      }
+      this.opened = result;
+      authenticatedElements = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<BigInteger>> out() {
+    return opened;
+  }
+
+}
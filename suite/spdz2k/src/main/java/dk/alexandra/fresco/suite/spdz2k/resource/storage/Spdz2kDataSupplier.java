@@ -4,6 +4,8 @@ import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for a supplier of pre-processing material. <p>Material includes random elements shares,
@@ -18,6 +20,21 @@ public interface Spdz2kDataSupplier<T extends CompUInt<?, ?, T>> {
    */
   Spdz2kTriple<T> getNextTripleShares();
 
+  /**
+   * Supplies a number of triples. The triples are the same as would be returned by calling {@link
+   * #getNextTripleShares()} the given number of times.
+   *
+   * @param amount the number of triples
+   * @return the next new triples
+   */
+  default List<Spdz2kTriple<T>> getNextTripleShares(int amount) {
+    List<Spdz2kTriple<T>> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      triples.add(getNextTripleShares());
+    }
+    return triples;
+  }
+
   /**
    * Supplies the next inputmask for a given input player.
    *
@@ -26,6 +43,22 @@ public interface Spdz2kDataSupplier<T extends CompUInt<?, ?, T>> {
    */
   Spdz2kInputMask<T> getNextInputMask(int towardPlayerId);
 
+  /**
+   * Supplies a number of input masks for a given input player. The masks are the same as would be
+   * returned by calling {@link #getNextInputMask(int)} the given number of times.
+   *
+   * @param towardPlayerId the id of the input player
+   * @param amount the number of input masks
+   * @return the appropriate input masks
+   */
+  default List<Spdz2kInputMask<T>> getNextInputMasks(int towardPlayerId, int amount) {
+    List<Spdz2kInputMask<T>> masks = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      masks.add(getNextInputMask(towardPlayerId));
+    }
+    return masks;
+  }
+
   /**
    * Supplies the next bit (SInt representing value in {0, 1}).
    */
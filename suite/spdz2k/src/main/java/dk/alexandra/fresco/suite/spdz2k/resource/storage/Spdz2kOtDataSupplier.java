@@ -0,0 +1,208 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.BackgroundSupplier;
+import dk.alexandra.fresco.framework.util.BackgroundSupplier.Watermarks;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.logging.PerformanceLogger;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtPreprocessing;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A data supplier which generates pre-processed material with {@link
+ * Spdz2kOtPreprocessing} in a background thread.
+ * <p>
+ * Each type of material (triples, random elements, bits and input masks towards each party) is
+ * kept in its own queue, which is refilled in batches by a {@link BackgroundSupplier} according to
+ * the watermarks of the queue. The pre-processing network should not be used by anything else
+ * while the supplier is running. The supplier should be closed when no longer needed, which stops
+ * the background thread of all parties.
+ * </p>
+ * <p>
+ * All material is checked before it is put in a queue, see {@link Spdz2kOtPreprocessing}. If a
+ * check fails, the background thread stops with a {@link
+ * dk.alexandra.fresco.framework.MaliciousException}, and the next call for material throws an
+ * exception caused by it.
+ * </p>
+ *
+ * @param <PlainT> the type of the ring elements
+ */
+public class Spdz2kOtDataSupplier<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Spdz2kDataSupplier<PlainT>, PerformanceLogger, Closeable {
+
+  public static final String STALL_COUNT = "SPDZ2K_OT_ONLINE_STALLS";
+  public static final String STALL_TIME = "SPDZ2K_OT_ONLINE_STALL_MILLIS";
+  public static final String REFILL_COUNT = "SPDZ2K_OT_REFILLS";
+  public static final String REFILL_TIME = "SPDZ2K_OT_REFILL_MILLIS";
+  public static final String QUEUE_DEPTH_PREFIX = "SPDZ2K_OT_QUEUE_DEPTH_";
+
+  private static final int TRIPLES = 0;
+  private static final int RANDOM_ELEMENTS = 1;
+  private static final int BITS = 2;
+  private static final int INPUT_MASKS = 3;
+
+  private final int noOfParties;
+  private final PlainT macKeyShare;
+  private final BackgroundSupplier background;
+
+  /**
+   * Creates new {@link Spdz2kOtDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param preprocessingNetwork supplier of the network used for pre-processing, called by the
+   *     background thread
+   * @param factory factory for the ring elements
+   * @param macKeyShare this party's share of the mac key, which must be less than 2<sup>s</sup>,
+   *     see {@link Spdz2kOtPreprocessing#sampleMacKeyShare(CompUIntFactory, Drbg)}
+   * @param seedOts seed OTs with each of the other parties
+   * @param drbg source of randomness, only used by the background thread
+   * @param computationalSecurityParameter computational security parameter of the OT extension
+   * @param statisticalSecurityParameter statistical security parameter of the OT extension
+   * @param batchSize number of elements generated in each batch
+   * @param tripleWatermarks watermarks of the triple queue
+   * @param randomElementWatermarks watermarks of the random element queue
+   * @param bitWatermarks watermarks of the random bit queue
+   * @param inputMaskWatermarks watermarks of each of the input mask queues
+   */
+  public Spdz2kOtDataSupplier(int myId, int noOfParties,
+      Supplier<Network> preprocessingNetwork, CompUIntFactory<PlainT> factory, PlainT macKeyShare,
+      Map<Integer, RotList> seedOts, Drbg drbg, int computationalSecurityParameter,
+      int statisticalSecurityParameter, int batchSize, Watermarks tripleWatermarks,
+      Watermarks randomElementWatermarks, Watermarks bitWatermarks,
+      Watermarks inputMaskWatermarks) {
+    this.noOfParties = noOfParties;
+    this.macKeyShare = macKeyShare;
+    List<Watermarks> watermarks = new ArrayList<>(INPUT_MASKS + noOfParties);
+    watermarks.add(tripleWatermarks);
+    watermarks.add(randomElementWatermarks);
+    watermarks.add(bitWatermarks);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      watermarks.add(inputMaskWatermarks);
+    }
+    this.background = new BackgroundSupplier("SPDZ2k", myId, noOfParties, preprocessingNetwork,
+        network -> {
+          Spdz2kOtPreprocessing<PlainT> preprocessing =
+              new Spdz2kOtPreprocessing<>(myId, noOfParties, factory, macKeyShare,
+                  network, drbg, seedOts, computationalSecurityParameter,
+                  statisticalSecurityParameter);
+          return kind -> generate(preprocessing, kind, batchSize);
+        }, watermarks);
+  }
+
+  /**
+   * Creates instance of {@link Spdz2kOtDataSupplier} with 128 bit computational and 40
+   * bit statistical security which keeps between 4 and 16 batches of triples and between 1 and 2
+   * batches of each other kind of material.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> Spdz2kOtDataSupplier<PlainT>
+      createSimpleSupplier(int myId, int noOfParties, Supplier<Network> preprocessingNetwork,
+      CompUIntFactory<PlainT> factory, PlainT macKeyShare, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    int batchSize = 1024;
+    Watermarks other = new Watermarks(batchSize, 2 * batchSize);
+    return new Spdz2kOtDataSupplier<>(myId, noOfParties, preprocessingNetwork, factory,
+        macKeyShare, seedOts, drbg, 128, 40, batchSize,
+        new Watermarks(4 * batchSize, 16 * batchSize), other, other, other);
+  }
+
+  /**
+   * Starts generating material in the background. This is done automatically when material is
+   * first requested, but starting early lets the queues fill up before the online phase.
+   */
+  public void start() {
+    background.start();
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    return background.<Spdz2kTriple<PlainT>>take(TRIPLES, 1).get(0);
+  }
+
+  @Override
+  public List<Spdz2kTriple<PlainT>> getNextTripleShares(int amount) {
+    return background.take(TRIPLES, amount);
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    return background.<Spdz2kInputMask<PlainT>>take(INPUT_MASKS + towardPlayerId - 1, 1).get(0);
+  }
+
+  @Override
+  public List<Spdz2kInputMask<PlainT>> getNextInputMasks(int towardPlayerId, int amount) {
+    return background.take(INPUT_MASKS + towardPlayerId - 1, amount);
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    return background.<Spdz2kSInt<PlainT>>take(BITS, 1).get(0);
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return macKeyShare;
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    return background.<Spdz2kSInt<PlainT>>take(RANDOM_ELEMENTS, 1).get(0);
+  }
+
+  /**
+   * Stops the background thread. For party 1 this also stops the background threads of the other
+   * parties.
+   */
+  @Override
+  public void close() {
+    background.close();
+  }
+
+  @Override
+  public void reset() {
+    background.reset();
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    values.put(STALL_COUNT, background.getStallCount());
+    values.put(STALL_TIME, TimeUnit.NANOSECONDS.toMillis(background.getStallNanos()));
+    values.put(REFILL_COUNT, background.getRefillCount());
+    values.put(REFILL_TIME, TimeUnit.NANOSECONDS.toMillis(background.getRefillNanos()));
+    values.put(QUEUE_DEPTH_PREFIX + "TRIPLES", (long) background.getQueueSize(TRIPLES));
+    values.put(QUEUE_DEPTH_PREFIX + "RANDOM_ELEMENTS",
+        (long) background.getQueueSize(RANDOM_ELEMENTS));
+    values.put(QUEUE_DEPTH_PREFIX + "BITS", (long) background.getQueueSize(BITS));
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      values.put(QUEUE_DEPTH_PREFIX + "INPUT_MASKS_" + partyId,
+          (long) background.getQueueSize(INPUT_MASKS + partyId - 1));
+    }
+    return values;
+  }
+
+  private static List<?> generate(Spdz2kOtPreprocessing<?> preprocessing, int kind,
+      int batchSize) {
+    if (kind == TRIPLES) {
+      return preprocessing.generateTriples(batchSize);
+    } else if (kind == RANDOM_ELEMENTS) {
+      return preprocessing.generateRandomElements(batchSize);
+    } else if (kind == BITS) {
+      return preprocessing.generateBits(batchSize);
+    } else {
+      return preprocessing.generateInputMasks(kind - INPUT_MASKS + 1, batchSize);
+    }
+  }
+}
@@ -56,6 +56,12 @@ public abstract class Spdz2kTestSuite<Spdz2kResourcePoolT extends Spdz2kResource
     runTest(new TestCloseAndOpenList<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
   }
 
+  @Test
+  public void testMultiplyList() {
+    runTest(new BasicArithmeticTests.TestMultListWithOverflow<>(),
+        EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
   @Test
   public void testMultiplyMany() {
     runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark comparing the vectorized multiplication of the K64 suite, which multiplies a list of
+ * values with a single {@link dk.alexandra.fresco.suite.spdz2k.protocols.natives
+ * .Spdz2kMultiplyVectorProtocol128}, with a {@link dk.alexandra.fresco.suite.spdz2k.protocols
+ * .natives.Spdz2kMultiplyProtocol} per pair of values. Uses the dummy data supplier, so only the
+ * online phase is measured. Ignored by default since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdz2kMultiplyBenchmark
+    extends AbstractSpdz2kTest<Spdz2kResourcePool<CompUInt128>> {
+
+  private static final Logger logger = LoggerFactory.getLogger(TestSpdz2kMultiplyBenchmark.class);
+  private static final int WARMUP_MULTIPLICATIONS = 100_000;
+  private static final int MULTIPLICATIONS = 1_000_000;
+
+  @Test
+  public void testMultiplyTwoParties() {
+    runTest(new MultiplyBenchmark(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  @Override
+  protected Spdz2kResourcePool<CompUInt128> createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier) {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    Spdz2kResourcePool<CompUInt128> resourcePool =
+        new Spdz2kResourcePoolImpl<>(
+            playerId,
+            noOfParties, null,
+            new Spdz2kOpenedValueStoreImpl<>(),
+            new Spdz2kDummyDataSupplier<>(playerId, noOfParties, factory.createRandom(), factory),
+            factory);
+    resourcePool.initializeJointRandomness(networkSupplier, AesCtrDrbg::new, 32);
+    return resourcePool;
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt128>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK64();
+  }
+
+  private static class MultiplyBenchmark
+      extends TestThreadFactory<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> next() {
+      return new TestThread<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          measure(WARMUP_MULTIPLICATIONS);
+          measure(MULTIPLICATIONS);
+        }
+
+        private void measure(int size) {
+          List<DRes<SInt>> left = runApplication(known(size, 3));
+          List<DRes<SInt>> right = runApplication(known(size, 5));
+          long start = System.nanoTime();
+          List<DRes<SInt>> vectorProducts =
+              runApplication(producer -> producer.numeric().mult(left, right));
+          long vector = System.nanoTime() - start;
+          start = System.nanoTime();
+          List<DRes<SInt>> objectProducts = runApplication(producer -> producer.par(par -> {
+            Numeric numeric = par.numeric();
+            List<DRes<SInt>> products = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+              products.add(numeric.mult(left.get(i), right.get(i)));
+            }
+            return () -> products;
+          }));
+          long object = System.nanoTime() - start;
+          BigInteger last = BigInteger.valueOf(15L * (size - 1) * (size - 1));
+          Assert.assertEquals(last, runApplication(
+              producer -> producer.numeric().open(vectorProducts.get(size - 1))));
+          Assert.assertEquals(last, runApplication(
+              producer -> producer.numeric().open(objectProducts.get(size - 1))));
+          if (conf.getMyId() == 1) {
+            logger.info("{} multiplications: vector protocol {} ms, protocol per product {} ms",
+                size, TimeUnit.NANOSECONDS.toMillis(vector), TimeUnit.NANOSECONDS.toMillis(object));
+          }
+        }
+
+        private Application<List<DRes<SInt>>, ProtocolBuilderNumeric> known(int size,
+            int factor) {
+          return producer -> {
+            Numeric numeric = producer.numeric();
+            List<DRes<SInt>> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+              values.add(numeric.known(BigInteger.valueOf((long) factor * i)));
+            }
+            return () -> values;
+          };
+        }
+      };
+    }
+  }
+}
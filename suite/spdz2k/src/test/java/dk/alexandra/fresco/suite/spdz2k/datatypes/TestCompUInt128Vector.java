@@ -0,0 +1,132 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt128Vector {
+
+  private static final BigInteger TWO_TO_128 = BigInteger.ONE.shiftLeft(128);
+  private static final BigInteger TWO_TO_64 = BigInteger.ONE.shiftLeft(64);
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testArithmetic() {
+    List<CompUInt128> left = randomElements(100);
+    List<CompUInt128> right = randomElements(100);
+    CompUInt128Vector leftVector = CompUInt128Vector.create(left);
+    CompUInt128Vector rightVector = CompUInt128Vector.create(right);
+    CompUInt128Vector sum = leftVector.add(rightVector);
+    CompUInt128Vector difference = leftVector.subtract(rightVector);
+    CompUInt128Vector product = leftVector.multiply(rightVector);
+    CompUInt128Vector scaled = leftVector.scale(right.get(0));
+    CompUInt128Vector accumulated = CompUInt128Vector.create(left);
+    accumulated.accumulate(rightVector);
+    for (int i = 0; i < left.size(); i++) {
+      BigInteger a = left.get(i).toBigInteger();
+      BigInteger b = right.get(i).toBigInteger();
+      assertEquals(a.add(b).mod(TWO_TO_128), sum.get(i).toBigInteger());
+      assertEquals(a.subtract(b).mod(TWO_TO_128), difference.get(i).toBigInteger());
+      assertEquals(a.multiply(b).mod(TWO_TO_128), product.get(i).toBigInteger());
+      assertEquals(a.multiply(right.get(0).toBigInteger()).mod(TWO_TO_128),
+          scaled.get(i).toBigInteger());
+      assertEquals(sum.get(i).toBigInteger(), accumulated.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testMultiplyHighUnsigned() {
+    long[] values = {0L, 1L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 0xffffffffL, 0x100000000L,
+        random.nextLong(), random.nextLong()};
+    for (long x : values) {
+      for (long y : values) {
+        BigInteger expected = unsigned(x).multiply(unsigned(y)).shiftRight(64);
+        assertEquals(expected.longValue(), CompUInt128Vector.multiplyHighUnsigned(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testSerialize() {
+    List<CompUInt128> elements = randomElements(10);
+    CompUInt128Vector vector = CompUInt128Vector.create(elements);
+    byte[] serialized = vector.serialize();
+    byte[] leastSignificant = vector.serializeLeastSignificant();
+    for (int i = 0; i < elements.size(); i++) {
+      assertArrayEquals(elements.get(i).toByteArray(),
+          Arrays.copyOfRange(serialized, 16 * i, 16 * (i + 1)));
+      assertArrayEquals(elements.get(i).getLeastSignificant().toByteArray(),
+          Arrays.copyOfRange(leastSignificant, 8 * i, 8 * (i + 1)));
+    }
+    assertEquals(toBigIntegersOf(elements),
+        toBigIntegers(CompUInt128Vector.deserialize(serialized)));
+  }
+
+  @Test
+  public void testSumLeastSignificant() {
+    CompUInt128Factory factory = new CompUInt128Factory();
+    List<byte[]> serialized = new ArrayList<>();
+    List<CompUInt128> expected = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      expected.add(factory.zero());
+    }
+    for (int party = 0; party < 3; party++) {
+      List<CompUInt128> shares = randomElements(5);
+      // make sure the sum of the least significant bits overflows
+      shares.set(0, new CompUInt128(0L, -1L));
+      serialized.add(CompUInt128Vector.create(shares).serializeLeastSignificant());
+      for (int i = 0; i < shares.size(); i++) {
+        CompUInt128 lowOnly = factory.deserialize(shares.get(i).getLeastSignificant()
+            .toByteArray());
+        expected.set(i, expected.get(i).add(lowOnly));
+      }
+    }
+    CompUInt128Vector sum = CompUInt128Vector.sumLeastSignificant(serialized);
+    assertEquals(TWO_TO_64.multiply(BigInteger.valueOf(3)).subtract(BigInteger.valueOf(3)),
+        sum.get(0).toBigInteger());
+    assertEquals(toBigIntegersOf(expected), toBigIntegers(sum));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddDifferentSizes() {
+    new CompUInt128Vector(2).add(new CompUInt128Vector(3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeserializeWrongLength() {
+    CompUInt128Vector.deserialize(new byte[15]);
+  }
+
+  private List<CompUInt128> randomElements(int size) {
+    List<CompUInt128> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      byte[] bytes = new byte[16];
+      random.nextBytes(bytes);
+      elements.add(new CompUInt128(bytes));
+    }
+    return elements;
+  }
+
+  private static List<BigInteger> toBigIntegers(CompUInt128Vector vector) {
+    return toBigIntegersOf(vector);
+  }
+
+  private static List<BigInteger> toBigIntegersOf(List<CompUInt128> elements) {
+    List<BigInteger> values = new ArrayList<>(elements.size());
+    for (CompUInt128 element : elements) {
+      values.add(element.toBigInteger());
+    }
+    return values;
+  }
+
+  private static BigInteger unsigned(long value) {
+    return BigInteger.valueOf(value).mod(TWO_TO_64);
+  }
+}
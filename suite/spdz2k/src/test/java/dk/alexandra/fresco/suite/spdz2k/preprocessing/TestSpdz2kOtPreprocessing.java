@@ -0,0 +1,309 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdz2kOtPreprocessing {
+
+  private static final int COMP_SEC = 128;
+  private static final int STAT_SEC = 40;
+  private static final int AMOUNT = 50;
+
+  private final CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+  private ExecutorService executorService;
+  private Map<Integer, CompUInt128> macKeyShares;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMacKeyShareTooLarge() {
+    CompUInt128 macKeyShare =
+        factory.createElement(BigInteger.ONE.shiftLeft(factory.getHighBitLength()));
+    new Spdz2kOtPreprocessing<>(1, 2, factory, macKeyShare, null, getDrbg(1),
+        new HashMap<>(), COMP_SEC, STAT_SEC);
+  }
+
+  @Test
+  public void testTriplesTwoParties() {
+    testTriples(2);
+  }
+
+  @Test
+  public void testTriplesThreeParties() {
+    testTriples(3);
+  }
+
+  @Test
+  public void testRandomElementsAndBitsTwoParties() {
+    testRandomElementsAndBits(2);
+  }
+
+  @Test
+  public void testRandomElementsAndBitsThreeParties() {
+    testRandomElementsAndBits(3);
+  }
+
+  @Test
+  public void testInputMasksThreeParties() {
+    List<List<Spdz2kInputMask<CompUInt128>>> masks =
+        runParties(3, preprocessing -> preprocessing.generateInputMasks(2, AMOUNT));
+    for (int i = 0; i < AMOUNT; i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>();
+      for (int partyId = 1; partyId <= 3; partyId++) {
+        Spdz2kInputMask<CompUInt128> mask = masks.get(partyId - 1).get(i);
+        shares.add(mask.getMaskShare());
+        if (partyId != 2) {
+          assertNull(mask.getOpenValue());
+        }
+      }
+      CompUInt128 value = recombine(shares);
+      assertEquals(value.toBigInteger(), masks.get(1).get(i).getOpenValue().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testEmptyBatch() {
+    List<List<Spdz2kTriple<CompUInt128>>> triples =
+        runParties(2, preprocessing -> preprocessing.generateTriples(0));
+    assertTrue(triples.get(0).isEmpty());
+    assertTrue(triples.get(1).isEmpty());
+  }
+
+  @Test
+  public void testCheatingInAuthenticationDetected() {
+    // the differences sent by the COPE inputter for AMOUNT values and a mask
+    int length = serializedLength((AMOUNT + 1) * factory.getHighBitLength());
+    testCheatingDetected(length, preprocessing -> preprocessing.generateRandomElements(AMOUNT));
+  }
+
+  @Test
+  public void testCheatingInMultiplicationDetected() {
+    // the differences sent by the multiplier for a triple and its sacrifice
+    int length = serializedLength(AMOUNT * factory.getCompositeBitLength() * 2);
+    testCheatingDetected(length, preprocessing -> preprocessing.generateTriples(AMOUNT));
+  }
+
+  private void testTriples(int noOfParties) {
+    List<List<Spdz2kTriple<CompUInt128>>> triples =
+        runParties(noOfParties, preprocessing -> preprocessing.generateTriples(AMOUNT));
+    for (int i = 0; i < AMOUNT; i++) {
+      List<Spdz2kSInt<CompUInt128>> left = new ArrayList<>();
+      List<Spdz2kSInt<CompUInt128>> right = new ArrayList<>();
+      List<Spdz2kSInt<CompUInt128>> product = new ArrayList<>();
+      for (List<Spdz2kTriple<CompUInt128>> partyTriples : triples) {
+        left.add(partyTriples.get(i).getLeft());
+        right.add(partyTriples.get(i).getRight());
+        product.add(partyTriples.get(i).getProduct());
+      }
+      assertEquals(recombine(left).multiply(recombine(right)).toBigInteger(),
+          recombine(product).toBigInteger());
+    }
+  }
+
+  private void testRandomElementsAndBits(int noOfParties) {
+    List<List<Spdz2kSInt<CompUInt128>>> results = runParties(noOfParties, preprocessing -> {
+      List<Spdz2kSInt<CompUInt128>> elements = preprocessing.generateRandomElements(AMOUNT);
+      elements.addAll(preprocessing.generateBits(AMOUNT));
+      return elements;
+    });
+    int ones = 0;
+    for (int i = 0; i < 2 * AMOUNT; i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>();
+      for (List<Spdz2kSInt<CompUInt128>> partyResults : results) {
+        shares.add(partyResults.get(i));
+      }
+      BigInteger value = recombine(shares).toBigInteger();
+      if (i >= AMOUNT) {
+        assertTrue(value.equals(BigInteger.ZERO) || value.equals(BigInteger.ONE));
+        ones += value.intValue();
+      }
+    }
+    assertTrue(ones > 0 && ones < AMOUNT);
+  }
+
+  private void testCheatingDetected(int length,
+      Function<Spdz2kOtPreprocessing<CompUInt128>, ?> task) {
+    try {
+      runParties(2, task,
+          (myId, network) -> myId == 2 ? new CorruptingNetwork(network, length) : network);
+      fail("Cheating was not detected");
+    } catch (RuntimeException e) {
+      Throwable cause = e;
+      while (cause.getCause() != null && !(cause instanceof MaliciousException)) {
+        cause = cause.getCause();
+      }
+      assertTrue(cause instanceof MaliciousException);
+      assertEquals("Mac check failed", cause.getMessage());
+    }
+  }
+
+  private int serializedLength(int numElements) {
+    return factory.getSerializer().serialize(Collections.nCopies(numElements, factory.zero()))
+        .length;
+  }
+
+  /**
+   * Recombines shares and checks the macs.
+   */
+  private CompUInt128 recombine(List<Spdz2kSInt<CompUInt128>> shares) {
+    CompUInt128 value = factory.zero();
+    CompUInt128 mac = factory.zero();
+    CompUInt128 macKey = factory.zero();
+    for (int partyId = 1; partyId <= shares.size(); partyId++) {
+      value = value.add(shares.get(partyId - 1).getShare());
+      mac = mac.add(shares.get(partyId - 1).getMacShare());
+      macKey = macKey.add(macKeyShares.get(partyId));
+    }
+    assertEquals(macKey.multiply(value).toBigInteger(), mac.toBigInteger());
+    return value;
+  }
+
+  private <T> List<T> runParties(int noOfParties,
+      Function<Spdz2kOtPreprocessing<CompUInt128>, T> task) {
+    return runParties(noOfParties, task, (myId, network) -> network);
+  }
+
+  private <T> List<T> runParties(int noOfParties,
+      Function<Spdz2kOtPreprocessing<CompUInt128>, T> task,
+      BiFunction<Integer, Network, Network> networkDecorator) {
+    Map<Integer, NetworkConfiguration> netConf =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noOfParties));
+    macKeyShares = new HashMap<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      macKeyShares.put(partyId,
+          Spdz2kOtPreprocessing.sampleMacKeyShare(factory, getDrbg(-partyId)));
+    }
+    List<Callable<T>> tasks = new ArrayList<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      int myId = partyId;
+      tasks.add(() -> {
+        try (CloseableNetwork network = new SocketNetwork(netConf.get(myId))) {
+          Drbg drbg = getDrbg(myId);
+          Spdz2kOtPreprocessing<CompUInt128> preprocessing =
+              new Spdz2kOtPreprocessing<>(myId, noOfParties, factory,
+                  macKeyShares.get(myId), networkDecorator.apply(myId, network), drbg,
+                  getSeedOts(myId, noOfParties, drbg, network), COMP_SEC, STAT_SEC);
+          return task.apply(preprocessing);
+        }
+      });
+    }
+    List<Future<T>> futures = ExceptionConverter
+        .safe(() -> executorService.invokeAll(tasks), "Error invoking tasks");
+    List<T> results = new ArrayList<>(noOfParties);
+    for (Future<T> future : futures) {
+      results.add(ExceptionConverter.safe(future::get, "Error getting future result"));
+    }
+    return results;
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[COMP_SEC / 8];
+    new Random(myId).nextBytes(seed);
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, COMP_SEC);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  /**
+   * A network which flips a bit in every byte of the first message of the given length sent to
+   * another party. Errors in the OT based protocols only take effect for some choice bits, so all
+   * elements of the message are corrupted.
+   */
+  private static class CorruptingNetwork implements Network {
+
+    private final Network network;
+    private final int length;
+    private boolean corrupted;
+
+    CorruptingNetwork(Network network, int length) {
+      this.network = network;
+      this.length = length;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      if (!corrupted && data.length == length) {
+        data = data.clone();
+        for (int i = 0; i < data.length; i++) {
+          data[i] ^= 1;
+        }
+        corrupted = true;
+      }
+      network.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return network.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+  }
+
+}
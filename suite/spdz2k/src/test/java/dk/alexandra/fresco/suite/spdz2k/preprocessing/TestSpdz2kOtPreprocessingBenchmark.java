@@ -0,0 +1,138 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the triple generation of {@link Spdz2kOtPreprocessing} for k = s = 64
+ * with all parties running over loopback in the same JVM. Ignored by default since it takes long to
+ * run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestSpdz2kOtPreprocessingBenchmark {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(TestSpdz2kOtPreprocessingBenchmark.class);
+  private static final int COMP_SEC = 128;
+  private static final int STAT_SEC = 40;
+  private static final int BATCH_SIZE = 1024;
+  private static final int BATCHES = 4;
+
+  private final CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+  private ExecutorService executorService;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void testTriplesTwoParties() {
+    benchmarkTriples(2);
+  }
+
+  @Test
+  public void testTriplesThreeParties() {
+    benchmarkTriples(3);
+  }
+
+  private void benchmarkTriples(int noOfParties) {
+    Map<Integer, NetworkConfiguration> netConf =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noOfParties));
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      int myId = partyId;
+      tasks.add(() -> {
+        try (CloseableNetwork network = new SocketNetwork(netConf.get(myId))) {
+          Drbg drbg = getDrbg(myId);
+          Spdz2kOtPreprocessing<CompUInt128> preprocessing =
+              new Spdz2kOtPreprocessing<>(myId, noOfParties, factory,
+                  Spdz2kOtPreprocessing.sampleMacKeyShare(factory, drbg), network,
+                  drbg, getSeedOts(myId, noOfParties, drbg, network), COMP_SEC, STAT_SEC);
+          // warm up, which also sets up the OT extension
+          preprocessing.generateTriples(BATCH_SIZE);
+          long start = System.nanoTime();
+          int generated = 0;
+          for (int batch = 0; batch < BATCHES; batch++) {
+            List<Spdz2kTriple<CompUInt128>> triples = preprocessing.generateTriples(BATCH_SIZE);
+            generated += triples.size();
+          }
+          long time = System.nanoTime() - start;
+          if (myId == 1) {
+            logger.info("{} parties: {} triples in {} ms, {} triples/s", noOfParties, generated,
+                TimeUnit.NANOSECONDS.toMillis(time),
+                Math.round(generated * 1e9 / time));
+          }
+          return generated;
+        }
+      });
+    }
+    List<Future<Integer>> futures = ExceptionConverter
+        .safe(() -> executorService.invokeAll(tasks), "Error invoking tasks");
+    for (Future<Integer> future : futures) {
+      Assert.assertEquals(BATCHES * BATCH_SIZE,
+          (int) ExceptionConverter.safe(future::get, "Error getting future result"));
+    }
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[COMP_SEC / 8];
+    new Random(myId).nextBytes(seed);
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, COMP_SEC);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+}
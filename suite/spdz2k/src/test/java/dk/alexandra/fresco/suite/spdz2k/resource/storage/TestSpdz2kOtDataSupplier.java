@@ -0,0 +1,190 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.BackgroundSupplier.Watermarks;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuiteK64;
+import dk.alexandra.fresco.suite.spdz2k.Spdz2kTestSuite;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtPreprocessing;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the SPDZ2k test suite with pre-processed material generated by a {@link
+ * Spdz2kOtDataSupplier}.
+ */
+public class TestSpdz2kOtDataSupplier
+    extends Spdz2kTestSuite<Spdz2kResourcePool<CompUInt128>> {
+
+  private static final int COMP_SEC = 128;
+  private static final int STAT_SEC = 40;
+  private static final int BATCH_SIZE = 16;
+
+  private Map<Integer, NetworkConfiguration> preprocessingNetConf;
+
+  @Test
+  public void testMultList() {
+    runTest(new BasicArithmeticTests.TestMultListWithOverflow<>(),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  @Test
+  public void testInputFromAll() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        3);
+  }
+
+  @Test
+  public void testMetricsAndClose() {
+    runTest(new TestMetricsAndClose<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWatermarks() {
+    new Watermarks(10, 5);
+  }
+
+  @Override
+  protected void runTest(
+      TestThreadFactory<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> f,
+      EvaluationStrategy evalStrategy, int noOfParties) {
+    preprocessingNetConf =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noOfParties));
+    super.runTest(f, evalStrategy, noOfParties);
+  }
+
+  @Override
+  protected Spdz2kResourcePool<CompUInt128> createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier) {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    Network preprocessingNetwork = new SocketNetwork(preprocessingNetConf.get(playerId));
+    Drbg drbg = getDrbg(playerId);
+    Map<Integer, RotList> seedOts =
+        getSeedOts(playerId, noOfParties, drbg, preprocessingNetwork);
+    Watermarks onDemand = new Watermarks(0, 0);
+    Spdz2kOtDataSupplier<CompUInt128> supplier = new Spdz2kOtDataSupplier<>(
+        playerId, noOfParties, () -> preprocessingNetwork, factory,
+        Spdz2kOtPreprocessing.sampleMacKeyShare(factory, drbg), seedOts, drbg,
+        COMP_SEC, STAT_SEC, BATCH_SIZE, new Watermarks(BATCH_SIZE, 4 * BATCH_SIZE), onDemand,
+        onDemand, onDemand);
+    Spdz2kResourcePool<CompUInt128> resourcePool =
+        new Spdz2kResourcePoolImpl<>(
+            playerId,
+            noOfParties, null,
+            new Spdz2kOpenedValueStoreImpl<>(),
+            supplier,
+            factory);
+    resourcePool.initializeJointRandomness(networkSupplier, AesCtrDrbg::new, 32);
+    return resourcePool;
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt128>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK64();
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[COMP_SEC / 8];
+    new Random(myId).nextBytes(seed);
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, COMP_SEC);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private static class TestMetricsAndClose<ResourcePoolT extends Spdz2kResourcePool<?>>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          int amount = 40;
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = producer -> {
+            Numeric numeric = producer.numeric();
+            DRes<SInt> value = numeric.known(BigInteger.valueOf(3));
+            List<DRes<BigInteger>> opened = new ArrayList<>(amount);
+            for (int i = 0; i < amount; i++) {
+              opened.add(numeric.open(numeric.mult(value, value)));
+            }
+            return () -> {
+              List<BigInteger> result = new ArrayList<>(amount);
+              for (DRes<BigInteger> product : opened) {
+                result.add(product.out());
+              }
+              return result;
+            };
+          };
+          List<BigInteger> output = runApplication(app);
+          for (BigInteger product : output) {
+            Assert.assertEquals(BigInteger.valueOf(9), product);
+          }
+          Spdz2kOtDataSupplier<?> supplier =
+              (Spdz2kOtDataSupplier<?>) conf.getResourcePool().getDataSupplier();
+          Map<String, Long> metrics = supplier.getLoggedValues();
+          Assert.assertTrue(metrics.get(Spdz2kOtDataSupplier.REFILL_COUNT) >= 3);
+          Assert.assertTrue(
+              metrics.containsKey(Spdz2kOtDataSupplier.QUEUE_DEPTH_PREFIX + "TRIPLES"));
+          supplier.reset();
+          Assert.assertEquals(0L,
+              (long) supplier.getLoggedValues().get(Spdz2kOtDataSupplier.REFILL_COUNT));
+          supplier.close();
+          try {
+            supplier.getNextTripleShares(10000);
+            Assert.fail("Closed supplier should not generate new material");
+          } catch (IllegalStateException e) {
+            // expected
+          }
+        }
+      };
+    }
+  }
+}
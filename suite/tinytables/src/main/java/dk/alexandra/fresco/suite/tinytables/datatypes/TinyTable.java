@@ -1,7 +1,6 @@
 package dk.alexandra.fresco.suite.tinytables.datatypes;
 
 import java.io.Serializable;
-import java.util.Arrays;
 
 /**
  * <p>
@@ -21,21 +20,39 @@ public class TinyTable implements Serializable {
   /**
    *
    */
-  private static final long serialVersionUID = -8858300334880894784L;
-  private TinyTablesElement[][] table;
+  private static final long serialVersionUID = 3240935786254937519L;
+
+  /**
+   * The four entries of the table packed into the lowest four bits, such that entry <i>(c,d)</i> is
+   * bit <i>2c + d</i>.
+   */
+  private final byte table;
+
+  private static final TinyTable[] INSTANCES = new TinyTable[16];
+
+  static {
+    for (int i = 0; i < INSTANCES.length; i++) {
+      INSTANCES[i] = new TinyTable((byte) i);
+    }
+  }
+
+  private TinyTable(byte table) {
+    this.table = table;
+  }
 
   public TinyTable(TinyTablesElement[] values) {
     if (values.length != 4) {
       throw new IllegalArgumentException("Array length must be 4");
     }
-    this.table = new TinyTablesElement[2][2];
-    this.table[0][0] = values[0];
-    this.table[0][1] = values[1];
-    this.table[1][0] = values[2];
-    this.table[1][1] = values[3];
+    int packed = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i].getShare()) {
+        packed |= 1 << i;
+      }
+    }
+    this.table = (byte) packed;
   }
 
-
   /**
    * Return the entry for this TinyTable corresponding to the given values of
    * inputs.
@@ -44,12 +61,48 @@ public class TinyTable implements Serializable {
    * @return
    */
   public TinyTablesElement getValue(TinyTablesElement eu, TinyTablesElement ev) {
-    return table[asInt(eu.getShare())][asInt(ev.getShare())];
+    return TinyTablesElement.getInstance(getShare(eu.getShare(), ev.getShare()));
+  }
+
+  /**
+   * Return the share stored in this TinyTable at the entry corresponding to the given values of
+   * inputs.
+   *
+   * @param eu the first input
+   * @param ev the second input
+   * @return the entry at <i>(eu, ev)</i>
+   */
+  public boolean getShare(boolean eu, boolean ev) {
+    return (table >> (2 * asInt(eu) + asInt(ev)) & 1) == 1;
+  }
+
+  /**
+   * Returns the four entries of this TinyTable packed into the lowest four bits, such that entry
+   * <i>(c,d)</i> is bit <i>2c + d</i>.
+   *
+   * @return the packed entries
+   */
+  public int getPacked() {
+    return table;
+  }
+
+  /**
+   * Returns the TinyTable with the given packed entries, see {@link #getPacked()}.
+   *
+   * @param packed the packed entries, only the lowest four bits are used
+   * @return the TinyTable with the given entries
+   */
+  public static TinyTable getInstance(int packed) {
+    return INSTANCES[packed & 0xF];
   }
 
   @Override
   public String toString() {
-    return Arrays.deepToString(table);
+    return String.format("[[%s, %s], [%s, %s]]", entry(0), entry(1), entry(2), entry(3));
+  }
+
+  private TinyTablesElement entry(int index) {
+    return TinyTablesElement.getInstance((table >> index & 1) == 1);
   }
 
   private int asInt(boolean b) {
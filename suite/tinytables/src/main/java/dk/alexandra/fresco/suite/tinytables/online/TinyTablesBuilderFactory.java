@@ -8,10 +8,13 @@ import dk.alexandra.fresco.framework.value.SBool;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDVectorProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllVectorProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
+import java.util.List;
 
 public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
 
@@ -23,6 +26,16 @@ public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
     return counter++;
   }
 
+  /**
+   * Reserves a number of consecutive ids. These are the same ids as the preprocessing phase assigns
+   * to the same number of single gates.
+   */
+  private int getNextIds(int count) {
+    int first = counter;
+    counter += count;
+    return first;
+  }
+
   @Override
   public Binary createBinary(ProtocolBuilderBinary builder) {
     return new Binary() {
@@ -53,6 +66,14 @@ public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
         return p;
       }
 
+      @Override
+      public DRes<List<DRes<Boolean>>> open(List<DRes<SBool>> toOpen) {
+        TinyTablesOpenToAllVectorProtocol p =
+            new TinyTablesOpenToAllVectorProtocol(getNextIds(toOpen.size()), toOpen);
+        builder.append(p);
+        return p;
+      }
+
       @Override
       public DRes<SBool> not(DRes<SBool> in) {
         TinyTablesNOTProtocol p = new TinyTablesNOTProtocol(in);
@@ -78,6 +99,18 @@ public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
         builder.append(p);
         return p;
       }
+
+      @Override
+      public DRes<List<DRes<SBool>>> and(List<DRes<SBool>> left, List<DRes<SBool>> right) {
+        if (left.size() != right.size()) {
+          throw new IllegalArgumentException(
+              "Lists must have same size, was " + left.size() + " and " + right.size());
+        }
+        TinyTablesANDVectorProtocol p =
+            new TinyTablesANDVectorProtocol(getNextIds(left.size()), left, right);
+        builder.append(p);
+        return p;
+      }
     };
   }
 
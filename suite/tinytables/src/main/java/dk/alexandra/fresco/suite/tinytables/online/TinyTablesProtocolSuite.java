@@ -11,11 +11,10 @@ import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtoc
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesPackedStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -66,13 +65,9 @@ public class TinyTablesProtocolSuite
     return b;
   }
 
-  private TinyTablesStorage loadTinyTables(File file) throws IOException, ClassNotFoundException {
-    FileInputStream fin = new FileInputStream(file);
-    ObjectInputStream is = new ObjectInputStream(fin);
+  private TinyTablesStorage loadTinyTables(File file) throws IOException {
     logger.info("Loading TinyTabels from " + file);
-    TinyTablesStorage storage = (TinyTablesStorage) is.readObject();
-    is.close();
-    return storage;
+    return TinyTablesPackedStorage.load(file);
   }
 
   public TinyTablesStorage getStorage() {
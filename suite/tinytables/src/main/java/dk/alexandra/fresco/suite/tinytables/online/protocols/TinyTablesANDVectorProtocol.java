@@ -0,0 +1,98 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * This class represents a list of AND protocols in the TinyTables protocol's online phase, see
+ * {@link TinyTablesANDProtocol}.
+ * </p>
+ * <p>
+ * The gates have consecutive ids starting from the given id. Each player looks up the entries of
+ * all the gates in his TinyTables and sends them to the other player packed as a single bit vector,
+ * so the gates only take one message per player in total.
+ * </p>
+ */
+public class TinyTablesANDVectorProtocol extends TinyTablesProtocol<List<DRes<SBool>>> {
+
+  private final int firstId;
+  private final List<DRes<SBool>> inLeft;
+  private final List<DRes<SBool>> inRight;
+  private List<DRes<SBool>> out;
+
+  /**
+   * Constructs a new list of AND protocols.
+   *
+   * @param firstId the id of the first gate, the remaining gates have the following ids
+   * @param inLeft the left inputs
+   * @param inRight the right inputs, must have the same size as the left inputs
+   */
+  public TinyTablesANDVectorProtocol(int firstId, List<DRes<SBool>> inLeft,
+      List<DRes<SBool>> inRight) {
+    this.firstId = firstId;
+    this.inLeft = inLeft;
+    this.inRight = inRight;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+    int size = inLeft.size();
+    if (size == 0) {
+      this.out = new ArrayList<>();
+      return EvaluationStatus.IS_DONE;
+    }
+    if (round == 0) {
+      TinyTablesStorage storage =
+          TinyTablesProtocolSuite.getInstance(resourcePool.getMyId()).getStorage();
+      StrictBitVector myShares = new StrictBitVector(bitVectorSize(size));
+      for (int i = 0; i < size; i++) {
+        int id = firstId + i;
+        TinyTable tinyTable = Objects.requireNonNull(storage.getTinyTable(id),
+            "Unable to find TinyTable for gate with id " + id);
+        boolean share = tinyTable.getShare(getValue(inLeft.get(i)), getValue(inRight.get(i)));
+        myShares.setBit(i, share);
+      }
+      network.sendToAll(myShares.toByteArray());
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      StrictBitVector opened = new StrictBitVector(bitVectorSize(size));
+      for (byte[] bytes : network.receiveFromAll()) {
+        opened.xor(new StrictBitVector(bytes));
+      }
+      List<DRes<SBool>> result = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        result.add(TinyTablesSBool.getInstance(TinyTablesElement.getInstance(opened.getBit(i))));
+      }
+      this.out = result;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SBool>> out() {
+    return out;
+  }
+
+  private static boolean getValue(DRes<SBool> value) {
+    return ((TinyTablesSBool) value.out()).getValue().getShare();
+  }
+
+  /**
+   * Returns the smallest multiple of 8 which is at least the given number of bits.
+   */
+  static int bitVectorSize(int bits) {
+    return (bits + 7) / 8 * 8;
+  }
+}
@@ -0,0 +1,79 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * This class represents a list of open-to-all protocols in the TinyTables online phase, see
+ * {@link TinyTablesOpenToAllProtocol}.
+ * </p>
+ *
+ * <p>
+ * The values have consecutive ids starting from the given id, and each player sends his shares of
+ * all the masking parameters to the other player packed as a single bit vector.
+ * </p>
+ */
+public class TinyTablesOpenToAllVectorProtocol extends TinyTablesProtocol<List<DRes<Boolean>>> {
+
+  private final int firstId;
+  private final List<DRes<SBool>> toOpen;
+  private List<DRes<Boolean>> opened;
+
+  /**
+   * Constructs a new list of open-to-all protocols.
+   *
+   * @param firstId the id of the first value, the remaining values have the following ids
+   * @param toOpen the values to open
+   */
+  public TinyTablesOpenToAllVectorProtocol(int firstId, List<DRes<SBool>> toOpen) {
+    this.firstId = firstId;
+    this.toOpen = toOpen;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+    int size = toOpen.size();
+    if (size == 0) {
+      this.opened = new ArrayList<>();
+      return EvaluationStatus.IS_DONE;
+    }
+    if (round == 0) {
+      TinyTablesStorage storage =
+          TinyTablesProtocolSuite.getInstance(resourcePool.getMyId()).getStorage();
+      StrictBitVector myMaskShares =
+          new StrictBitVector(TinyTablesANDVectorProtocol.bitVectorSize(size));
+      for (int i = 0; i < size; i++) {
+        myMaskShares.setBit(i, storage.getMaskShare(firstId + i).getShare());
+      }
+      network.sendToAll(myMaskShares.toByteArray());
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      StrictBitVector masks = new StrictBitVector(TinyTablesANDVectorProtocol.bitVectorSize(size));
+      for (byte[] bytes : network.receiveFromAll()) {
+        masks.xor(new StrictBitVector(bytes));
+      }
+      List<DRes<Boolean>> result = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        boolean value =
+            ((TinyTablesSBool) toOpen.get(i).out()).getValue().getShare() ^ masks.getBit(i);
+        result.add(() -> value);
+      }
+      this.opened = result;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<Boolean>> out() {
+    return opened;
+  }
+}
@@ -6,6 +6,7 @@ import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.suite.ProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesPackedStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 
 /**
@@ -26,12 +27,13 @@ import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
  * </p>
  *
  * <p>
- * The masking values and TinyTables are stored in a {@link TinyTablesStorage} which can be stored
- * for later use in the online phase. In order to avoid leaks, you should not reuse the values from
- * a preprocessing in multiple evaluations of a protocol, but should instead preprocess once per
- * evaluation. Note that all the values calculated during the preprocessing phase is saved with a
- * protocols ID as key, which is simply incremented on each created protocol, it is important that
- * the protocols are created in exactly the same order in the preprocessing and online phases.
+ * The masking values and TinyTables are stored in a {@link TinyTablesStorage} which is written to
+ * a file in the compact format of {@link TinyTablesPackedStorage} for later use in the online
+ * phase. In order to avoid leaks, you should not reuse the values from a preprocessing in multiple
+ * evaluations of a protocol, but should instead preprocess once per evaluation. Note that all the
+ * values calculated during the preprocessing phase is saved with a protocols ID as key, which is
+ * simply incremented on each created protocol, it is important that the protocols are created in
+ * exactly the same order in the preprocessing and online phases.
  * </p>
  */
 public class TinyTablesPreproProtocolSuite
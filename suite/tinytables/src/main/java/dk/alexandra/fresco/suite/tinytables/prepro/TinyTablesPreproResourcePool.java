@@ -16,8 +16,8 @@ import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproProtocol;
 import dk.alexandra.fresco.suite.tinytables.storage.BatchTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesPackedStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
-import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
@@ -28,9 +28,6 @@ import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -47,7 +44,7 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
   private final Drng drng;
   private final List<TinyTablesPreproANDProtocol> unprocessedAnds;
-  private final TinyTablesStorage storage;
+  private final TinyTablesPackedStorage storage;
   private final File tinyTablesFile;
   private final Supplier<TinyTablesTripleProvider> supplier;
   private TinyTablesTripleProvider tinyTablesTripleProvider;
@@ -67,7 +64,7 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
       int otBatchSize, File tinyTablesFile, Supplier<Network> network) {
     super(myId, 2);
     this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
-    this.storage = new TinyTablesStorageImpl();
+    this.storage = new TinyTablesPackedStorage();
     this.tinyTablesFile = tinyTablesFile;
     this.drng = new DrngImpl(drbg);
     this.supplier = () -> {
@@ -175,20 +172,12 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
      * Store the TinyTables to a file.
      */
     ExceptionConverter.safe(() -> {
-      storeTinyTables(storage, tinyTablesFile);
+      storage.write(tinyTablesFile);
       LOGGER.info("TinyTables stored to " + tinyTablesFile);
       return null;
     }, "Failed to store TinyTables");
   }
 
-  private void storeTinyTables(TinyTablesStorage tinyTablesStorage, File file) throws IOException {
-    file.createNewFile();
-    FileOutputStream fout = new FileOutputStream(file);
-    ObjectOutputStream oos = new ObjectOutputStream(fout);
-    oos.writeObject(tinyTablesStorage);
-    oos.close();
-  }
-
   public TinyTablesStorage getStorage() {
     return storage;
   }
@@ -0,0 +1,164 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A {@link TinyTablesStorage} which keeps the TinyTables and mask shares in a dense array indexed
+ * by the id of the protocol, using a single byte per protocol.
+ * </p>
+ *
+ * <p>
+ * The lowest four bits of the byte for a protocol hold the entries of its TinyTable as given by
+ * {@link TinyTable#getPacked()}, and the remaining bits hold the share of the mask and whether a
+ * TinyTable and a mask share has been stored. The storage is written to a file as a short header
+ * followed by the array, so in the online phase the file can be memory-mapped and read directly
+ * using {@link #load(File)} instead of being deserialized.
+ * </p>
+ */
+public class TinyTablesPackedStorage implements TinyTablesStorage {
+
+  private static final int MAGIC = 0x54545031;
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int TABLE_MASK = 0x0F;
+  private static final int HAS_TABLE = 0x10;
+  private static final int MASK_SHARE = 0x20;
+  private static final int HAS_MASK_SHARE = 0x40;
+
+  // Writes are synchronized while reads are not, so both fields are volatile to publish new
+  // entries and a grown array safely to reading threads. An entry is written before the size.
+  private volatile ByteBuffer entries;
+  private volatile int size;
+
+  /**
+   * Creates a new empty storage.
+   */
+  public TinyTablesPackedStorage() {
+    this(ByteBuffer.allocate(INITIAL_CAPACITY), 0);
+  }
+
+  private TinyTablesPackedStorage(ByteBuffer entries, int size) {
+    this.entries = entries;
+    this.size = size;
+  }
+
+  /**
+   * Loads a storage written using {@link #write(File)}. The file is memory-mapped, so the entries
+   * are only read from disk when they are used, and the storage is read-only.
+   *
+   * @param file the file to load
+   * @return the loaded storage
+   * @throws IOException if the file could not be read
+   */
+  public static TinyTablesPackedStorage load(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length < HEADER_SIZE) {
+        throw new IllegalArgumentException("File is too short to contain TinyTables: " + file);
+      }
+      ByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, length);
+      int magic = mapped.getInt(0);
+      int size = mapped.getInt(Integer.BYTES);
+      if (magic != MAGIC || size < 0 || length != HEADER_SIZE + (long) size) {
+        throw new IllegalArgumentException("File does not contain TinyTables: " + file);
+      }
+      mapped.position(HEADER_SIZE);
+      return new TinyTablesPackedStorage(mapped.slice(), size);
+    }
+  }
+
+  /**
+   * Writes this storage to the given file, replacing the existing content of the file.
+   *
+   * @param file the file to write to
+   * @throws IOException if the file could not be written
+   */
+  public synchronized void write(File file) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(size).flip();
+    ByteBuffer content = entries.duplicate();
+    content.limit(size);
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer[] buffers = {header, content};
+      while (header.hasRemaining() || content.hasRemaining()) {
+        channel.write(buffers);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    int entry = getEntry(id) & ~TABLE_MASK;
+    setEntry(id, entry | HAS_TABLE | table.getPacked());
+  }
+
+  @Override
+  public TinyTable getTinyTable(int id) {
+    int entry = getEntry(id);
+    if ((entry & HAS_TABLE) == 0) {
+      return null;
+    }
+    return TinyTable.getInstance(entry & TABLE_MASK);
+  }
+
+  @Override
+  public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+    int entry = getEntry(id) & ~MASK_SHARE;
+    setEntry(id, entry | HAS_MASK_SHARE | (r.getShare() ? MASK_SHARE : 0));
+  }
+
+  @Override
+  public TinyTablesElement getMaskShare(int id) {
+    int entry = getEntry(id);
+    if ((entry & HAS_MASK_SHARE) == 0) {
+      return null;
+    }
+    return TinyTablesElement.getInstance((entry & MASK_SHARE) != 0);
+  }
+
+  /**
+   * Returns the number of protocols this storage has room for, which is one more than the largest
+   * id stored.
+   *
+   * @return the size of this storage
+   */
+  public int getSize() {
+    return size;
+  }
+
+  private int getEntry(int id) {
+    // Read the size first, so the entries read are at least as recent as the size
+    if (id < 0 || id >= size) {
+      return 0;
+    }
+    return entries.get(id);
+  }
+
+  private void setEntry(int id, int entry) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Negative protocol id: " + id);
+    }
+    if (entries.isReadOnly()) {
+      throw new UnsupportedOperationException("Storage is read-only");
+    }
+    ByteBuffer current = entries;
+    if (id >= current.capacity()) {
+      int capacity = (int) Math.min(Integer.MAX_VALUE, 2L * id + 1);
+      current = ByteBuffer.wrap(Arrays.copyOf(current.array(), capacity));
+    }
+    current.put(id, (byte) entry);
+    entries = current;
+    // Always written, also when unchanged, to publish the entry
+    size = Math.max(size, id + 1);
+  }
+}
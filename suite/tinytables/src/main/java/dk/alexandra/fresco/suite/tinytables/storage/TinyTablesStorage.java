@@ -2,7 +2,6 @@ package dk.alexandra.fresco.suite.tinytables.storage;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
-import java.io.Serializable;
 
 /**
  * This class handles the data which has to be carried from the preprocessing to
@@ -11,7 +10,7 @@ import java.io.Serializable;
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  *
  */
-public interface TinyTablesStorage extends Serializable {
+public interface TinyTablesStorage {
 
 	/**
 	 * Store a {@link TinyTable} for the protocol with the given <code>id</code>
@@ -2,10 +2,11 @@ package dk.alexandra.fresco.suite.tinytables.storage;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.Serializable;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class TinyTablesStorageImpl implements TinyTablesStorage {
+public class TinyTablesStorageImpl implements TinyTablesStorage, Serializable {
 
 	/**
 	 * 
@@ -198,6 +198,14 @@ public class TestTinyTables {
         "testAND");
   }
 
+  @Test
+  public void testAndList() {
+    runTest(new BasicBooleanTests.TestAndList<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED, true,
+        "testANDList");
+    runTest(new BasicBooleanTests.TestAndList<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED, false,
+        "testANDList");
+  }
+
   @Test
   public void testManyAnd() {
     final int numAnds = 2000;
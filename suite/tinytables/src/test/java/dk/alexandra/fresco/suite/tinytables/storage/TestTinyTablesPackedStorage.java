@@ -0,0 +1,115 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestTinyTablesPackedStorage {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testStoreAndGet() {
+    TinyTablesPackedStorage storage = new TinyTablesPackedStorage();
+    storage.storeTinyTable(3, TinyTable.getInstance(0b1010));
+    storage.storeMaskShare(5, TinyTablesElement.getInstance(true));
+    storage.storeMaskShare(6, TinyTablesElement.getInstance(false));
+    // Ids beyond the initial capacity
+    storage.storeTinyTable(5000, TinyTable.getInstance(0b0111));
+    storage.storeMaskShare(5000, TinyTablesElement.getInstance(true));
+    assertEquals(5001, storage.getSize());
+    assertEquals(TinyTable.getInstance(0b1010), storage.getTinyTable(3));
+    assertEquals(TinyTablesElement.getInstance(true), storage.getMaskShare(5));
+    assertEquals(TinyTablesElement.getInstance(false), storage.getMaskShare(6));
+    assertEquals(TinyTable.getInstance(0b0111), storage.getTinyTable(5000));
+    assertEquals(TinyTablesElement.getInstance(true), storage.getMaskShare(5000));
+    assertNull(storage.getTinyTable(5));
+    assertNull(storage.getMaskShare(3));
+    assertNull(storage.getTinyTable(4));
+    assertNull(storage.getTinyTable(10000));
+  }
+
+  @Test
+  public void testWriteAndLoad() throws IOException {
+    TinyTablesPackedStorage storage = new TinyTablesPackedStorage();
+    for (int i = 0; i < 3000; i++) {
+      if (i % 3 == 0) {
+        storage.storeTinyTable(i, TinyTable.getInstance(i));
+      } else {
+        storage.storeMaskShare(i, TinyTablesElement.getInstance(i % 3 == 1));
+      }
+    }
+    File file = folder.newFile();
+    storage.write(file);
+    TinyTablesPackedStorage loaded = TinyTablesPackedStorage.load(file);
+    assertEquals(storage.getSize(), loaded.getSize());
+    for (int i = 0; i < 3000; i++) {
+      assertEquals(storage.getTinyTable(i), loaded.getTinyTable(i));
+      assertEquals(storage.getMaskShare(i), loaded.getMaskShare(i));
+    }
+    assertNull(loaded.getTinyTable(3000));
+  }
+
+  @Test(timeout = 60000)
+  public void testConcurrentReads() throws InterruptedException {
+    TinyTablesPackedStorage storage = new TinyTablesPackedStorage();
+    int count = 100000;
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < count; i++) {
+        storage.storeTinyTable(i, TinyTable.getInstance(i));
+      }
+    });
+    writer.start();
+    int size;
+    do {
+      size = storage.getSize();
+      // Every table below the size read must be visible, also while the storage grows
+      if (size > 0) {
+        assertNotNull(storage.getTinyTable(size - 1));
+      }
+    } while (size < count);
+    writer.join();
+  }
+
+  @Test
+  public void testPackedTinyTable() {
+    for (int packed = 0; packed < 16; packed++) {
+      TinyTable table = TinyTable.getInstance(packed);
+      assertEquals(packed, table.getPacked());
+      for (int c = 0; c < 2; c++) {
+        for (int d = 0; d < 2; d++) {
+          assertEquals((packed >> (2 * c + d) & 1) == 1, table.getShare(c == 1, d == 1));
+        }
+      }
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testLoadedIsReadOnly() throws IOException {
+    File file = folder.newFile();
+    new TinyTablesPackedStorage().write(file);
+    TinyTablesPackedStorage.load(file).storeMaskShare(0, TinyTablesElement.getInstance(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLoadInvalid() throws IOException {
+    File file = folder.newFile();
+    Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+    TinyTablesPackedStorage.load(file);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeId() {
+    new TinyTablesPackedStorage().storeTinyTable(-1, TinyTable.getInstance(0));
+  }
+}
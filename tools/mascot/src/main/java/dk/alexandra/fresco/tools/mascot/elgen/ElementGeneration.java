@@ -165,7 +165,7 @@ public class ElementGeneration {
     List<byte[]> rawShares = network.receiveFromAll();
     // parse
     List<List<FieldElement>> shares = rawShares.stream()
-        .map(resourcePool.getFieldDefinition()::deserializeList)
+        .<List<FieldElement>>map(resourcePool.getFieldDefinition()::deserializeVector)
         .collect(Collectors.toList());
     // recombine (step 2)
     return Addable.sumRows(shares);
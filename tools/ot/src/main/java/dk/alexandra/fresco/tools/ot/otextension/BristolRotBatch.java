@@ -3,6 +3,7 @@ package dk.alexandra.fresco.tools.ot.otextension;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -12,9 +13,12 @@ import java.util.stream.IntStream;
  * Class implementing a batched random OT protocol, allowing the sending and receiving of any type
  * of objects and of any lengths. Use the underlying random OT protocol to construct random messages
  * in a batch. Then use each of these messages as a seed to a PRG and extend them to a sufficient
- * amount of bits.
+ * amount of bits. Large batches are extended in chunks, so the memory used by the underlying
+ * random OT extension is bounded by the size of a chunk.
  */
 public class BristolRotBatch implements RotBatch {
+  // The amount of OTs used in the underlying process for each chunk of an extension
+  private static final int CHUNK_EXTENSION_SIZE = 1 << 16;
   private final RotFactory rot;
   private final int comSecParam;
   private final int statSecParam;
@@ -41,19 +45,16 @@ public class BristolRotBatch implements RotBatch {
     if (this.sender == null) {
       this.sender = rot.createSender();
     }
-    int amountToPreprocess = computeExtensionSize(numMessages, comSecParam, statSecParam);
-    Pair<List<StrictBitVector>, List<StrictBitVector>> messages = sender.extend(amountToPreprocess);
-    List<StrictBitVector> zeroMessages = messages.getFirst().parallelStream().limit(numMessages)
-        .map(m -> LengthAdjustment.adjust(m.toByteArray(), sizeOfEachMessage / Byte.SIZE))
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    List<StrictBitVector> oneMessages = messages.getSecond().parallelStream().limit(numMessages)
-        .map(m -> LengthAdjustment.adjust(m.toByteArray(), sizeOfEachMessage / Byte.SIZE))
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    return IntStream.range(0, numMessages).parallel()
-        .mapToObj(i -> new Pair<>(zeroMessages.get(i), oneMessages.get(i)))
-        .collect(Collectors.toList());
+    int amountToPreprocess = computeChunkedExtensionSize(numMessages);
+    List<Pair<StrictBitVector, StrictBitVector>> res = new ArrayList<>(numMessages);
+    sender.extend(amountToPreprocess, getChunkSize(), messages -> {
+      int amount = Math.min(messages.getFirst().size(), numMessages - res.size());
+      res.addAll(IntStream.range(0, amount).parallel()
+          .mapToObj(i -> new Pair<>(adjust(messages.getFirst().get(i), sizeOfEachMessage),
+              adjust(messages.getSecond().get(i), sizeOfEachMessage)))
+          .collect(Collectors.toList()));
+    });
+    return res;
   }
 
   @Override
@@ -61,14 +62,48 @@ public class BristolRotBatch implements RotBatch {
     if (this.receiver == null) {
       this.receiver = rot.createReceiver();
     }
-    int amountToPreprocess = computeExtensionSize(choiceBits.getSize(), comSecParam, statSecParam);
+    int amountToPreprocess = computeChunkedExtensionSize(choiceBits.getSize());
     byte[] extraByteChoices = Arrays.copyOf(choiceBits.toByteArray(),
         amountToPreprocess / Byte.SIZE);
-    List<StrictBitVector> messages = receiver.extend(new StrictBitVector(extraByteChoices));
-    return messages.parallelStream().limit(choiceBits.getSize())
-        .map(m -> LengthAdjustment.adjust(m.toByteArray(), sizeOfEachMessage / Byte.SIZE))
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
+    List<StrictBitVector> res = new ArrayList<>(choiceBits.getSize());
+    receiver.extend(new StrictBitVector(extraByteChoices), getChunkSize(), messages -> {
+      int amount = Math.min(messages.size(), choiceBits.getSize() - res.size());
+      res.addAll(messages.parallelStream().limit(amount)
+          .map(m -> adjust(m, sizeOfEachMessage))
+          .collect(Collectors.toList()));
+    });
+    return res;
+  }
+
+  private static StrictBitVector adjust(StrictBitVector message, int sizeOfEachMessage) {
+    return new StrictBitVector(
+        LengthAdjustment.adjust(message.toByteArray(), sizeOfEachMessage / Byte.SIZE));
+  }
+
+  /**
+   * Returns the amount of usable OTs in each chunk of an extension, such that each chunk uses
+   * exactly CHUNK_EXTENSION_SIZE OTs in the underlying process.
+   */
+  private int getChunkSize() {
+    return CHUNK_EXTENSION_SIZE - comSecParam - statSecParam;
+  }
+
+  /**
+   * Compute the amount of OTs to preprocess in chunks in order to get "minSize" <i>usable</i>
+   * OTs. All chunks but the last are full, and the last is rounded up as in
+   * {@link #computeExtensionSize(int, int, int)}.
+   *
+   * @param minSize The amount of usable OTs we wish to have in the end
+   * @return The amount of OTs to extend
+   */
+  private int computeChunkedExtensionSize(int minSize) {
+    int chunkSize = getChunkSize();
+    int fullChunks = minSize / chunkSize;
+    int remaining = minSize - fullChunks * chunkSize;
+    if (fullChunks == 0 || remaining > 0) {
+      return fullChunks * chunkSize + computeExtensionSize(remaining, comSecParam, statSecParam);
+    }
+    return fullChunks * chunkSize;
   }
 
   /**
@@ -0,0 +1,136 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Correlation robust hash function based on AES with a fixed, public key, used to remove the
+ * correlation of correlated OTs.
+ *
+ * <p>Each 128 bit block <i>x</i> of an input is first XORed with a tweak <i>t</i> consisting of the
+ * index of the input, the index of the output block and the index of the input block, and then
+ * hashed as <i>AES<sub>k</sub>(x + t) + x + t</i> (Matyas-Meyer-Oseas). The hashes of all blocks
+ * of an input are XORed together. The output is 256 bits, i.e., two blocks, so messages of up to
+ * 256 bits can be taken directly from the output.</p>
+ *
+ * <p>Inputs are hashed in chunks, so that each chunk is encrypted with a single call to the
+ * cipher.</p>
+ */
+final class CorrelationRobustHash {
+
+  private static final int BLOCK_WORDS = 2;
+  private static final int BLOCK_BYTES = BLOCK_WORDS * Long.BYTES;
+  private static final int OUTPUT_BLOCKS = 2;
+  // The number of bytes of the hash of each row
+  static final int OUTPUT_BYTES = OUTPUT_BLOCKS * BLOCK_BYTES;
+  private static final int CHUNK_SIZE = 1024;
+  private static final byte[] FIXED_KEY = {
+      (byte) 0x61, (byte) 0x7e, (byte) 0x8d, (byte) 0xa2, (byte) 0xa0, (byte) 0x51, (byte) 0x1e,
+      (byte) 0x96, (byte) 0x5e, (byte) 0x41, (byte) 0xc2, (byte) 0x9b, (byte) 0x15, (byte) 0x3f,
+      (byte) 0xc7, (byte) 0x7a
+  };
+
+  private CorrelationRobustHash() {
+    // This class is meant to only contain static helper methods.
+  }
+
+  /**
+   * Hashes the first {@code size} rows of a packed matrix, concatenated with their index. The
+   * index of row <i>i</i> is {@code tweakBase + i}, and the fixed-key hash is only correlation
+   * robust if no index is used twice with the same correlation, so callers must make sure that
+   * the ranges of indices of different calls do not overlap.
+   *
+   * @param matrix the packed matrix of which to hash the rows
+   * @param wordsPerRow the number of words of each row
+   * @param size the number of rows to hash
+   * @param offset a vector of {@code wordsPerRow} words XORed to each row before hashing, or null
+   * @param tweakBase the index of the first row
+   * @return the hashes of the rows, each of 256 bits
+   */
+  static List<StrictBitVector> hash(long[] matrix, int wordsPerRow, int size, long[] offset,
+      long tweakBase) {
+    byte[] hashes = hashToBytes(matrix, wordsPerRow, size, offset, tweakBase);
+    List<StrictBitVector> res = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      res.add(new StrictBitVector(
+          Arrays.copyOfRange(hashes, i * OUTPUT_BYTES, (i + 1) * OUTPUT_BYTES)));
+    }
+    return res;
+  }
+
+  /**
+   * Hashes the first {@code size} rows of a packed matrix as {@link #hash(long[], int, int,
+   * long[], long)}, but returns the hashes concatenated in a single array of {@code size *
+   * OUTPUT_BYTES} bytes, which avoids creating an object per row.
+   *
+   * @param matrix the packed matrix of which to hash the rows
+   * @param wordsPerRow the number of words of each row
+   * @param size the number of rows to hash
+   * @param offset a vector of {@code wordsPerRow} words XORed to each row before hashing, or null
+   * @param tweakBase the index of the first row
+   * @return the concatenated hashes of the rows
+   */
+  static byte[] hashToBytes(long[] matrix, int wordsPerRow, int size, long[] offset,
+      long tweakBase) {
+    byte[] res = new byte[size * OUTPUT_BYTES];
+    int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    IntStream.range(0, chunks).parallel()
+        .forEach(chunk -> hashChunk(matrix, wordsPerRow, chunk * CHUNK_SIZE,
+            Math.min(size, (chunk + 1) * CHUNK_SIZE), offset, tweakBase, res));
+    return res;
+  }
+
+  private static void hashChunk(long[] matrix, int wordsPerRow, int from, int to,
+      long[] offset, long tweakBase, byte[] res) {
+    int inputBlocks = (wordsPerRow + BLOCK_WORDS - 1) / BLOCK_WORDS;
+    int blocksPerRow = inputBlocks * OUTPUT_BLOCKS;
+    long[] words = new long[(to - from) * blocksPerRow * BLOCK_WORDS];
+    long[] row = new long[inputBlocks * BLOCK_WORDS];
+    int index = 0;
+    for (int i = from; i < to; i++) {
+      System.arraycopy(matrix, i * wordsPerRow, row, 0, wordsPerRow);
+      if (offset != null) {
+        for (int w = 0; w < wordsPerRow; w++) {
+          row[w] ^= offset[w];
+        }
+      }
+      for (int out = 0; out < OUTPUT_BLOCKS; out++) {
+        for (int block = 0; block < inputBlocks; block++) {
+          words[index++] = row[block * BLOCK_WORDS] ^ ((long) block << 32 | out);
+          words[index++] = row[block * BLOCK_WORDS + 1] ^ (tweakBase + i);
+        }
+      }
+    }
+    byte[] plain = new byte[words.length * Long.BYTES];
+    PackedBits.unpack(words, 0, plain.length, plain, 0);
+    byte[] cipher = encrypt(plain);
+    long[] encrypted = new long[words.length];
+    PackedBits.pack(cipher, 0, cipher.length, encrypted, 0);
+    long[] hash = new long[OUTPUT_BLOCKS * BLOCK_WORDS];
+    for (int i = 0; i < to - from; i++) {
+      Arrays.fill(hash, 0L);
+      for (int out = 0; out < OUTPUT_BLOCKS; out++) {
+        for (int block = 0; block < inputBlocks; block++) {
+          int position = ((i * OUTPUT_BLOCKS + out) * inputBlocks + block) * BLOCK_WORDS;
+          hash[out * BLOCK_WORDS] ^= encrypted[position] ^ words[position];
+          hash[out * BLOCK_WORDS + 1] ^= encrypted[position + 1] ^ words[position + 1];
+        }
+      }
+      PackedBits.unpack(hash, 0, OUTPUT_BYTES, res, (from + i) * OUTPUT_BYTES);
+    }
+  }
+
+  private static byte[] encrypt(byte[] plain) {
+    return ExceptionConverter.safe(() -> {
+      Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
+      cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(FIXED_KEY, "AES"));
+      return cipher.doFinal(plain);
+    }, "Could not compute fixed-key AES");
+  }
+}
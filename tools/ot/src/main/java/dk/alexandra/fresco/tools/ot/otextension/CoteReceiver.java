@@ -7,7 +7,6 @@ import dk.alexandra.fresco.framework.util.StrictBitVector;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -50,55 +49,40 @@ public class CoteReceiver extends CoteShared {
    *         received messages
    */
   public List<StrictBitVector> extend(StrictBitVector choices) {
-    if (choices.getSize() < 1) {
-      throw new IllegalArgumentException(
-          "The amount of OTs must be a positive integer");
-    }
-    int bytesNeeded = choices.getSize() / Byte.SIZE;
-    final List<StrictBitVector>  tlistZero = prgs.parallelStream()
-        .limit(resources.getComputationalSecurityParameter())
-        .map(p -> p.getFirst())
-        .map(drbg -> {
-          byte[] byteBuffer = new byte[bytesNeeded];
-          drbg.nextBytes(byteBuffer);
-          return byteBuffer;
-        })
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    final List<StrictBitVector> ulist = prgs.parallelStream()
-        .limit(resources.getComputationalSecurityParameter())
-        .map(p -> p.getSecond())
-        .map(drbg -> {
-          byte[] byteBuffer = new byte[bytesNeeded];
-          drbg.nextBytes(byteBuffer);
-          return byteBuffer;
-        })
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    ulist.parallelStream().forEach(u -> u.xor(choices));
-    IntStream.range(0, resources.getComputationalSecurityParameter()).parallel()
-      .forEach(i -> ulist.get(i).xor(tlistZero.get(i)));
-    sendList(ulist);
-    return Transpose.transpose(tlistZero);
+    return PackedBits.toBitVectors(extendPacked(choices), choices.getSize(),
+        resources.getComputationalSecurityParameter());
   }
 
-
   /**
-   * Sends a list of StrictBitVectors to the default (0) channel.
+   * Constructs a new batch of correlated OTs with errors as a packed matrix with one row per OT.
    *
-   * @param list
-   *          List to send, where all elements are required to have the same
-   *          length.
+   * @param choices
+   *          The receivers random choices for this extension. This MUST have
+   *          size 2^x for some x >=3.
+   * @return The received messages
    */
-  private void sendList(List<StrictBitVector> list) {
-    // Find the amount of bytes needed for each bitvector in the list
-    int elementLength = list.get(0).getSize() / 8;
-    // Allocate space for all elements in the list.
-    byte[] toSend = new byte[(list.get(0).getSize() / 8) * list.size()];
-    for (int i = 0; i < list.size(); i++) {
-      System.arraycopy(list.get(i).toByteArray(), 0, toSend, i * elementLength,
-          elementLength);
+  long[] extendPacked(StrictBitVector choices) {
+    if (choices.getSize() < 1) {
+      throw new IllegalArgumentException(
+          "The amount of OTs must be a positive integer");
     }
-    network.send(resources.getOtherId(), toSend);
+    int comSecParam = resources.getComputationalSecurityParameter();
+    int bytesNeeded = choices.getSize() / Byte.SIZE;
+    int words = PackedBits.words(choices.getSize());
+    byte[] choiceBytes = choices.toByteArray();
+    byte[] ulist = new byte[comSecParam * bytesNeeded];
+    long[] tlistZero = new long[comSecParam * words];
+    IntStream.range(0, comSecParam).parallel().forEach(i -> {
+      byte[] zeroBytes = new byte[bytesNeeded];
+      byte[] oneBytes = new byte[bytesNeeded];
+      prgs.get(i).getFirst().nextBytes(zeroBytes);
+      prgs.get(i).getSecond().nextBytes(oneBytes);
+      for (int j = 0; j < bytesNeeded; j++) {
+        ulist[i * bytesNeeded + j] = (byte) (oneBytes[j] ^ choiceBytes[j] ^ zeroBytes[j]);
+      }
+      PackedBits.pack(zeroBytes, 0, bytesNeeded, tlistZero, i * words);
+    });
+    network.send(resources.getOtherId(), ulist);
+    return Transpose.transpose(tlistZero, comSecParam, choices.getSize());
   }
 }
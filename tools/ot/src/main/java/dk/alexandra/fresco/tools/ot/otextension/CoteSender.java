@@ -1,12 +1,12 @@
 package dk.alexandra.fresco.tools.ot.otextension;
 
+import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -55,6 +55,16 @@ public class CoteSender extends CoteShared {
    * @param size Amount of OTs to construct
    */
   public List<StrictBitVector> extend(int size) {
+    return PackedBits.toBitVectors(extendPacked(size), size,
+        resources.getComputationalSecurityParameter());
+  }
+
+  /**
+   * Constructs a new batch of correlated OTs with errors as a packed matrix with one row per OT.
+   *
+   * @param size Amount of OTs to construct
+   */
+  long[] extendPacked(int size) {
     if (size < 1) {
       throw new IllegalArgumentException("The amount of OTs must be a positive integer");
     }
@@ -62,39 +72,24 @@ public class CoteSender extends CoteShared {
       throw new IllegalArgumentException(
           "The amount of OTs must be a positive integer divisible by 8");
     }
+    int comSecParam = resources.getComputationalSecurityParameter();
     int bytesNeeded = size / Byte.SIZE;
-    final List<StrictBitVector> tlist = prgs.parallelStream()
-        .limit(resources.getComputationalSecurityParameter())
-        .map(drbg -> {
-          byte[] bytes = new byte[bytesNeeded];
-          drbg.nextBytes(bytes);
-          return bytes;
-        })
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    final List<StrictBitVector> ulist = receiveList(resources.getComputationalSecurityParameter());
-    IntStream.range(0, resources.getComputationalSecurityParameter()).parallel()
-        .filter(i -> otChoices.getBit(i, false))
-        .forEach(i -> tlist.get(i).xor(ulist.get(i)));
-    return Transpose.transpose(tlist);
-  }
-
-  /**
-   * Receives a list of StrictBitVectors from the default (0) channel.
-   *
-   * @param size Amount of elements in vector to receive. All of which must be of equal size.
-   * @return The list of received elements, or null in case an error occurred.
-   */
-  private List<StrictBitVector> receiveList(int size) {
-    List<StrictBitVector> list = new ArrayList<>(size);
-    byte[] byteBuffer = network.receive(resources.getOtherId());
-    int elementLength = byteBuffer.length / size;
-    for (int i = 0; i < size; i++) {
-      byte[] currentVector = new byte[elementLength];
-      System.arraycopy(byteBuffer, i * elementLength, currentVector, 0, elementLength);
-      StrictBitVector currentArr = new StrictBitVector(currentVector);
-      list.add(currentArr);
+    int words = PackedBits.words(size);
+    byte[] ulist = network.receive(resources.getOtherId());
+    if (ulist.length != comSecParam * bytesNeeded) {
+      throw new MaliciousException("Received correlated OTs of wrong length");
     }
-    return list;
+    long[] tlist = new long[comSecParam * words];
+    IntStream.range(0, comSecParam).parallel().forEach(i -> {
+      byte[] bytes = new byte[bytesNeeded];
+      prgs.get(i).nextBytes(bytes);
+      if (otChoices.getBit(i, false)) {
+        for (int j = 0; j < bytesNeeded; j++) {
+          bytes[j] ^= ulist[i * bytesNeeded + j];
+        }
+      }
+      PackedBits.pack(bytes, 0, bytesNeeded, tlist, i * words);
+    });
+    return Transpose.transpose(tlist, comSecParam, size);
   }
 }
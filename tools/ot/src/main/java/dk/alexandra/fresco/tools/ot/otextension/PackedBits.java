@@ -0,0 +1,184 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper methods for bit vectors and bit matrices packed into arrays of longs.
+ *
+ * <p>The packing follows the big-endian bit order of {@link StrictBitVector}: bit <i>i</i> of a
+ * vector is stored in word <i>i / 64</i> at bit position <i>63 - i % 64</i>, so the bytes of a
+ * vector are simply read as big-endian longs. A matrix is stored in row-major order with each row
+ * starting at a new word. Unused bits at the end of a row are always zero.</p>
+ */
+final class PackedBits {
+
+  private PackedBits() {
+    // This class is meant to only contain static helper methods.
+  }
+
+  /**
+   * Returns the number of words needed to store the given number of bits.
+   */
+  static int words(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * Packs bytes into words starting at a given offset of the destination.
+   *
+   * @param src the bytes to pack
+   * @param srcOffset the offset of the first byte to pack
+   * @param length the number of bytes to pack
+   * @param dst the destination
+   * @param dstOffset the offset of the first word to write
+   */
+  static void pack(byte[] src, int srcOffset, int length, long[] dst, int dstOffset) {
+    int fullWords = length / Long.BYTES;
+    for (int i = 0; i < fullWords; i++) {
+      int offset = srcOffset + i * Long.BYTES;
+      dst[dstOffset + i] = ((long) src[offset] << 56)
+          | ((long) (src[offset + 1] & 0xFF) << 48)
+          | ((long) (src[offset + 2] & 0xFF) << 40)
+          | ((long) (src[offset + 3] & 0xFF) << 32)
+          | ((long) (src[offset + 4] & 0xFF) << 24)
+          | ((long) (src[offset + 5] & 0xFF) << 16)
+          | ((long) (src[offset + 6] & 0xFF) << 8)
+          | ((long) (src[offset + 7] & 0xFF));
+    }
+    int remaining = length - fullWords * Long.BYTES;
+    if (remaining > 0) {
+      long word = 0;
+      for (int j = 0; j < remaining; j++) {
+        word |= (long) (src[srcOffset + fullWords * Long.BYTES + j] & 0xFF) << (56 - 8 * j);
+      }
+      dst[dstOffset + fullWords] = word;
+    }
+  }
+
+  /**
+   * Packs a bit vector.
+   */
+  static long[] pack(StrictBitVector vector) {
+    byte[] bytes = vector.toByteArray();
+    long[] res = new long[words(vector.getSize())];
+    pack(bytes, 0, bytes.length, res, 0);
+    return res;
+  }
+
+  /**
+   * Packs a list of equally sized bit vectors into a row-major matrix.
+   */
+  static long[] pack(List<StrictBitVector> rows) {
+    int bytes = rows.get(0).getSize() / Byte.SIZE;
+    int wordsPerRow = words(rows.get(0).getSize());
+    long[] res = new long[rows.size() * wordsPerRow];
+    for (int i = 0; i < rows.size(); i++) {
+      pack(rows.get(i).toByteArray(), 0, bytes, res, i * wordsPerRow);
+    }
+    return res;
+  }
+
+  /**
+   * Unpacks words into bytes.
+   *
+   * @param src the words to unpack
+   * @param srcOffset the offset of the first word to unpack
+   * @param length the number of bytes to unpack
+   * @param dst the destination
+   * @param dstOffset the offset of the first byte to write
+   */
+  static void unpack(long[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+    for (int j = 0; j < length; j++) {
+      dst[dstOffset + j] = (byte) (src[srcOffset + j / Long.BYTES] >>> (56 - 8 * (j % 8)));
+    }
+  }
+
+  /**
+   * Unpacks a bit vector of the given size.
+   */
+  static StrictBitVector toBitVector(long[] src, int srcOffset, int bits) {
+    byte[] bytes = new byte[bits / Byte.SIZE];
+    unpack(src, srcOffset, bytes.length, bytes, 0);
+    return new StrictBitVector(bytes);
+  }
+
+  /**
+   * Unpacks the rows of a row-major matrix.
+   *
+   * @param matrix the matrix
+   * @param rows the number of rows
+   * @param columns the number of columns
+   * @return the rows of the matrix
+   */
+  static List<StrictBitVector> toBitVectors(long[] matrix, int rows, int columns) {
+    int wordsPerRow = words(columns);
+    List<StrictBitVector> res = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      res.add(toBitVector(matrix, i * wordsPerRow, columns));
+    }
+    return res;
+  }
+
+  /**
+   * Computes the Galois product of two packed bit vectors in the binary extension field, without
+   * reduction modulo a reduction polynomial. As for {@link StrictBitVector}, bits are read from
+   * left to right, so the first bit of a vector is the coefficient of <i>x<sup>0</sup></i>. The
+   * product is added (XORed) to the accumulator starting at the given offset.
+   *
+   * @param a the first vector
+   * @param aOffset the offset of the first vector
+   * @param aWords the number of words of the first vector
+   * @param b the second vector
+   * @param bOffset the offset of the second vector
+   * @param bWords the number of words of the second vector
+   * @param acc the accumulator, with at least {@code aWords + bWords} words after the offset
+   * @param accOffset the offset of the accumulator
+   */
+  static void multiplyAdd(long[] a, int aOffset, int aWords, long[] b, int bOffset, int bWords,
+      long[] acc, int accOffset) {
+    for (int i = 0; i < aWords; i++) {
+      long aword = a[aOffset + i];
+      if (aword == 0) {
+        continue;
+      }
+      for (int j = 0; j < bWords; j++) {
+        multiplyAdd(aword, b[bOffset + j], acc, accOffset + i + j);
+      }
+    }
+  }
+
+  /**
+   * Carry-less multiplication of two words, added to two words of the accumulator.
+   *
+   * <p>The words are first multiplied as polynomials with the least significant bit as the
+   * coefficient of <i>x<sup>0</sup></i>, using a window of four bits of {@code a} at a time. Since
+   * the packing reverses the bit order within a word, the 127 bit result is then shifted one bit
+   * to the left to align it with the bit order of the accumulator.</p>
+   */
+  static void multiplyAdd(long a, long b, long[] acc, int accOffset) {
+    // Multiples of b by all polynomials of degree less than four, split in a high and a low word
+    long b2 = b << 1;
+    long b4 = b << 2;
+    long b8 = b << 3;
+    long h2 = b >>> 63;
+    long h4 = b >>> 62;
+    long h8 = b >>> 61;
+    long hi = 0;
+    long lo = 0;
+    for (int shift = 60; shift >= 0; shift -= 4) {
+      hi = (hi << 4) | (lo >>> 60);
+      lo <<= 4;
+      int nibble = (int) (a >>> shift) & 0xF;
+      long mask1 = -(nibble & 1);
+      long mask2 = -((nibble >>> 1) & 1);
+      long mask4 = -((nibble >>> 2) & 1);
+      long mask8 = -(nibble >>> 3);
+      lo ^= (b & mask1) ^ (b2 & mask2) ^ (b4 & mask4) ^ (b8 & mask8);
+      hi ^= (h2 & mask2) ^ (h4 & mask4) ^ (h8 & mask8);
+    }
+    acc[accOffset] ^= (hi << 1) | (lo >>> 63);
+    acc[accOffset + 1] ^= lo << 1;
+  }
+}
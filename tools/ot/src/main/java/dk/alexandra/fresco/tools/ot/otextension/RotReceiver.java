@@ -2,6 +2,7 @@ package dk.alexandra.fresco.tools.ot.otextension;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Protocol class for the party acting as the receiver in an random OT extension
@@ -19,4 +20,33 @@ public interface RotReceiver {
    *         received messages
    */
   List<StrictBitVector> extend(StrictBitVector choices);
+
+  /**
+   * Constructs a new batch of random OTs as {@link #extend(StrictBitVector)}, but returns the
+   * received messages of 256 bits each concatenated in a byte array, which avoids creating an
+   * object per message. The sender MUST call {@link RotSender#extendToBytes(int)}.
+   *
+   * @param choices
+   *          The receivers choices for this extension
+   * @return A byte array of 32 bytes per OT, consisting of the received messages
+   */
+  byte[] extendToBytes(StrictBitVector choices);
+
+  /**
+   * Constructs a new batch of random OTs in chunks, such that only a bounded amount of OTs is
+   * held in memory at a time. Each chunk is an independent extension with its own correlation
+   * check. The correlated OTs of the next chunk are sent before the current chunk is passed to
+   * the consumer, so that the transfer overlaps with the local processing of both parties. The
+   * sender MUST call {@link RotSender#extend(int, int, Consumer)} with the same size and chunk
+   * size.
+   *
+   * @param choices
+   *          The receivers choices for this extension
+   * @param chunkSize
+   *          The amount of random OTs in each chunk, except possibly the last one. This MUST be a
+   *          positive integer divisible by 8.
+   * @param consumer
+   *          The consumer of the chunks of received messages
+   */
+  void extend(StrictBitVector choices, int chunkSize, Consumer<List<StrictBitVector>> consumer);
 }
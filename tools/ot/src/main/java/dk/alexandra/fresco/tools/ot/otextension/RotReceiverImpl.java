@@ -2,7 +2,9 @@ package dk.alexandra.fresco.tools.ot.otextension;
 
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class RotReceiverImpl extends RotSharedImpl implements RotReceiver {
   private final CoteReceiver receiver;
@@ -21,8 +23,7 @@ public class RotReceiverImpl extends RotSharedImpl implements RotReceiver {
    */
   public RotReceiverImpl(CoteReceiver rec, OtExtensionResourcePool resources,
       Network network) {
-    super(resources.getCoinTossing(), resources.getDigest(), resources
-        .getComputationalSecurityParameter());
+    super(resources.getCoinTossing(), resources.getComputationalSecurityParameter());
     this.receiver = rec;
     this.resources = resources;
     this.network = network;
@@ -30,55 +31,116 @@ public class RotReceiverImpl extends RotSharedImpl implements RotReceiver {
 
   @Override
   public List<StrictBitVector> extend(StrictBitVector choices) {
-    // The underlying scheme requires computational security parameter plus lambda security
-    // parameter extra OTs
-    int minOts = choices.getSize() + resources.getComputationalSecurityParameter() + resources
-        .getLambdaSecurityParam();
-    // Round up to nearest two-power, which is required by the underlying scheme
-    int ellPrime = (int) Math.pow(2, Math.ceil(Math.log(minOts) / Math.log(2)));
-    // Extend the choices with random choices for padding
-    StrictBitVector paddingChoices = new StrictBitVector(ellPrime - choices.getSize(), resources
-        .getRandomGenerator());
-    StrictBitVector extendedChoices = StrictBitVector.concat(choices,
-        paddingChoices);
+    StrictBitVector extendedChoices = padChoices(choices);
     // Use the choices along with the random padding uses for correlated OT with
     // errors
-    List<StrictBitVector> tlist = receiver.extend(extendedChoices);
+    long[] tlist = receiver.extendPacked(extendedChoices);
+    checkCorrelation(extendedChoices, tlist);
+    // Remove the correlation of the OTs by hashing
+    return hashBitVector(tlist, choices.getSize(), null, reserveTweaks(choices.getSize()));
+  }
+
+  @Override
+  public byte[] extendToBytes(StrictBitVector choices) {
+    StrictBitVector extendedChoices = padChoices(choices);
+    long[] tlist = receiver.extendPacked(extendedChoices);
+    checkCorrelation(extendedChoices, tlist);
+    return hashToBytes(tlist, choices.getSize(), null, reserveTweaks(choices.getSize()));
+  }
+
+  @Override
+  public void extend(StrictBitVector choices, int chunkSize,
+      Consumer<List<StrictBitVector>> consumer) {
+    checkChunkSize(chunkSize);
+    byte[] choiceBytes = choices.toByteArray();
+    int size = choices.getSize();
+    int from = 0;
+    int currentSize = Math.min(chunkSize, size);
+    StrictBitVector currentChoices = null;
+    long[] current = null;
+    if (currentSize > 0) {
+      currentChoices = padChoices(getChunk(choiceBytes, from, currentSize));
+      current = receiver.extendPacked(currentChoices);
+    }
+    while (current != null) {
+      checkCorrelation(currentChoices, current);
+      int nextFrom = from + currentSize;
+      int nextSize = Math.min(chunkSize, size - nextFrom);
+      StrictBitVector nextChoices = null;
+      long[] next = null;
+      // Send the correlated OTs of the next chunk before hashing the current one, so that the
+      // transfer overlaps with the hashing on both sides
+      if (nextSize > 0) {
+        nextChoices = padChoices(getChunk(choiceBytes, nextFrom, nextSize));
+        next = receiver.extendPacked(nextChoices);
+      }
+      consumer.accept(hashBitVector(current, currentSize, null, reserveTweaks(currentSize)));
+      from = nextFrom;
+      currentSize = nextSize;
+      currentChoices = nextChoices;
+      current = next;
+    }
+  }
+
+  private static StrictBitVector getChunk(byte[] choiceBytes, int from, int size) {
+    return new StrictBitVector(
+        Arrays.copyOfRange(choiceBytes, from / Byte.SIZE, (from + size) / Byte.SIZE));
+  }
+
+  /**
+   * Extends the choices with random choices for padding, as required by the underlying scheme.
+   */
+  private StrictBitVector padChoices(StrictBitVector choices) {
+    int ellPrime = computeEllPrime(choices.getSize(), resources.getLambdaSecurityParam());
+    StrictBitVector paddingChoices = new StrictBitVector(ellPrime - choices.getSize(), resources
+        .getRandomGenerator());
+    return StrictBitVector.concat(choices, paddingChoices);
+  }
+
+  /**
+   * Sends the receivers part of the correlation check of a batch of correlated OTs with errors.
+   *
+   * @param extendedChoices The padded choices of the batch
+   * @param tlist The packed correlated OTs with errors of the batch
+   */
+  private void checkCorrelation(StrictBitVector extendedChoices, long[] tlist) {
+    int comSecParam = resources.getComputationalSecurityParameter();
+    int words = PackedBits.words(comSecParam);
     // Agree on challenges for linear combination test
-    List<StrictBitVector> chiList = getChallenges(ellPrime);
-    StrictBitVector xvec = computeBitLinearCombination(extendedChoices, chiList);
+    long[] chiList = getChallenges(extendedChoices.getSize());
+    StrictBitVector xvec = computeBitLinearCombination(extendedChoices, chiList, comSecParam);
     network.send(resources.getOtherId(), xvec.toByteArray());
-    StrictBitVector tvec = computeInnerProduct(chiList, tlist);
-    network.send(resources.getOtherId(), tvec.toByteArray());
-    // Remove the correlation of the OTs by hashing
-    List<StrictBitVector> vvec = hashBitVector(tlist, choices.getSize());
-    return vvec;
+    long[] tvec = computeInnerProduct(chiList, words, tlist, words, extendedChoices.getSize());
+    network.send(resources.getOtherId(),
+        PackedBits.toBitVector(tvec, 0, 2 * comSecParam).toByteArray());
   }
 
   /**
-   * Computes the sum of element in a list based on a vector if indicator
+   * Computes the sum of the rows of a packed matrix based on a vector of indicator
    * variables. The sum will be based on Galois addition in the binary extension
-   * field of the individual elements of the list. That is, through an XOR
-   * operation. <br/>
-   * All elements of the list MUST have equal size! And both the list and vector
-   * of indicator bits MUST contain an equal amount of entries!
+   * field of the individual rows. That is, through an XOR operation. <br/>
+   * The vector of indicator bits MUST contain an entry for each row of the matrix.
    *
    * @param indicators
    *          The vector of indicator bits
-   * @param list
-   *          The input list, with all elements of equal size
-   * @return The inner product represented as a StrictBitVector
+   * @param matrix
+   *          The packed input matrix
+   * @param columns
+   *          The amount of columns of the matrix
+   * @return The sum represented as a StrictBitVector
    */
-  private static StrictBitVector computeBitLinearCombination(
-      StrictBitVector indicators,
-      List<StrictBitVector> list) {
-    StrictBitVector res = new StrictBitVector(list.get(0).getSize());
+  static StrictBitVector computeBitLinearCombination(StrictBitVector indicators, long[] matrix,
+      int columns) {
+    int words = PackedBits.words(columns);
+    long[] res = new long[words];
     for (int i = 0; i < indicators.getSize(); i++) {
       if (indicators.getBit(i, false)) {
-        res.xor(list.get(i));
+        for (int j = 0; j < words; j++) {
+          res[j] ^= matrix[i * words + j];
+        }
       }
     }
-    return res;
+    return PackedBits.toBitVector(res, 0, columns);
   }
 
 }
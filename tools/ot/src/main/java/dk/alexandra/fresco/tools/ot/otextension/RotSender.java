@@ -3,6 +3,7 @@ package dk.alexandra.fresco.tools.ot.otextension;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Protocol class for the party acting as the sender in a random OT extension.
@@ -19,4 +20,34 @@ public interface RotSender {
    *         messages
    */
   Pair<List<StrictBitVector>, List<StrictBitVector>> extend(int size);
+
+  /**
+   * Constructs a new batch of random OTs as {@link #extend(int)}, but returns the messages of
+   * 256 bits each concatenated in byte arrays, which avoids creating an object per message. The
+   * receiver MUST call {@link RotReceiver#extendToBytes(StrictBitVector)}.
+   *
+   * @param size
+   *          The amount of random OTs to construct
+   * @return A pair of byte arrays of 32 bytes per OT. The first consists of the choice-zero
+   *         messages. The second consists of the choice-one messages
+   */
+  Pair<byte[], byte[]> extendToBytes(int size);
+
+  /**
+   * Constructs a new batch of random OTs in chunks, such that only a single chunk of OTs is held
+   * in memory at a time. Each chunk is an independent extension with its own correlation check,
+   * and is passed to the consumer as soon as it has been verified. The receiver MUST call
+   * {@link RotReceiver#extend(StrictBitVector, int, Consumer)} with the same size and chunk size.
+   *
+   * @param size
+   *          The amount of random OTs to construct
+   * @param chunkSize
+   *          The amount of random OTs in each chunk, except possibly the last one. This MUST be a
+   *          positive integer divisible by 8.
+   * @param consumer
+   *          The consumer of the chunks, each a pair of lists of choice-zero and choice-one
+   *          messages
+   */
+  void extend(int size, int chunkSize,
+      Consumer<Pair<List<StrictBitVector>, List<StrictBitVector>>> consumer);
 }
@@ -4,8 +4,8 @@ import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
-import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class RotSenderImpl extends RotSharedImpl implements RotSender {
   private final CoteSender sender;
@@ -24,8 +24,7 @@ public class RotSenderImpl extends RotSharedImpl implements RotSender {
    */
   public RotSenderImpl(CoteSender snd, OtExtensionResourcePool resources,
       Network network) {
-    super(resources.getCoinTossing(), resources.getDigest(), resources
-        .getComputationalSecurityParameter());
+    super(resources.getCoinTossing(), resources.getComputationalSecurityParameter());
     this.sender = snd;
     this.resources = resources;
     this.network = network;
@@ -33,48 +32,79 @@ public class RotSenderImpl extends RotSharedImpl implements RotSender {
 
   @Override
   public Pair<List<StrictBitVector>, List<StrictBitVector>> extend(int size) {
-    // The underlying scheme requires computational security parameter plus lambda security
-    // parameter extra OTs
-    int minOts = size + resources.getComputationalSecurityParameter() + resources
-        .getLambdaSecurityParam();
-    // Round up to nearest two-power, which is required by the underlying scheme
-    int ellPrime = (int) Math.pow(2, Math.ceil(Math.log(minOts) / Math.log(2)));
+    long[] qlist = extendAndCheck(size);
+    // Both messages of an OT are hashed with the same index as the receiver's message
+    long tweakBase = reserveTweaks(size);
+    // Remove the correlated of the first "size" messages by hashing for
+    // choice-zero
+    List<StrictBitVector> vlistZero = hashBitVector(qlist, size, null, tweakBase);
+    // XOR the correlated into all the values from the underlying correlated OT
+    // with error and remove the correlation for the choice-one message as well
+    List<StrictBitVector> vlistOne =
+        hashBitVector(qlist, size, PackedBits.pack(sender.getDelta()), tweakBase);
+    Pair<List<StrictBitVector>, List<StrictBitVector>> res =
+        new Pair<>(vlistZero, vlistOne);
+    return res;
+  }
+
+  @Override
+  public Pair<byte[], byte[]> extendToBytes(int size) {
+    long[] qlist = extendAndCheck(size);
+    long tweakBase = reserveTweaks(size);
+    byte[] zeroMessages = hashToBytes(qlist, size, null, tweakBase);
+    byte[] oneMessages = hashToBytes(qlist, size, PackedBits.pack(sender.getDelta()), tweakBase);
+    return new Pair<>(zeroMessages, oneMessages);
+  }
+
+  /**
+   * Constructs enough correlated OTs with errors for the given amount of random OTs and runs the
+   * correlation check with the receiver.
+   *
+   * @param size The amount of random OTs
+   * @return The packed correlated OTs, which are still to be hashed
+   */
+  private long[] extendAndCheck(int size) {
+    int ellPrime = computeEllPrime(size, resources.getLambdaSecurityParam());
+    int comSecParam = resources.getComputationalSecurityParameter();
+    int words = PackedBits.words(comSecParam);
     // Construct a sufficient amount correlated OTs with errors
-    List<StrictBitVector> qlist = sender.extend(ellPrime);
+    long[] qlist = sender.extendPacked(ellPrime);
     // Agree on a random challenge for each of the correlated OTs with errors
-    List<StrictBitVector> chiList = getChallenges(ellPrime);
+    long[] chiList = getChallenges(ellPrime);
     // Retrieve the correlation from the correlated OTs with errors
     StrictBitVector delta = sender.getDelta();
     // Compute the linear combination of the correlated OTs with errors and the
     // random challenges
-    StrictBitVector qvec = computeInnerProduct(chiList, qlist);
+    long[] qvec = computeInnerProduct(chiList, words, qlist, words, ellPrime);
     // Retrieve the receivers parts of the correlation check challenge
     byte[] xvecBytes = network.receive(resources.getOtherId());
     byte[] tvecBytes = network.receive(resources.getOtherId());
+    if (xvecBytes.length != comSecParam / Byte.SIZE
+        || tvecBytes.length != 2 * comSecParam / Byte.SIZE) {
+      throw new MaliciousException(
+          "Correlation check failed for the sender in the random OT extension");
+    }
     StrictBitVector xvec = new StrictBitVector(xvecBytes);
     StrictBitVector tvec = new StrictBitVector(tvecBytes);
     // Compute the challenge vector based on the receivers send values
-    StrictBitVector tvecToCompare = computeInnerProduct(
-        Collections.singletonList(delta),
-        Collections.singletonList(xvec));
-    tvecToCompare.xor(qvec);
+    StrictBitVector tvecToCompare = multiplyWithoutReduction(delta, xvec);
+    tvecToCompare.xor(PackedBits.toBitVector(qvec, 0, 2 * comSecParam));
     // Ensure that the receiver has been honest by verifying its challenge
     if (!tvecToCompare.equals(tvec)) {
       throw new MaliciousException(
           "Correlation check failed for the sender in the random OT extension");
     }
-    // Remove the correlated of the first "size" messages by hashing for
-    // choice-zero
-    List<StrictBitVector> vlistZero = hashBitVector(qlist, size);
-    // XOR the correlated into all the values from the underlying correlated OT
-    // with error to compute the choice-one message
-    for (int i = 0; i < size; i++) {
-      qlist.get(i).xor(delta);
+    return qlist;
+  }
+
+  @Override
+  public void extend(int size, int chunkSize,
+      Consumer<Pair<List<StrictBitVector>, List<StrictBitVector>>> consumer) {
+    checkChunkSize(chunkSize);
+    // The receiver sends the correlated OTs of the next chunk before consuming the current one,
+    // so these will be in transit while the current chunk is consumed
+    for (int from = 0; from < size; from += chunkSize) {
+      consumer.accept(extend(Math.min(chunkSize, size - from)));
     }
-    // Remove the correlated for the choice-one as well
-    List<StrictBitVector> vlistOne = hashBitVector(qlist, size);
-    Pair<List<StrictBitVector>, List<StrictBitVector>> res =
-        new Pair<>(vlistZero, vlistOne);
-    return res;
   }
 }
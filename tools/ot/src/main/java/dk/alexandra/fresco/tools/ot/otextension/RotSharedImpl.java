@@ -2,60 +2,91 @@ package dk.alexandra.fresco.tools.ot.otextension;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.cointossing.CoinTossing;
-import java.nio.ByteBuffer;
-import java.security.MessageDigest;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
  * Superclass containing the common variables and methods for the sender and receiver parties of
- * random OT extension.
+ * random OT extension. The OTs are handled as packed matrices with one row per OT, as described
+ * in {@link PackedBits}.
  */
 public abstract class RotSharedImpl {
+  // Number of rows processed together when computing inner products and challenges
+  private static final int CHUNK_SIZE = 4096;
   private final CoinTossing ct;
   private final int comSecParam;
-  private final MessageDigest digest;
+  // Index of the next OT to hash, so the tweaks of the hash are unique within this instance
+  private long tweakCounter;
 
   /**
    * Constructs a random OT extension super-class using an underlying correlated OT with errors
    * object.
    *
    * @param ct The coin tossing instance to use
-   * @param digest The hash function to use
    * @param comSecParam The computational security parameter
    */
-  public RotSharedImpl(CoinTossing ct, MessageDigest digest, int comSecParam) {
+  public RotSharedImpl(CoinTossing ct, int comSecParam) {
     this.ct = ct;
-    this.digest = digest;
     this.comSecParam = comSecParam;
   }
 
+  /**
+   * Checks that a chunk size is valid for chunked extension.
+   *
+   * @param chunkSize The amount of OTs in each chunk
+   */
+  protected static void checkChunkSize(int chunkSize) {
+    if (chunkSize < 1 || chunkSize % Byte.SIZE != 0) {
+      throw new IllegalArgumentException(
+          "The chunk size must be a positive integer divisible by 8");
+    }
+  }
+
+  /**
+   * Computes the number of OTs with errors needed to construct the given amount of random OTs.
+   * The underlying scheme requires computational security parameter plus lambda security
+   * parameter extra OTs, and the total must be rounded up to the nearest two-power.
+   *
+   * @param size The amount of random OTs
+   * @param lambdaSecurityParam The statistical security parameter
+   * @return The amount of correlated OTs with errors to construct
+   */
+  protected int computeEllPrime(int size, int lambdaSecurityParam) {
+    int minOts = size + comSecParam + lambdaSecurityParam;
+    return (int) Math.pow(2, Math.ceil(Math.log(minOts) / Math.log(2)));
+  }
 
   /**
-   * Computes the inner product of two lists of StrictBitVector objects. The product will be based
-   * on Galois multiplication in the binary extension field of the individual elements of the lists,
-   * but without reducing modulo a reduction polynomial. Thus the inner product is computed purely
-   * using shifts and XOR operations. <br/>
-   * All elements of both lists MUST have equal size! And both lists MUST contain an equal amount of
-   * entries!
+   * Computes the inner product of the rows of two packed matrices with the same number of rows.
+   * The product will be based on Galois multiplication in the binary extension field of the
+   * individual rows, but without reducing modulo a reduction polynomial. Thus the inner product
+   * is computed purely using carry-less multiplications of words and XOR operations.
    *
-   * @param alist The first input list, with all elements of equal size
-   * @param blist The second input list, with all elements of equal size
-   * @return The inner product represented as a StrictBitVector
+   * @param amatrix The first matrix
+   * @param awords The number of words of each row of the first matrix
+   * @param bmatrix The second matrix
+   * @param bwords The number of words of each row of the second matrix
+   * @param rows The number of rows of both matrices
+   * @return The packed inner product of {@code awords + bwords} words
    */
-  protected static StrictBitVector computeInnerProduct(List<StrictBitVector> alist,
-      List<StrictBitVector> blist) {
-    // All elements of each list MUST have equal size so we find the size using the first element.
-    StrictBitVector res = new StrictBitVector(alist.get(0).getSize() + blist.get(0).getSize());
-    List<StrictBitVector> products = IntStream.range(0, alist.size()).parallel()
-        .mapToObj(i -> multiplyWithoutReduction(alist.get(i), blist.get(i)))
-        .collect(Collectors.toList());
-    products.stream().reduce(res, (a, b) -> {
-      a.xor(b);
-      return a;
-    });
+  protected static long[] computeInnerProduct(long[] amatrix, int awords, long[] bmatrix,
+      int bwords, int rows) {
+    int chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    List<long[]> partialProducts = IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+      long[] partial = new long[awords + bwords];
+      for (int i = chunk * CHUNK_SIZE; i < Math.min(rows, (chunk + 1) * CHUNK_SIZE); i++) {
+        PackedBits.multiplyAdd(amatrix, i * awords, awords, bmatrix, i * bwords, bwords, partial,
+            0);
+      }
+      return partial;
+    }).collect(Collectors.toList());
+    long[] res = new long[awords + bwords];
+    for (long[] partial : partialProducts) {
+      for (int i = 0; i < res.length; i++) {
+        res[i] ^= partial[i];
+      }
+    }
     return res;
   }
 
@@ -67,77 +98,81 @@ public abstract class RotSharedImpl {
    * @param bvec The second bit vector
    * @return The product represented as a StrictBitVector
    */
-  private static StrictBitVector multiplyWithoutReduction(StrictBitVector avec,
+  protected static StrictBitVector multiplyWithoutReduction(StrictBitVector avec,
       StrictBitVector bvec) {
-    byte[] res = new byte[(avec.getSize() + bvec.getSize()) / Byte.SIZE];
-    byte[] avecBytes = avec.toByteArray();
-    byte[] bvecBytes = bvec.toByteArray();
-    byte[][] rotations = new byte[Byte.SIZE][bvecBytes.length + 1];
-    System.arraycopy(bvecBytes, 0, rotations[0], 0, bvecBytes.length);
-    for (int i = 1; i < Byte.SIZE; i++) {
-      for (int j = 0; j < rotations[i].length - 1; j++) {
-        int b = Byte.toUnsignedInt(bvecBytes[j]);
-        rotations[i][j] ^= (byte) (b >> i);
-        rotations[i][j + 1] = (byte) (b << Byte.SIZE - i);
-      }
-    }
-    // multiply using the school book method (where addition is XOR)
-    for (int i = 0; i < avec.getSize(); i++) {
-      int bitIndex = i % Byte.SIZE;
-      int byteIndex = i / Byte.SIZE;
-      byte currentByte = (byte) (avecBytes[byteIndex] >> ((Byte.SIZE - 1) - (bitIndex)));
-      if ((currentByte & 1) == 1) {
-        byte[] currentRotation = rotations[bitIndex];
-        for (int j = 0; j < currentRotation.length; j++) {
-          res[byteIndex + j] ^= currentRotation[j];
-        }
-      }
-    }
-    return new StrictBitVector(res);
+    long[] apacked = PackedBits.pack(avec);
+    long[] bpacked = PackedBits.pack(bvec);
+    long[] res = new long[apacked.length + bpacked.length];
+    PackedBits.multiplyAdd(apacked, 0, apacked.length, bpacked, 0, bpacked.length, res, 0);
+    return PackedBits.toBitVector(res, 0, avec.getSize() + bvec.getSize());
   }
 
   /**
-   * Compute a SHA-256 digest of elements in a list, concatenated with their index in the list. Only
-   * the first {@code size} elements of the list will be hashed.
+   * Reserves the indices used as tweaks when hashing the given amount of OTs. The indices keep
+   * increasing over the lifetime of this instance, also across chunks and extensions, so no
+   * index is used twice with the same correlation. The sender and the receiver reserve indices
+   * for the same OTs in the same order, so they agree on the index of each OT.
    *
-   * @param input The list of StrictBitVector elements to hash. All elements MUST have same length
-   * @param size The amount of elements of the list, to hash. Must be less than or equal to the
-   *        amount of elements in the list.
-   * @return A list containing the hashed StrictBitVector as StrictBitVector objects
+   * @param size The amount of OTs to hash
+   * @return The index of the first of the OTs
    */
-  protected List<StrictBitVector> hashBitVector(List<StrictBitVector> input, int size) {
-    List<StrictBitVector> res = new ArrayList<>(size);
-    // Allocate a buffer to contain the index of the value to hash along with
-    // the value itself.
-    ByteBuffer indexBuffer = ByteBuffer.allocate((Integer.SIZE + input.get(0).getSize()) / 8);
-    byte[] hash;
-    for (int i = 0; i < size; i++) {
-      indexBuffer.clear();
-      // Move the index into the buffer
-      indexBuffer.putInt(i);
-      // Move the value to hash into the buffer
-      indexBuffer.put(input.get(i).toByteArray());
-      hash = digest.digest(indexBuffer.array());
-      // Allocate the new bitvector, which contains 256 bits since SHA-256 is
-      // used
-      res.add(new StrictBitVector(hash));
-    }
-    return res;
+  protected long reserveTweaks(int size) {
+    long tweakBase = tweakCounter;
+    tweakCounter += size;
+    return tweakBase;
+  }
+
+  /**
+   * Hashes the first {@code size} rows of a packed matrix with rows of the size of the
+   * computational security parameter, concatenated with their index, using a
+   * {@link CorrelationRobustHash}.
+   *
+   * @param matrix The packed matrix of which to hash the rows
+   * @param size The amount of rows to hash. Must be less than or equal to the amount of rows in
+   *        the matrix.
+   * @param offset A vector XORed to each row before hashing, or null
+   * @param tweakBase The index of the first row, as returned by {@link #reserveTweaks(int)}
+   * @return A list containing the hashed rows as StrictBitVector objects
+   */
+  protected List<StrictBitVector> hashBitVector(long[] matrix, int size, long[] offset,
+      long tweakBase) {
+    return CorrelationRobustHash.hash(matrix, PackedBits.words(comSecParam), size, offset,
+        tweakBase);
   }
 
   /**
-   * Agree on a list of {@code size} coin-tossed elements, represented by StrictBitVectors. Each
-   * consisting of bits reflecting the computational security used at initialization of this class
+   * Hashes the first {@code size} rows of a packed matrix as {@link #hashBitVector(long[], int,
+   * long[], long)}, but returns the hashes concatenated in a single array of 32 bytes per row.
    *
-   * @param size The amount of elements in the resultant list
-   * @return The list of coin-tossed elements
+   * @param matrix The packed matrix of which to hash the rows
+   * @param size The amount of rows to hash
+   * @param offset A vector XORed to each row before hashing, or null
+   * @param tweakBase The index of the first row, as returned by {@link #reserveTweaks(int)}
+   * @return The concatenated hashes of the rows
    */
-  protected List<StrictBitVector> getChallenges(int size) {
-    List<StrictBitVector> list = new ArrayList<>(size);
-    for (int i = 0; i < size; i++) {
-      StrictBitVector currentToss = ct.toss(comSecParam);
-      list.add(currentToss);
+  protected byte[] hashToBytes(long[] matrix, int size, long[] offset, long tweakBase) {
+    return CorrelationRobustHash.hashToBytes(matrix, PackedBits.words(comSecParam), size, offset,
+        tweakBase);
+  }
+
+  /**
+   * Agree on a packed matrix of {@code size} coin-tossed rows, each consisting of bits reflecting
+   * the computational security used at initialization of this class.
+   *
+   * @param size The amount of rows in the resultant matrix
+   * @return The matrix of coin-tossed rows
+   */
+  protected long[] getChallenges(int size) {
+    int words = PackedBits.words(comSecParam);
+    int bytes = comSecParam / Byte.SIZE;
+    long[] res = new long[size * words];
+    for (int from = 0; from < size; from += CHUNK_SIZE) {
+      int rows = Math.min(CHUNK_SIZE, size - from);
+      byte[] tosses = ct.toss(rows * comSecParam).toByteArray();
+      for (int i = 0; i < rows; i++) {
+        PackedBits.pack(tosses, i * bytes, bytes, res, (from + i) * words);
+      }
     }
-    return list;
+    return res;
   }
 }
@@ -0,0 +1,48 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCorrelationRobustHash {
+
+  private static final int WORDS = 2;
+
+  private long[] randomMatrix(int rows) {
+    Random rand = new Random(42);
+    long[] matrix = new long[rows * WORDS];
+    for (int i = 0; i < matrix.length; i++) {
+      matrix[i] = rand.nextLong();
+    }
+    return matrix;
+  }
+
+  @Test
+  public void testTweakIsRowIndex() {
+    int rows = 3000;
+    long[] matrix = randomMatrix(rows);
+    List<StrictBitVector> all = CorrelationRobustHash.hash(matrix, WORDS, rows, null, 5000);
+    int split = 1234;
+    long[] second = Arrays.copyOfRange(matrix, split * WORDS, rows * WORDS);
+    List<StrictBitVector> first = CorrelationRobustHash.hash(matrix, WORDS, split, null, 5000);
+    List<StrictBitVector> rest =
+        CorrelationRobustHash.hash(second, WORDS, rows - split, null, 5000 + split);
+    assertEquals(all.subList(0, split), first);
+    assertEquals(all.subList(split, rows), rest);
+  }
+
+  @Test
+  public void testTweakBaseChangesHash() {
+    long[] matrix = randomMatrix(10);
+    List<StrictBitVector> hashed = CorrelationRobustHash.hash(matrix, WORDS, 10, null, 0);
+    List<StrictBitVector> rehashed = CorrelationRobustHash.hash(matrix, WORDS, 10, null, 10);
+    for (int i = 0; i < 10; i++) {
+      assertNotEquals(hashed.get(i), rehashed.get(i));
+    }
+  }
+}
@@ -204,6 +204,23 @@ public class TestFunctionalBristolOt {
 
 
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testBristolRotChunked() {
+    // More than two chunks of the underlying extension
+    int extendSize = 140000;
+    Callable<List<?>> partyOneExtend = () -> bristolRotBatchSend(senderContext, extendSize, 1);
+    Drbg rand = new AesCtrDrbg(HelperForTests.seedThree);
+    StrictBitVector choices = new StrictBitVector(extendSize, rand);
+    Callable<List<?>> partyTwoExtend = () -> bristolRotBatchReceive(receiverContext, choices, 1);
+    List<List<?>> extendResults =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneExtend, partyTwoExtend));
+    assertEquals(extendSize, extendResults.get(0).size());
+    assertEquals(extendSize, extendResults.get(1).size());
+    HelperForTests.verifyOts((List<Pair<StrictBitVector, StrictBitVector>>) extendResults.get(0),
+        (List<StrictBitVector>) extendResults.get(1), choices);
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void testBristolRotReuseSeeds() {
@@ -176,6 +176,108 @@ public class TestFunctionalOtExtension {
     HelperForTests.verifyOts(senderResults, receiverResults, choices);
   }
 
+  private List<Pair<StrictBitVector, StrictBitVector>> extendRotSenderChunked(
+      int size, int chunkSize, List<Integer> chunkSizes) {
+    RotSender rotSender = new RotSenderImpl(coteSender.getSender(),
+        senderResources, senderNetwork);
+    List<Pair<StrictBitVector, StrictBitVector>> res = new ArrayList<>(size);
+    rotSender.extend(size, chunkSize, messages -> {
+      chunkSizes.add(messages.getFirst().size());
+      for (int i = 0; i < messages.getFirst().size(); i++) {
+        res.add(new Pair<>(messages.getFirst().get(i), messages.getSecond().get(i)));
+      }
+    });
+    return res;
+  }
+
+  private List<StrictBitVector> extendRotReceiverChunked(StrictBitVector choices,
+      int chunkSize, List<Integer> chunkSizes) {
+    RotReceiver rotReceiver = new RotReceiverImpl(coteReceiver.getReceiver(),
+        receiverResources, receiverNetwork);
+    List<StrictBitVector> res = new ArrayList<>(choices.getSize());
+    rotReceiver.extend(choices, chunkSize, messages -> {
+      chunkSizes.add(messages.size());
+      res.addAll(messages);
+    });
+    return res;
+  }
+
+  /**
+   * Verify that we can extend Rot in chunks.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testRotChunked() {
+    int extendSize = 1800;
+    int chunkSize = 512;
+    List<Integer> senderChunkSizes = new ArrayList<>();
+    List<Integer> receiverChunkSizes = new ArrayList<>();
+    Callable<List<?>> partyOneExtend =
+        () -> extendRotSenderChunked(extendSize, chunkSize, senderChunkSizes);
+    StrictBitVector choices = new StrictBitVector(extendSize,
+        new AesCtrDrbg(HelperForTests.seedThree));
+    Callable<List<?>> partyTwoExtend =
+        () -> extendRotReceiverChunked(choices, chunkSize, receiverChunkSizes);
+    List<List<?>> extendResults = testRuntime.runPerPartyTasks(Arrays.asList(
+        partyOneExtend, partyTwoExtend));
+    List<Pair<StrictBitVector, StrictBitVector>> senderResults =
+        (List<Pair<StrictBitVector, StrictBitVector>>) extendResults.get(0);
+    List<StrictBitVector> receiverResults = (List<StrictBitVector>) extendResults
+        .get(1);
+    HelperForTests.verifyOts(senderResults, receiverResults, choices);
+    assertEquals(Arrays.asList(512, 512, 512, 264), senderChunkSizes);
+    assertEquals(Arrays.asList(512, 512, 512, 264), receiverChunkSizes);
+  }
+
+  private List<Pair<StrictBitVector, StrictBitVector>> extendRotSenderToBytes(int size) {
+    RotSender rotSender = new RotSenderImpl(coteSender.getSender(),
+        senderResources, senderNetwork);
+    Pair<byte[], byte[]> messages = rotSender.extendToBytes(size);
+    List<StrictBitVector> zeroMessages = split(messages.getFirst(), size);
+    List<StrictBitVector> oneMessages = split(messages.getSecond(), size);
+    List<Pair<StrictBitVector, StrictBitVector>> res = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      res.add(new Pair<>(zeroMessages.get(i), oneMessages.get(i)));
+    }
+    return res;
+  }
+
+  private List<StrictBitVector> extendRotReceiverToBytes(StrictBitVector choices) {
+    RotReceiver rotReceiver = new RotReceiverImpl(coteReceiver.getReceiver(),
+        receiverResources, receiverNetwork);
+    return split(rotReceiver.extendToBytes(choices), choices.getSize());
+  }
+
+  private static List<StrictBitVector> split(byte[] messages, int size) {
+    assertEquals(size * CorrelationRobustHash.OUTPUT_BYTES, messages.length);
+    List<StrictBitVector> res = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      res.add(new StrictBitVector(Arrays.copyOfRange(messages,
+          i * CorrelationRobustHash.OUTPUT_BYTES, (i + 1) * CorrelationRobustHash.OUTPUT_BYTES)));
+    }
+    return res;
+  }
+
+  /**
+   * Verify that we can extend Rot with the messages concatenated into byte arrays.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testRotToBytes() {
+    int extendSize = 1800;
+    Callable<List<?>> partyOneExtend = () -> extendRotSenderToBytes(extendSize);
+    StrictBitVector choices = new StrictBitVector(extendSize,
+        new AesCtrDrbg(HelperForTests.seedThree));
+    Callable<List<?>> partyTwoExtend = () -> extendRotReceiverToBytes(choices);
+    List<List<?>> extendResults = testRuntime.runPerPartyTasks(Arrays.asList(
+        partyOneExtend, partyTwoExtend));
+    List<Pair<StrictBitVector, StrictBitVector>> senderResults =
+        (List<Pair<StrictBitVector, StrictBitVector>>) extendResults.get(0);
+    List<StrictBitVector> receiverResults = (List<StrictBitVector>) extendResults
+        .get(1);
+    HelperForTests.verifyOts(senderResults, receiverResults, choices);
+  }
+
   /***** NEGATIVE TESTS. *****/
 
   /**
@@ -214,4 +316,18 @@ public class TestFunctionalOtExtension {
     assertEquals(true,
         coteSender.getSender().getDelta().getBit(corruptUVecPos, false));
   }
+
+  @Test
+  public void testRotIllegalChunkSize() {
+    RotSender rotSender = new RotSenderImpl(coteSender.getSender(),
+        senderResources, senderNetwork);
+    boolean thrown = false;
+    try {
+      rotSender.extend(1800, 100, messages -> { });
+    } catch (IllegalArgumentException e) {
+      assertEquals("The chunk size must be a positive integer divisible by 8", e.getMessage());
+      thrown = true;
+    }
+    assertTrue(thrown);
+  }
 }
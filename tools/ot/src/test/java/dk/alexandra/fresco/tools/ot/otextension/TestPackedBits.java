@@ -0,0 +1,83 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestPackedBits {
+
+  @Test
+  public void testPackUnpack() {
+    Random rand = new Random(42);
+    for (int length = 1; length <= 40; length++) {
+      byte[] bytes = new byte[length];
+      rand.nextBytes(bytes);
+      long[] packed = new long[PackedBits.words(length * Byte.SIZE) + 1];
+      PackedBits.pack(bytes, 0, length, packed, 1);
+      byte[] res = new byte[length];
+      PackedBits.unpack(packed, 1, length, res, 0);
+      assertArrayEquals(bytes, res);
+      StrictBitVector vector = new StrictBitVector(bytes);
+      assertEquals(vector, PackedBits.toBitVector(PackedBits.pack(vector), 0, vector.getSize()));
+    }
+  }
+
+  @Test
+  public void testPackMatrix() {
+    Random rand = new Random(42);
+    List<StrictBitVector> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      byte[] bytes = new byte[9];
+      rand.nextBytes(bytes);
+      rows.add(new StrictBitVector(bytes));
+    }
+    long[] matrix = PackedBits.pack(rows);
+    assertEquals(20, matrix.length);
+    for (int i = 0; i < 10; i++) {
+      // The unused bits of each row must be zero
+      assertEquals(0, matrix[2 * i + 1] & 0x00FFFFFFFFFFFFFFL);
+    }
+    assertEquals(rows, PackedBits.toBitVectors(matrix, 10, 72));
+  }
+
+  @Test
+  public void testMultiplyAdd() {
+    Random rand = new Random(42);
+    for (int test = 0; test < 100; test++) {
+      int awords = 1 + rand.nextInt(3);
+      int bwords = 1 + rand.nextInt(3);
+      long[] a = new long[awords];
+      long[] b = new long[bwords];
+      for (int i = 0; i < awords; i++) {
+        a[i] = rand.nextLong();
+      }
+      for (int i = 0; i < bwords; i++) {
+        b[i] = rand.nextLong();
+      }
+      long[] acc = new long[awords + bwords];
+      acc[0] = rand.nextLong();
+      long[] expected = acc.clone();
+      // Naive multiplication where bit i has degree i
+      for (int i = 0; i < awords * 64; i++) {
+        if (getBit(a, i)) {
+          for (int j = 0; j < bwords * 64; j++) {
+            if (getBit(b, j)) {
+              expected[(i + j) / 64] ^= 1L << (63 - (i + j) % 64);
+            }
+          }
+        }
+      }
+      PackedBits.multiplyAdd(a, 0, awords, b, 0, bwords, acc, 0);
+      assertArrayEquals(expected, acc);
+    }
+  }
+
+  private static boolean getBit(long[] vector, int index) {
+    return ((vector[index / 64] >>> (63 - index % 64)) & 1) == 1;
+  }
+}
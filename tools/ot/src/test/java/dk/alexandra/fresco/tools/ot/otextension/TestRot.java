@@ -126,9 +126,7 @@ public class TestRot {
   }
 
   @Test
-  public void testComputeBitLinearCombination() throws NoSuchMethodException,
-      SecurityException, IllegalAccessException, IllegalArgumentException,
-      InvocationTargetException {
+  public void testComputeBitLinearCombination() {
     // 0 1 0 0 0 0 0 1
     byte[] abyteOne = new byte[]{(byte) 0x41};
     // 0 1 1 1 1 1 1 1
@@ -153,12 +151,8 @@ public class TestRot {
     //      0 0 1 1 1 1 1 0
     byte[] expectedByte = new byte[]{(byte) 0x3E};
     StrictBitVector expected = new StrictBitVector(expectedByte);
-    Method computeBitLinearCombination = RotReceiverImpl.class.getDeclaredMethod(
-        "computeBitLinearCombination", StrictBitVector.class,
-        List.class);
-    computeBitLinearCombination.setAccessible(true);
-    StrictBitVector res = (StrictBitVector) computeBitLinearCombination.invoke(
-        RotReceiverImpl.class, b, alist);
+    StrictBitVector res = RotReceiverImpl.computeBitLinearCombination(b,
+        PackedBits.pack(alist), 8);
     assertEquals(true, expected.equals(res));
   }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.helper.RuntimeForTests;
+import static org.junit.Assert.assertEquals;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark measuring the throughput of random OT extension. Runs both parties in the same JVM
+ * over loopback and logs the number of random OTs extended per second, either in a single
+ * extension or in chunks. Ignored by default since it takes long to run.
+ */
+@Ignore("Benchmark, run manually")
+public class TestRotBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(TestRotBenchmark.class);
+  private static final int CHUNK_SIZE = 1 << 16;
+  private final int kbitLength = 128;
+  private final int lambdaSecurityParam = 40;
+  // Chosen such that the underlying extension uses exactly 2^20 correlated OTs
+  private final int amountOfOTs = (1 << 20) - kbitLength - lambdaSecurityParam;
+  private final int warmupIterations = 3;
+  private final int iterations = 5;
+  private int chunkSize;
+
+  @Test
+  public void testSingleExtension() {
+    benchmark(0);
+  }
+
+  @Test
+  public void testChunkedExtension() {
+    benchmark(CHUNK_SIZE);
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param chunkSize the amount of OTs in each chunk, or 0 to extend all OTs at once
+   */
+  private void benchmark(int chunkSize) {
+    this.chunkSize = chunkSize;
+    RuntimeForTests runtime = new RuntimeForTests();
+    Callable<Long> receiver = this::runReceiver;
+    Callable<Long> sender = this::runSender;
+    List<Long> times = runtime.runPerPartyTasks(Arrays.asList(receiver, sender));
+    runtime.shutdown();
+    long nanos = Math.max(times.get(0), times.get(1));
+    double perSecond = (double) amountOfOTs * iterations * 1e9 / nanos;
+    logger.info(String.format("Chunk size %d: %d random OTs per extension, %.0f random OTs per"
+        + " second", chunkSize, amountOfOTs, perSecond));
+  }
+
+  private int extend(RotReceiver receiver, StrictBitVector choices) {
+    if (chunkSize == 0) {
+      return receiver.extend(choices).size();
+    }
+    int[] amount = new int[1];
+    receiver.extend(choices, chunkSize, messages -> amount[0] += messages.size());
+    return amount[0];
+  }
+
+  private int extend(RotSender sender) {
+    if (chunkSize == 0) {
+      return sender.extend(amountOfOTs).getFirst().size();
+    }
+    int[] amount = new int[1];
+    sender.extend(amountOfOTs, chunkSize, messages -> amount[0] += messages.getFirst().size());
+    return amount[0];
+  }
+
+  private long runReceiver() throws Exception {
+    OtExtensionTestContext ctx = new OtExtensionTestContext(1, 2, kbitLength,
+        lambdaSecurityParam);
+    RotReceiver receiver = new RotFactory(ctx.createResources(1), ctx.getNetwork())
+        .createReceiver();
+    StrictBitVector choices = new StrictBitVector(amountOfOTs, ctx.createRand(2));
+    for (int i = 0; i < warmupIterations; i++) {
+      extend(receiver, choices);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      assertEquals(amountOfOTs, extend(receiver, choices));
+    }
+    long elapsed = System.nanoTime() - start;
+    ((Closeable) ctx.getNetwork()).close();
+    return elapsed;
+  }
+
+  private long runSender() throws Exception {
+    OtExtensionTestContext ctx = new OtExtensionTestContext(2, 1, kbitLength,
+        lambdaSecurityParam);
+    RotSender sender = new RotFactory(ctx.createResources(1), ctx.getNetwork()).createSender();
+    for (int i = 0; i < warmupIterations; i++) {
+      extend(sender);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      assertEquals(amountOfOTs, extend(sender));
+    }
+    long elapsed = System.nanoTime() - start;
+    ((Closeable) ctx.getNetwork()).close();
+    return elapsed;
+  }
+}
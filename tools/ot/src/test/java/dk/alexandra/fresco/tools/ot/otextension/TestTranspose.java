@@ -9,6 +9,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -37,26 +38,6 @@ public class TestTranspose {
             new StrictBitVector(new byte[] { (byte) 0x00, (byte) 0x00 })));
   }
 
-  private static List<byte[]> getSquareByteMatrix() {
-    return new ArrayList<>(Arrays.asList(
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0x00, (byte) 0x00 },
-        new byte[] { (byte) 0x00, (byte) 0x00 },
-        new byte[] { (byte) 0x00, (byte) 0x00 },
-        new byte[] { (byte) 0x00, (byte) 0x00 },
-        new byte[] { (byte) 0x00, (byte) 0x00 },
-        new byte[] { (byte) 0x00, (byte) 0x00 },
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0x00, (byte) 0x00 },
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0xFF, (byte) 0xFF },
-        new byte[] { (byte) 0x00, (byte) 0x00 }));
-  }
-
   /**
    * Setup a local Transpose class.
    */
@@ -106,105 +87,46 @@ public class TestTranspose {
   }
 
   @Test
-  public void testTransposeOneByteBlock() throws NoSuchMethodException,
-      IllegalAccessException, IllegalArgumentException,
-      InvocationTargetException {
-    /**
-     * Construct the following bit matrix
-     * 1 1 1 1 1 1 1 1, 0xFF
-     * 0 0 0 0 0 0 0 0, 0x00
-     * 0 0 0 0 0 0 0 0, 0x00
-     * 0 0 0 0 0 0 0 1, 0x01
-     * 0 0 0 0 0 0 0 0, 0x00
-     * 0 0 0 0 0 0 0 0, 0x00
-     * 0 0 0 0 0 0 0 0, 0x00
-     * 1 1 1 1 1 1 1 1, 0xFF.
-     */
-    List<byte[]> input = new ArrayList<>(
-        Arrays.asList(
-            new byte[] { (byte) 0xFF },
-            new byte[] { (byte) 0x00 },
-            new byte[] { (byte) 0x00 },
-            new byte[] { (byte) 0x01 },
-            new byte[] { (byte) 0x00 },
-            new byte[] { (byte) 0x00 },
-            new byte[] { (byte) 0x00 },
-            new byte[] { (byte) 0xFF }));
-    Method transposeByteBlock = Transpose.class.getDeclaredMethod(
-        "transposeByteBlock", List.class, int.class, int.class);
-    transposeByteBlock.setAccessible(true);
-    transposeByteBlock.invoke(Transpose.class, input, 0, 0);
-    /**
-     * Verify that the result is
-     * 1 0 0 0 0 0 0 1 0x81
-     * 1 0 0 0 0 0 0 1 0x81
-     * 1 0 0 0 0 0 0 1 0x81
-     * 1 0 0 0 0 0 0 1 0x81
-     * 1 0 0 0 0 0 0 1 0x81
-     * 1 0 0 0 0 0 0 1 0x81
-     * 1 0 0 0 0 0 0 1 0x81
-     * 1 0 0 1 0 0 0 1 0x91
-     */
-    for (int i = 0; i < 7; i++) {
-      assertEquals((byte) 0x81, input.get(i)[0]);
+  public void testTransposeSquare() {
+    // Rows 0 and 63 are all ones, row 3 only has the last bit set
+    long[] input = new long[64];
+    input[0] = -1L;
+    input[3] = 1L;
+    input[63] = -1L;
+    Transpose.transposeSquare(input);
+    // Bit 0 and 63 of all rows are set, and bit 3 of the last row
+    for (int i = 0; i < 63; i++) {
+      assertEquals(0x8000000000000001L, input[i]);
     }
-    assertEquals((byte) 0x91, input.get(7)[0]);
+    assertEquals(0x9000000000000001L, input[63]);
   }
 
   @Test
-  public void testTransposeFourByteBlocks() throws NoSuchMethodException,
-      SecurityException, IllegalAccessException, IllegalArgumentException,
-      InvocationTargetException {
-    List<byte[]> input = getSquareByteMatrix();
-    Method transposeAllByteBlocks = Transpose.class.getDeclaredMethod(
-        "transposeAllByteBlocks", List.class);
-    transposeAllByteBlocks.setAccessible(true);
-    transposeAllByteBlocks.invoke(Transpose.class, input);
-    for (int i = 0; i < 8; i++) {
-      assertEquals((byte) 0x81, input.get(i)[0]);
-    }
-    for (int i = 0; i < 8; i++) {
-      assertEquals((byte) 0x81, input.get(i)[1]);
-    }
-    for (int i = 0; i < 8; i++) {
-      assertEquals((byte) 0x7E, input.get(i + 8)[0]);
-    }
-    for (int i = 0; i < 8; i++) {
-      assertEquals((byte) 0x7E, input.get(i + 8)[1]);
-    }
-  }
-
-  @Test
-  public void testEklundh() throws NoSuchMethodException, SecurityException,
-      IllegalAccessException, IllegalArgumentException,
-      InvocationTargetException {
-    List<byte[]> input = getSquareByteMatrix();
-    Method doEklundh = Transpose.class.getDeclaredMethod("doEklundh",
-        List.class);
-    doEklundh.setAccessible(true);
-    doEklundh.invoke(Transpose.class, input);
-    List<byte[]> referenceMatrix = new ArrayList<>(
-        Arrays.asList(
-            new byte[] { (byte) 0xFF, (byte) 0x00 },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0xFF, (byte) 0x00 },
-            new byte[] { (byte) 0xFF, (byte) 0x00 },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0x00, (byte) 0xFF },
-            new byte[] { (byte) 0xFF, (byte) 0x00 }));
-
-    for (int i = 0; i < 16; i++) {
-      for (int j = 0; j < 2; j++) {
-        assertEquals(referenceMatrix.get(i)[j], input.get(i)[j]);
+  public void testPackedTranspose() {
+    Random rand = new Random(42);
+    int[][] dimensions = { { 64, 64 }, { 128, 1024 }, { 1000, 72 }, { 8, 200 }, { 130, 3 } };
+    for (int[] dimension : dimensions) {
+      int rows = dimension[0];
+      int columns = dimension[1];
+      boolean[][] bits = new boolean[rows][columns];
+      int wordsPerRow = PackedBits.words(columns);
+      long[] matrix = new long[rows * wordsPerRow];
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < columns; j++) {
+          bits[i][j] = rand.nextBoolean();
+          if (bits[i][j]) {
+            matrix[i * wordsPerRow + j / 64] |= 1L << (63 - j % 64);
+          }
+        }
+      }
+      long[] res = Transpose.transpose(matrix, rows, columns);
+      int wordsPerColumn = PackedBits.words(rows);
+      assertEquals(columns * wordsPerColumn, res.length);
+      for (int j = 0; j < columns; j++) {
+        for (int i = 0; i < wordsPerColumn * 64; i++) {
+          boolean bit = ((res[j * wordsPerColumn + i / 64] >>> (63 - i % 64)) & 1) == 1;
+          assertEquals(i < rows && bits[i][j], bit);
+        }
       }
     }
   }